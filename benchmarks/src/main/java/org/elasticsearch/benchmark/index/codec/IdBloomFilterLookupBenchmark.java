@@ -0,0 +1,161 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.index.codec;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.codecs.PostingsFormat;
+import org.apache.lucene.codecs.lucene101.Lucene101PostingsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.codec.Elasticsearch900Lucene101Codec;
+import org.elasticsearch.index.codec.bloomfilter.ES87BloomFilterPostingsFormat;
+import org.elasticsearch.index.mapper.IdFieldMapper;
+import org.elasticsearch.index.mapper.Uid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the _id lookup that the engine does for every update to resolve the current version of a document, on a shard with many
+ * segments, with and without a BloomFilter on the _id field. Like {@code VersionsAndSeqNoResolver}, lookups visit the segments from
+ * the newest to the oldest and stop at the first one that contains the id. Updated ids are picked uniformly among all segments, and
+ * ids of documents that are not in the shard yet visit every segment.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class IdBloomFilterLookupBenchmark {
+
+    static {
+        // For Elasticsearch900Lucene101Codec:
+        LogConfigurator.loadLog4jPlugins();
+        LogConfigurator.configureESLogging();
+        LogConfigurator.setNodeName("test");
+    }
+
+    private static final int LOOKUPS = 10_000;
+
+    @Param({ "false", "true" })
+    private boolean bloomFilter;
+
+    @Param({ "100" })
+    private int segments;
+
+    @Param({ "10000" })
+    private int docsPerSegment;
+
+    @Param({ "existing", "missing" })
+    private String ids;
+
+    private Path path;
+    private Directory directory;
+    private DirectoryReader reader;
+    private TermsEnum[] termsEnums;
+    private BytesRef[] lookups;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempDirectory("id-bloom-filter-");
+        directory = FSDirectory.open(path);
+        final PostingsFormat bloomFilterPostingsFormat = new ES87BloomFilterPostingsFormat(
+            BigArrays.NON_RECYCLING_INSTANCE,
+            field -> new Lucene101PostingsFormat()
+        );
+        final IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+        config.setMergePolicy(NoMergePolicy.INSTANCE);
+        config.setCodec(new Elasticsearch900Lucene101Codec() {
+            @Override
+            public PostingsFormat getPostingsFormatForField(String field) {
+                if (bloomFilter && IdFieldMapper.NAME.equals(field)) {
+                    return bloomFilterPostingsFormat;
+                }
+                return super.getPostingsFormatForField(field);
+            }
+        });
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            int id = 0;
+            for (int segment = 0; segment < segments; segment++) {
+                for (int i = 0; i < docsPerSegment; i++) {
+                    Document doc = new Document();
+                    doc.add(new StringField(IdFieldMapper.NAME, Uid.encodeId(Integer.toString(id++)), Field.Store.NO));
+                    writer.addDocument(doc);
+                }
+                writer.flush();
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        final List<LeafReaderContext> leaves = reader.leaves();
+        termsEnums = new TermsEnum[leaves.size()];
+        for (LeafReaderContext leaf : leaves) {
+            termsEnums[leaf.ord] = leaf.reader().terms(IdFieldMapper.NAME).iterator();
+        }
+        final Random random = new Random(42);
+        final int totalDocs = segments * docsPerSegment;
+        lookups = new BytesRef[LOOKUPS];
+        for (int i = 0; i < lookups.length; i++) {
+            int id = ids.equals("existing") ? random.nextInt(totalDocs) : totalDocs + random.nextInt(totalDocs);
+            lookups[i] = Uid.encodeId(Integer.toString(id));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int lookupIds() throws IOException {
+        int found = 0;
+        for (BytesRef id : lookups) {
+            for (int i = termsEnums.length - 1; i >= 0; i--) {
+                if (termsEnums[i].seekExact(id)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.index.engine.LiveVersionMap;
+import org.elasticsearch.index.engine.VersionValue;
+import org.elasticsearch.index.mapper.Uid;
+import org.elasticsearch.index.translog.Translog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the refresh cycles of the version map on an update-heavy index: every invocation starts a new map, presized like the
+ * version map does on refresh, and applies a batch of updates that each look up the previous version first. The map of the previous
+ * cycle is kept reachable until the next one completes, like the "old" map is while a refresh is running, and is then closed.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation rates and GC time of the {@link LiveVersionMap.Type}s.
+ */
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 7)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class LiveVersionMapBenchmark {
+
+    @Param({ "heap", "paged" })
+    private String type;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int updatesPerRefresh;
+
+    private final CircuitBreaker breaker = new NoopCircuitBreaker(CircuitBreaker.REQUEST);
+
+    private LiveVersionMap.Type mapType;
+    private BytesRef[] uids;
+    private int[] order;
+    private Map<BytesRef, VersionValue> old;
+    private long seqNo;
+
+    @Setup
+    public void setup() {
+        mapType = LiveVersionMap.Type.valueOf(type.toUpperCase(Locale.ROOT));
+        // a third of the updates hit an id that was already updated during the same refresh cycle
+        uids = new BytesRef[updatesPerRefresh * 2 / 3];
+        for (int i = 0; i < uids.length; i++) {
+            uids[i] = Uid.encodeId(Integer.toString(i));
+        }
+        Random random = new Random(42);
+        order = new int[updatesPerRefresh];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = random.nextInt(uids.length);
+        }
+        old = mapType.newMap(0, breaker);
+    }
+
+    @Benchmark
+    public Map<BytesRef, VersionValue> refreshCycle() {
+        final Map<BytesRef, VersionValue> current = mapType.newMap(old.size(), breaker);
+        for (int i : order) {
+            final BytesRef uid = uids[i];
+            final long nextSeqNo = seqNo++;
+            final long version = current.get(uid) == null ? 1 : nextSeqNo;
+            current.put(uid, VersionValue.ofIndex(new Translog.Location(1, nextSeqNo * 128, 128), version, nextSeqNo, 1));
+        }
+        if (old instanceof Releasable releasable) {
+            releasable.close();
+        }
+        old = current;
+        return current;
+    }
+}
@@ -10,17 +10,24 @@
 package org.elasticsearch.indices;
 
 import org.elasticsearch.action.admin.indices.alias.Alias;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.support.broadcast.BroadcastResponse;
 import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateFormatter;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.MergePolicyConfig;
 import org.elasticsearch.index.cache.request.RequestCacheStats;
+import org.elasticsearch.index.cache.request.SegmentAggregationCacheStats;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.aggregations.bucket.MultiBucketsAggregation.Bucket;
 import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.test.ESIntegTestCase;
 import org.elasticsearch.test.hamcrest.ElasticsearchAssertions;
 
@@ -29,12 +36,16 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.elasticsearch.search.aggregations.AggregationBuilders.dateHistogram;
 import static org.elasticsearch.search.aggregations.AggregationBuilders.dateRange;
 import static org.elasticsearch.search.aggregations.AggregationBuilders.filter;
+import static org.elasticsearch.search.aggregations.AggregationBuilders.terms;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailuresAndResponse;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertResponse;
 import static org.hamcrest.Matchers.equalTo;
@@ -607,6 +618,81 @@ public class IndicesRequestCacheIT extends ESIntegTestCase {
         }
     }
 
+    /**
+     * Aggregation results of a segment are only reused by requests whose matches in that segment don't depend on the rest of the
+     * shard, a {@code min_score} depends on the document frequencies of the whole shard.
+     */
+    public void testSegmentAggregationsAfterRefresh() {
+        assertAcked(
+            indicesAdmin().prepareCreate("index")
+                .setMapping("t", "type=text", "k", "type=keyword")
+                .setSettings(
+                    Settings.builder()
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0)
+                        .put(IndicesRequestCache.INDEX_CACHE_REQUEST_ENABLED_SETTING.getKey(), true)
+                        .put(SegmentAggregationCache.INDEX_SEGMENT_AGGREGATION_CACHE_ENABLED_SETTING.getKey(), true)
+                        .put(MergePolicyConfig.INDEX_MERGE_ENABLED, false)
+                        .put(IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.getKey(), -1)
+                )
+        );
+        // a rare term in a segment that is large enough to be cached
+        BulkRequestBuilder bulk = client().prepareBulk();
+        bulk.add(prepareIndex("index").setSource("t", "a", "k", "rare"));
+        for (int i = 1; i < 1000; i++) {
+            bulk.add(prepareIndex("index").setSource("t", "b", "k", "common"));
+        }
+        assertNoFailures(bulk.get());
+        refresh("index");
+
+        SearchRequestBuilder minScore = prepareSearch("index").setSize(0)
+            .setQuery(QueryBuilders.matchQuery("t", "a"))
+            .setMinScore(1f)
+            .addAggregation(terms("k").field("k"));
+        SearchRequestBuilder filter = prepareSearch("index").setSize(0)
+            .setQuery(QueryBuilders.termQuery("t", "a"))
+            .addAggregation(terms("k").field("k"));
+        assertTermsBuckets(minScore, Map.of("rare", 1L));
+        assertTermsBuckets(filter, Map.of("rare", 1L));
+        assertSegmentAggregationsCacheState(0, 1);
+
+        // the term isn't rare anymore, so the document of the first segment is no longer above the minimum score
+        bulk = client().prepareBulk();
+        for (int i = 0; i < 2000; i++) {
+            bulk.add(prepareIndex("index").setSource("t", "a", "k", "new"));
+        }
+        assertNoFailures(bulk.get());
+        refresh("index");
+
+        assertTermsBuckets(minScore, Map.of());
+        assertTermsBuckets(filter, Map.of("rare", 1L, "new", 2000L));
+        // only the filter reused the results of the first segment
+        assertSegmentAggregationsCacheState(1, 2);
+    }
+
+    private static void assertTermsBuckets(SearchRequestBuilder request, Map<String, Long> expected) {
+        for (boolean requestCache : new boolean[] { true, false }) {
+            assertNoFailuresAndResponse(request.setRequestCache(requestCache), response -> {
+                Terms terms = response.getAggregations().get("k");
+                Map<String, Long> buckets = new HashMap<>();
+                for (Terms.Bucket bucket : terms.getBuckets()) {
+                    buckets.put(bucket.getKeyAsString(), bucket.getDocCount());
+                }
+                assertEquals(expected, buckets);
+            });
+        }
+    }
+
+    private static void assertSegmentAggregationsCacheState(long expectedHits, long expectedMisses) {
+        SegmentAggregationCacheStats stats = indicesAdmin().prepareStats("index")
+            .setRequestCache(true)
+            .get()
+            .getTotal()
+            .getRequestCache()
+            .getSegmentAggregations();
+        assertEquals(List.of(expectedHits, expectedMisses), List.of(stats.getHitCount(), stats.getMissCount()));
+    }
+
     private static void assertCacheState(Client client, String index, long expectedHits, long expectedMisses) {
         RequestCacheStats requestCacheStats = client.admin()
             .indices()
@@ -290,6 +290,19 @@ public class TransportVersions {
     public static final TransportVersion IDP_CUSTOM_SAML_ATTRIBUTES_ALLOW_LIST = def(9_091_0_00);
     public static final TransportVersion SEARCH_SOURCE_EXCLUDE_VECTORS_PARAM = def(9_092_0_00);
     public static final TransportVersion SNAPSHOT_INDEX_SHARD_STATUS_MISSING_STATS = def(9_093_0_00);
+    public static final TransportVersion TRANSLOG_SYNC_STATS = def(9_094_0_00);
+    public static final TransportVersion REFRESH_STATS_DEFERRED = def(9_095_0_00);
+    public static final TransportVersion REQUEST_CACHE_STATS_COALESCED = def(9_096_0_00);
+    public static final TransportVersion SEARCH_PROFILE_SEGMENT_PARTITIONS = def(9_097_0_00);
+    public static final TransportVersion GLOBAL_ORDINALS_REUSE_STATS = def(9_098_0_00);
+    public static final TransportVersion ESQL_HASH_OPERATOR_STATUS_SPILL = def(9_099_0_00);
+    public static final TransportVersion ESQL_TOPN_STATUS_SPILL = def(9_100_0_00);
+    public static final TransportVersion ESQL_HASH_JOIN_STATUS = def(9_101_0_00);
+    public static final TransportVersion ESQL_HASH_PARTITIONED_EXCHANGE_SINK_STATUS = def(9_102_0_00);
+    public static final TransportVersion ESQL_VECTOR_ENCODINGS = def(9_103_0_00);
+    public static final TransportVersion FS_DEVICE_STATS_READ_WRITE_TIME = def(9_104_0_00);
+    public static final TransportVersion SEGMENT_AGGREGATION_CACHE_STATS = def(9_105_0_00);
+    public static final TransportVersion ESQL_EXCHANGE_SINK_ENCODED_BYTES = def(9_106_0_00);
 
     /*
      * STOP! READ THIS FIRST! No, really,
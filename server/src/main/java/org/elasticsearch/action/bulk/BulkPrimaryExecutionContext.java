@@ -16,12 +16,25 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
 import org.elasticsearch.action.support.replication.TransportWriteAction;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.plugins.internal.DocumentParsingProvider;
+import org.elasticsearch.plugins.internal.XContentMeteringParserDecorator;
+import org.elasticsearch.xcontent.XContentParser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
 
 /**
  * This is a utility class that holds the per request state needed to perform bulk operations on the primary.
@@ -63,10 +76,25 @@ class BulkPrimaryExecutionContext {
     private BulkItemResponse executionResult;
     private int updateRetryCounter;
     private long noopMappingUpdateRetryForMappingVersion;
+    // the index of the first item that hasn't been looked at to batch dynamic mapping updates yet
+    private int mappingUpdateLookaheadEnd = 0;
+    // documents parsed while batching dynamic mapping updates, and the mapping they can be indexed with without parsing them again
+    private final Map<IndexRequest, ParsedDocument> parsedAhead = new IdentityHashMap<>();
+    private CompressedXContent parsedAheadMappingSource;
+    // accounts the documents that are parsed ahead in the indexing pressure while they are kept
+    private final LongFunction<Releasable> parsedAheadBytesTracker;
+    private Releasable parsedAheadBytes = () -> {};
+    // the metered sizes of documents that were parsed ahead but have to be parsed again, so that they are metered only once
+    private final Map<IndexRequest, Long> meteredAhead = new IdentityHashMap<>();
 
     BulkPrimaryExecutionContext(BulkShardRequest request, IndexShard primary) {
+        this(request, primary, bytes -> () -> {});
+    }
+
+    BulkPrimaryExecutionContext(BulkShardRequest request, IndexShard primary, LongFunction<Releasable> parsedAheadBytesTracker) {
         this.request = request;
         this.primary = primary;
+        this.parsedAheadBytesTracker = parsedAheadBytesTracker;
         advance();
     }
 
@@ -152,6 +180,126 @@ class BulkPrimaryExecutionContext {
         return request.items()[currentIndex];
     }
 
+    /**
+     * Returns up to {@code maxRequests} append-only index requests, i.e. index requests with an auto-generated id, that directly follow
+     * the current item, so that their dynamic mapping updates can be sent to the master together with the one of the current item. Stops
+     * at the first other request so that mapping updates are still applied in the order of the items. Every item is returned at most
+     * once, later items that require a mapping update won't look at items that have already been returned.
+     */
+    public List<IndexRequest> nextAppendOnlyIndexRequests(int maxRequests) {
+        if (currentIndex < mappingUpdateLookaheadEnd) {
+            return List.of();
+        }
+        final BulkItemRequest[] items = request.items();
+        final List<IndexRequest> indexRequests = new ArrayList<>();
+        int index = currentIndex + 1;
+        for (; index < items.length && indexRequests.size() < maxRequests; index++) {
+            if (isAborted(items[index].getPrimaryResponse())) {
+                continue;
+            }
+            if (items[index].request() instanceof IndexRequest indexRequest
+                && indexRequest.getAutoGeneratedTimestamp() != IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP) {
+                indexRequests.add(indexRequest);
+            } else {
+                break;
+            }
+        }
+        mappingUpdateLookaheadEnd = index;
+        return indexRequests;
+    }
+
+    /**
+     * Keeps documents that were parsed while looking ahead for dynamic mapping updates and don't require a mapping update, so that they
+     * are indexed without parsing them again, as long as the mapping of the shard is the given one once they are executed. The
+     * documents are accounted in the indexing pressure while they are kept, and are only kept if it doesn't reject them.
+     */
+    public void setParsedAhead(Map<IndexRequest, ParsedDocument> docs, CompressedXContent mappingSource) {
+        clearParsedAhead();
+        if (docs.isEmpty()) {
+            return;
+        }
+        long bytes = 0;
+        for (IndexRequest indexRequest : docs.keySet()) {
+            // the parsed document is estimated to take as much memory as its source
+            bytes += indexRequest.source().length();
+        }
+        try {
+            parsedAheadBytes = parsedAheadBytesTracker.apply(bytes);
+        } catch (EsRejectedExecutionException e) {
+            docs.forEach((indexRequest, doc) -> addMeteredAhead(indexRequest, doc.getNormalizedSize()));
+            return;
+        }
+        parsedAhead.putAll(docs);
+        parsedAheadMappingSource = mappingSource;
+    }
+
+    /**
+     * Drops the documents that were parsed ahead, for instance because the mapping update they were parsed for was rejected, and
+     * releases them from the indexing pressure. Their metered sizes are kept for when they are parsed again.
+     */
+    public void clearParsedAhead() {
+        parsedAhead.forEach((indexRequest, doc) -> addMeteredAhead(indexRequest, doc.getNormalizedSize()));
+        parsedAhead.clear();
+        parsedAheadMappingSource = null;
+        releaseParsedAheadBytes();
+    }
+
+    private void releaseParsedAheadBytes() {
+        final Releasable bytes = parsedAheadBytes;
+        parsedAheadBytes = () -> {};
+        bytes.close();
+    }
+
+    /**
+     * Returns the document of the given request if it was parsed ahead and the mapping of the shard is still the one it can be indexed
+     * with, {@code null} otherwise. Every document is returned at most once.
+     */
+    @Nullable
+    public ParsedDocument takeParsedAhead(IndexRequest request) {
+        final ParsedDocument doc = parsedAhead.remove(request);
+        if (doc == null) {
+            return null;
+        }
+        if (parsedAhead.isEmpty()) {
+            releaseParsedAheadBytes();
+        }
+        final DocumentMapper documentMapper = primary.mapperService().documentMapper();
+        if (documentMapper == null || documentMapper.mappingSource().equals(parsedAheadMappingSource) == false) {
+            addMeteredAhead(request, doc.getNormalizedSize());
+            return null;
+        }
+        return doc;
+    }
+
+    /**
+     * Remembers the metered size of a document that was parsed ahead but has to be parsed again.
+     */
+    public void addMeteredAhead(IndexRequest request, long meteredSize) {
+        meteredAhead.put(request, meteredSize);
+    }
+
+    /**
+     * Returns the metering decorator to parse the given request with: one that reports the size the document was already metered with
+     * if it was parsed ahead, so that it isn't metered twice, a new one from the given provider otherwise.
+     */
+    public XContentMeteringParserDecorator meteringParserDecorator(IndexRequest request, DocumentParsingProvider documentParsingProvider) {
+        final Long meteredSize = meteredAhead.remove(request);
+        if (meteredSize == null) {
+            return documentParsingProvider.newMeteringParserDecorator(request);
+        }
+        return new XContentMeteringParserDecorator() {
+            @Override
+            public long meteredDocumentSize() {
+                return meteredSize;
+            }
+
+            @Override
+            public XContentParser decorate(XContentParser xContentParser) {
+                return xContentParser;
+            }
+        };
+    }
+
     /** returns the primary shard */
     public IndexShard getPrimary() {
         return primary;
@@ -18,13 +18,20 @@ import org.elasticsearch.action.support.replication.ReplicatedWriteRequest;
 import org.elasticsearch.action.support.replication.ReplicationRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.cluster.metadata.InferenceFieldMetadata;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.FilterStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.util.set.Sets;
+import org.elasticsearch.core.AbstractRefCounted;
+import org.elasticsearch.core.RefCounted;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.transport.RawIndexingDataTransportRequest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,14 +47,49 @@ public final class BulkShardRequest extends ReplicatedWriteRequest<BulkShardRequ
 
     private transient Map<String, InferenceFieldMetadata> inferenceFieldMap = null;
 
+    // Releases the sources of the items that were read from the network without being copied, so that they don't outlive the request.
+    private final RefCounted refCounted;
+
     public BulkShardRequest(StreamInput in) throws IOException {
         super(in);
-        items = in.readArray(i -> i.readOptionalWriteable(inpt -> new BulkItemRequest(shardId, inpt)), BulkItemRequest[]::new);
-        if (in.getTransportVersion().onOrAfter(TransportVersions.V_8_15_0)) {
-            isSimulated = in.readBoolean();
-        } else {
-            isSimulated = false;
+        // the sources the items retain instead of copying, tracked as they are read so that they are released if reading fails
+        final List<ReleasableBytesReference> sources = new ArrayList<>();
+        final StreamInput itemsIn = new FilterStreamInput(in) {
+            @Override
+            public ReleasableBytesReference readReleasableBytesReference() throws IOException {
+                return retained(super.readReleasableBytesReference());
+            }
+
+            @Override
+            public ReleasableBytesReference readReleasableBytesReference(int length) throws IOException {
+                return retained(super.readReleasableBytesReference(length));
+            }
+
+            @Override
+            public ReleasableBytesReference readAllToReleasableBytesReference() throws IOException {
+                return retained(super.readAllToReleasableBytesReference());
+            }
+
+            private ReleasableBytesReference retained(ReleasableBytesReference bytes) {
+                sources.add(bytes);
+                return bytes;
+            }
+        };
+        boolean success = false;
+        try {
+            items = itemsIn.readArray(i -> i.readOptionalWriteable(inpt -> new BulkItemRequest(shardId, inpt)), BulkItemRequest[]::new);
+            if (in.getTransportVersion().onOrAfter(TransportVersions.V_8_15_0)) {
+                isSimulated = in.readBoolean();
+            } else {
+                isSimulated = false;
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                Releasables.close(sources);
+            }
         }
+        refCounted = sources.isEmpty() ? RefCounted.ALWAYS_REFERENCED : AbstractRefCounted.of(() -> Releasables.close(sources));
     }
 
     public BulkShardRequest(ShardId shardId, RefreshPolicy refreshPolicy, BulkItemRequest[] items) {
@@ -59,6 +101,7 @@ public final class BulkShardRequest extends ReplicatedWriteRequest<BulkShardRequ
         this.items = items;
         setRefreshPolicy(refreshPolicy);
         this.isSimulated = isSimulated;
+        this.refCounted = RefCounted.ALWAYS_REFERENCED;
     }
 
     /**
@@ -208,6 +251,26 @@ public final class BulkShardRequest extends ReplicatedWriteRequest<BulkShardRequ
         }
     }
 
+    @Override
+    public void incRef() {
+        refCounted.incRef();
+    }
+
+    @Override
+    public boolean tryIncRef() {
+        return refCounted.tryIncRef();
+    }
+
+    @Override
+    public boolean decRef() {
+        return refCounted.decRef();
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return refCounted.hasReferences();
+    }
+
     @Override
     public long ramBytesUsed() {
         long sum = SHALLOW_SIZE;
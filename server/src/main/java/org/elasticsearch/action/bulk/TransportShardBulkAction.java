@@ -41,6 +41,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
@@ -52,7 +53,9 @@ import org.elasticsearch.index.mapper.DocumentMapper;
 import org.elasticsearch.index.mapper.InferenceMetadataFieldsMapper;
 import org.elasticsearch.index.mapper.MapperException;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.index.mapper.RoutingFieldMapper;
 import org.elasticsearch.index.mapper.SourceToParse;
 import org.elasticsearch.index.seqno.SequenceNumbers;
@@ -71,9 +74,13 @@ import org.elasticsearch.transport.TransportService;
 import org.elasticsearch.xcontent.XContentType;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.LongFunction;
 import java.util.function.LongSupplier;
 import java.util.function.ObjLongConsumer;
 
@@ -94,6 +101,10 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
     // 3. Parsed string fields create new copies of their data, further increasing memory consumption.
     private static final int MAX_EXPANDED_OPERATION_MEMORY_OVERHEAD_FACTOR = 4;
 
+    // The maximum number of append-only index requests whose dynamic mapping updates are sent to the master together with the mapping
+    // update of the item that triggered it. These documents get parsed one more time, so this bounds the extra work per mapping update.
+    static final int MAX_BATCHED_MAPPING_UPDATE_REQUESTS = 128;
+
     private final UpdateHelper updateHelper;
     private final MappingUpdatedAction mappingUpdatedAction;
     private final Consumer<Runnable> postWriteAction;
@@ -202,7 +213,15 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             var index = primary.shardId().getIndex();
             var indexMetadata = clusterState.metadata().lookupProject(index).map(p -> p.index(index)).orElse(null);
             return indexMetadata == null || (indexMetadata.mapping() != null && indexMetadata.getMappingVersion() != initialMappingVersion);
-        }), listener, executor(primary), postWriteRefresh, postWriteAction, documentParsingProvider);
+        }),
+            listener,
+            executor(primary),
+            postWriteRefresh,
+            postWriteAction,
+            documentParsingProvider,
+            // documents parsed ahead of their execution are kept across the mapping update, on top of the request's own bytes
+            bytes -> indexingPressure.trackPrimaryOperationExpansion(0, bytes, force(request))
+        );
     }
 
     @Override
@@ -262,10 +281,40 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         @Nullable PostWriteRefresh postWriteRefresh,
         @Nullable Consumer<Runnable> postWriteAction,
         DocumentParsingProvider documentParsingProvider
+    ) {
+        performOnPrimary(
+            request,
+            primary,
+            updateHelper,
+            nowInMillisSupplier,
+            mappingUpdater,
+            waitForMappingUpdate,
+            listener,
+            executor,
+            postWriteRefresh,
+            postWriteAction,
+            documentParsingProvider,
+            bytes -> () -> {}
+        );
+    }
+
+    public static void performOnPrimary(
+        BulkShardRequest request,
+        IndexShard primary,
+        UpdateHelper updateHelper,
+        LongSupplier nowInMillisSupplier,
+        MappingUpdatePerformer mappingUpdater,
+        ObjLongConsumer<ActionListener<Void>> waitForMappingUpdate,
+        ActionListener<PrimaryResult<BulkShardRequest, BulkShardResponse>> listener,
+        Executor executor,
+        @Nullable PostWriteRefresh postWriteRefresh,
+        @Nullable Consumer<Runnable> postWriteAction,
+        DocumentParsingProvider documentParsingProvider,
+        LongFunction<Releasable> parsedAheadBytesTracker
     ) {
         new ActionRunnable<>(listener) {
 
-            private final BulkPrimaryExecutionContext context = new BulkPrimaryExecutionContext(request, primary);
+            private final BulkPrimaryExecutionContext context = new BulkPrimaryExecutionContext(request, primary, parsedAheadBytesTracker);
 
             final long startBulkTime = System.nanoTime();
 
@@ -329,6 +378,7 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             }
 
             private void finishRequest() {
+                context.clearParsedAhead();
                 ActionListener.completeWith(
                     listener,
                     () -> new WritePrimaryResult<>(
@@ -406,26 +456,28 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             );
         } else {
             final IndexRequest request = context.getRequestToExecute();
-
-            XContentMeteringParserDecorator meteringParserDecorator = documentParsingProvider.newMeteringParserDecorator(request);
-            final SourceToParse sourceToParse = new SourceToParse(
-                request.id(),
-                request.source(),
-                request.getContentType(),
-                request.routing(),
-                request.getDynamicTemplates(),
-                request.getIncludeSourceOnError(),
-                meteringParserDecorator
-            );
-            result = primary.applyIndexOperationOnPrimary(
-                version,
-                request.versionType(),
-                sourceToParse,
-                request.ifSeqNo(),
-                request.ifPrimaryTerm(),
-                request.getAutoGeneratedTimestamp(),
-                request.isRetry()
-            );
+            final ParsedDocument parsedAhead = context.takeParsedAhead(request);
+            if (parsedAhead != null) {
+                result = primary.applyIndexOperationOnPrimary(
+                    version,
+                    request.versionType(),
+                    parsedAhead,
+                    request.ifSeqNo(),
+                    request.ifPrimaryTerm(),
+                    request.getAutoGeneratedTimestamp(),
+                    request.isRetry()
+                );
+            } else {
+                result = primary.applyIndexOperationOnPrimary(
+                    version,
+                    request.versionType(),
+                    sourceToParse(request, context.meteringParserDecorator(request, documentParsingProvider)),
+                    request.ifSeqNo(),
+                    request.ifPrimaryTerm(),
+                    request.getAutoGeneratedTimestamp(),
+                    request.isRetry()
+                );
+            }
             if (result.getResultType() == Engine.Result.Type.MAPPING_UPDATE_REQUIRED) {
                 return handleMappingUpdateRequired(
                     context,
@@ -435,7 +487,8 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
                     primary,
                     result,
                     version,
-                    updateResult
+                    updateResult,
+                    documentParsingProvider
                 );
             }
         }
@@ -453,6 +506,18 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         return new String[] { RoutingFieldMapper.NAME };
     }
 
+    private static SourceToParse sourceToParse(IndexRequest request, XContentMeteringParserDecorator meteringParserDecorator) {
+        return new SourceToParse(
+            request.id(),
+            request.source(),
+            request.getContentType(),
+            request.routing(),
+            request.getDynamicTemplates(),
+            request.getIncludeSourceOnError(),
+            meteringParserDecorator
+        );
+    }
+
     private static boolean handleMappingUpdateRequired(
         BulkPrimaryExecutionContext context,
         MappingUpdatePerformer mappingUpdater,
@@ -461,12 +526,14 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         IndexShard primary,
         Engine.Result result,
         long version,
-        UpdateHelper.Result updateResult
+        UpdateHelper.Result updateResult,
+        DocumentParsingProvider documentParsingProvider
     ) {
         final var mapperService = primary.mapperService();
         final long initialMappingVersion = mapperService.mappingVersion();
+        final CompressedXContent mergedSource;
         try {
-            CompressedXContent mergedSource = mapperService.merge(
+            mergedSource = mapperService.merge(
                 MapperService.SINGLE_MAPPING_NAME,
                 new CompressedXContent(result.getRequiredMappingUpdate()),
                 MapperService.MergeReason.MAPPING_AUTO_UPDATE_PREFLIGHT
@@ -483,7 +550,14 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             return true;
         }
 
-        mappingUpdater.updateMappings(result.getRequiredMappingUpdate(), primary.shardId(), new ActionListener<>() {
+        final Mapping mappingUpdate = batchMappingUpdates(
+            context,
+            primary,
+            result.getRequiredMappingUpdate(),
+            mergedSource,
+            documentParsingProvider
+        );
+        final ActionListener<Void> mappingUpdateListener = new ActionListener<>() {
             @Override
             public void onResponse(Void v) {
                 context.markAsRequiringMappingUpdate();
@@ -508,10 +582,90 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
                 assert context.isInitial();
                 itemDoneListener.onResponse(null);
             }
-        });
+        };
+        if (mappingUpdate == result.getRequiredMappingUpdate()) {
+            mappingUpdater.updateMappings(mappingUpdate, primary.shardId(), mappingUpdateListener);
+        } else {
+            mappingUpdater.updateMappings(mappingUpdate, primary.shardId(), mappingUpdateListener.delegateResponse((l, e) -> {
+                // the master may reject the batched update because of a later document, which must not fail the current item
+                logger.debug(
+                    () -> format("%s batched mapping update rejected, retrying with the update of the current item", primary.shardId()),
+                    e
+                );
+                context.clearParsedAhead();
+                mappingUpdater.updateMappings(result.getRequiredMappingUpdate(), primary.shardId(), l);
+            }));
+        }
         return false;
     }
 
+    /**
+     * Adds the dynamic mapping updates of the append-only index requests that follow the current item to the mapping update of the
+     * current item, so that a bulk request that introduces new fields in many of its documents doesn't need to wait for one cluster state
+     * update per document. Falls back to the mapping update of the current item if the batched update can't be merged, so that the
+     * current item doesn't fail because of a later document.
+     * <p>
+     * The documents that don't require a mapping update are kept so that they are indexed without parsing them again, if the mapping of
+     * the shard is the one this update produces by the time they are executed, and are accounted in the indexing pressure until then.
+     * The others are parsed again once the update is applied, with the size they were metered with while looking ahead.
+     */
+    private static Mapping batchMappingUpdates(
+        BulkPrimaryExecutionContext context,
+        IndexShard primary,
+        Mapping mappingUpdate,
+        CompressedXContent mergedSource,
+        DocumentParsingProvider documentParsingProvider
+    ) {
+        final List<IndexRequest> indexRequests = context.nextAppendOnlyIndexRequests(MAX_BATCHED_MAPPING_UPDATE_REQUESTS);
+        if (indexRequests.isEmpty()) {
+            return mappingUpdate;
+        }
+        final List<SourceToParse> sources = new ArrayList<>(indexRequests.size());
+        for (IndexRequest request : indexRequests) {
+            sources.add(sourceToParse(request, documentParsingProvider.newMeteringParserDecorator(request)));
+        }
+        try {
+            final ParsedDocument[] docs = primary.parseAhead(sources);
+            final Map<IndexRequest, ParsedDocument> parsedAhead = new IdentityHashMap<>();
+            Mapping batched = mappingUpdate;
+            for (int i = 0; i < docs.length; i++) {
+                final ParsedDocument doc = docs[i];
+                if (doc == null) {
+                    continue;
+                }
+                final Mapping docUpdate = doc.dynamicMappingsUpdate();
+                if (docUpdate == null) {
+                    parsedAhead.put(indexRequests.get(i), doc);
+                    continue;
+                }
+                // the document is parsed again once the update is applied, but it doesn't need to be metered again
+                context.addMeteredAhead(indexRequests.get(i), doc.getNormalizedSize());
+                try {
+                    batched = batched.mergeDynamicMappingsUpdate(docUpdate);
+                } catch (Exception e) {
+                    // the document reports the conflict once it gets indexed
+                    logger.trace(() -> format("%s skipping dynamic mapping update of document [%s]", primary.shardId(), doc.id()), e);
+                }
+            }
+            CompressedXContent batchedSource = mergedSource;
+            if (batched != mappingUpdate) {
+                batchedSource = primary.mapperService()
+                    .merge(
+                        MapperService.SINGLE_MAPPING_NAME,
+                        new CompressedXContent(batched),
+                        MapperService.MergeReason.MAPPING_AUTO_UPDATE_PREFLIGHT
+                    )
+                    .mappingSource();
+            }
+            context.setParsedAhead(parsedAhead, batchedSource);
+            return batched;
+        } catch (Exception e) {
+            logger.debug(() -> format("%s failed to batch mapping updates of [%s] requests", primary.shardId(), sources.size()), e);
+            context.clearParsedAhead();
+            return mappingUpdate;
+        }
+    }
+
     private static Engine.Result exceptionToResult(Exception e, IndexShard primary, boolean isDelete, long version, String id) {
         assert id != null;
         return isDelete ? primary.getFailedDeleteResult(e, version, id) : primary.getFailedIndexResult(e, version, id);
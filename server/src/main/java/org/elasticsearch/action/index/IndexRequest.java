@@ -165,7 +165,8 @@ public class IndexRequest extends ReplicatedWriteRequest<IndexRequest> implement
         }
         id = in.readOptionalString();
         routing = in.readOptionalString();
-        source = in.readBytesReference();
+        // shard level requests retain the network buffer instead of copying the source, see BulkShardRequest#decRef
+        source = shardId == null ? in.readBytesReference() : in.readReleasableBytesReference();
         opType = OpType.fromId(in.readByte());
         version = in.readLong();
         versionType = VersionType.fromValue(in.readByte());
@@ -25,7 +25,9 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchContextMissingException;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -35,6 +37,7 @@ import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.ShardSearchContextId;
 import org.elasticsearch.search.internal.ShardSearchRequest;
+import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.transport.Transport;
 
 import java.util.ArrayList;
@@ -93,6 +96,8 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
     private final Map<String, PendingExecutions> pendingExecutionsPerNode;
     private final AtomicBoolean requestCancelled = new AtomicBoolean();
     private final int skippedCount;
+    @Nullable
+    private final SearchShardHedging.Hedger hedger;
 
     // protected for tests
     protected final SubscribableListener<Void> doneFuture = new SubscribableListener<>();
@@ -115,6 +120,48 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         SearchPhaseResults<Result> resultConsumer,
         int maxConcurrentRequestsPerNode,
         SearchResponse.Clusters clusters
+    ) {
+        this(
+            name,
+            logger,
+            namedWriteableRegistry,
+            searchTransportService,
+            nodeIdToConnection,
+            aliasFilter,
+            concreteIndexBoosts,
+            executor,
+            request,
+            listener,
+            shardsIts,
+            timeProvider,
+            clusterState,
+            task,
+            resultConsumer,
+            maxConcurrentRequestsPerNode,
+            clusters,
+            null
+        );
+    }
+
+    AbstractSearchAsyncAction(
+        String name,
+        Logger logger,
+        NamedWriteableRegistry namedWriteableRegistry,
+        SearchTransportService searchTransportService,
+        BiFunction<String, String, Transport.Connection> nodeIdToConnection,
+        Map<String, AliasFilter> aliasFilter,
+        Map<String, Float> concreteIndexBoosts,
+        Executor executor,
+        SearchRequest request,
+        ActionListener<SearchResponse> listener,
+        List<SearchShardIterator> shardsIts,
+        SearchTimeProvider timeProvider,
+        ClusterState clusterState,
+        SearchTask task,
+        SearchPhaseResults<Result> resultConsumer,
+        int maxConcurrentRequestsPerNode,
+        SearchResponse.Clusters clusters,
+        @Nullable SearchShardHedging.Hedger hedger
     ) {
         super(name);
         this.namedWriteableRegistry = namedWriteableRegistry;
@@ -155,6 +202,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         // at the end of the search
         addReleasable(resultConsumer);
         this.clusters = clusters;
+        this.hedger = hedger;
     }
 
     protected void notifyListShards(
@@ -262,6 +310,13 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
     }
 
     private void doPerformPhaseOnShard(int shardIndex, SearchShardIterator shardIt, SearchShardTarget shard, Releasable releasable) {
+        if (hedger != null && shardIt.getSearchContextId() == null) {
+            final TimeValue hedgeDelay = hedger.onShardRequest(shardIt.shardId());
+            if (hedgeDelay != null) {
+                new HedgedShardRequest(shardIndex, shardIt, hedgeDelay).send(shard, false, releasable);
+                return;
+            }
+        }
         var shardListener = new SearchActionListener<Result>(shard, shardIndex) {
             @Override
             public void innerOnResponse(Result result) {
@@ -289,6 +344,103 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         executePhaseOnShard(shardIt, connection, shardListener);
     }
 
+    /**
+     * A shard request that is sent to another copy of the shard if it did not complete within the delay given by the
+     * {@link SearchShardHedging.Hedger}. The first response wins, the search context of the other response is released as soon as it
+     * arrives. The shard only fails over to the next copy once all in flight requests failed.
+     */
+    private final class HedgedShardRequest {
+        private final int shardIndex;
+        private final SearchShardIterator shardIt;
+        private final Scheduler.ScheduledCancellable hedgeTask;
+        private int inFlight = 1;
+        private boolean done;
+
+        HedgedShardRequest(int shardIndex, SearchShardIterator shardIt, TimeValue hedgeDelay) {
+            this.shardIndex = shardIndex;
+            this.shardIt = shardIt;
+            this.hedgeTask = hedger.schedule(this::hedge, hedgeDelay, executor);
+        }
+
+        private void hedge() {
+            final SearchShardTarget shard;
+            synchronized (this) {
+                // only take from the budget if there is another copy to send the request to
+                if (done || shardIt.remaining() == 0 || hedger.tryAcquire() == false) {
+                    return;
+                }
+                shard = shardIt.nextOrNull();
+                inFlight++;
+            }
+            send(shard, true, () -> {});
+        }
+
+        void send(SearchShardTarget shard, boolean hedged, Releasable releasable) {
+            var shardListener = new SearchActionListener<Result>(shard, shardIndex) {
+                @Override
+                public void innerOnResponse(Result result) {
+                    releasable.close();
+                    synchronized (HedgedShardRequest.this) {
+                        if (done) {
+                            releaseContext(result);
+                            return;
+                        }
+                        done = true;
+                    }
+                    hedgeTask.cancel();
+                    if (hedged) {
+                        hedger.onHedgedRequestWon();
+                    }
+                    try {
+                        onShardResult(result);
+                    } catch (Exception exc) {
+                        onShardFailure(shardIndex, shard, shardIt, exc);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    releasable.close();
+                    final boolean lastInFlight;
+                    synchronized (HedgedShardRequest.this) {
+                        if (done) {
+                            return;
+                        }
+                        lastInFlight = --inFlight == 0;
+                        done = lastInFlight;
+                    }
+                    if (lastInFlight) {
+                        hedgeTask.cancel();
+                        onShardFailure(shardIndex, shard, shardIt, e);
+                    } else {
+                        // another copy of the shard is still searching, only record the failure
+                        onShardFailure(shardIndex, shard, e);
+                    }
+                }
+            };
+            final Transport.Connection connection;
+            try {
+                connection = getConnection(shard.getClusterAlias(), shard.getNodeId());
+            } catch (Exception e) {
+                shardListener.onFailure(e);
+                return;
+            }
+            executePhaseOnShard(shardIt, connection, shardListener);
+        }
+
+        private void releaseContext(Result result) {
+            final ShardSearchContextId contextId = result.getContextId();
+            if (contextId != null && isPartOfPointInTime(contextId) == false) {
+                try {
+                    final SearchShardTarget target = result.getSearchShardTarget();
+                    sendReleaseSearchContext(contextId, getConnection(target.getClusterAlias(), target.getNodeId()));
+                } catch (Exception e) {
+                    logger.trace("failed to release context of hedged shard request", e);
+                }
+            }
+        }
+    }
+
     protected final void failOnUnavailable(int shardIndex, SearchShardIterator shardIt) {
         SearchShardTarget unassignedShard = new SearchShardTarget(null, shardIt.shardId(), shardIt.getClusterAlias());
         onShardFailure(shardIndex, unassignedShard, shardIt, new NoShardAvailableActionException(shardIt.shardId()));
@@ -66,6 +66,12 @@ import static org.elasticsearch.action.search.SearchPhaseController.setShardInde
 public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhaseResult> {
     private static final Logger logger = LogManager.getLogger(QueryPhaseResultConsumer.class);
 
+    /**
+     * The batch size of partial reduces of aggregations that support incremental reduce: each partial reduce merges the previous
+     * partial result with a single shard result.
+     */
+    static final int INCREMENTAL_BATCH_REDUCE_SIZE = 2;
+
     private final Executor executor;
     private final CircuitBreaker circuitBreaker;
     private final SearchProgressListener progressListener;
@@ -128,7 +134,15 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
         this.hasTopDocs = (source == null || size != 0) && queryPhaseRankCoordinatorContext == null;
         this.hasAggs = source != null && source.aggregations() != null;
         this.aggReduceContextBuilder = hasAggs ? controller.getReduceContext(isCanceled, source.aggregations()) : null;
-        batchReduceSize = (hasAggs || hasTopDocs) ? Math.min(request.getBatchedReduceSize(), expectedResultSize) : expectedResultSize;
+        if (hasAggs && source.aggregations().supportsIncrementalReduce()) {
+            // the partial result of these aggregations does not grow with the number of shards, so we merge each shard result
+            // into it as soon as it arrives and release it right away rather than buffering up to batched_reduce_size results
+            batchReduceSize = Math.min(INCREMENTAL_BATCH_REDUCE_SIZE, expectedResultSize);
+        } else if (hasAggs || hasTopDocs) {
+            batchReduceSize = Math.min(request.getBatchedReduceSize(), expectedResultSize);
+        } else {
+            batchReduceSize = expectedResultSize;
+        }
         topDocsStats = new TopDocsStats(request.resolveTrackTotalHitsUpTo());
     }
 
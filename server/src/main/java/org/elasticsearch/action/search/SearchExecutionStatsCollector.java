@@ -13,6 +13,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DelegatingActionListener;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.transport.Transport;
 
@@ -22,7 +23,8 @@ import java.util.function.BiFunction;
 /**
  * A wrapper of search action listeners (search results) that unwraps the query
  * result to get the piggybacked queue size and service time EWMA, adding those
- * values to the coordinating nodes' {@link ResponseCollectorService}.
+ * values and the response time of the shard to the coordinating nodes'
+ * {@link ResponseCollectorService}.
  */
 public final class SearchExecutionStatsCollector extends DelegatingActionListener<SearchPhaseResult, SearchPhaseResult> {
 
@@ -59,6 +61,11 @@ public final class SearchExecutionStatsCollector extends DelegatingActionListene
             if (serviceTimeEWMA > 0 && queueSize >= 0) {
                 collector.addNodeStatistics(nodeId, queueSize, responseDuration, serviceTimeEWMA);
             }
+            final SearchShardTarget shardTarget = response.getSearchShardTarget();
+            // the response times of remote clusters are not representative of the local copies of their indices
+            if (shardTarget != null && shardTarget.getClusterAlias() == null) {
+                collector.addShardResponseTime(shardTarget.getShardId().getIndex(), responseDuration);
+            }
         }
         delegate.onResponse(response);
     }
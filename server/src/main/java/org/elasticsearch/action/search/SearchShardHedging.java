@@ -0,0 +1,163 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.ProjectMetadata;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.ResponseCollectorService;
+import org.elasticsearch.rest.action.search.SearchResponseMetrics;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedging of the shard level requests of the query phase: when a copy of a shard takes longer to respond than a percentile of the
+ * recent response times of the shards of its index, the same request is sent to another copy of the shard and the first response
+ * wins. Hedged requests are bounded by a node wide budget, which is a fraction of the shard requests that may be hedged.
+ */
+public final class SearchShardHedging {
+
+    public static final Setting<Boolean> INDEX_SEARCH_HEDGING_ENABLED_SETTING = Setting.boolSetting(
+        "index.search.hedging.enabled",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
+    public static final Setting<Double> INDEX_SEARCH_HEDGING_LATENCY_PERCENTILE_SETTING = Setting.doubleSetting(
+        "index.search.hedging.latency_percentile",
+        95.0,
+        50.0,
+        99.9,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
+    public static final Setting<Double> SEARCH_HEDGING_BUDGET_SETTING = Setting.doubleSetting(
+        "search.hedging.budget",
+        0.05,
+        0.0,
+        1.0,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
+    // the budget is accounted in millionths of a request, and may accumulate up to this number of hedged requests
+    private static final long TOKENS_PER_REQUEST = 1_000_000L;
+    private static final long MAX_TOKENS = 10 * TOKENS_PER_REQUEST;
+
+    private final ResponseCollectorService responseCollectorService;
+    private final ThreadPool threadPool;
+    private final SearchResponseMetrics searchResponseMetrics;
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long tokensPerShardRequest;
+
+    public SearchShardHedging(
+        ClusterSettings clusterSettings,
+        ResponseCollectorService responseCollectorService,
+        ThreadPool threadPool,
+        SearchResponseMetrics searchResponseMetrics
+    ) {
+        this.responseCollectorService = responseCollectorService;
+        this.threadPool = threadPool;
+        this.searchResponseMetrics = searchResponseMetrics;
+        clusterSettings.initializeAndWatch(SEARCH_HEDGING_BUDGET_SETTING, this::setBudget);
+    }
+
+    private void setBudget(double budget) {
+        this.tokensPerShardRequest = (long) (budget * TOKENS_PER_REQUEST);
+    }
+
+    /**
+     * Returns the hedging of the shard requests of the given search, or {@code null} if none of its shards should be hedged.
+     * Scrolls and point in time searches are never hedged as their shard requests target a specific copy of the shards.
+     */
+    @Nullable
+    Hedger newHedger(SearchRequest request, ProjectMetadata project, Collection<SearchShardIterator> shardIterators) {
+        if (tokensPerShardRequest == 0 || request.scroll() != null || request.pointInTimeBuilder() != null) {
+            return null;
+        }
+        final Map<Index, Double> percentiles = new HashMap<>();
+        for (SearchShardIterator shardIt : shardIterators) {
+            final Index index = shardIt.shardId().getIndex();
+            if (shardIt.getClusterAlias() != null || shardIt.size() < 2 || percentiles.containsKey(index)) {
+                continue;
+            }
+            final IndexMetadata indexMetadata = project.index(index);
+            if (indexMetadata != null && INDEX_SEARCH_HEDGING_ENABLED_SETTING.get(indexMetadata.getSettings())) {
+                percentiles.put(index, INDEX_SEARCH_HEDGING_LATENCY_PERCENTILE_SETTING.get(indexMetadata.getSettings()));
+            }
+        }
+        return percentiles.isEmpty() ? null : new Hedger(percentiles);
+    }
+
+    /**
+     * Hedging of the shard requests of a single search.
+     */
+    final class Hedger {
+        private final Map<Index, Double> percentiles;
+
+        private Hedger(Map<Index, Double> percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        /**
+         * Accounts for a shard request sent to the given shard, and returns after how long the request should be hedged or
+         * {@code null} if it should not be hedged.
+         */
+        @Nullable
+        TimeValue onShardRequest(ShardId shardId) {
+            final Double percentile = percentiles.get(shardId.getIndex());
+            if (percentile == null) {
+                return null;
+            }
+            final long perRequest = tokensPerShardRequest;
+            tokens.getAndUpdate(current -> Math.min(MAX_TOKENS, current + perRequest));
+            final long delayNanos = responseCollectorService.getShardResponseTimePercentile(shardId.getIndex(), percentile);
+            return delayNanos < 0 ? null : new TimeValue(delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Takes a hedged request from the budget, returns {@code false} if the budget is exhausted.
+         */
+        boolean tryAcquire() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < TOKENS_PER_REQUEST) {
+                    return false;
+                }
+            } while (tokens.compareAndSet(current, current - TOKENS_PER_REQUEST) == false);
+            searchResponseMetrics.incrementHedgedShardRequestCount();
+            return true;
+        }
+
+        Scheduler.ScheduledCancellable schedule(Runnable command, TimeValue delay, Executor executor) {
+            return threadPool.schedule(command, delay, executor);
+        }
+
+        void onHedgedRequestWon() {
+            searchResponseMetrics.incrementHedgedShardRequestWinCount();
+        }
+    }
+}
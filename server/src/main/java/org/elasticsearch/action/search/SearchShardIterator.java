@@ -112,6 +112,13 @@ public final class SearchShardIterator implements Comparable<SearchShardIterator
         return null;
     }
 
+    /**
+     * The number of shard copies that {@link #nextOrNull()} has not returned yet.
+     */
+    int remaining() {
+        return targetNodesIterator.remaining();
+    }
+
     /**
      * Returns a non-null value if this request should use a specific search context instead of the latest one.
      */
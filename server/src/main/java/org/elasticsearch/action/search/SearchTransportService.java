@@ -21,6 +21,7 @@ import org.elasticsearch.action.support.ChannelActionListener;
 import org.elasticsearch.client.internal.OriginSettingClient;
 import org.elasticsearch.client.internal.node.NodeClient;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -52,6 +53,7 @@ import org.elasticsearch.transport.AbstractTransportRequest;
 import org.elasticsearch.transport.RemoteClusterService;
 import org.elasticsearch.transport.Transport;
 import org.elasticsearch.transport.TransportActionProxy;
+import org.elasticsearch.transport.TransportChannel;
 import org.elasticsearch.transport.TransportException;
 import org.elasticsearch.transport.TransportRequestHandler;
 import org.elasticsearch.transport.TransportRequestOptions;
@@ -65,6 +67,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * An encapsulation of {@link SearchService} operations exposed through
@@ -503,7 +506,12 @@ public class SearchTransportService {
         TransportActionProxy.registerProxyAction(transportService, RANK_FEATURE_SHARD_ACTION_NAME, true, RankFeatureResult::new);
 
         final TransportRequestHandler<ShardFetchRequest> shardFetchRequestHandler = (request, channel, task) -> searchService
-            .executeFetchPhase(request, (SearchShardTask) task, new ChannelActionListener<>(channel));
+            .executeFetchPhase(
+                request,
+                (SearchShardTask) task,
+                serializedHitsStreamSupplier(transportService, channel),
+                new ChannelActionListener<>(channel)
+            );
         transportService.registerRequestHandler(
             FETCH_ID_SCROLL_ACTION_NAME,
             EsExecutors.DIRECT_EXECUTOR_SERVICE,
@@ -531,6 +539,26 @@ public class SearchTransportService {
         TransportActionProxy.registerProxyAction(transportService, QUERY_CAN_MATCH_NODE_NAME, true, CanMatchNodeResponse::new);
     }
 
+    /**
+     * Fetch results that are sent over the network have their hits serialized as soon as they are fetched, so that the data node
+     * does not need to hold all the hits until the response is written. Responses to the local node are passed as objects and keep
+     * their hits as is.
+     */
+    @Nullable
+    private static Supplier<RecyclerBytesStreamOutput> serializedHitsStreamSupplier(
+        TransportService transportService,
+        TransportChannel channel
+    ) {
+        if (TransportService.DIRECT_RESPONSE_PROFILE.equals(channel.getProfileName())) {
+            return null;
+        }
+        return () -> {
+            RecyclerBytesStreamOutput out = transportService.newNetworkBytesStream();
+            out.setTransportVersion(channel.getVersion());
+            return out;
+        };
+    }
+
     private static Executor buildFreeContextExecutor(TransportService transportService) {
         final ThrottledTaskRunner throttledTaskRunner = new ThrottledTaskRunner(
             "free_context",
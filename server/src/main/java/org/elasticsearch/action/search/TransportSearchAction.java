@@ -164,6 +164,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
     private final int defaultPreFilterShardSize;
     private final boolean ccsCheckCompatibility;
     private final SearchResponseMetrics searchResponseMetrics;
+    private final SearchShardHedging searchShardHedging;
     private final Client client;
     private final UsageService usageService;
     private final boolean collectTelemetry;
@@ -213,6 +214,12 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         this.ccsCheckCompatibility = SearchService.CCS_VERSION_CHECK_SETTING.get(settings);
         this.collectTelemetry = SearchService.CCS_COLLECT_TELEMETRY.get(settings);
         this.searchResponseMetrics = searchResponseMetrics;
+        this.searchShardHedging = new SearchShardHedging(
+            clusterService.getClusterSettings(),
+            responseCollectorService,
+            threadPool,
+            searchResponseMetrics
+        );
         this.client = client;
         this.usageService = usageService;
     }
@@ -1572,7 +1579,8 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                         task,
                         clusters,
                         client,
-                        searchService.batchQueryPhase()
+                        searchService.batchQueryPhase(),
+                        searchShardHedging.newHedger(searchRequest, projectResolver.getProjectMetadata(clusterState), shardIterators)
                     );
                 }
                 success = true;
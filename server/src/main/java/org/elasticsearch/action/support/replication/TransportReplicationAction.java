@@ -369,7 +369,12 @@ public abstract class TransportReplicationAction<
 
     private void handleOperationRequest(final Request request, final TransportChannel channel, Task task) {
         Releasable releasable = checkOperationLimits(request);
-        ActionListener<Response> listener = ActionListener.runBefore(new ChannelActionListener<>(channel), releasable::close);
+        // the request may hold on to network buffers, keep it alive until the operation completes
+        request.mustIncRef();
+        ActionListener<Response> listener = ActionListener.runBefore(
+            new ChannelActionListener<>(channel),
+            () -> Releasables.close(releasable, request::decRef)
+        );
         runReroutePhase(task, request, listener, false);
     }
 
@@ -383,7 +388,11 @@ public abstract class TransportReplicationAction<
             request.sentFromLocalReroute(),
             request.localRerouteInitiatedByNodeClient()
         );
-        ActionListener<Response> listener = ActionListener.runBefore(new ChannelActionListener<>(channel), releasable::close);
+        request.mustIncRef();
+        ActionListener<Response> listener = ActionListener.runBefore(
+            new ChannelActionListener<>(channel),
+            () -> Releasables.close(releasable, request::decRef)
+        );
 
         try {
             new AsyncPrimaryAction(request, listener, (ReplicationTask) task).run();
@@ -625,7 +634,11 @@ public abstract class TransportReplicationAction<
         final Task task
     ) {
         Releasable releasable = checkReplicaLimits(replicaRequest.getRequest());
-        ActionListener<ReplicaResponse> listener = ActionListener.runBefore(new ChannelActionListener<>(channel), releasable::close);
+        replicaRequest.mustIncRef();
+        ActionListener<ReplicaResponse> listener = ActionListener.runBefore(
+            new ChannelActionListener<>(channel),
+            () -> Releasables.close(releasable, replicaRequest::decRef)
+        );
 
         try {
             new AsyncReplicaAction(replicaRequest, listener, (ReplicationTask) task).run();
@@ -1446,6 +1459,26 @@ public abstract class TransportReplicationAction<
             return primaryTerm;
         }
 
+        @Override
+        public void incRef() {
+            request.incRef();
+        }
+
+        @Override
+        public boolean tryIncRef() {
+            return request.tryIncRef();
+        }
+
+        @Override
+        public boolean decRef() {
+            return request.decRef();
+        }
+
+        @Override
+        public boolean hasReferences() {
+            return request.hasReferences();
+        }
+
         @Override
         public boolean isRawIndexingData() {
             if (request instanceof RawIndexingDataTransportRequest) {
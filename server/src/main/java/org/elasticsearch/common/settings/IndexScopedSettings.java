@@ -8,6 +8,7 @@
  */
 package org.elasticsearch.common.settings;
 
+import org.elasticsearch.action.search.SearchShardHedging;
 import org.elasticsearch.cluster.metadata.DataStreamFailureStoreDefinition;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.MetadataIndexStateService;
@@ -41,6 +42,7 @@ import org.elasticsearch.index.similarity.SimilarityService;
 import org.elasticsearch.index.store.FsDirectoryFactory;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.indices.IndicesRequestCache;
+import org.elasticsearch.indices.SegmentAggregationCache;
 import org.elasticsearch.indices.ShardLimitValidator;
 
 import java.util.Arrays;
@@ -89,6 +91,8 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexMetadata.INDEX_DOWNSAMPLE_ORIGIN_UUID,
                 IndexMetadata.INDEX_DOWNSAMPLE_STATUS,
                 IndexMetadata.INDEX_DOWNSAMPLE_INTERVAL,
+                SearchShardHedging.INDEX_SEARCH_HEDGING_ENABLED_SETTING,
+                SearchShardHedging.INDEX_SEARCH_HEDGING_LATENCY_PERCENTILE_SETTING,
                 SearchSlowLog.INDEX_SEARCH_SLOWLOG_THRESHOLD_FETCH_DEBUG_SETTING,
                 SearchSlowLog.INDEX_SEARCH_SLOWLOG_THRESHOLD_FETCH_WARN_SETTING,
                 SearchSlowLog.INDEX_SEARCH_SLOWLOG_THRESHOLD_FETCH_INFO_SETTING,
@@ -120,8 +124,10 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexSortConfig.INDEX_SORT_MISSING_SETTING,
                 IndexSortConfig.INDEX_SORT_MODE_SETTING,
                 IndexSettings.INDEX_TRANSLOG_DURABILITY_SETTING,
+                IndexSettings.INDEX_VERSION_MAP_TYPE_SETTING,
                 IndexSettings.INDEX_WARMER_ENABLED_SETTING,
                 IndexSettings.INDEX_REFRESH_INTERVAL_SETTING,
+                IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING,
                 IndexSettings.INDEX_FAST_REFRESH_SETTING,
                 IndexSettings.MAX_RESULT_WINDOW_SETTING,
                 IndexSettings.MAX_INNER_RESULT_WINDOW_SETTING,
@@ -148,6 +154,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexSettings.INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING,
                 IndexSettings.INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING,
                 IndicesRequestCache.INDEX_CACHE_REQUEST_ENABLED_SETTING,
+                SegmentAggregationCache.INDEX_SEGMENT_AGGREGATION_CACHE_ENABLED_SETTING,
                 UnassignedInfo.INDEX_DELAYED_NODE_LEFT_TIMEOUT_SETTING,
                 EnableAllocationDecider.INDEX_ROUTING_REBALANCE_ENABLE_SETTING,
                 EnableAllocationDecider.INDEX_ROUTING_ALLOCATION_ENABLE_SETTING,
@@ -189,6 +196,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 ShardLimitValidator.INDEX_SETTING_SHARD_LIMIT_GROUP,
                 DataTier.TIER_PREFERENCE_SETTING,
                 IndexSettings.BLOOM_FILTER_ID_FIELD_ENABLED_SETTING,
+                IndexSettings.DATA_STREAM_BLOOM_FILTER_ID_FIELD_ENABLED_SETTING,
                 IndexSettings.LIFECYCLE_ORIGINATION_DATE_SETTING,
                 IndexSettings.LIFECYCLE_PARSE_ORIGINATION_DATE_SETTING,
                 IndexSettings.TIME_SERIES_ES87TSDB_CODEC_ENABLED_SETTING,
@@ -26,6 +26,7 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.FeatureFlag;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.engine.LiveVersionMap;
 import org.elasticsearch.index.mapper.IgnoredSourceFieldMapper;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.SeqNoFieldMapper;
@@ -106,6 +107,19 @@ public final class IndexSettings {
         Property.IndexScope,
         Property.Dynamic
     );
+    /**
+     * Scheduled refreshes of a shard that was not searched since its last scheduled refresh are deferred until this much time has
+     * passed since that refresh. This effectively widens the refresh interval of write-heavy, rarely searched shards, which produces
+     * fewer and larger segments. Refreshes needed by refresh listeners, e.g. {@code wait_for} requests, are never deferred.
+     * Disabled by default.
+     */
+    public static final Setting<TimeValue> INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING = Setting.timeSetting(
+        "index.refresh.max_deferred_interval",
+        TimeValue.MINUS_ONE,
+        TimeValue.MINUS_ONE,
+        Property.Dynamic,
+        Property.IndexScope
+    );
     public static final Setting<Translog.Durability> INDEX_TRANSLOG_DURABILITY_SETTING = Setting.enumSetting(
         Translog.Durability.class,
         "index.translog.durability",
@@ -113,6 +127,17 @@ public final class IndexSettings {
         Property.Dynamic,
         Property.IndexScope
     );
+    /**
+     * Controls how the live version map of the engine stores the ids and versions of recently indexed and deleted documents.
+     * {@code paged} packs them into large pages, which reduces garbage collection pressure on update-heavy indices.
+     */
+    public static final Setting<LiveVersionMap.Type> INDEX_VERSION_MAP_TYPE_SETTING = Setting.enumSetting(
+        LiveVersionMap.Type.class,
+        "index.version_map.type",
+        LiveVersionMap.Type.HEAP,
+        Property.IndexScope,
+        Property.Final
+    );
     public static final Setting<Boolean> INDEX_WARMER_ENABLED_SETTING = Setting.boolSetting(
         "index.warmer.enabled",
         true,
@@ -568,6 +593,17 @@ public final class IndexSettings {
         Setting.Property.IndexScope,
         Property.DeprecatedWarning
     );
+    /**
+     * Opts data-stream indices that are not in time series mode into a BloomFilter on the _id field. Their ids are usually
+     * auto-generated so the filter is not used by default, but it speeds up the version lookups of data streams that see updates
+     * or explicit ids.
+     */
+    public static final Setting<Boolean> DATA_STREAM_BLOOM_FILTER_ID_FIELD_ENABLED_SETTING = Setting.boolSetting(
+        "index.bloom_filter_for_id_field.data_stream.enabled",
+        false,
+        Setting.Property.Dynamic,
+        Setting.Property.IndexScope
+    );
     public static final String LIFECYCLE_ORIGINATION_DATE = "index.lifecycle.origination_date";
     public static final Setting<Long> LIFECYCLE_ORIGINATION_DATE_SETTING = Setting.longSetting(
         LIFECYCLE_ORIGINATION_DATE,
@@ -917,6 +953,7 @@ public final class IndexSettings {
     private volatile int maxShingleDiff;
     private volatile DenseVectorFieldMapper.FilterHeuristic hnswFilterHeuristic;
     private volatile TimeValue searchIdleAfter;
+    private volatile TimeValue refreshMaxDeferredInterval;
     private volatile int maxAnalyzedOffset;
     private volatile boolean weightMatchesEnabled;
     private volatile int maxTermsCount;
@@ -952,6 +989,7 @@ public final class IndexSettings {
 
     private final IndexRouting indexRouting;
     private final SeqNoFieldMapper.SeqNoIndexOptions seqNoIndexOptions;
+    private final LiveVersionMap.Type versionMapType;
 
     /**
      * The default mode for storing source, for all mappers not overriding this setting.
@@ -1096,6 +1134,7 @@ public final class IndexSettings {
         this.mergePolicyConfig = new MergePolicyConfig(logger, this);
         this.indexSortConfig = new IndexSortConfig(this);
         searchIdleAfter = scopedSettings.get(INDEX_SEARCH_IDLE_AFTER);
+        refreshMaxDeferredInterval = scopedSettings.get(INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING);
         defaultPipeline = scopedSettings.get(DEFAULT_PIPELINE);
         mappingNestedFieldsLimit = scopedSettings.get(INDEX_MAPPING_NESTED_FIELDS_LIMIT_SETTING);
         mappingNestedDocsLimit = scopedSettings.get(INDEX_MAPPING_NESTED_DOCS_LIMIT_SETTING);
@@ -1119,6 +1158,7 @@ public final class IndexSettings {
             && scopedSettings.get(RECOVERY_USE_SYNTHETIC_SOURCE_SETTING);
         useDocValuesSkipper = DOC_VALUES_SKIPPER && scopedSettings.get(USE_DOC_VALUES_SKIPPER);
         seqNoIndexOptions = scopedSettings.get(SEQ_NO_INDEX_OPTIONS_SETTING);
+        versionMapType = scopedSettings.get(INDEX_VERSION_MAP_TYPE_SETTING);
         if (recoverySourceSyntheticEnabled) {
             if (DiscoveryNode.isStateless(settings)) {
                 throw new IllegalArgumentException("synthetic recovery source is only allowed in stateful");
@@ -1206,6 +1246,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(MAX_SLICES_PER_SCROLL, this::setMaxSlicesPerScroll);
         scopedSettings.addSettingsUpdateConsumer(DEFAULT_FIELD_SETTING, this::setDefaultFields);
         scopedSettings.addSettingsUpdateConsumer(INDEX_SEARCH_IDLE_AFTER, this::setSearchIdleAfter);
+        scopedSettings.addSettingsUpdateConsumer(INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING, this::setRefreshMaxDeferredInterval);
         scopedSettings.addSettingsUpdateConsumer(MAX_REGEX_LENGTH_SETTING, this::setMaxRegexLength);
         scopedSettings.addSettingsUpdateConsumer(DEFAULT_PIPELINE, this::setDefaultPipeline);
         scopedSettings.addSettingsUpdateConsumer(FINAL_PIPELINE, this::setRequiredPipeline);
@@ -1233,6 +1274,10 @@ public final class IndexSettings {
         this.searchIdleAfter = searchIdleAfter;
     }
 
+    private void setRefreshMaxDeferredInterval(TimeValue refreshMaxDeferredInterval) {
+        this.refreshMaxDeferredInterval = refreshMaxDeferredInterval;
+    }
+
     private void setTranslogFlushThresholdSize(ByteSizeValue byteSizeValue) {
         this.flushThresholdSize = byteSizeValue;
     }
@@ -1701,6 +1746,14 @@ public final class IndexSettings {
         return searchIdleAfter;
     }
 
+    /**
+     * Returns how long scheduled refreshes of a shard that wasn't searched since its last scheduled refresh may be deferred, a
+     * non-positive value if they are never deferred.
+     */
+    public TimeValue getRefreshMaxDeferredInterval() {
+        return refreshMaxDeferredInterval;
+    }
+
     public String getDefaultPipeline() {
         return defaultPipeline;
     }
@@ -1861,4 +1914,11 @@ public final class IndexSettings {
     public SeqNoFieldMapper.SeqNoIndexOptions seqNoIndexOptions() {
         return seqNoIndexOptions;
     }
+
+    /**
+     * Returns how the live version map of this index's engines stores its entries.
+     */
+    public LiveVersionMap.Type getVersionMapType() {
+        return versionMapType;
+    }
 }
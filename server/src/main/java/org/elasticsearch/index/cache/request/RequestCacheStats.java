@@ -9,6 +9,7 @@
 
 package org.elasticsearch.index.cache.request;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -25,6 +26,12 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
     private long evictions;
     private long hitCount;
     private long missCount;
+    /**
+     * Number of hits that were served by waiting on the computation of an identical concurrent request, these are included in the
+     * hit count.
+     */
+    private long coalescedCount;
+    private SegmentAggregationCacheStats segmentAggregations = new SegmentAggregationCacheStats();
 
     public RequestCacheStats() {}
 
@@ -33,13 +40,36 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         evictions = in.readVLong();
         hitCount = in.readVLong();
         missCount = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.REQUEST_CACHE_STATS_COALESCED)) {
+            coalescedCount = in.readVLong();
+        }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.SEGMENT_AGGREGATION_CACHE_STATS)) {
+            segmentAggregations = new SegmentAggregationCacheStats(in);
+        }
     }
 
     public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount) {
+        this(memorySize, evictions, hitCount, missCount, 0);
+    }
+
+    public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount, long coalescedCount) {
         this.memorySize = memorySize;
         this.evictions = evictions;
         this.hitCount = hitCount;
         this.missCount = missCount;
+        this.coalescedCount = coalescedCount;
+    }
+
+    public RequestCacheStats(
+        long memorySize,
+        long evictions,
+        long hitCount,
+        long missCount,
+        long coalescedCount,
+        SegmentAggregationCacheStats segmentAggregations
+    ) {
+        this(memorySize, evictions, hitCount, missCount, coalescedCount);
+        this.segmentAggregations = segmentAggregations;
     }
 
     public void add(RequestCacheStats stats) {
@@ -50,6 +80,8 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         this.evictions += stats.evictions;
         this.hitCount += stats.hitCount;
         this.missCount += stats.missCount;
+        this.coalescedCount += stats.coalescedCount;
+        this.segmentAggregations.add(stats.segmentAggregations);
     }
 
     public long getMemorySizeInBytes() {
@@ -72,12 +104,29 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         return this.missCount;
     }
 
+    public long getCoalescedCount() {
+        return this.coalescedCount;
+    }
+
+    /**
+     * Statistics of the aggregation results cached per segment, which are kept apart from the shard level results above.
+     */
+    public SegmentAggregationCacheStats getSegmentAggregations() {
+        return this.segmentAggregations;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVLong(memorySize);
         out.writeVLong(evictions);
         out.writeVLong(hitCount);
         out.writeVLong(missCount);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.REQUEST_CACHE_STATS_COALESCED)) {
+            out.writeVLong(coalescedCount);
+        }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.SEGMENT_AGGREGATION_CACHE_STATS)) {
+            segmentAggregations.writeTo(out);
+        }
     }
 
     @Override
@@ -85,12 +134,17 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RequestCacheStats that = (RequestCacheStats) o;
-        return memorySize == that.memorySize && evictions == that.evictions && hitCount == that.hitCount && missCount == that.missCount;
+        return memorySize == that.memorySize
+            && evictions == that.evictions
+            && hitCount == that.hitCount
+            && missCount == that.missCount
+            && coalescedCount == that.coalescedCount
+            && segmentAggregations.equals(that.segmentAggregations);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(memorySize, evictions, hitCount, missCount);
+        return Objects.hash(memorySize, evictions, hitCount, missCount, coalescedCount, segmentAggregations);
     }
 
     @Override
@@ -100,6 +154,8 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         builder.field(Fields.EVICTIONS, getEvictions());
         builder.field(Fields.HIT_COUNT, getHitCount());
         builder.field(Fields.MISS_COUNT, getMissCount());
+        builder.field(Fields.COALESCED_COUNT, getCoalescedCount());
+        segmentAggregations.toXContent(builder, params);
         builder.endObject();
         return builder;
     }
@@ -111,5 +167,6 @@ public class RequestCacheStats implements Writeable, ToXContentFragment {
         static final String EVICTIONS = "evictions";
         static final String HIT_COUNT = "hit_count";
         static final String MISS_COUNT = "miss_count";
+        static final String COALESCED_COUNT = "coalesced_count";
     }
 }
@@ -22,9 +22,26 @@ public final class ShardRequestCache {
     final CounterMetric totalMetric = new CounterMetric();
     final CounterMetric hitCount = new CounterMetric();
     final CounterMetric missCount = new CounterMetric();
+    final CounterMetric coalescedCount = new CounterMetric();
+    final CounterMetric segmentAggregationsEvictions = new CounterMetric();
+    final CounterMetric segmentAggregationsTotal = new CounterMetric();
+    final CounterMetric segmentAggregationsHitCount = new CounterMetric();
+    final CounterMetric segmentAggregationsMissCount = new CounterMetric();
 
     public RequestCacheStats stats() {
-        return new RequestCacheStats(totalMetric.count(), evictionsMetric.count(), hitCount.count(), missCount.count());
+        return new RequestCacheStats(
+            totalMetric.count(),
+            evictionsMetric.count(),
+            hitCount.count(),
+            missCount.count(),
+            coalescedCount.count(),
+            new SegmentAggregationCacheStats(
+                segmentAggregationsTotal.count(),
+                segmentAggregationsEvictions.count(),
+                segmentAggregationsHitCount.count(),
+                segmentAggregationsMissCount.count()
+            )
+        );
     }
 
     public void onHit() {
@@ -35,6 +52,10 @@ public final class ShardRequestCache {
         missCount.inc();
     }
 
+    public void onCoalesced() {
+        coalescedCount.inc();
+    }
+
     public void onCached(Accountable key, BytesReference value) {
         totalMetric.inc(key.ramBytesUsed() + value.ramBytesUsed());
     }
@@ -52,4 +73,23 @@ public final class ShardRequestCache {
         }
         totalMetric.dec(dec);
     }
+
+    public void onSegmentAggregationsHit() {
+        segmentAggregationsHitCount.inc();
+    }
+
+    public void onSegmentAggregationsMiss() {
+        segmentAggregationsMissCount.inc();
+    }
+
+    public void onSegmentAggregationsCached(long bytes) {
+        segmentAggregationsTotal.inc(bytes);
+    }
+
+    public void onSegmentAggregationsRemoval(long bytes, boolean evicted) {
+        if (evicted) {
+            segmentAggregationsEvictions.inc();
+        }
+        segmentAggregationsTotal.dec(bytes);
+    }
 }
@@ -85,8 +85,9 @@ public class PerFieldFormatSupplier {
             // In case for time series indices, the _id isn't randomly generated,
             // but based on dimension fields and timestamp field, so during indexing
             // version/seq_no/term needs to be looked up and having a bloom filter
-            // can speed this up significantly.
-            return indexSettings.getMode() == IndexMode.TIME_SERIES
+            // can speed this up significantly. Other data streams mostly use auto-generated ids, and have to opt in.
+            return (indexSettings.getMode() == IndexMode.TIME_SERIES
+                || IndexSettings.DATA_STREAM_BLOOM_FILTER_ID_FIELD_ENABLED_SETTING.get(indexSettings.getSettings()))
                 && IdFieldMapper.NAME.equals(field)
                 && IndexSettings.BLOOM_FILTER_ID_FIELD_ENABLED_SETTING.get(indexSettings.getSettings());
         } else {
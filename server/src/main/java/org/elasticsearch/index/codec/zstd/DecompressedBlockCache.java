@@ -0,0 +1,167 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.zstd;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+import org.elasticsearch.telemetry.metric.LongWithAttributes;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+
+/**
+ * LRU cache of the stored fields blocks that {@link Zstd814StoredFieldsFormat} decompresses to read individual documents. Reading a
+ * single document decompresses the whole block that contains it, so fetching neighbouring documents, for instance hits of subsequent
+ * pages of the same search, would otherwise decompress the same block over and over again.
+ * <p>
+ * A block is only cached the second time it is decompressed, so that blocks that are read once, like those of a scan over random
+ * documents, don't evict the blocks that are read repeatedly. The blocks that were decompressed once are remembered by key only.
+ * <p>
+ * There is one cache per node, sized with {@link #SIZE_SETTING} when the node starts, setting it to {@code 0} disables it. The codec is
+ * instantiated by Lucene and has no access to the node, so the cache is handed to the shards' stores, whose directory is a
+ * {@link Provider}, and the codec looks it up from the directory of each segment it opens. Entries of closed segments age out.
+ */
+public final class DecompressedBlockCache {
+
+    public static final Setting<ByteSizeValue> SIZE_SETTING = Setting.memorySizeSetting(
+        "indices.stored_fields.block_cache.size",
+        settings -> ByteSizeValue.ofBytes(
+            Math.min(JvmInfo.jvmInfo().getMem().getHeapMax().getBytes() / 100, ByteSizeValue.ofMb(64).getBytes())
+        ).getStringRep(),
+        Property.NodeScope
+    );
+
+    /**
+     * One block that was decompressed once is remembered for every this many bytes of cache.
+     */
+    private static final long CANDIDATE_BYTES = ByteSizeValue.ofKb(1).getBytes();
+
+    /**
+     * A {@link Directory} that provides the cache of the node to the segments read from it.
+     */
+    public interface Provider {
+        @Nullable
+        DecompressedBlockCache decompressedBlockCache();
+    }
+
+    /**
+     * The cache provided by the given directory or one of the directories it wraps, or {@code null} if there is none.
+     */
+    @Nullable
+    static DecompressedBlockCache of(Directory directory) {
+        while (directory != null) {
+            if (directory instanceof Provider provider) {
+                return provider.decompressedBlockCache();
+            }
+            directory = directory instanceof FilterDirectory filterDirectory ? filterDirectory.getDelegate() : null;
+        }
+        return null;
+    }
+
+    private final boolean enabled;
+    private final Cache<Key, byte[]> cache;
+    // the keys of the blocks that were decompressed once, that are cached if they are decompressed again
+    private final Cache<Key, Boolean> candidates;
+
+    /**
+     * Creates the cache of the node, sized with {@link #SIZE_SETTING}, and exposes its stats as metrics.
+     */
+    public DecompressedBlockCache(Settings settings, MeterRegistry meterRegistry) {
+        this(SIZE_SETTING.get(settings).getBytes());
+        meterRegistry.registerLongAsyncCounter(
+            "es.indices.stored_fields.block_cache.hits.total",
+            "Total number of stored fields blocks read from the decompressed block cache",
+            "unit",
+            () -> new LongWithAttributes(stats().hits())
+        );
+        meterRegistry.registerLongAsyncCounter(
+            "es.indices.stored_fields.block_cache.misses.total",
+            "Total number of stored fields blocks that were decompressed to read individual documents",
+            "unit",
+            () -> new LongWithAttributes(stats().misses())
+        );
+        meterRegistry.registerLongAsyncCounter(
+            "es.indices.stored_fields.block_cache.evictions.total",
+            "Total number of blocks evicted from the decompressed block cache",
+            "unit",
+            () -> new LongWithAttributes(stats().evictions())
+        );
+        meterRegistry.registerLongGauge(
+            "es.indices.stored_fields.block_cache.size",
+            "Bytes used by the decompressed block cache",
+            "bytes",
+            () -> new LongWithAttributes(stats().sizeInBytes())
+        );
+    }
+
+    DecompressedBlockCache(long maxSizeInBytes) {
+        enabled = maxSizeInBytes > 0;
+        cache = CacheBuilder.<Key, byte[]>builder()
+            .setMaximumWeight(maxSizeInBytes)
+            .weigher((key, block) -> Key.RAM_BYTES_USED + RamUsageEstimator.sizeOf(block))
+            .build();
+        candidates = CacheBuilder.<Key, Boolean>builder().setMaximumWeight(Math.max(1, maxSizeInBytes / CANDIDATE_BYTES)).build();
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the decompressed block of the given segment that starts at the given file pointer, or {@code null} if not cached.
+     */
+    byte[] get(Object segmentKey, long filePointer) {
+        return enabled ? cache.get(new Key(segmentKey, filePointer)) : null;
+    }
+
+    /**
+     * Records that the given block was decompressed because it isn't cached, and returns whether it should be cached now, which is
+     * the case if it was decompressed before.
+     */
+    boolean admit(Object segmentKey, long filePointer) {
+        if (enabled == false) {
+            return false;
+        }
+        final Key key = new Key(segmentKey, filePointer);
+        if (candidates.get(key) != null) {
+            candidates.invalidate(key);
+            return true;
+        }
+        candidates.put(key, Boolean.TRUE);
+        return false;
+    }
+
+    void put(Object segmentKey, long filePointer, byte[] block) {
+        if (enabled) {
+            cache.put(new Key(segmentKey, filePointer), block);
+        }
+    }
+
+    Stats stats() {
+        final Cache.CacheStats stats = cache.stats();
+        return new Stats(stats.getHits(), stats.getMisses(), stats.getEvictions(), cache.count(), cache.weight());
+    }
+
+    /**
+     * Stats of the cache. Misses count the blocks that were decompressed, whether they were cached afterwards or not.
+     */
+    record Stats(long hits, long misses, long evictions, long count, long sizeInBytes) {}
+
+    private record Key(Object segmentKey, long filePointer) {
+        static final long RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+    }
+}
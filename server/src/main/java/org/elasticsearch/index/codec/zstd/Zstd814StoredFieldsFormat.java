@@ -9,20 +9,25 @@
 
 package org.elasticsearch.index.codec.zstd;
 
+import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.StoredFieldsWriter;
 import org.apache.lucene.codecs.compressing.CompressionMode;
 import org.apache.lucene.codecs.compressing.Compressor;
 import org.apache.lucene.codecs.compressing.Decompressor;
 import org.apache.lucene.codecs.lucene90.compressing.Lucene90CompressingStoredFieldsFormat;
+import org.apache.lucene.codecs.lucene90.compressing.Lucene90CompressingStoredFieldsReader;
 import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.SegmentInfo;
 import org.apache.lucene.store.ByteBuffersDataInput;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.nativeaccess.CloseableByteBuffer;
 import org.elasticsearch.nativeaccess.NativeAccess;
 import org.elasticsearch.nativeaccess.Zstd;
@@ -44,6 +49,8 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
     private static final int BEST_SPEED_BLOCK_SIZE = (16 - 2) * 1_024;
     private static final int BEST_COMPRESSION_BLOCK_SIZE = (256 - 16) * 1_024;
 
+    private static final String FORMAT_NAME = "ZstdStoredFields814";
+
     /** Attribute key for compression mode. */
     public static final String MODE_KEY = Zstd814StoredFieldsFormat.class.getSimpleName() + ".mode";
 
@@ -69,7 +76,7 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
     private final Mode mode;
 
     private Zstd814StoredFieldsFormat(Mode mode) {
-        super("ZstdStoredFields814", new ZstdCompressionMode(mode.level), mode.blockSizeInBytes, mode.blockDocCount, 10);
+        super(FORMAT_NAME, new ZstdCompressionMode(mode.level, null), mode.blockSizeInBytes, mode.blockDocCount, 10);
         this.mode = mode;
     }
 
@@ -85,15 +92,36 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
         return super.fieldsWriter(directory, si, context);
     }
 
+    @Override
+    public StoredFieldsReader fieldsReader(Directory directory, SegmentInfo si, FieldInfos fn, IOContext context) throws IOException {
+        // the directory of compound segments doesn't wrap the store's, the one of the segment info does
+        final DecompressedBlockCache blockCache = DecompressedBlockCache.of(si.dir);
+        if (blockCache == null) {
+            return super.fieldsReader(directory, si, fn, context);
+        }
+        return new Lucene90CompressingStoredFieldsReader(
+            directory,
+            si,
+            "",
+            fn,
+            context,
+            FORMAT_NAME,
+            new ZstdCompressionMode(mode.level, blockCache)
+        );
+    }
+
     public Mode getMode() {
         return mode;
     }
 
     private static class ZstdCompressionMode extends CompressionMode {
         private final int level;
+        @Nullable
+        private final DecompressedBlockCache blockCache;
 
-        ZstdCompressionMode(int level) {
+        ZstdCompressionMode(int level, @Nullable DecompressedBlockCache blockCache) {
             this.level = level;
+            this.blockCache = blockCache;
         }
 
         @Override
@@ -103,7 +131,8 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
 
         @Override
         public Decompressor newDecompressor() {
-            return new ZstdDecompressor();
+            // called once per segment by the stored fields reader, clones for individual reads share the segment key
+            return new ZstdDecompressor(blockCache, new Object());
         }
 
         @Override
@@ -112,13 +141,20 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
         }
     }
 
-    private static final class ZstdDecompressor extends Decompressor {
+    static final class ZstdDecompressor extends Decompressor {
 
         // Buffer for copying between the DataInput and native memory. No hard science behind this number, it just tries to be high enough
         // to benefit from bulk copying and low enough to keep heap usage under control.
         final byte[] copyBuffer = new byte[4096];
-
-        ZstdDecompressor() {}
+        @Nullable
+        private final DecompressedBlockCache blockCache;
+        // identifies the segment of the decompressed blocks in the DecompressedBlockCache
+        private final Object segmentKey;
+
+        ZstdDecompressor(@Nullable DecompressedBlockCache blockCache, Object segmentKey) {
+            this.blockCache = blockCache;
+            this.segmentKey = segmentKey;
+        }
 
         @Override
         public void decompress(DataInput in, int originalLength, int offset, int length, BytesRef bytes) throws IOException {
@@ -128,6 +164,22 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
                 return;
             }
 
+            // Only reads of individual documents are cached: merge instances, which also back sequential reads, read whole blocks and
+            // keep the decompressed block themselves.
+            final boolean partialRead = offset != 0 || length != originalLength;
+            final long filePointer = blockCache != null && blockCache.enabled() && partialRead && in instanceof IndexInput indexInput
+                ? indexInput.getFilePointer()
+                : -1;
+            if (filePointer >= 0) {
+                final byte[] block = blockCache.get(segmentKey, filePointer);
+                if (block != null && block.length == originalLength) {
+                    // the caller may read the next block from the same input, so skip the compressed block
+                    in.skipBytes(in.readVInt());
+                    copy(block, offset, length, bytes);
+                    return;
+                }
+            }
+
             final NativeAccess nativeAccess = NativeAccess.instance();
             final Zstd zstd = nativeAccess.getZstd();
 
@@ -150,20 +202,34 @@ public final class Zstd814StoredFieldsFormat extends Lucene90CompressingStoredFi
                     throw new CorruptIndexException("Expected " + originalLength + " decompressed bytes, got " + decompressedLen, in);
                 }
 
-                bytes.bytes = ArrayUtil.growNoCopy(bytes.bytes, length);
-                dest.buffer().get(offset, bytes.bytes, 0, length);
-                bytes.offset = 0;
-                bytes.length = length;
+                if (filePointer >= 0 && blockCache.admit(segmentKey, filePointer)) {
+                    final byte[] block = new byte[originalLength];
+                    dest.buffer().get(0, block, 0, originalLength);
+                    blockCache.put(segmentKey, filePointer, block);
+                    copy(block, offset, length, bytes);
+                } else {
+                    bytes.bytes = ArrayUtil.growNoCopy(bytes.bytes, length);
+                    dest.buffer().get(offset, bytes.bytes, 0, length);
+                    bytes.offset = 0;
+                    bytes.length = length;
+                }
             }
         }
 
+        private static void copy(byte[] block, int offset, int length, BytesRef bytes) {
+            bytes.bytes = ArrayUtil.growNoCopy(bytes.bytes, length);
+            System.arraycopy(block, offset, bytes.bytes, 0, length);
+            bytes.offset = 0;
+            bytes.length = length;
+        }
+
         @Override
         public Decompressor clone() {
-            return new ZstdDecompressor();
+            return new ZstdDecompressor(blockCache, segmentKey);
         }
     }
 
-    private static class ZstdCompressor extends Compressor {
+    static class ZstdCompressor extends Compressor {
 
         final int level;
         // Buffer for copying between the DataInput and native memory. No hard science behind this number, it just tries to be high enough
@@ -13,14 +13,18 @@ import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.KeyedLock;
 import org.elasticsearch.core.Releasable;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
 /** Maps _uid value to its version information. */
 public final class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
@@ -29,12 +33,50 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
 
     private final LiveVersionMapArchive archive;
 
+    /**
+     * How the per refresh cycle maps of the version map store their entries.
+     */
+    public enum Type {
+        /**
+         * One hash table entry holding a {@link BytesRef} and a {@link VersionValue} per document.
+         */
+        HEAP,
+        /**
+         * Ids packed into pages of bytes and version information kept in flat arrays, see {@link PagedVersionValueMap}.
+         */
+        PAGED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Creates the map backing a single refresh cycle of the version map. Maps that account their memory in the given breaker are
+         * {@link Releasable} and release it when they are closed.
+         */
+        public Map<BytesRef, VersionValue> newMap(int expectedSize, CircuitBreaker breaker) {
+            return switch (this) {
+                case HEAP -> ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(expectedSize);
+                case PAGED -> new PagedVersionValueMap(breaker, expectedSize);
+            };
+        }
+    }
+
+    private final IntFunction<Map<BytesRef, VersionValue>> mapFactory;
+
     LiveVersionMap() {
         this(LiveVersionMapArchive.NOOP_ARCHIVE);
     }
 
     LiveVersionMap(LiveVersionMapArchive archive) {
+        this(archive, Type.HEAP, new NoopCircuitBreaker(CircuitBreaker.REQUEST));
+    }
+
+    LiveVersionMap(LiveVersionMapArchive archive, Type type, CircuitBreaker breaker) {
         this.archive = archive;
+        this.mapFactory = expectedSize -> type.newMap(expectedSize, breaker);
+        this.maps = new Maps(mapFactory);
     }
 
     public static final class VersionLookup {
@@ -75,6 +117,15 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
             minDeleteTimestamp.accumulateAndGet(versionLookup.minDeleteTimestamp(), Math::min);
         }
 
+        /**
+         * Releases the memory the backing map accounted in the circuit breaker, if any. The lookup must not be modified afterwards.
+         */
+        void close() {
+            if (map instanceof Releasable releasable) {
+                releasable.close();
+            }
+        }
+
         // Visible for testing
         VersionLookup(Map<BytesRef, VersionValue> map) {
             this.map = map;
@@ -153,19 +204,28 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         // Used while refresh is running, and to hold adds/deletes until refresh finishes. We read from both current and old on lookup:
         final VersionLookup old;
 
+        // creates the backing map of the next current lookup, given the expected number of entries
+        private final IntFunction<Map<BytesRef, VersionValue>> mapFactory;
+
         // this is not volatile since we don't need to maintain a happens before relationship across doc IDs so it's enough to
         // have the volatile read of the Maps reference to make it visible even across threads.
         boolean needsSafeAccess;
         final boolean previousMapsNeededSafeAccess;
 
-        Maps(VersionLookup current, VersionLookup old, boolean previousMapsNeededSafeAccess) {
+        Maps(
+            VersionLookup current,
+            VersionLookup old,
+            boolean previousMapsNeededSafeAccess,
+            IntFunction<Map<BytesRef, VersionValue>> mapFactory
+        ) {
             this.current = current;
             this.old = old;
             this.previousMapsNeededSafeAccess = previousMapsNeededSafeAccess;
+            this.mapFactory = mapFactory;
         }
 
-        Maps() {
-            this(new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency()), VersionLookup.EMPTY, false);
+        Maps(IntFunction<Map<BytesRef, VersionValue>> mapFactory) {
+            this(new VersionLookup(mapFactory.apply(0)), VersionLookup.EMPTY, false, mapFactory);
         }
 
         boolean isSafeAccessMode() {
@@ -183,18 +243,14 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
          * Builds a new map for the refresh transition this should be called in beforeRefresh()
          */
         Maps buildTransitionMap() {
-            return new Maps(
-                new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(current.size())),
-                current,
-                shouldInheritSafeAccess()
-            );
+            return new Maps(new VersionLookup(mapFactory.apply(current.size())), current, shouldInheritSafeAccess(), mapFactory);
         }
 
         /**
          * similar to `invalidateOldMap` but used only for the `unsafeKeysMap` used for assertions
          */
         Maps invalidateOldMapForAssert() {
-            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess);
+            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess, mapFactory);
         }
 
         /**
@@ -202,7 +258,9 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
          */
         Maps invalidateOldMap(LiveVersionMapArchive archive) {
             archive.afterRefresh(old);
-            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess);
+            // archives copy what they need to keep, so the old map can release its memory
+            old.close();
+            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess, mapFactory);
         }
 
         void put(BytesRef uid, VersionValue version) {
@@ -231,10 +289,10 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
     // All deletes also go here, and delete "tombstones" are retained after refresh:
     private final Map<BytesRef, DeleteVersionValue> tombstones = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
-    private volatile Maps maps = new Maps();
+    private volatile Maps maps;
     // we maintain a second map that only receives the updates that we skip on the actual map (unsafe ops)
     // this map is only maintained if assertions are enabled
-    private volatile Maps unsafeKeysMap = new Maps();
+    private volatile Maps unsafeKeysMap = new Maps(expectedSize -> Type.HEAP.newMap(expectedSize, null));
 
     /**
      * Bytes consumed for each BytesRef UID:
@@ -463,7 +521,10 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      * Called when this index is closed.
      */
     synchronized void clear() {
-        maps = new Maps();
+        final Maps previous = maps;
+        maps = new Maps(mapFactory);
+        previous.current.close();
+        previous.old.close();
         tombstones.clear();
         // NOTE: we can't zero this here, because a refresh thread could be calling InternalEngine.pruneDeletedTombstones at the same time,
         // and this will lead to an assert trip. Presumably it's fine if our ramBytesUsedForTombstones is non-zero after clear since the
@@ -16,7 +16,8 @@ import org.apache.lucene.util.BytesRef;
  */
 public interface LiveVersionMapArchive {
     /**
-     * Archive the old map evacuated due to a refresh
+     * Archive the old map evacuated due to a refresh. The old map releases the memory it accounted in the circuit breaker once this
+     * returns, so implementations should copy the entries they keep rather than hold on to it.
      *
      * @param old is the old map that is evacuated on a refresh
      */
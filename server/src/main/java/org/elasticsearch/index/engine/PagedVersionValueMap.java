@@ -0,0 +1,411 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.util.PageCacheRecycler;
+import org.elasticsearch.core.Releasable;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link java.util.Map} from _uid to {@link VersionValue} that packs the ids into pages of bytes and keeps the hash table in flat
+ * arrays, instead of one {@link BytesRef}, one byte array and one hash table node per entry. The version map allocates a new map for
+ * each refresh cycle, so on update-heavy indices this trades millions of small, medium-lived objects for a handful of large arrays that
+ * are cheap for the garbage collector to trace and drop.
+ * <p>
+ * The map is split into lock-striped segments. Writes take the lock of their segment, reads don't take any lock and don't allocate:
+ * they probe a hash table that is only ever appended to, or replaced as a whole when it grows. The {@link LiveVersionMap} only reads
+ * and writes an id under the per-uid lock, so a read never races with a write of the same id. Removed entries keep their slot, which
+ * is reused if the id is added again, until the table is rebuilt with the live entries only when it fills up.
+ * <p>
+ * The memory of the map is accounted in a {@link CircuitBreaker} until it is {@link #close() closed}. Its arrays are plain java arrays
+ * that are never recycled, so lookups that race with the refresh that drops the map can safely keep reading it.
+ */
+final class PagedVersionValueMap extends AbstractMap<BytesRef, VersionValue> implements Releasable {
+
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final int MIN_CAPACITY = 16;
+    static final int PAGE_SIZE = PageCacheRecycler.BYTE_PAGE_SIZE;
+    // the offset of an id in its page is stored in the low bits of a slot
+    private static final int OFFSET_BITS = 16;
+    // ids are stored with their length in front of them
+    private static final int LENGTH_BYTES = 2;
+    private static final int MAX_ID_LENGTH = (1 << (Byte.SIZE * LENGTH_BYTES)) - 1;
+
+    private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(PagedVersionValueMap.class);
+    private static final long STRIPE_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(Stripe.class);
+    private static final long TABLE_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(Table.class) + RamUsageEstimator
+        .shallowSizeOfInstance(AtomicLongArray.class);
+
+    private final CircuitBreaker breaker;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    PagedVersionValueMap(CircuitBreaker breaker, int expectedSize) {
+        this.breaker = breaker;
+        final int expectedSizePerStripe = expectedSize / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(expectedSizePerStripe);
+        }
+        breaker.addWithoutBreaking(SHALLOW_SIZE + STRIPES * STRIPE_SHALLOW_SIZE);
+    }
+
+    private static int hash(BytesRef uid) {
+        return BitMixer.mix32(uid.hashCode());
+    }
+
+    private Stripe stripe(int hash) {
+        // use the high bits of the mixed hash, the low bits select the slot within the stripe's hash table
+        return stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+    }
+
+    @Override
+    public VersionValue get(Object key) {
+        if (key instanceof BytesRef uid) {
+            final int hash = hash(uid);
+            return stripe(hash).get(uid, hash);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public VersionValue put(BytesRef uid, VersionValue value) {
+        assert value != null;
+        final int hash = hash(uid);
+        return stripe(hash).put(uid, hash, value);
+    }
+
+    @Override
+    public VersionValue remove(Object key) {
+        if (key instanceof BytesRef uid) {
+            final int hash = hash(uid);
+            return stripe(hash).remove(uid, hash);
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.liveEntries;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (stripe.liveEntries > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a point in time copy of the live entries. This copies all keys so it should only be used when merging maps or in tests.
+     */
+    @Override
+    public Set<Entry<BytesRef, VersionValue>> entrySet() {
+        final Set<Entry<BytesRef, VersionValue>> entries = new HashSet<>(size());
+        for (Stripe stripe : stripes) {
+            stripe.collect(entries);
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+    /**
+     * Releases the memory of this map from the circuit breaker. The map stays readable, and memory that it allocates afterwards isn't
+     * accounted anymore, since it is going away.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            long bytes = SHALLOW_SIZE + STRIPES * STRIPE_SHALLOW_SIZE;
+            for (Stripe stripe : stripes) {
+                bytes += stripe.release();
+            }
+            breaker.addWithoutBreaking(-bytes);
+        }
+    }
+
+    /**
+     * A generation of the hash table of a stripe. The slots hold the location of the id in the pages, plus one so that {@code 0} marks
+     * an empty slot, and are written after the id and the value so that readers never see a partially written entry. The table is
+     * replaced as a whole when it is rebuilt, ids are never moved within a generation.
+     */
+    private static final class Table {
+        final AtomicLongArray slots;
+        final VersionValue[] values;
+        final byte[][] pages;
+
+        Table(int capacity, byte[][] pages) {
+            this.slots = new AtomicLongArray(capacity);
+            this.values = new VersionValue[capacity];
+            this.pages = pages;
+        }
+
+        Table(Table table, byte[][] pages) {
+            this.slots = table.slots;
+            this.values = table.values;
+            this.pages = pages;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        /**
+         * Returns the slot of the given id, or {@code -1 - slot} of the empty slot it would be added to if it isn't in the table.
+         */
+        int find(BytesRef uid, int hash) {
+            final int mask = capacity() - 1;
+            for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+                final long location = slots.get(slot);
+                if (location == 0) {
+                    return -1 - slot;
+                }
+                if (idEquals(location - 1, uid)) {
+                    return slot;
+                }
+            }
+        }
+
+        private boolean idEquals(long location, BytesRef uid) {
+            final int pageIndex = (int) (location >>> OFFSET_BITS);
+            if (pageIndex >= pages.length) {
+                // an id that was added to a newer generation of the pages concurrently, it can't be the id we are looking for
+                return false;
+            }
+            final byte[] page = pages[pageIndex];
+            final int offset = (int) (location & ((1 << OFFSET_BITS) - 1));
+            final int length = ((page[offset] & 0xFF) << Byte.SIZE) | (page[offset + 1] & 0xFF);
+            final int start = offset + LENGTH_BYTES;
+            return Arrays.equals(page, start, start + length, uid.bytes, uid.offset, uid.offset + uid.length);
+        }
+
+        BytesRef id(long location) {
+            final byte[] page = pages[(int) (location >>> OFFSET_BITS)];
+            final int offset = (int) (location & ((1 << OFFSET_BITS) - 1));
+            final int length = ((page[offset] & 0xFF) << Byte.SIZE) | (page[offset + 1] & 0xFF);
+            return new BytesRef(page, offset + LENGTH_BYTES, length);
+        }
+
+        long ramBytesUsed() {
+            return TABLE_SHALLOW_SIZE + RamUsageEstimator.alignObjectSize(
+                RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) capacity() * Long.BYTES
+            ) + RamUsageEstimator.shallowSizeOf(values) + RamUsageEstimator.shallowSizeOf(pages);
+        }
+    }
+
+    private final class Stripe {
+        private final int initialCapacity;
+
+        // allocated lazily since most transition maps of idle or append-only shards never see a single entry
+        private volatile Table table;
+        // written under the stripe lock, read without it to compute size estimates
+        private volatile int liveEntries;
+
+        // the fields below are only accessed under the stripe lock
+        private int usedSlots;
+        private int pageCount;
+        private int pageOffset;
+        private long accountedBytes;
+        private boolean released;
+
+        Stripe(int expectedSize) {
+            this.initialCapacity = capacityFor(expectedSize);
+        }
+
+        VersionValue get(BytesRef uid, int hash) {
+            final Table table = this.table;
+            if (table == null) {
+                return null;
+            }
+            final int slot = table.find(uid, hash);
+            return slot < 0 ? null : table.values[slot];
+        }
+
+        synchronized VersionValue put(BytesRef uid, int hash, VersionValue value) {
+            if (table == null) {
+                table = new Table(initialCapacity, new byte[1][]);
+                account(table.ramBytesUsed());
+            }
+            Table table = this.table;
+            int slot = table.find(uid, hash);
+            if (slot >= 0) {
+                final VersionValue previous = table.values[slot];
+                table.values[slot] = value;
+                if (previous == null) {
+                    liveEntries++;
+                }
+                return previous;
+            }
+            if (usedSlots + 1 > table.capacity() / 2) {
+                // rebuild the table with the live entries only, which reclaims the slots and the ids of removed entries
+                table = rebuild(liveEntries + 1 > table.capacity() / 4 ? table.capacity() * 2 : table.capacity());
+                slot = table.find(uid, hash);
+                assert slot < 0;
+            }
+            table = add(table, -1 - slot, uid, value);
+            liveEntries++;
+            return null;
+        }
+
+        synchronized VersionValue remove(BytesRef uid, int hash) {
+            final Table table = this.table;
+            if (table == null) {
+                return null;
+            }
+            final int slot = table.find(uid, hash);
+            if (slot < 0) {
+                return null;
+            }
+            final VersionValue previous = table.values[slot];
+            if (previous != null) {
+                table.values[slot] = null;
+                liveEntries--;
+            }
+            return previous;
+        }
+
+        /**
+         * Adds an id that isn't in the table to the given empty slot. Returns the table, which is replaced if a page was added.
+         */
+        private Table add(Table table, int slot, BytesRef uid, VersionValue value) {
+            if (uid.length > MAX_ID_LENGTH) {
+                throw new IllegalArgumentException("id is too long [" + uid.length + "]");
+            }
+            final int needed = LENGTH_BYTES + uid.length;
+            byte[] page = pageCount == 0 ? null : table.pages[pageCount - 1];
+            if (page == null || pageOffset + needed > page.length) {
+                table = addPage(table, Math.max(PAGE_SIZE, needed));
+                page = table.pages[pageCount - 1];
+            }
+            final int offset = pageOffset;
+            page[offset] = (byte) (uid.length >>> Byte.SIZE);
+            page[offset + 1] = (byte) uid.length;
+            System.arraycopy(uid.bytes, uid.offset, page, offset + LENGTH_BYTES, uid.length);
+            pageOffset += needed;
+            table.values[slot] = value;
+            // publishing the slot makes the id and the value visible to readers
+            table.slots.set(slot, ((((long) pageCount - 1) << OFFSET_BITS) | offset) + 1);
+            usedSlots++;
+            return table;
+        }
+
+        private Table addPage(Table table, int size) {
+            byte[][] pages = table.pages;
+            if (pageCount == pages.length) {
+                // readers that still see the previous pages can't be looking for the ids that are added to the new ones
+                final long before = RamUsageEstimator.shallowSizeOf(pages);
+                pages = Arrays.copyOf(pages, pages.length * 2);
+                account(RamUsageEstimator.shallowSizeOf(pages) - before);
+                table = new Table(table, pages);
+                this.table = table;
+            }
+            final byte[] page = new byte[size];
+            account(RamUsageEstimator.sizeOf(page));
+            pages[pageCount++] = page;
+            pageOffset = 0;
+            return table;
+        }
+
+        private Table rebuild(int capacity) {
+            final Table previous = this.table;
+            final long previousBytes = previous.ramBytesUsed() + pagesBytes(previous);
+            Table table = new Table(capacity, new byte[Math.max(1, previous.pages.length)][]);
+            pageCount = 0;
+            pageOffset = 0;
+            usedSlots = 0;
+            account(table.ramBytesUsed());
+            for (int slot = 0; slot < previous.capacity(); slot++) {
+                final long location = previous.slots.get(slot);
+                final VersionValue value = previous.values[slot];
+                if (location != 0 && value != null) {
+                    final BytesRef uid = previous.id(location - 1);
+                    final int newSlot = table.find(uid, hash(uid));
+                    assert newSlot < 0;
+                    table = add(table, -1 - newSlot, uid, value);
+                }
+            }
+            // readers that still use the previous table keep finding the same values in it
+            this.table = table;
+            account(-previousBytes);
+            return table;
+        }
+
+        private long pagesBytes(Table table) {
+            long bytes = 0;
+            for (int i = 0; i < pageCount; i++) {
+                bytes += RamUsageEstimator.sizeOf(table.pages[i]);
+            }
+            return bytes;
+        }
+
+        private void account(long bytes) {
+            if (released == false) {
+                breaker.addWithoutBreaking(bytes);
+                accountedBytes += bytes;
+            }
+        }
+
+        /**
+         * Stops accounting this stripe and returns the bytes that have to be released.
+         */
+        synchronized long release() {
+            released = true;
+            final long bytes = accountedBytes;
+            accountedBytes = 0;
+            return bytes;
+        }
+
+        void collect(Set<Entry<BytesRef, VersionValue>> entries) {
+            final Table table = this.table;
+            if (table == null) {
+                return;
+            }
+            for (int slot = 0; slot < table.capacity(); slot++) {
+                final long location = table.slots.get(slot);
+                final VersionValue value = table.values[slot];
+                if (location != 0 && value != null) {
+                    entries.add(new SimpleImmutableEntry<>(BytesRef.deepCopyOf(table.id(location - 1)), value));
+                }
+            }
+        }
+    }
+
+    /**
+     * The capacity of a table that can hold the given number of entries at a load factor of at most one half.
+     */
+    private static int capacityFor(int expectedSize) {
+        final long capacity = Math.max(MIN_CAPACITY, 2L * expectedSize);
+        return Math.toIntExact(Math.min(1L << 30, Long.highestOneBit(capacity - 1) << 1));
+    }
+}
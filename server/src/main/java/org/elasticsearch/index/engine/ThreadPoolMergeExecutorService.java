@@ -23,6 +23,7 @@ import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.engine.ThreadPoolMergeScheduler.MergeTask;
 import org.elasticsearch.monitor.fs.FsInfo;
+import org.elasticsearch.monitor.fs.FsProbe;
 import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -37,6 +38,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -56,6 +58,7 @@ import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.USE_THREAD
 import static org.elasticsearch.monitor.fs.FsProbe.getFSInfo;
 
 public class ThreadPoolMergeExecutorService implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ThreadPoolMergeExecutorService.class);
     /** How frequently we check disk usage (default: 5 seconds). */
     public static final Setting<TimeValue> INDICES_MERGE_DISK_CHECK_INTERVAL_SETTING = Setting.positiveTimeSetting(
         "indices.merge.disk.check_interval",
@@ -157,6 +160,30 @@ public class ThreadPoolMergeExecutorService implements Closeable {
         Property.Dynamic,
         Property.NodeScope
     );
+    /**
+     * The average time per disk IO operation on the devices of the node's data paths above which the IO rate of merges is lowered,
+     * regardless of the merge backlog, so that merges leave room for searches and indexing on a contended disk.
+     * Defaults to {@code 0}, which disables the latency-based IO throttling.
+     */
+    public static final Setting<TimeValue> INDICES_MERGE_DISK_IO_LATENCY_BUDGET_SETTING = Setting.timeSetting(
+        "indices.merge.disk.io_latency_budget",
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+    /**
+     * The maximum number of additional threads, across all merges on the node, that merges can use to merge the different parts of
+     * the segments (e.g. postings, doc values and vectors) concurrently. When this budget is used up, the thread that runs the merge
+     * does the work itself. Defaults to {@code 0}, i.e. merges are single-threaded.
+     */
+    public static final Setting<Integer> INDICES_MERGE_INTRA_MERGE_MAX_THREADS_SETTING = Setting.intSetting(
+        "indices.merge.intra_merge.max_threads",
+        0,
+        0,
+        Property.Dynamic,
+        Property.NodeScope
+    );
     /**
      * Floor for IO write rate limit of individual merge tasks (we will never go any lower than this)
      */
@@ -191,6 +218,11 @@ public class ThreadPoolMergeExecutorService implements Closeable {
      * across all {@link ThreadPoolMergeScheduler}s that use this instance of the queue.
      */
     private final AtomicIORate targetIORateBytesPerSec = new AtomicIORate(START_IO_RATE.getBytes());
+    /**
+     * Upper bound for the IO write throttle rate of merge tasks, lowered while the measured disk IO latency exceeds the
+     * {@link #INDICES_MERGE_DISK_IO_LATENCY_BUDGET_SETTING}, and {@link #MAX_IO_RATE} (i.e. no bound) otherwise.
+     */
+    private final AtomicIORate ioLatencyCapBytesPerSec = new AtomicIORate(MAX_IO_RATE.getBytes());
     private final ExecutorService executorService;
     /**
      * The maximum number of concurrently running merges, given the number of threads in the pool.
@@ -199,6 +231,15 @@ public class ThreadPoolMergeExecutorService implements Closeable {
     private final int concurrentMergesFloorLimitForThrottling;
     private final int concurrentMergesCeilLimitForThrottling;
     private final AvailableDiskSpacePeriodicMonitor availableDiskSpacePeriodicMonitor;
+    private final DiskIOLatencyPeriodicMonitor diskIOLatencyPeriodicMonitor;
+    /**
+     * The executor that runs the intra-merge tasks that are forked off the merge threads, within the budget of
+     * {@link #maxIntraMergeThreads} threads.
+     */
+    private final Executor intraMergeForkExecutor;
+    private final Executor intraMergeExecutor = this::executeIntraMergeTask;
+    private final AtomicInteger intraMergeThreadsInUse = new AtomicInteger();
+    private volatile int maxIntraMergeThreads;
 
     private final List<MergeEventListener> mergeEventListeners = new CopyOnWriteArrayList<>();
 
@@ -233,6 +274,15 @@ public class ThreadPoolMergeExecutorService implements Closeable {
             clusterSettings,
             (availableDiskSpaceByteSize) -> this.queuedMergeTasks.updateBudget(availableDiskSpaceByteSize.getBytes())
         );
+        this.diskIOLatencyPeriodicMonitor = startDiskIOLatencyMonitoring(
+            threadPool,
+            nodeEnvironment,
+            clusterSettings,
+            this::updateIOLatencyCap
+        );
+        // the merge thread pool is fully taken by merge tasks that block waiting for each other, so fork to the generic pool instead
+        this.intraMergeForkExecutor = threadPool.generic();
+        clusterSettings.initializeAndWatch(INDICES_MERGE_INTRA_MERGE_MAX_THREADS_SETTING, value -> this.maxIntraMergeThreads = value);
     }
 
     boolean submitMergeTask(MergeTask mergeTask) {
@@ -259,11 +309,7 @@ public class ThreadPoolMergeExecutorService implements Closeable {
                         // For performance reasons, we don't synchronize the updates to targetMBPerSec values with the update of running
                         // merges.
                         if (prevTargetIORateBytesPerSec != newTargetIORateBytesPerSec) {
-                            runningMergeTasks.forEach(runningMergeTask -> {
-                                if (runningMergeTask.supportsIOThrottling()) {
-                                    runningMergeTask.setIORateLimit(newTargetIORateBytesPerSec);
-                                }
-                            });
+                            updateIORateLimitOfRunningMergeTasks(cappedIORate(newTargetIORateBytesPerSec));
                         }
                     }
                 );
@@ -352,7 +398,7 @@ public class ThreadPoolMergeExecutorService implements Closeable {
         assert added : "starting merge task [" + mergeTask + "] registered as already running";
         try {
             if (mergeTask.supportsIOThrottling()) {
-                mergeTask.setIORateLimit(targetIORateBytesPerSec.get());
+                mergeTask.setIORateLimit(getTargetIORateBytesPerSec());
             }
             mergeTask.run();
         } finally {
@@ -378,6 +424,81 @@ public class ThreadPoolMergeExecutorService implements Closeable {
         }
     }
 
+    private void updateIORateLimitOfRunningMergeTasks(long ioRateBytesPerSec) {
+        runningMergeTasks.forEach(runningMergeTask -> {
+            if (runningMergeTask.supportsIOThrottling()) {
+                runningMergeTask.setIORateLimit(ioRateBytesPerSec);
+            }
+        });
+    }
+
+    private long cappedIORate(long ioRateBytesPerSec) {
+        return Math.min(ioRateBytesPerSec, ioLatencyCapBytesPerSec.get());
+    }
+
+    private void updateIOLatencyCap(double ioLatencyMillis, TimeValue ioLatencyBudget) {
+        ioLatencyCapBytesPerSec.update(
+            currentCapBytesPerSec -> newIOLatencyCapBytesPerSec(
+                currentCapBytesPerSec,
+                targetIORateBytesPerSec.get(),
+                ioLatencyMillis,
+                ioLatencyBudget
+            ),
+            (prevCapBytesPerSec, newCapBytesPerSec) -> {
+                if (prevCapBytesPerSec != newCapBytesPerSec) {
+                    logger.debug(
+                        "disk IO latency [{}ms] against budget [{}], merge IO rate cap changed from [{}] to [{}]",
+                        ioLatencyMillis,
+                        ioLatencyBudget,
+                        ByteSizeValue.ofBytes(prevCapBytesPerSec),
+                        ByteSizeValue.ofBytes(newCapBytesPerSec)
+                    );
+                    updateIORateLimitOfRunningMergeTasks(getTargetIORateBytesPerSec());
+                }
+            }
+        );
+    }
+
+    /**
+     * Returns the executor that Lucene uses to run the parts of a merge that can proceed concurrently, see
+     * {@link org.apache.lucene.index.MergeScheduler#getIntraMergeExecutor}.
+     */
+    Executor getIntraMergeExecutor() {
+        return intraMergeExecutor;
+    }
+
+    private void executeIntraMergeTask(Runnable task) {
+        if (tryAcquireIntraMergeThread()) {
+            try {
+                intraMergeForkExecutor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        intraMergeThreadsInUse.decrementAndGet();
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                intraMergeThreadsInUse.decrementAndGet();
+            }
+        }
+        // out of budget: run the task on the merge thread. Lucene's TaskExecutor also runs any of the forked tasks that have not
+        // started yet on the merge thread once it is done with its own, so a merge never waits on the budget
+        task.run();
+    }
+
+    private boolean tryAcquireIntraMergeThread() {
+        while (true) {
+            int inUse = intraMergeThreadsInUse.get();
+            if (inUse >= maxIntraMergeThreads) {
+                return false;
+            }
+            if (intraMergeThreadsInUse.compareAndSet(inUse, inUse + 1)) {
+                return true;
+            }
+        }
+    }
+
     /**
      * Start monitoring the available disk space, and update the available budget for running merge tasks
      * Note: this doesn't work correctly for nodes with multiple data paths, as it only considers the data path with the MOST
@@ -545,6 +666,144 @@ public class ThreadPoolMergeExecutorService implements Closeable {
         }
     }
 
+    /**
+     * Start sampling the disk IO latency of the devices of the node's data paths, which is only available on Linux, and feed it to
+     * the given consumer together with the configured latency budget.
+     */
+    static DiskIOLatencyPeriodicMonitor startDiskIOLatencyMonitoring(
+        ThreadPool threadPool,
+        NodeEnvironment nodeEnvironment,
+        ClusterSettings clusterSettings,
+        DiskIOLatencyPeriodicMonitor.UpdateConsumer ioLatencyUpdateConsumer
+    ) {
+        DiskIOLatencyPeriodicMonitor diskIOLatencyPeriodicMonitor = new DiskIOLatencyPeriodicMonitor(
+            new FsProbe(nodeEnvironment),
+            threadPool,
+            clusterSettings.get(INDICES_MERGE_DISK_IO_LATENCY_BUDGET_SETTING),
+            clusterSettings.get(INDICES_MERGE_DISK_CHECK_INTERVAL_SETTING),
+            ioLatencyUpdateConsumer
+        );
+        diskIOLatencyPeriodicMonitor.start();
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_MERGE_DISK_IO_LATENCY_BUDGET_SETTING,
+            diskIOLatencyPeriodicMonitor::setIOLatencyBudget
+        );
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_MERGE_DISK_CHECK_INTERVAL_SETTING,
+            diskIOLatencyPeriodicMonitor::setCheckInterval
+        );
+        return diskIOLatencyPeriodicMonitor;
+    }
+
+    static class DiskIOLatencyPeriodicMonitor implements Closeable {
+        private static final Logger LOGGER = LogManager.getLogger(DiskIOLatencyPeriodicMonitor.class);
+        private final FsProbe fsProbe;
+        private final ThreadPool threadPool;
+        private volatile TimeValue ioLatencyBudget;
+        private volatile TimeValue checkInterval;
+        private final UpdateConsumer updateConsumer;
+        private volatile boolean closed;
+        private volatile Scheduler.Cancellable monitor;
+        // only accessed by the (single) scheduled run
+        private FsInfo previousFsInfo;
+
+        DiskIOLatencyPeriodicMonitor(
+            FsProbe fsProbe,
+            ThreadPool threadPool,
+            TimeValue ioLatencyBudget,
+            TimeValue checkInterval,
+            UpdateConsumer updateConsumer
+        ) {
+            this.fsProbe = fsProbe;
+            this.threadPool = threadPool;
+            this.ioLatencyBudget = ioLatencyBudget;
+            this.checkInterval = checkInterval;
+            this.updateConsumer = updateConsumer;
+            this.closed = false;
+        }
+
+        /**
+         * Starts sampling. This is separate from the constructor so that the scheduled task never sees a partially constructed monitor.
+         */
+        void start() {
+            reschedule();
+        }
+
+        void setCheckInterval(TimeValue checkInterval) {
+            this.checkInterval = checkInterval;
+            reschedule();
+        }
+
+        void setIOLatencyBudget(TimeValue ioLatencyBudget) {
+            this.ioLatencyBudget = ioLatencyBudget;
+            reschedule();
+        }
+
+        private synchronized void reschedule() {
+            if (monitor != null) {
+                monitor.cancel();
+            }
+            if (closed == false && checkInterval.duration() > 0 && ioLatencyBudget.duration() > 0) {
+                monitor = threadPool.scheduleWithFixedDelay(this::run, checkInterval, threadPool.generic());
+            } else {
+                monitor = null;
+                // lift any IO rate bound that the previous budget imposed
+                updateConsumer.accept(-1, ioLatencyBudget);
+            }
+        }
+
+        boolean isScheduled() {
+            return monitor != null && closed == false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            reschedule();
+        }
+
+        private synchronized void run() {
+            if (closed) {
+                return;
+            }
+            FsInfo fsInfo;
+            try {
+                fsInfo = fsProbe.stats(previousFsInfo);
+            } catch (IOException e) {
+                LOGGER.warn("unexpected exception reading filesystem info", e);
+                return;
+            }
+            previousFsInfo = fsInfo;
+            updateConsumer.accept(averageIOLatencyMillis(fsInfo.getIoStats()), ioLatencyBudget);
+        }
+
+        /**
+         * Returns the average time that an IO operation took since the previous sample, on the most loaded device,
+         * or {@code -1} if that is unknown. This is the time spent reading and writing, which includes the time the
+         * operations waited in the device queue, divided by the number of operations. The time the device was busy
+         * ({@code io_ticks}) can't be used instead because it stops growing with the load once the device is saturated.
+         */
+        static double averageIOLatencyMillis(@Nullable FsInfo.IoStats ioStats) {
+            double maxLatencyMillis = -1;
+            if (ioStats != null) {
+                for (FsInfo.DeviceStats deviceStats : ioStats.getDevicesStats()) {
+                    long operations = deviceStats.operations();
+                    long readTimeInMillis = deviceStats.readTimeInMillis();
+                    long writeTimeInMillis = deviceStats.writeTimeInMillis();
+                    if (operations > 0 && readTimeInMillis >= 0 && writeTimeInMillis >= 0) {
+                        maxLatencyMillis = Math.max(maxLatencyMillis, (double) (readTimeInMillis + writeTimeInMillis) / operations);
+                    }
+                }
+            }
+            return maxLatencyMillis;
+        }
+
+        @FunctionalInterface
+        interface UpdateConsumer {
+            void accept(double ioLatencyMillis, TimeValue ioLatencyBudget);
+        }
+    }
+
     static class MergeTaskPriorityBlockingQueue extends PriorityBlockingQueueWithBudget<MergeTask> {
         MergeTaskPriorityBlockingQueue() {
             // start with 0 budget (so takes on this queue will always block until {@link #updateBudget} is invoked)
@@ -730,6 +989,33 @@ public class ThreadPoolMergeExecutorService implements Closeable {
         return newTargetIORateBytesPerSec;
     }
 
+    /**
+     * Computes the new upper bound of the merge IO rate from the average disk IO latency that was measured since the previous sample.
+     * Above the budget the bound is lowered by 20% from whichever of the bound or the current target IO rate is lower, so that it
+     * bites immediately. Under half of the budget the bound is lifted again by 10%, and removed altogether once it reaches
+     * {@link #MAX_IO_RATE}.
+     */
+    static long newIOLatencyCapBytesPerSec(
+        long currentCapBytesPerSec,
+        long currentTargetIORateBytesPerSec,
+        double ioLatencyMillis,
+        TimeValue ioLatencyBudget
+    ) {
+        if (ioLatencyBudget.duration() <= 0 || ioLatencyMillis < 0) {
+            // disabled, or the latency could not be measured
+            return MAX_IO_RATE.getBytes();
+        }
+        double budgetMillis = ioLatencyBudget.millisFrac();
+        if (ioLatencyMillis > budgetMillis) {
+            long current = Math.min(currentCapBytesPerSec, currentTargetIORateBytesPerSec);
+            return Math.max(MIN_IO_RATE.getBytes(), current - current / 5L);
+        } else if (ioLatencyMillis < budgetMillis / 2 && currentCapBytesPerSec < MAX_IO_RATE.getBytes()) {
+            return Math.min(MAX_IO_RATE.getBytes(), currentCapBytesPerSec + currentCapBytesPerSec / 10L);
+        } else {
+            return currentCapBytesPerSec;
+        }
+    }
+
     static class AtomicIORate {
         private final AtomicLong ioRate;
 
@@ -786,7 +1072,17 @@ public class ThreadPoolMergeExecutorService implements Closeable {
 
     // exposed for tests and stats
     long getTargetIORateBytesPerSec() {
-        return targetIORateBytesPerSec.get();
+        return cappedIORate(targetIORateBytesPerSec.get());
+    }
+
+    // exposed for tests
+    long getIOLatencyCapBytesPerSec() {
+        return ioLatencyCapBytesPerSec.get();
+    }
+
+    // exposed for tests
+    int getIntraMergeThreadsInUse() {
+        return intraMergeThreadsInUse.get();
     }
 
     // exposed for tests
@@ -797,5 +1093,6 @@ public class ThreadPoolMergeExecutorService implements Closeable {
     @Override
     public void close() throws IOException {
         availableDiskSpacePeriodicMonitor.close();
+        diskIOLatencyPeriodicMonitor.close();
     }
 }
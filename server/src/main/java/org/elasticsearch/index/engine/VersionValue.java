@@ -32,6 +32,14 @@ public abstract class VersionValue implements Accountable {
         this.term = term;
     }
 
+    /**
+     * Creates the version value of an indexed document, as the engine puts it into the {@link LiveVersionMap}. This is meant for tests
+     * and benchmarks, which can't otherwise build version values outside of this package.
+     */
+    public static VersionValue ofIndex(@Nullable Translog.Location translogLocation, long version, long seqNo, long term) {
+        return new IndexVersionValue(translogLocation, version, seqNo, term);
+    }
+
     public boolean isDelete() {
         return false;
     }
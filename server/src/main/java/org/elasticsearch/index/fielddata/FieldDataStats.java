@@ -34,6 +34,8 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
     private static final String GLOBAL_ORDINALS = "global_ordinals";
     private static final String SHARD_MAX_VALUE_COUNT = "shard_max_value_count";
     private static final String BUILD_TIME = "build_time";
+    private static final String LOAD_COUNT = "load_count";
+    private static final String UNCHANGED_READER_REUSE_COUNT = "unchanged_reader_reuse_count";
     private long memorySize;
     private long evictions;
     @Nullable
@@ -56,7 +58,11 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
                     in1 -> new GlobalOrdinalsStats.GlobalOrdinalFieldStats(in1.readVLong(), in1.readVLong())
                 );
             }
-            globalOrdinalsStats = new GlobalOrdinalsStats(buildTimeMillis, fieldGlobalOrdinalsStats);
+            if (in.getTransportVersion().onOrAfter(TransportVersions.GLOBAL_ORDINALS_REUSE_STATS)) {
+                globalOrdinalsStats = new GlobalOrdinalsStats(buildTimeMillis, fieldGlobalOrdinalsStats, in.readVLong(), in.readVLong());
+            } else {
+                globalOrdinalsStats = new GlobalOrdinalsStats(buildTimeMillis, fieldGlobalOrdinalsStats);
+            }
         } else {
             globalOrdinalsStats = new GlobalOrdinalsStats(0, null);
         }
@@ -122,6 +128,10 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
             } else {
                 out.writeBoolean(false);
             }
+            if (out.getTransportVersion().onOrAfter(TransportVersions.GLOBAL_ORDINALS_REUSE_STATS)) {
+                out.writeVLong(globalOrdinalsStats.loadCount);
+                out.writeVLong(globalOrdinalsStats.unchangedReaderReuseCount);
+            }
         }
     }
 
@@ -135,6 +145,8 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
         }
         builder.startObject(GLOBAL_ORDINALS);
         builder.humanReadableField(BUILD_TIME + "_in_millis", BUILD_TIME, new TimeValue(globalOrdinalsStats.buildTimeMillis));
+        builder.field(LOAD_COUNT, globalOrdinalsStats.loadCount);
+        builder.field(UNCHANGED_READER_REUSE_COUNT, globalOrdinalsStats.unchangedReaderReuseCount);
         if (globalOrdinalsStats.fieldGlobalOrdinalsStats != null) {
             builder.startObject(FIELDS);
             for (var entry : globalOrdinalsStats.fieldGlobalOrdinalsStats.entrySet()) {
@@ -172,22 +184,54 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
      * <p>
      * Global ordinals can speed up sorting and aggregations, but can be expensive to build (dependents on number of unique values).
      * Each time a refresh happens global ordinals need to be rebuilt. These stats should give more insight on these costs.
+     * <p>
+     * Global ordinals are not rebuilt when the refreshed reader has exactly the same segments as the previous reader, with the same
+     * terms. The number of global ordinals that were reused for such an unchanged reader is tracked alongside the total number of
+     * global ordinals loaded. They are never updated incrementally though, so any new or merged segment rebuilds them entirely, and
+     * on indices that receive new documents between refreshes they are hardly ever reused.
      */
     public static class GlobalOrdinalsStats {
 
         private long buildTimeMillis;
         @Nullable
         private Map<String, GlobalOrdinalFieldStats> fieldGlobalOrdinalsStats;
+        private long loadCount;
+        private long unchangedReaderReuseCount;
 
         public GlobalOrdinalsStats(long buildTimeMillis, Map<String, GlobalOrdinalFieldStats> fieldGlobalOrdinalsStats) {
+            this(buildTimeMillis, fieldGlobalOrdinalsStats, 0, 0);
+        }
+
+        public GlobalOrdinalsStats(
+            long buildTimeMillis,
+            Map<String, GlobalOrdinalFieldStats> fieldGlobalOrdinalsStats,
+            long loadCount,
+            long unchangedReaderReuseCount
+        ) {
             this.buildTimeMillis = buildTimeMillis;
             this.fieldGlobalOrdinalsStats = fieldGlobalOrdinalsStats;
+            this.loadCount = loadCount;
+            this.unchangedReaderReuseCount = unchangedReaderReuseCount;
         }
 
         public long getBuildTimeMillis() {
             return buildTimeMillis;
         }
 
+        /**
+         * @return the number of global ordinals that were loaded, either built or reused.
+         */
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        /**
+         * @return the number of global ordinals that reused the ordinal map of a previous reader with exactly the same segments.
+         */
+        public long getUnchangedReaderReuseCount() {
+            return unchangedReaderReuseCount;
+        }
+
         @Nullable
         public Map<String, GlobalOrdinalFieldStats> getFieldGlobalOrdinalsStats() {
             return fieldGlobalOrdinalsStats;
@@ -195,6 +239,8 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
 
         void add(GlobalOrdinalsStats other) {
             buildTimeMillis += other.buildTimeMillis;
+            loadCount += other.loadCount;
+            unchangedReaderReuseCount += other.unchangedReaderReuseCount;
             if (fieldGlobalOrdinalsStats != null && other.fieldGlobalOrdinalsStats != null) {
                 for (var entry : other.fieldGlobalOrdinalsStats.entrySet()) {
                     fieldGlobalOrdinalsStats.merge(
@@ -216,12 +262,15 @@ public class FieldDataStats implements Writeable, ToXContentFragment {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             GlobalOrdinalsStats that = (GlobalOrdinalsStats) o;
-            return buildTimeMillis == that.buildTimeMillis && Objects.equals(fieldGlobalOrdinalsStats, that.fieldGlobalOrdinalsStats);
+            return buildTimeMillis == that.buildTimeMillis
+                && loadCount == that.loadCount
+                && unchangedReaderReuseCount == that.unchangedReaderReuseCount
+                && Objects.equals(fieldGlobalOrdinalsStats, that.fieldGlobalOrdinalsStats);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(buildTimeMillis, fieldGlobalOrdinalsStats);
+            return Objects.hash(buildTimeMillis, fieldGlobalOrdinalsStats, loadCount, unchangedReaderReuseCount);
         }
 
         public record GlobalOrdinalFieldStats(long totalBuildingTime, long valueCount) {}
@@ -266,5 +266,14 @@ public interface IndexFieldData<FD extends LeafFieldData> {
 
         IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader) throws Exception;
 
+        /**
+         * Loads the global field data of the given reader, possibly reusing the global field data that was loaded for a previous
+         * reader of the same shard. Global ordinals are only reused if both readers have exactly the same segments, they are
+         * rebuilt entirely otherwise.
+         */
+        default IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader, @Nullable IndexFieldData<?> previous) throws Exception {
+            return loadGlobalDirect(indexReader);
+        }
+
     }
 }
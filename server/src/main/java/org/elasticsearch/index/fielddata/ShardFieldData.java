@@ -29,6 +29,8 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
     private final CounterMetric totalMetric = new CounterMetric();
     private final ConcurrentMap<String, CounterMetric> perFieldTotals = ConcurrentCollections.newConcurrentMap();
     private final CounterMetric buildTime = new CounterMetric();
+    private final CounterMetric loadCount = new CounterMetric();
+    private final CounterMetric unchangedReaderReuseCount = new CounterMetric();
     private final ConcurrentMap<String, GlobalOrdinalFieldStats> perFieldGlobalOrdinalStats = ConcurrentCollections.newConcurrentMap();
 
     public FieldDataStats stats(String... fields) {
@@ -60,7 +62,12 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
             totalMetric.count(),
             evictionsMetric.count(),
             fieldTotals == null ? null : new FieldMemoryStats(fieldTotals),
-            new FieldDataStats.GlobalOrdinalsStats(buildTime.count(), fieldGlobalOrdinalsStats)
+            new FieldDataStats.GlobalOrdinalsStats(
+                buildTime.count(),
+                fieldGlobalOrdinalsStats,
+                loadCount.count(),
+                unchangedReaderReuseCount.count()
+            )
         );
     }
 
@@ -83,6 +90,10 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
     @Override
     public void onCache(ShardId shardId, String fieldName, GlobalOrdinalsAccounting info) {
         buildTime.inc(info.getBuildingTime().millis());
+        loadCount.inc();
+        if (info.isReused()) {
+            unchangedReaderReuseCount.inc();
+        }
         perFieldGlobalOrdinalStats.compute(fieldName, (f, globalOrdinalFieldStats) -> {
             if (globalOrdinalFieldStats == null) {
                 globalOrdinalFieldStats = new GlobalOrdinalFieldStats();
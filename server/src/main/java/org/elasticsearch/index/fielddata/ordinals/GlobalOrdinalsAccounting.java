@@ -32,4 +32,12 @@ public interface GlobalOrdinalsAccounting {
      */
     TimeValue getBuildingTime();
 
+    /**
+     * @return whether this global ordinal instance reuses the ordinal map of the global ordinals of a previous reader instead of
+     * building a new one.
+     */
+    default boolean isReused() {
+        return false;
+    }
+
 }
@@ -11,14 +11,17 @@ package org.elasticsearch.index.fielddata.ordinals;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FilterLeafReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
@@ -26,6 +29,7 @@ import org.elasticsearch.index.fielddata.plain.AbstractLeafOrdinalsFieldData;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,6 +47,26 @@ public enum GlobalOrdinalsBuilder {
         CircuitBreaker breaker,
         Logger logger,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
+    ) throws IOException {
+        return build(indexReader, indexFieldData, null, breaker, logger, toScriptFieldFactory);
+    }
+
+    /**
+     * Build global ordinals for the provided {@link IndexReader}, reusing the ordinal map of the global ordinals of a previous
+     * reader if the segments of both readers have the same terms for the field. This is the case when the reader was reopened
+     * without new or merged segments, for instance when documents of existing segments were only marked as soft deleted.
+     * <p>
+     * The ordinal map is either reused as a whole or rebuilt from scratch, it is never updated incrementally: a single new,
+     * merged or dropped segment rebuilds it, even if it has no terms for the field. Note that deletes and updates through the
+     * engine index a tombstone or a new document, so the refreshes that expose them also rebuild the global ordinals.
+     */
+    public static IndexOrdinalsFieldData build(
+        final IndexReader indexReader,
+        IndexOrdinalsFieldData indexFieldData,
+        @Nullable IndexOrdinalsFieldData previous,
+        CircuitBreaker breaker,
+        Logger logger,
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
     ) throws IOException {
         assert indexReader.leaves().size() > 1;
         long startTimeNS = System.nanoTime();
@@ -53,6 +77,30 @@ public enum GlobalOrdinalsBuilder {
             atomicFD[i] = indexFieldData.load(indexReader.leaves().get(i));
             subs[i] = atomicFD[i].getOrdinalsValues();
         }
+        final Object[] segmentKeys = segmentKeys(indexReader, indexFieldData.getFieldName());
+        if (segmentKeys != null
+            && previous instanceof GlobalOrdinalsIndexFieldData previousGlobalOrdinals
+            && Arrays.equals(segmentKeys, previousGlobalOrdinals.getSegmentKeys())) {
+            final OrdinalMap ordinalMap = previousGlobalOrdinals.getOrdinalMap();
+            // the ordinal map is shared with the previous global ordinals but each of them accounts for it until it is released
+            final long memorySizeInBytes = ordinalMap.ramBytesUsed();
+            breaker.addWithoutBreaking(memorySizeInBytes);
+            TimeValue took = new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug("global-ordinals [{}][{}] reused in [{}]", indexFieldData.getFieldName(), ordinalMap.getValueCount(), took);
+            }
+            return new GlobalOrdinalsIndexFieldData(
+                indexFieldData.getFieldName(),
+                indexFieldData.getValuesSourceType(),
+                atomicFD,
+                ordinalMap,
+                memorySizeInBytes,
+                toScriptFieldFactory,
+                took,
+                segmentKeys,
+                true
+            );
+        }
         final TermsEnum[] termsEnums = new TermsEnum[subs.length];
         final long[] weights = new long[subs.length];
         // we assume that TermsEnum are visited sequentially, so we can share the counter between them
@@ -85,10 +133,33 @@ public enum GlobalOrdinalsBuilder {
             ordinalMap,
             memorySizeInBytes,
             toScriptFieldFactory,
-            took
+            took,
+            segmentKeys,
+            false
         );
     }
 
+    /**
+     * Returns a key per segment of the reader that identifies the terms of the given field in the segment, or {@code null} if the
+     * segments can't be identified. The terms of a segment only change with its core, or with doc values updates.
+     */
+    @Nullable
+    private static Object[] segmentKeys(IndexReader indexReader, String fieldName) {
+        final Object[] keys = new Object[indexReader.leaves().size()];
+        for (LeafReaderContext context : indexReader.leaves()) {
+            final IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+            if (cacheHelper == null) {
+                return null;
+            }
+            final FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(fieldName);
+            // segments without doc values updates have a generation of -1, use -2 for segments that don't have the field
+            keys[context.ord] = new SegmentKey(cacheHelper.getKey(), fieldInfo == null ? -2 : fieldInfo.getDocValuesGen());
+        }
+        return keys;
+    }
+
+    private record SegmentKey(IndexReader.CacheKey coreKey, long docValuesGen) {}
+
     public static IndexOrdinalsFieldData buildEmpty(
         IndexReader indexReader,
         IndexOrdinalsFieldData indexFieldData,
@@ -52,6 +52,10 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
     private final LeafOrdinalsFieldData[] segmentAfd;
     private final ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory;
     private final TimeValue took;
+    // identifies the segment terms the ordinal map was built from, null if the segments of the reader can't be identified
+    @Nullable
+    private final Object[] segmentKeys;
+    private final boolean reused;
 
     GlobalOrdinalsIndexFieldData(
         String fieldName,
@@ -61,6 +65,20 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         long memorySizeInBytes,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
         TimeValue took
+    ) {
+        this(fieldName, valuesSourceType, segmentAfd, ordinalMap, memorySizeInBytes, toScriptFieldFactory, took, null, false);
+    }
+
+    GlobalOrdinalsIndexFieldData(
+        String fieldName,
+        ValuesSourceType valuesSourceType,
+        LeafOrdinalsFieldData[] segmentAfd,
+        OrdinalMap ordinalMap,
+        long memorySizeInBytes,
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
+        TimeValue took,
+        @Nullable Object[] segmentKeys,
+        boolean reused
     ) {
         this.fieldName = fieldName;
         this.valuesSourceType = valuesSourceType;
@@ -69,6 +87,8 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         this.segmentAfd = segmentAfd;
         this.toScriptFieldFactory = toScriptFieldFactory;
         this.took = took;
+        this.segmentKeys = segmentKeys;
+        this.reused = reused;
     }
 
     public IndexOrdinalsFieldData newConsumer(DirectoryReader source) {
@@ -149,6 +169,16 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         return took;
     }
 
+    @Override
+    public boolean isReused() {
+        return reused;
+    }
+
+    @Nullable
+    Object[] getSegmentKeys() {
+        return segmentKeys;
+    }
+
     /**
      * A non-thread safe {@link IndexOrdinalsFieldData} for global ordinals that creates the {@link TermsEnum} of each
      * segment once and use them to provide a single lookup per segment.
@@ -172,6 +172,11 @@ public class ConstantIndexFieldData extends AbstractIndexOrdinalsFieldData {
         return loadGlobal(indexReader);
     }
 
+    @Override
+    public IndexOrdinalsFieldData loadGlobalDirect(DirectoryReader indexReader, IndexFieldData<?> previous) {
+        return loadGlobal(indexReader);
+    }
+
     public String getValue() {
         return atomicFieldData.value;
     }
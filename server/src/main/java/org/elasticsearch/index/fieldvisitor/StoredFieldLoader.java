@@ -29,11 +29,14 @@ import java.util.Set;
  */
 public abstract class StoredFieldLoader {
 
+    // stored fields blocks of small documents hold 128 documents or more, so such sets load several documents of most blocks
+    private static final int DENSE_DOCS_MAX_AVERAGE_GAP = 8;
+
     /**
      * Return a {@link LeafStoredFieldLoader} for the given segment and document set
      *
      * The loader will use an internal lucene merge reader if the document set is of
-     * sufficient size and is contiguous.  Callers may pass {@code null} if the set
+     * sufficient size and is dense.  Callers may pass {@code null} if the set
      * is not known up front or if the merge reader optimisation will not apply.
      */
     public abstract LeafStoredFieldLoader getLoader(LeafReaderContext ctx, int[] docs) throws IOException;
@@ -141,7 +144,7 @@ public abstract class StoredFieldLoader {
 
     private static CheckedBiConsumer<Integer, FieldsVisitor, IOException> reader(LeafReaderContext ctx, int[] docs) throws IOException {
         LeafReader leafReader = ctx.reader();
-        if (docs != null && docs.length > 10 && hasSequentialDocs(docs)) {
+        if (docs != null && docs.length > 10 && hasDenseDocs(docs)) {
             return sequentialReader(ctx);
         }
         StoredFields storedFields = leafReader.storedFields();
@@ -167,8 +170,13 @@ public abstract class StoredFieldLoader {
         return fieldsToLoad.stream().sorted().toList();
     }
 
-    private static boolean hasSequentialDocs(int[] docs) {
-        return docs.length > 0 && docs[docs.length - 1] - docs[0] == docs.length - 1;
+    /**
+     * Whether the given sorted docs are close enough to each other that most stored fields blocks they touch hold several of them. The
+     * merge reader decompresses every block it visits once and keeps it while it reads its documents, whereas random access reads
+     * decompress the block of every document.
+     */
+    private static boolean hasDenseDocs(int[] docs) {
+        return docs.length > 0 && (long) docs[docs.length - 1] - docs[0] < (long) docs.length * DENSE_DOCS_MAX_AVERAGE_GAP;
     }
 
     private static class EmptyStoredFieldLoader implements LeafStoredFieldLoader {
@@ -134,6 +134,14 @@ public final class Mapping implements ToXContentFragment {
         return root.syntheticFieldLoader(filter, mappers, false);
     }
 
+    /**
+     * Merges another dynamic mapping update into this one. Both updates are expected to be the result of parsing documents against the
+     * same mappings, so there is no limit on the number of new fields.
+     */
+    public Mapping mergeDynamicMappingsUpdate(Mapping update) {
+        return merge(update, MergeReason.MAPPING_AUTO_UPDATE, Long.MAX_VALUE);
+    }
+
     /**
      * Merges a new mapping into the existing one.
      *
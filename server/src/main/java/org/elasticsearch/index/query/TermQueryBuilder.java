@@ -9,9 +9,14 @@
 
 package org.elasticsearch.index.query;
 
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.ParsingException;
@@ -19,6 +24,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.mapper.ConstantFieldType;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.xcontent.ParseField;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -175,6 +181,37 @@ public class TermQueryBuilder extends BaseTermQueryBuilder<TermQueryBuilder> {
         return maybeRewriteBasedOnConstantFields(fieldType, context);
     }
 
+    @Override
+    protected QueryBuilder doSearchRewrite(SearchExecutionContext context) throws IOException {
+        QueryBuilder rewritten = doIndexMetadataRewrite(context);
+        if (rewritten != this) {
+            return rewritten;
+        }
+        // Seeking the term in the terms dictionaries of the shard is cheap compared to running the query, and allows the can_match
+        // phase to skip shards that don't contain the term at all, like range queries do with the min and max values of the shard.
+        MappedFieldType fieldType = context.getFieldType(this.fieldName);
+        IndexReader reader = context.getIndexReader();
+        if (caseInsensitive == false
+            && reader != null
+            && fieldType instanceof KeywordFieldMapper.KeywordFieldType keywordFieldType
+            && keywordFieldType.isIndexed()
+            && keywordFieldType.termQuery(value, context) instanceof TermQuery termQuery
+            && termExists(reader, termQuery.getTerm()) == false) {
+            return new MatchNoneQueryBuilder("The \"" + getName() + "\" query is against a term that does not exist in the shard");
+        }
+        return this;
+    }
+
+    private static boolean termExists(IndexReader reader, Term term) throws IOException {
+        for (LeafReaderContext leaf : reader.leaves()) {
+            Terms terms = leaf.reader().terms(term.field());
+            if (terms != null && terms.iterator().seekExact(term.bytes())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected QueryBuilder doCoordinatorRewrite(CoordinatorRewriteContext coordinatorRewriteContext) {
         MappedFieldType fieldType = coordinatorRewriteContext.getFieldType(this.fieldName);
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.index.refresh;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -34,6 +35,11 @@ public class RefreshStats implements Writeable, ToXContentFragment {
      */
     private int listeners;
 
+    /**
+     * Number of scheduled refreshes that were deferred because the shard wasn't searched since its last scheduled refresh.
+     */
+    private long deferred;
+
     public RefreshStats() {}
 
     public RefreshStats(StreamInput in) throws IOException {
@@ -42,6 +48,9 @@ public class RefreshStats implements Writeable, ToXContentFragment {
         externalTotal = in.readVLong();
         externalTotalTimeInMillis = in.readVLong();
         listeners = in.readVInt();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.REFRESH_STATS_DEFERRED)) {
+            deferred = in.readVLong();
+        }
     }
 
     @Override
@@ -51,14 +60,29 @@ public class RefreshStats implements Writeable, ToXContentFragment {
         out.writeVLong(externalTotal);
         out.writeVLong(externalTotalTimeInMillis);
         out.writeVInt(listeners);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.REFRESH_STATS_DEFERRED)) {
+            out.writeVLong(deferred);
+        }
     }
 
     public RefreshStats(long total, long totalTimeInMillis, long externalTotal, long externalTotalTimeInMillis, int listeners) {
+        this(total, totalTimeInMillis, externalTotal, externalTotalTimeInMillis, listeners, 0);
+    }
+
+    public RefreshStats(
+        long total,
+        long totalTimeInMillis,
+        long externalTotal,
+        long externalTotalTimeInMillis,
+        int listeners,
+        long deferred
+    ) {
         this.total = total;
         this.totalTimeInMillis = totalTimeInMillis;
         this.externalTotal = externalTotal;
         this.externalTotalTimeInMillis = externalTotalTimeInMillis;
         this.listeners = listeners;
+        this.deferred = deferred;
     }
 
     public void add(RefreshStats refreshStats) {
@@ -74,6 +98,7 @@ public class RefreshStats implements Writeable, ToXContentFragment {
         this.externalTotal += refreshStats.externalTotal;
         this.externalTotalTimeInMillis += refreshStats.externalTotalTimeInMillis;
         this.listeners += refreshStats.listeners;
+        this.deferred += refreshStats.deferred;
     }
 
     /**
@@ -125,6 +150,13 @@ public class RefreshStats implements Writeable, ToXContentFragment {
         return listeners;
     }
 
+    /**
+     * The number of scheduled refreshes that were deferred because the shard wasn't searched since its last scheduled refresh.
+     */
+    public long getDeferred() {
+        return deferred;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("refresh");
@@ -133,6 +165,7 @@ public class RefreshStats implements Writeable, ToXContentFragment {
         builder.field("external_total", externalTotal);
         builder.humanReadableField("external_total_time_in_millis", "external_total_time", getExternalTotalTime());
         builder.field("listeners", listeners);
+        builder.field("deferred", deferred);
         builder.endObject();
         return builder;
     }
@@ -147,11 +180,12 @@ public class RefreshStats implements Writeable, ToXContentFragment {
             && totalTimeInMillis == rhs.totalTimeInMillis
             && externalTotal == rhs.externalTotal
             && externalTotalTimeInMillis == rhs.externalTotalTimeInMillis
-            && listeners == rhs.listeners;
+            && listeners == rhs.listeners
+            && deferred == rhs.deferred;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(total, totalTimeInMillis, externalTotal, externalTotalTimeInMillis, listeners);
+        return Objects.hash(total, totalTimeInMillis, externalTotal, externalTotalTimeInMillis, listeners, deferred);
     }
 }
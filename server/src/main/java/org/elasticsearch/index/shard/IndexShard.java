@@ -266,6 +266,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     private final RecoveryStats recoveryStats = new RecoveryStats();
     private final MeanMetric refreshMetric = new MeanMetric();
     private final MeanMetric externalRefreshMetric = new MeanMetric();
+    private final CounterMetric deferredRefreshMetric = new CounterMetric();
     private final MeanMetric flushMetric = new MeanMetric();
     private final CounterMetric periodicFlushMetric = new CounterMetric();
 
@@ -301,6 +302,10 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     private final RefreshListeners refreshListeners;
 
     private final AtomicLong lastSearcherAccess = new AtomicLong();
+    private final AtomicLong lastScheduledRefresh = new AtomicLong();
+    // whether a searcher was acquired since the last scheduled refresh started, a flag rather than a comparison of the cached relative
+    // times since a search and a refresh in the same tick can happen in either order
+    private final AtomicBoolean searchedSinceScheduledRefresh = new AtomicBoolean(true);
     private final AtomicReference<Translog.Location> pendingRefreshLocation = new AtomicReference<>();
     private final RefreshPendingLocationListener refreshPendingLocationListener;
     private final RefreshFieldHasValueListener refreshFieldHasValueListener;
@@ -423,6 +428,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
             externalRefreshMetric
         );
         lastSearcherAccess.set(threadPool.relativeTimeInMillis());
+        lastScheduledRefresh.set(lastSearcherAccess.get());
         persistMetadata(path, indexSettings, shardRouting, null, logger);
         this.useRetentionLeasesInPeerRecovery = replicationTracker.hasAllPeerRecoveryRetentionLeases();
         this.refreshPendingLocationListener = new RefreshPendingLocationListener();
@@ -961,6 +967,39 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         );
     }
 
+    /**
+     * Indexes a document that was parsed ahead of its execution with {@link #parseAhead}. The caller must make sure that the document
+     * doesn't require a mapping update and that the mappings didn't change in a way that would change the document since it was parsed.
+     */
+    public Engine.IndexResult applyIndexOperationOnPrimary(
+        long version,
+        VersionType versionType,
+        ParsedDocument parsedDoc,
+        long ifSeqNo,
+        long ifPrimaryTerm,
+        long autoGeneratedTimestamp,
+        boolean isRetry
+    ) throws IOException {
+        assert versionType.validateVersionForWrites(version);
+        assert parsedDoc.dynamicMappingsUpdate() == null : "document requires a mapping update";
+        ensureWriteAllowed(Engine.Operation.Origin.PRIMARY);
+        final Engine.Index operation = new Engine.Index(
+            Uid.encodeId(parsedDoc.id()),
+            parsedDoc,
+            UNASSIGNED_SEQ_NO,
+            getOperationPrimaryTerm(),
+            version,
+            versionType,
+            Engine.Operation.Origin.PRIMARY,
+            getRelativeTimeInNanos(),
+            autoGeneratedTimestamp,
+            isRetry,
+            ifSeqNo,
+            ifPrimaryTerm
+        );
+        return index(getEngine(), operation);
+    }
+
     public Engine.IndexResult applyIndexOperationOnReplica(
         long seqNo,
         long opPrimaryTerm,
@@ -1053,6 +1092,43 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return res;
     }
 
+    /**
+     * Parses the given documents against the current mappings without indexing them, for instance to collect the dynamic mapping updates
+     * they require ahead of their execution. Documents that fail to parse are returned as {@code null}, they report their failure once
+     * they get indexed. Documents are parsed like {@link #prepareIndex} parses them, including the mapping update of indices without
+     * mappings.
+     */
+    public ParsedDocument[] parseAhead(List<SourceToParse> sources) {
+        final ParsedDocument[] docs = new ParsedDocument[sources.size()];
+        for (int i = 0; i < docs.length; i++) {
+            final SourceToParse source = sources.get(i);
+            try {
+                docs[i] = parseDocument(mapperService, source);
+            } catch (Exception e) {
+                logger.trace(() -> "failed to parse document [" + source.id() + "] ahead of its execution", e);
+            }
+        }
+        return docs;
+    }
+
+    private static ParsedDocument parseDocument(MapperService mapperService, SourceToParse source) {
+        DocumentMapper documentMapper = mapperService.documentMapper();
+        Mapping mapping = null;
+        if (documentMapper == null) {
+            documentMapper = DocumentMapper.createEmpty(mapperService);
+            mapping = documentMapper.mapping();
+        }
+        ParsedDocument doc = documentMapper.parse(source);
+        if (mapping != null) {
+            // If we are indexing but there is no mapping we create one. This is to ensure that whenever at least a document is indexed
+            // some mappings do exist. It covers for the case of indexing an empty doc (`{}`).
+            // TODO this can be removed if we eagerly create mappings as soon as a new index is created, regardless of
+            // whether mappings were provided or not.
+            doc.addDynamicMappingsUpdate(mapping);
+        }
+        return doc;
+    }
+
     public static Engine.Index prepareIndex(
         MapperService mapperService,
         SourceToParse source,
@@ -1069,20 +1145,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     ) {
         assert source.dynamicTemplates().isEmpty() || origin == Engine.Operation.Origin.PRIMARY
             : "dynamic_templates parameter can only be associated with primary operations";
-        DocumentMapper documentMapper = mapperService.documentMapper();
-        Mapping mapping = null;
-        if (documentMapper == null) {
-            documentMapper = DocumentMapper.createEmpty(mapperService);
-            mapping = documentMapper.mapping();
-        }
-        ParsedDocument doc = documentMapper.parse(source);
-        if (mapping != null) {
-            // If we are indexing but there is no mapping we create one. This is to ensure that whenever at least a document is indexed
-            // some mappings do exist. It covers for the case of indexing an empty doc (`{}`).
-            // TODO this can be removed if we eagerly create mappings as soon as a new index is created, regardless of
-            // whether mappings were provided or not.
-            doc.addDynamicMappingsUpdate(mapping);
-        }
+        ParsedDocument doc = parseDocument(mapperService, source);
         return new Engine.Index(
             Uid.encodeId(doc.id()),
             doc,
@@ -1349,7 +1412,8 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
             TimeUnit.NANOSECONDS.toMillis(refreshMetric.sum()),
             externalRefreshMetric.count(),
             TimeUnit.NANOSECONDS.toMillis(externalRefreshMetric.sum()),
-            listeners
+            listeners,
+            deferredRefreshMetric.count()
         );
     }
 
@@ -1705,6 +1769,9 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
 
     private void markSearcherAccessed() {
         lastSearcherAccess.lazySet(threadPool.relativeTimeInMillis());
+        if (searchedSinceScheduledRefresh.get() == false) {
+            searchedSinceScheduledRefresh.set(true);
+        }
     }
 
     private Engine.Searcher wrapSearcher(Engine.Searcher searcher) {
@@ -2511,6 +2578,14 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         }
     }
 
+    /**
+     * Returns the exponentially-weighted moving rate of the indexing load of this shard, favoring more recent load. Unlike
+     * {@link #indexingStats()} this does not build the full stats, so {@link IndexingMemoryController} can call it on every check.
+     */
+    public double getRecentWriteLoad() {
+        return internalIndexingStats.recentIndexingLoad(getRelativeTimeInNanos());
+    }
+
     public void addShardFailureCallback(Consumer<ShardFailure> onShardFailure) {
         this.shardEventListener.delegates.add(onShardFailure);
     }
@@ -4209,8 +4284,17 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
                     engine.maybePruneDeletes(); // try to prune the deletes in the engine if we accumulated some
                     setRefreshPending(engine);
                     l.onResponse(false);
+                } else if (listenerNeedsRefresh == false && canDeferScheduledRefresh(engine)) {
+                    // nobody searched since the last scheduled refresh, so a new reader would likely not be used before the next one
+                    // like when search-idle, a search that comes in before the next scheduled refresh waits for a refresh
+                    logger.trace("scheduledRefresh: not searched since last scheduled refresh, deferring refresh");
+                    deferredRefreshMetric.inc();
+                    setRefreshPending(engine);
+                    l.onResponse(false);
                 } else {
                     logger.trace("scheduledRefresh: refresh with source [schedule]");
+                    lastScheduledRefresh.set(threadPool.relativeTimeInMillis());
+                    searchedSinceScheduledRefresh.set(false);
                     engine.maybeRefresh("schedule", l.map(Engine.RefreshResult::refreshed));
                 }
                 return;
@@ -4221,6 +4305,23 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         });
     }
 
+    /**
+     * Returns true if a scheduled refresh may be skipped because the shard was not searched since the last scheduled refresh and that
+     * refresh happened less than {@link IndexSettings#getRefreshMaxDeferredInterval()} ago. Like search-idle, this never applies to
+     * indices with an explicit refresh interval.
+     */
+    private boolean canDeferScheduledRefresh(Engine engine) {
+        final long maxDeferredIntervalMillis = indexSettings.getRefreshMaxDeferredInterval().millis();
+        if (maxDeferredIntervalMillis <= 0
+            || indexSettings.isExplicitRefresh()
+            || engine.allowSearchIdleOptimization() == false
+            || active.get() == false) {
+            return false;
+        }
+        return searchedSinceScheduledRefresh.get() == false
+            && threadPool.relativeTimeInMillis() - lastScheduledRefresh.get() < maxDeferredIntervalMillis;
+    }
+
     /**
      * Returns true if this shards is search idle
      */
@@ -63,6 +63,7 @@ import org.elasticsearch.env.ShardLockObtainFailedException;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.IndexVersions;
+import org.elasticsearch.index.codec.zstd.DecompressedBlockCache;
 import org.elasticsearch.index.engine.CombinedDeletionPolicy;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.seqno.SequenceNumbers;
@@ -179,11 +180,27 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         ShardLock shardLock,
         OnClose onClose,
         boolean hasIndexSort
+    ) {
+        this(shardId, indexSettings, directory, shardLock, onClose, hasIndexSort, null);
+    }
+
+    /**
+     * @param decompressedBlockCache the node's cache of decompressed stored fields blocks, provided to the segments of this store
+     */
+    public Store(
+        ShardId shardId,
+        IndexSettings indexSettings,
+        Directory directory,
+        ShardLock shardLock,
+        OnClose onClose,
+        boolean hasIndexSort,
+        @Nullable DecompressedBlockCache decompressedBlockCache
     ) {
         super(shardId, indexSettings);
         this.directory = new StoreDirectory(
             byteSizeDirectory(directory, indexSettings, logger),
-            Loggers.getLogger("index.store.deletes", shardId)
+            Loggers.getLogger("index.store.deletes", shardId),
+            decompressedBlockCache
         );
         this.shardLock = shardLock;
         this.onClose = onClose;
@@ -756,13 +773,21 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         shardLock.setDetails("closing shard");
     }
 
-    static final class StoreDirectory extends ByteSizeDirectory {
+    static final class StoreDirectory extends ByteSizeDirectory implements DecompressedBlockCache.Provider {
 
         private final Logger deletesLogger;
+        @Nullable
+        private final DecompressedBlockCache decompressedBlockCache;
 
-        StoreDirectory(ByteSizeDirectory delegateDirectory, Logger deletesLogger) {
+        StoreDirectory(ByteSizeDirectory delegateDirectory, Logger deletesLogger, @Nullable DecompressedBlockCache decompressedBlockCache) {
             super(delegateDirectory);
             this.deletesLogger = deletesLogger;
+            this.decompressedBlockCache = decompressedBlockCache;
+        }
+
+        @Override
+        public DecompressedBlockCache decompressedBlockCache() {
+            return decompressedBlockCache;
         }
 
         @Override
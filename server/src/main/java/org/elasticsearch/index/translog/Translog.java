@@ -125,6 +125,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     private final LongConsumer persistedSequenceNumberConsumer;
     private final OperationListener operationListener;
     private final TranslogOperationAsserter operationAsserter;
+    private final TranslogSyncMetrics syncMetrics = new TranslogSyncMetrics();
 
     /**
      * Creates a new Translog instance. This method will create a new transaction log unless the given {@link TranslogGeneration} is
@@ -591,6 +592,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 diskIoBufferPool,
                 operationListener,
                 operationAsserter,
+                syncMetrics,
                 config.fsync()
             );
         } catch (final IOException e) {
@@ -958,7 +960,11 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 sizeInBytes(),
                 totalOperationsByMinGen(uncommittedGen),
                 sizeInBytesByMinGen(uncommittedGen),
-                earliestLastModifiedAge()
+                earliestLastModifiedAge(),
+                syncMetrics.syncCount(),
+                syncMetrics.syncedOperations(),
+                syncMetrics.syncTimeInMillis(),
+                syncMetrics.waitTimeInMillis()
             );
         } finally {
             readLock.unlock();
@@ -1968,6 +1974,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             DiskIoBufferPool.INSTANCE,
             TranslogConfig.NOOP_OPERATION_LISTENER,
             TranslogOperationAsserter.DEFAULT,
+            new TranslogSyncMetrics(),
             true
         );
         writer.close();
@@ -17,6 +17,12 @@ import java.nio.ByteBuffer;
 
 final class TranslogSnapshot extends BaseTranslogReader {
 
+    /**
+     * Operations are read sequentially and are usually much smaller than this, so we read ahead in chunks of this size rather than
+     * issuing two positional reads (size and body) per operation.
+     */
+    static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+
     private final int totalOperations;
     private final Checkpoint checkpoint;
     protected final long length;
@@ -27,6 +33,10 @@ final class TranslogSnapshot extends BaseTranslogReader {
     private int readOperations;
     private BufferedChecksumStreamInput reuse;
 
+    // holds the bytes of the file starting at readAheadPosition, allocated on first read and released once the snapshot is exhausted
+    private ByteBuffer readAheadBuffer;
+    private long readAheadPosition;
+
     /**
      * Create a snapshot of translog file channel.
      */
@@ -63,7 +73,8 @@ final class TranslogSnapshot extends BaseTranslogReader {
             }
             skippedOperations++;
         }
-        reuse = null; // release buffer, it may be large and is no longer needed
+        reuse = null; // release buffers, they may be large and are no longer needed
+        readAheadBuffer = null;
         return null;
     }
 
@@ -111,12 +122,53 @@ final class TranslogSnapshot extends BaseTranslogReader {
                         + "]"
                 );
             }
-            Channels.readFromFileChannelWithEofException(channel, position, buffer);
+            final int bytesToRead = buffer.remaining();
+            if (bytesToRead > READ_AHEAD_BUFFER_SIZE) {
+                Channels.readFromFileChannelWithEofException(channel, position, buffer);
+                return;
+            }
+            if (readAheadBuffer == null
+                || position < readAheadPosition
+                || position + bytesToRead > readAheadPosition + readAheadBuffer.limit()) {
+                fillReadAheadBuffer(position);
+            }
+            final int offset = Math.toIntExact(position - readAheadPosition);
+            if (offset + bytesToRead > readAheadBuffer.limit()) {
+                throw new EOFException(
+                    "read requested past EOF. pos ["
+                        + position
+                        + "] length: ["
+                        + bytesToRead
+                        + "] end: ["
+                        + length
+                        + "], generation: ["
+                        + getGeneration()
+                        + "], path: ["
+                        + path
+                        + "]"
+                );
+            }
+            buffer.put(readAheadBuffer.slice(offset, bytesToRead));
         } catch (EOFException e) {
             throw new TranslogCorruptedException(path.toString(), "translog truncated", e);
         }
     }
 
+    private void fillReadAheadBuffer(long position) throws IOException {
+        if (readAheadBuffer == null) {
+            readAheadBuffer = ByteBuffer.allocate(READ_AHEAD_BUFFER_SIZE);
+        }
+        readAheadBuffer.clear();
+        // never read beyond the snapshot, the file may contain bytes that were not yet fully written when it was taken
+        readAheadBuffer.limit(Math.toIntExact(Math.min(READ_AHEAD_BUFFER_SIZE, length - position)));
+        readAheadPosition = position;
+        try {
+            Channels.readFromFileChannelWithEofException(channel, position, readAheadBuffer);
+        } finally {
+            readAheadBuffer.flip();
+        }
+    }
+
     @Override
     public String toString() {
         return "TranslogSnapshot{"
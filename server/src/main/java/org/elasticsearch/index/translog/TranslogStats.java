@@ -8,11 +8,13 @@
  */
 package org.elasticsearch.index.translog;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
@@ -26,6 +28,10 @@ public class TranslogStats implements Writeable, ToXContentFragment {
     private long uncommittedSizeInBytes;
     private int uncommittedOperations;
     private long earliestLastModifiedAge;
+    private long syncCount;
+    private long syncedOperations;
+    private long syncTimeInMillis;
+    private long syncWaitTimeInMillis;
 
     public TranslogStats() {}
 
@@ -35,6 +41,12 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         uncommittedOperations = in.readVInt();
         uncommittedSizeInBytes = in.readVLong();
         earliestLastModifiedAge = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.TRANSLOG_SYNC_STATS)) {
+            syncCount = in.readVLong();
+            syncedOperations = in.readVLong();
+            syncTimeInMillis = in.readVLong();
+            syncWaitTimeInMillis = in.readVLong();
+        }
     }
 
     public TranslogStats(
@@ -43,6 +55,20 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         int uncommittedOperations,
         long uncommittedSizeInBytes,
         long earliestLastModifiedAge
+    ) {
+        this(numberOfOperations, translogSizeInBytes, uncommittedOperations, uncommittedSizeInBytes, earliestLastModifiedAge, 0, 0, 0, 0);
+    }
+
+    public TranslogStats(
+        int numberOfOperations,
+        long translogSizeInBytes,
+        int uncommittedOperations,
+        long uncommittedSizeInBytes,
+        long earliestLastModifiedAge,
+        long syncCount,
+        long syncedOperations,
+        long syncTimeInMillis,
+        long syncWaitTimeInMillis
     ) {
         if (numberOfOperations < 0) {
             throw new IllegalArgumentException("numberOfOperations must be >= 0");
@@ -59,11 +85,27 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         if (earliestLastModifiedAge < 0) {
             throw new IllegalArgumentException("earliestLastModifiedAge must be >= 0");
         }
+        if (syncCount < 0) {
+            throw new IllegalArgumentException("syncCount must be >= 0");
+        }
+        if (syncedOperations < 0) {
+            throw new IllegalArgumentException("syncedOperations must be >= 0");
+        }
+        if (syncTimeInMillis < 0) {
+            throw new IllegalArgumentException("syncTimeInMillis must be >= 0");
+        }
+        if (syncWaitTimeInMillis < 0) {
+            throw new IllegalArgumentException("syncWaitTimeInMillis must be >= 0");
+        }
         this.numberOfOperations = numberOfOperations;
         this.translogSizeInBytes = translogSizeInBytes;
         this.uncommittedSizeInBytes = uncommittedSizeInBytes;
         this.uncommittedOperations = uncommittedOperations;
         this.earliestLastModifiedAge = earliestLastModifiedAge;
+        this.syncCount = syncCount;
+        this.syncedOperations = syncedOperations;
+        this.syncTimeInMillis = syncTimeInMillis;
+        this.syncWaitTimeInMillis = syncWaitTimeInMillis;
     }
 
     public void add(TranslogStats translogStats) {
@@ -80,6 +122,10 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         } else {
             this.earliestLastModifiedAge = Math.min(this.earliestLastModifiedAge, translogStats.earliestLastModifiedAge);
         }
+        this.syncCount += translogStats.syncCount;
+        this.syncedOperations += translogStats.syncedOperations;
+        this.syncTimeInMillis += translogStats.syncTimeInMillis;
+        this.syncWaitTimeInMillis += translogStats.syncWaitTimeInMillis;
     }
 
     public long getTranslogSizeInBytes() {
@@ -104,6 +150,26 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         return earliestLastModifiedAge;
     }
 
+    /** the number of times the translog was synced to disk */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /** the number of operations that were made durable by syncs, divided by {@link #getSyncCount()} this is the average batch size */
+    public long getSyncedOperations() {
+        return syncedOperations;
+    }
+
+    /** the total time spent writing and syncing the translog and its checkpoint to disk */
+    public long getSyncTimeInMillis() {
+        return syncTimeInMillis;
+    }
+
+    /** the total time that sync requests spent waiting for an in-flight sync to complete */
+    public long getSyncWaitTimeInMillis() {
+        return syncWaitTimeInMillis;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("translog");
@@ -112,6 +178,12 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         builder.field("uncommitted_operations", uncommittedOperations);
         builder.humanReadableField("uncommitted_size_in_bytes", "uncommitted_size", ByteSizeValue.ofBytes(uncommittedSizeInBytes));
         builder.field("earliest_last_modified_age", earliestLastModifiedAge);
+        builder.startObject("sync");
+        builder.field("total", syncCount);
+        builder.field("operations", syncedOperations);
+        builder.humanReadableField("total_time_in_millis", "total_time", new TimeValue(syncTimeInMillis));
+        builder.humanReadableField("wait_time_in_millis", "wait_time", new TimeValue(syncWaitTimeInMillis));
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -128,6 +200,12 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         out.writeVInt(uncommittedOperations);
         out.writeVLong(uncommittedSizeInBytes);
         out.writeVLong(earliestLastModifiedAge);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.TRANSLOG_SYNC_STATS)) {
+            out.writeVLong(syncCount);
+            out.writeVLong(syncedOperations);
+            out.writeVLong(syncTimeInMillis);
+            out.writeVLong(syncWaitTimeInMillis);
+        }
     }
 
     @Override
@@ -139,7 +217,11 @@ public class TranslogStats implements Writeable, ToXContentFragment {
             && translogSizeInBytes == that.translogSizeInBytes
             && uncommittedOperations == that.uncommittedOperations
             && uncommittedSizeInBytes == that.uncommittedSizeInBytes
-            && earliestLastModifiedAge == that.earliestLastModifiedAge;
+            && earliestLastModifiedAge == that.earliestLastModifiedAge
+            && syncCount == that.syncCount
+            && syncedOperations == that.syncedOperations
+            && syncTimeInMillis == that.syncTimeInMillis
+            && syncWaitTimeInMillis == that.syncWaitTimeInMillis;
     }
 
     @Override
@@ -149,7 +231,11 @@ public class TranslogStats implements Writeable, ToXContentFragment {
             translogSizeInBytes,
             uncommittedOperations,
             uncommittedSizeInBytes,
-            earliestLastModifiedAge
+            earliestLastModifiedAge,
+            syncCount,
+            syncedOperations,
+            syncTimeInMillis,
+            syncWaitTimeInMillis
         );
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the syncs of a {@link Translog} across all of its generations. Concurrent sync requests on the same translog are batched
+ * behind a single sync, so the number of operations per sync and the time spent waiting for an in-flight sync show how well requests
+ * are being grouped.
+ */
+final class TranslogSyncMetrics {
+
+    // count is the number of syncs, sum is the time spent syncing in nanos
+    private final MeanMetric syncTime = new MeanMetric();
+    private final CounterMetric syncedOperations = new CounterMetric();
+    private final CounterMetric waitTimeInNanos = new CounterMetric();
+
+    /**
+     * Called by a thread that had to wait for any in-flight sync to complete before it could check whether it still needs to sync.
+     */
+    void onWait(long waitTimeInNanos) {
+        this.waitTimeInNanos.inc(waitTimeInNanos);
+    }
+
+    /**
+     * Called after the translog and its checkpoint were written and synced to disk.
+     */
+    void onSync(int operations, long syncTimeInNanos) {
+        syncTime.inc(syncTimeInNanos);
+        syncedOperations.inc(operations);
+    }
+
+    long syncCount() {
+        return syncTime.count();
+    }
+
+    long syncedOperations() {
+        return syncedOperations.count();
+    }
+
+    long syncTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(syncTime.sum());
+    }
+
+    long waitTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTimeInNanos.count());
+    }
+}
@@ -71,6 +71,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     private final LongConsumer persistedSequenceNumberConsumer;
     private final OperationListener operationListener;
     private final TranslogOperationAsserter operationAsserter;
+    private final TranslogSyncMetrics syncMetrics;
     private final boolean fsync;
 
     protected final AtomicBoolean closed = new AtomicBoolean(false);
@@ -111,6 +112,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         DiskIoBufferPool diskIoBufferPool,
         OperationListener operationListener,
         TranslogOperationAsserter operationAsserter,
+        TranslogSyncMetrics syncMetrics,
         boolean fsync
     ) throws IOException {
         super(initialCheckpoint.generation, channel, path, header);
@@ -140,6 +142,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         this.tragedy = tragedy;
         this.operationListener = operationListener;
         this.operationAsserter = operationAsserter;
+        this.syncMetrics = syncMetrics;
         this.fsync = fsync;
         this.lastModifiedTimeCache = new LastModifiedTimeCache(-1, -1, -1);
     }
@@ -162,6 +165,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         DiskIoBufferPool diskIoBufferPool,
         OperationListener operationListener,
         TranslogOperationAsserter operationAsserter,
+        TranslogSyncMetrics syncMetrics,
         boolean fsync
     ) throws IOException {
         final Path checkpointFile = file.getParent().resolve(Translog.CHECKPOINT_FILE_NAME);
@@ -207,6 +211,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                 diskIoBufferPool,
                 operationListener,
                 operationAsserter,
+                syncMetrics,
                 fsync
             );
         } catch (Exception exception) {
@@ -473,7 +478,9 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                     + "] greater than global checkpoint ["
                     + globalCheckpointSupplier.getAsLong()
                     + "]";
+            final long waitStartNanos = System.nanoTime();
             synchronized (syncLock) { // only one sync/checkpoint should happen concurrently but we wait
+                syncMetrics.onWait(System.nanoTime() - waitStartNanos);
                 if ((lastSyncedCheckpoint.offset < offset || lastSyncedCheckpoint.globalCheckpoint < globalCheckpointToPersist)
                     && syncNeeded()) {
                     // double checked locking - we don't want to fsync unless we have to and now that we have
@@ -505,6 +512,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                     }
                     // now do the actual fsync outside of the synchronized block such that
                     // we can continue writing to the buffer etc.
+                    final long syncStartNanos = System.nanoTime();
                     try {
                         assert lastSyncedCheckpoint.offset != checkpointToSync.offset || toWrite.length() == 0;
                         if (lastSyncedCheckpoint.offset != checkpointToSync.offset && fsync) {
@@ -515,6 +523,8 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                         closeWithTragicEvent(ex);
                         throw ex;
                     }
+                    final int syncedOperations = flushedSequenceNumbers == null ? 0 : flushedSequenceNumbers.size();
+                    syncMetrics.onSync(syncedOperations, System.nanoTime() - syncStartNanos);
                     if (flushedSequenceNumbers != null) {
                         flushedSequenceNumbers.forEach(persistedSequenceNumberConsumer::accept);
                     }
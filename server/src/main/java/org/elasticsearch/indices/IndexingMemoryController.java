@@ -34,8 +34,10 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicLong;
@@ -98,6 +100,17 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
         Property.NodeScope
     );
 
+    /**
+     * Whether to give each shard a share of the indexing buffer that is proportional to its recent write load, and to write the indexing
+     * buffers of the shards that exceed their share by the most first when over budget. When disabled, shards are picked in a round-robin
+     * fashion.
+     */
+    public static final Setting<Boolean> WRITE_LOAD_AWARE_SETTING = Setting.boolSetting(
+        "indices.memory.write_load_aware",
+        false,
+        Property.NodeScope
+    );
+
     private final ThreadPool threadPool;
 
     private final Iterable<IndexShard> indexShards;
@@ -106,6 +119,7 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
 
     private final TimeValue inactiveTime;
     private final TimeValue interval;
+    private final boolean writeLoadAware;
 
     /** Contains shards currently being throttled because we can't write segments quickly enough */
     private final Set<IndexShard> throttled = new HashSet<>();
@@ -146,16 +160,19 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
         this.inactiveTime = SHARD_INACTIVE_TIME_SETTING.get(settings);
         // we need to have this relatively small to free up heap quickly enough
         this.interval = SHARD_MEMORY_INTERVAL_TIME_SETTING.get(settings);
+        this.writeLoadAware = WRITE_LOAD_AWARE_SETTING.get(settings);
 
         this.statusChecker = new ShardsIndicesStatusChecker();
 
         logger.debug(
-            "using indexing buffer size [{}] with {} [{}], {} [{}]",
+            "using indexing buffer size [{}] with {} [{}], {} [{}], {} [{}]",
             this.indexingBuffer,
             SHARD_INACTIVE_TIME_SETTING.getKey(),
             this.inactiveTime,
             SHARD_MEMORY_INTERVAL_TIME_SETTING.getKey(),
-            this.interval
+            this.interval,
+            WRITE_LOAD_AWARE_SETTING.getKey(),
+            this.writeLoadAware
         );
         this.scheduler = scheduleTask(threadPool);
 
@@ -201,6 +218,11 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
         return shard.getWritingBytes();
     }
 
+    /** returns the recent write load of this shard, used to size its share of the indexing buffer */
+    protected double getRecentWriteLoad(IndexShard shard) {
+        return shard.getRecentWriteLoad();
+    }
+
     /** Record that the given shard needs to write its indexing buffer. */
     protected void enqueueWriteIndexingBuffer(IndexShard shard) {
         if (pendingWriteIndexingBufferSet.add(shard)) {
@@ -294,10 +316,13 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
     private static final class ShardAndBytesUsed {
         final long bytesUsed;
         final IndexShard shard;
+        // only computed when the write load aware allocation is enabled
+        final double writeLoad;
 
-        ShardAndBytesUsed(long bytesUsed, IndexShard shard) {
+        ShardAndBytesUsed(long bytesUsed, IndexShard shard, double writeLoad) {
             this.bytesUsed = bytesUsed;
             this.shard = shard;
+            this.writeLoad = writeLoad;
         }
 
     }
@@ -447,7 +472,7 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
                                 logger.trace("shard [{}] is using [{}] heap, not writing any bytes", shard.shardId(), shardBytesUsed);
                             }
                         }
-                        queue.add(new ShardAndBytesUsed(shardBytesUsed, shard));
+                        queue.add(new ShardAndBytesUsed(shardBytesUsed, shard, writeLoadAware ? getRecentWriteLoad(shard) : 0.0));
                     }
                 }
 
@@ -473,20 +498,10 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
                 // highest ingestion rate, and thus it is also the shard that is the most likely to re-create a new pending segment in the
                 // very near future after one segment has been flushed.
 
-                // We want to go over shards in a round-robin fashion across calls to #runUnlocked. First sort shards by something stable
-                // like the shard ID.
-                queue.sort(Comparator.comparing(shardAndBytes -> shardAndBytes.shard.shardId()));
-                if (lastShardId != null) {
-                    // Then rotate the list so that the first shard that is greater than the ID of the last shard whose indexing buffer was
-                    // written comes first.
-                    int nextShardIdIndex = 0;
-                    for (ShardAndBytesUsed shardAndBytes : queue) {
-                        if (shardAndBytes.shard.shardId().compareTo(lastShardId) > 0) {
-                            break;
-                        }
-                        nextShardIdIndex++;
-                    }
-                    Collections.rotate(queue, -nextShardIdIndex);
+                if (writeLoadAware) {
+                    sortByExcessOverWriteLoadShare(queue);
+                } else {
+                    sortRoundRobin(queue);
                 }
 
                 for (ShardAndBytesUsed shardAndBytesUsed : queue) {
@@ -521,6 +536,58 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
                 throttled.clear();
             }
         }
+
+        private void sortRoundRobin(List<ShardAndBytesUsed> queue) {
+            // We want to go over shards in a round-robin fashion across calls to #runUnlocked. First sort shards by something stable
+            // like the shard ID.
+            queue.sort(Comparator.comparing(shardAndBytes -> shardAndBytes.shard.shardId()));
+            if (lastShardId != null) {
+                // Then rotate the list so that the first shard that is greater than the ID of the last shard whose indexing buffer was
+                // written comes first.
+                int nextShardIdIndex = 0;
+                for (ShardAndBytesUsed shardAndBytes : queue) {
+                    if (shardAndBytes.shard.shardId().compareTo(lastShardId) > 0) {
+                        break;
+                    }
+                    nextShardIdIndex++;
+                }
+                Collections.rotate(queue, -nextShardIdIndex);
+            }
+        }
+
+        /**
+         * Gives each shard a share of the indexing buffer that is proportional to its recent write load, and sorts shards by how much
+         * their indexing buffer exceeds that share. Shards that barely see any writes anymore come first since their buffer would
+         * otherwise only be written once they become inactive, while the buffers of the hottest shards are left to grow into larger
+         * segments. Shards share the indexing buffer evenly if none of them has a write load yet.
+         */
+        private void sortByExcessOverWriteLoadShare(List<ShardAndBytesUsed> queue) {
+            double totalWriteLoad = 0;
+            for (ShardAndBytesUsed shardAndBytes : queue) {
+                totalWriteLoad += shardAndBytes.writeLoad;
+            }
+            final Map<IndexShard, Double> excessBytes = new HashMap<>(queue.size());
+            for (ShardAndBytesUsed shardAndBytes : queue) {
+                final double share = totalWriteLoad > 0
+                    ? indexingBuffer * (shardAndBytes.writeLoad / totalWriteLoad)
+                    : (double) indexingBuffer / queue.size();
+                excessBytes.put(shardAndBytes.shard, shardAndBytes.bytesUsed - share);
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                        "shard [{}] has write load [{}], indexing buffer share [{}], is using [{}] heap",
+                        shardAndBytes.shard.shardId(),
+                        shardAndBytes.writeLoad,
+                        ByteSizeValue.ofBytes((long) share),
+                        ByteSizeValue.ofBytes(shardAndBytes.bytesUsed)
+                    );
+                }
+            }
+            queue.sort(
+                Comparator.<ShardAndBytesUsed>comparingDouble(shardAndBytes -> excessBytes.get(shardAndBytes.shard))
+                    .reversed()
+                    .thenComparing(shardAndBytes -> shardAndBytes.shard.shardId())
+            );
+        }
     }
 
     /**
@@ -24,6 +24,8 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.mapper.MappingLookup;
 
@@ -34,6 +36,7 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The indices request cache allows to cache a shard level request stage responses, helping with improving
@@ -70,12 +73,28 @@ public final class IndicesRequestCache implements Closeable {
         new TimeValue(0),
         Property.NodeScope
     );
+    /**
+     * Identical requests that arrive while the result of a first one is being computed wait for that computation instead of running
+     * the same search again. This bounds the number of requests that can wait on a single computation so that they don't tie up all
+     * search threads if it is slow, requests beyond this bound are rejected and can be retried on another copy of the shard. A negative
+     * value means no bound.
+     */
+    public static final Setting<Integer> INDICES_CACHE_MAX_COALESCED_WAITERS = Setting.intSetting(
+        "indices.requests.cache.max_coalesced_waiters",
+        -1,
+        -1,
+        Property.NodeScope
+    );
 
     private final ConcurrentMap<CleanupKey, Boolean> registeredClosedListeners = ConcurrentCollections.newConcurrentMap();
     private final Set<CleanupKey> keysToClean = ConcurrentCollections.newConcurrentSet();
     private final Cache<Key, BytesReference> cache;
+    // the number of requests that wait on each computation that is in progress
+    private final ConcurrentMap<Key, AtomicInteger> waitersByLoadingKey = ConcurrentCollections.newConcurrentMap();
+    private final int maxCoalescedWaiters;
 
     IndicesRequestCache(Settings settings) {
+        maxCoalescedWaiters = INDICES_CACHE_MAX_COALESCED_WAITERS.get(settings);
         TimeValue expire = INDICES_CACHE_QUERY_EXPIRE.exists(settings) ? INDICES_CACHE_QUERY_EXPIRE.get(settings) : null;
         CacheBuilder<Key, BytesReference> cacheBuilder = CacheBuilder.<Key, BytesReference>builder()
             .setMaximumWeight(INDICES_CACHE_QUERY_SIZE.get(settings).getBytes())
@@ -108,7 +127,18 @@ public final class IndicesRequestCache implements Closeable {
         assert cacheHelper != null;
         final Key key = new Key(cacheEntity, mappingCacheKey, cacheHelper.getKey(), cacheKey);
         Loader cacheLoader = new Loader(cacheEntity, loader);
-        BytesReference value = cache.computeIfAbsent(key, cacheLoader);
+        final BytesReference cached = cache.get(key);
+        if (cached != null) {
+            key.entity.onHit();
+            return cached;
+        }
+        final Computation computation = startOrJoinComputation(key);
+        final BytesReference value;
+        try {
+            value = cache.computeIfAbsent(key, cacheLoader);
+        } finally {
+            computation.close();
+        }
         if (cacheLoader.isLoaded()) {
             key.entity.onMiss();
             // see if its the first time we see this reader, and make sure to register a cleanup key
@@ -130,10 +160,71 @@ public final class IndicesRequestCache implements Closeable {
              */
         } else {
             key.entity.onHit();
+            if (computation.waiter()) {
+                key.entity.onCoalesced();
+            }
         }
         return value;
     }
 
+    /**
+     * Registers a request for a key that isn't cached yet, before it computes the value or waits for its computation. The first request
+     * registers the computation of the key, later ones wait for it, or are rejected if too many requests already wait for it. This is
+     * done atomically so that concurrent identical requests can't exceed the bound nor be counted against a computation that already
+     * completed, and so that no request can start computing the value without being registered.
+     */
+    private Computation startOrJoinComputation(Key key) {
+        final AtomicInteger[] started = new AtomicInteger[1];
+        final AtomicInteger waiters = waitersByLoadingKey.compute(key, (k, existing) -> {
+            if (existing == null) {
+                started[0] = new AtomicInteger();
+                return started[0];
+            }
+            if (maxCoalescedWaiters >= 0 && existing.get() >= maxCoalescedWaiters) {
+                throw new EsRejectedExecutionException(
+                    "rejected request that is identical to a request in progress, ["
+                        + maxCoalescedWaiters
+                        + "] requests are already waiting for its result"
+                );
+            }
+            existing.incrementAndGet();
+            return existing;
+        });
+        return new Computation(key, waiters, started[0] == null);
+    }
+
+    /**
+     * The registration of a request in the computation of a key, released once the request has its value.
+     */
+    private final class Computation implements Releasable {
+        private final Key key;
+        private final AtomicInteger waiters;
+        private final boolean waiter;
+
+        Computation(Key key, AtomicInteger waiters, boolean waiter) {
+            this.key = key;
+            this.waiters = waiters;
+            this.waiter = waiter;
+        }
+
+        /**
+         * Whether the request waited for the computation of another request rather than starting it.
+         */
+        boolean waiter() {
+            return waiter;
+        }
+
+        @Override
+        public void close() {
+            if (waiter) {
+                waiters.decrementAndGet();
+            } else {
+                // identical requests that arrive from now on find the value in the cache, or start a new computation
+                waitersByLoadingKey.remove(key, waiters);
+            }
+        }
+    }
+
     /**
      * Invalidates the given the cache entry for the given key and it's context
      * @param cacheEntity the cache entity to invalidate for
@@ -201,6 +292,11 @@ public final class IndicesRequestCache implements Closeable {
          */
         void onMiss();
 
+        /**
+         * Called each time this entity has a cache hit that waited for the computation of an identical concurrent request.
+         */
+        void onCoalesced();
+
         /**
          * Called when this entity instance is removed
          */
@@ -13,6 +13,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader.CacheHelper;
+import org.apache.lucene.search.AbstractKnnVectorQuery;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.join.ParentChildrenBlockJoinQuery;
+import org.apache.lucene.search.join.ToChildBlockJoinQuery;
+import org.apache.lucene.search.join.ToParentBlockJoinQuery;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.util.CollectionUtil;
 import org.apache.lucene.util.RamUsageEstimator;
@@ -58,6 +65,8 @@ import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
+import org.elasticsearch.common.lucene.search.function.ScriptScoreQuery;
 import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -95,6 +104,7 @@ import org.elasticsearch.index.SlowLogFieldProvider;
 import org.elasticsearch.index.analysis.AnalysisRegistry;
 import org.elasticsearch.index.bulk.stats.BulkStats;
 import org.elasticsearch.index.cache.request.ShardRequestCache;
+import org.elasticsearch.index.codec.zstd.DecompressedBlockCache;
 import org.elasticsearch.index.engine.CommitStats;
 import org.elasticsearch.index.engine.EngineFactory;
 import org.elasticsearch.index.engine.InternalEngineFactory;
@@ -146,13 +156,19 @@ import org.elasticsearch.plugins.PluginsService;
 import org.elasticsearch.plugins.internal.rewriter.QueryRewriteInterceptor;
 import org.elasticsearch.repositories.RepositoriesService;
 import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.search.aggregations.AggregationPhase;
 import org.elasticsearch.search.aggregations.support.ValuesSourceRegistry;
 import org.elasticsearch.search.builder.PointInTimeBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QueryPhase;
 import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.vectors.IVFKnnFloatVectorQuery;
+import org.elasticsearch.search.vectors.KnnScoreDocQuery;
+import org.elasticsearch.search.vectors.RescoreKnnVectorQuery;
+import org.elasticsearch.search.vectors.VectorSimilarityQuery;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xcontent.XContentParser;
 import org.elasticsearch.xcontent.XContentParserConfiguration;
@@ -254,6 +270,7 @@ public class IndicesService extends AbstractLifecycleComponent
     private final IndexingMemoryController indexingMemoryController;
     private final TimeValue cleanInterval;
     final IndicesRequestCache indicesRequestCache; // pkg-private for testing
+    final SegmentAggregationCache segmentAggregationCache; // pkg-private for testing
     private final IndicesQueryCache indicesQueryCache;
     private final MetaStateService metaStateService;
     private final Collection<Function<IndexSettings, Optional<EngineFactory>>> engineFactoryProviders;
@@ -279,6 +296,8 @@ public class IndicesService extends AbstractLifecycleComponent
     private final PostRecoveryMerger postRecoveryMerger;
     private final List<SearchOperationListener> searchOperationListeners;
     private final QueryRewriteInterceptor queryRewriteInterceptor;
+    @Nullable
+    private final DecompressedBlockCache decompressedBlockCache;
     final SlowLogFieldProvider slowLogFieldProvider; // pkg-private for testingå
     private final IndexingStatsSettings indexStatsSettings;
 
@@ -303,6 +322,7 @@ public class IndicesService extends AbstractLifecycleComponent
         this.analysisRegistry = builder.analysisRegistry;
         this.indexNameExpressionResolver = builder.indexNameExpressionResolver;
         this.indicesRequestCache = new IndicesRequestCache(settings);
+        this.segmentAggregationCache = new SegmentAggregationCache(settings);
         this.indicesQueryCache = new IndicesQueryCache(settings);
         this.mapperRegistry = builder.mapperRegistry;
         this.namedWriteableRegistry = builder.namedWriteableRegistry;
@@ -355,6 +375,7 @@ public class IndicesService extends AbstractLifecycleComponent
         this.snapshotCommitSuppliers = builder.snapshotCommitSuppliers;
         this.requestCacheKeyDifferentiator = builder.requestCacheKeyDifferentiator;
         this.queryRewriteInterceptor = builder.queryRewriteInterceptor;
+        this.decompressedBlockCache = builder.decompressedBlockCache;
         this.mapperMetrics = builder.mapperMetrics;
         // doClose() is called when shutting down a node, yet there might still be ongoing requests
         // that we need to wait for before closing some resources such as the caches. In order to
@@ -369,6 +390,7 @@ public class IndicesService extends AbstractLifecycleComponent
                     indicesFieldDataCache,
                     cacheCleaner,
                     indicesRequestCache,
+                    segmentAggregationCache,
                     indicesQueryCache,
                     threadPoolMergeExecutorService
                 );
@@ -826,7 +848,8 @@ public class IndicesService extends AbstractLifecycleComponent
             valuesSourceRegistry,
             indexFoldersDeletionListeners,
             snapshotCommitSuppliers,
-            queryRewriteInterceptor
+            queryRewriteInterceptor,
+            decompressedBlockCache
         );
     }
 
@@ -1668,6 +1691,18 @@ public class IndicesService extends AbstractLifecycleComponent
             directoryReader,
             cacheKey,
             out -> {
+                if (canCacheSegmentAggregations(context)) {
+                    context.aggregations()
+                        .enableSegmentResultsCaching(
+                            segmentAggregationCache.forRequest(
+                                context.indexShard().shardId(),
+                                context.getSearchExecutionContext().mappingCacheKey(),
+                                cacheKey,
+                                namedWriteableRegistry,
+                                context.indexShard().requestCache()
+                            )
+                        );
+                }
                 QueryPhase.execute(context);
                 context.queryResult().writeToNoId(out);
                 loadedFromCache[0] = false;
@@ -1704,6 +1739,91 @@ public class IndicesService extends AbstractLifecycleComponent
         }
     }
 
+    /**
+     * Returns whether the aggregations of a request that is loaded into the shard request cache can also be cached per segment. Results
+     * of individual segments are merged like the results of parallel slices, which requires aggregations that support parallel
+     * collection. Requests that terminate early must see the segments in order and are never cached per segment. Aggregations that
+     * need scores are not cached either, but that is only known once they are created so it is checked in the {@link AggregationPhase}.
+     * <p>
+     * The cached results of a segment are only valid as long as the documents that match in that segment don't depend on the other
+     * segments of the shard, see {@link #isSegmentLocal}. That rules out a {@code min_score}, which filters on scores computed with
+     * shard level statistics, and knn sections, which find the nearest vectors of the whole shard.
+     */
+    static boolean canCacheSegmentAggregations(SearchContext context) {
+        final IndexSettings indexSettings = context.indexShard().indexSettings();
+        if (context.aggregations() == null
+            || indexSettings.getValue(SegmentAggregationCache.INDEX_SEGMENT_AGGREGATION_CACHE_ENABLED_SETTING) == false) {
+            return false;
+        }
+        if (context.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER || context.aggregations().isInSortOrderExecutionRequired()) {
+            return false;
+        }
+        if (context.minimumScore() != null) {
+            return false;
+        }
+        final SearchSourceBuilder source = context.request().source();
+        if (source != null && (source.knnSearch().isEmpty() == false || source.rankBuilder() != null)) {
+            return false;
+        }
+        // some queries only turn into joins of the whole shard once rewritten, the rewritten query is reused by the query phase
+        if (context.query() != null && (isSegmentLocal(context.query()) == false || isSegmentLocal(context.rewrittenQuery()) == false)) {
+            return false;
+        }
+        return context.aggregationsSupportParallelCollection();
+    }
+
+    /**
+     * Returns whether the documents that the given query matches in a segment only depend on that segment. Most queries only look at
+     * the terms, points and doc values of the segment, but knn queries pick the nearest vectors of the whole shard, queries with a
+     * minimum score filter on scores that depend on shard level statistics, and joins other than block joins, like
+     * {@code has_child}, match documents based on the documents of other segments.
+     */
+    static boolean isSegmentLocal(Query query) {
+        final boolean[] segmentLocal = new boolean[] { true };
+        query.visit(new QueryVisitor() {
+            @Override
+            public void visitLeaf(Query leaf) {
+                check(leaf);
+            }
+
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                check(parent);
+                return this;
+            }
+
+            private void check(Query query) {
+                if (segmentLocal[0] && isSegmentLocalNode(query) == false) {
+                    segmentLocal[0] = false;
+                }
+            }
+        });
+        return segmentLocal[0];
+    }
+
+    private static boolean isSegmentLocalNode(Query query) {
+        if (query instanceof AbstractKnnVectorQuery
+            || query instanceof IVFKnnFloatVectorQuery
+            || query instanceof KnnScoreDocQuery
+            || query instanceof RescoreKnnVectorQuery
+            || query instanceof VectorSimilarityQuery) {
+            return false;
+        }
+        if (query instanceof FunctionScoreQuery functionScoreQuery) {
+            return functionScoreQuery.getMinScore() == null;
+        }
+        if (query instanceof ScriptScoreQuery scriptScoreQuery) {
+            return scriptScoreQuery.getMinScore() == null;
+        }
+        if (query.getClass().getPackageName().equals(ToParentBlockJoinQuery.class.getPackageName())) {
+            // block joins only join documents of the same segment, the other joins collect terms or ordinals of the whole shard
+            return query instanceof ToParentBlockJoinQuery
+                || query instanceof ToChildBlockJoinQuery
+                || query instanceof ParentChildrenBlockJoinQuery;
+        }
+        return true;
+    }
+
     public long getTotalIndexingBufferBytes() {
         return indexingMemoryController.indexingBufferSize();
     }
@@ -1865,6 +1985,7 @@ public class IndicesService extends AbstractLifecycleComponent
             final boolean clearedAtLeastOne = service.clearCaches(queryCache, fieldDataCache, fields);
             if ((requestCache || (clearedAtLeastOne == false && fields.length == 0)) && shard != null) {
                 indicesRequestCache.clear(new IndexShardCacheEntity(shard));
+                segmentAggregationCache.clear(shardId);
             }
         }
     }
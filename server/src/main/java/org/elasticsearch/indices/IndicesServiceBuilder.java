@@ -26,6 +26,7 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.SlowLogFieldProvider;
 import org.elasticsearch.index.SlowLogFields;
 import org.elasticsearch.index.analysis.AnalysisRegistry;
+import org.elasticsearch.index.codec.zstd.DecompressedBlockCache;
 import org.elasticsearch.index.engine.EngineFactory;
 import org.elasticsearch.index.mapper.MapperMetrics;
 import org.elasticsearch.index.mapper.MapperRegistry;
@@ -81,6 +82,8 @@ public class IndicesServiceBuilder {
     MapperMetrics mapperMetrics;
     List<SearchOperationListener> searchOperationListener = List.of();
     QueryRewriteInterceptor queryRewriteInterceptor = null;
+    @Nullable
+    DecompressedBlockCache decompressedBlockCache;
     SlowLogFieldProvider slowLogFieldProvider = new SlowLogFieldProvider() {
         @Override
         public SlowLogFields create() {
@@ -220,6 +223,14 @@ public class IndicesServiceBuilder {
         return this;
     }
 
+    /**
+     * The node's cache of decompressed stored fields blocks. Stored fields blocks aren't cached if it isn't set.
+     */
+    public IndicesServiceBuilder decompressedBlockCache(DecompressedBlockCache decompressedBlockCache) {
+        this.decompressedBlockCache = decompressedBlockCache;
+        return this;
+    }
+
     public IndicesService build() {
         Objects.requireNonNull(settings);
         Objects.requireNonNull(pluginsService);
@@ -0,0 +1,195 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.cache.request.ShardRequestCache;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.SearchContextAggregations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the aggregation results of individual segments for requests that are eligible for the {@link IndicesRequestCache}. The
+ * shard level request cache is invalidated on every refresh that changes the shard, which on indices that are written to continuously
+ * means that expensive aggregations are recomputed from scratch on all segments even though only the few most recent segments changed.
+ * This cache keeps the partial results of each segment so that such requests only collect the new segments, and merge the cached
+ * results of the others through the regular reduce path.
+ * <p>
+ * Entries are keyed on the reader cache key of the segment, which changes when documents of the segment are deleted, and are
+ * invalidated as soon as the segment reader is closed. Like in the {@link IndicesRequestCache}, entries of outdated mappings age out.
+ * Hits, misses, evictions and memory usage are reported in the request cache statistics of each shard.
+ */
+public final class SegmentAggregationCache implements Closeable {
+
+    /**
+     * Enables the caching of aggregation results per segment for the requests of an index that use the shard request cache.
+     */
+    public static final Setting<Boolean> INDEX_SEGMENT_AGGREGATION_CACHE_ENABLED_SETTING = Setting.boolSetting(
+        "index.requests.cache.segment_aggregations.enable",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+    public static final Setting<ByteSizeValue> INDICES_SEGMENT_AGGREGATION_CACHE_SIZE = Setting.memorySizeSetting(
+        "indices.requests.cache.segment_aggregations.size",
+        "1%",
+        Property.NodeScope
+    );
+
+    private final Cache<Key, Entry> cache;
+    private final ConcurrentMap<IndexReader.CacheKey, Set<Key>> keysByReader = ConcurrentCollections.newConcurrentMap();
+
+    SegmentAggregationCache(Settings settings) {
+        cache = CacheBuilder.<Key, Entry>builder()
+            .setMaximumWeight(INDICES_SEGMENT_AGGREGATION_CACHE_SIZE.get(settings).getBytes())
+            .weigher((k, v) -> k.ramBytesUsed() + v.bytes().ramBytesUsed())
+            .removalListener(notification -> {
+                final Key key = notification.getKey();
+                final Set<Key> keys = keysByReader.get(key.readerKey());
+                if (keys != null) {
+                    keys.remove(key);
+                }
+                final Entry entry = notification.getValue();
+                entry.stats()
+                    .onSegmentAggregationsRemoval(
+                        key.ramBytesUsed() + entry.bytes().ramBytesUsed(),
+                        notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED
+                    );
+            })
+            .build();
+    }
+
+    /**
+     * Returns a cache for the segment results of the given request on the given shard.
+     * @param shardId the shard that the request targets
+     * @param mappingCacheKey the key of the mapping that the request was parsed with
+     * @param requestKey the request cache key of the request
+     * @param namedWriteableRegistry the registry to read cached aggregation results with
+     * @param stats the request cache statistics of the shard
+     */
+    SearchContextAggregations.SegmentResultsCache forRequest(
+        ShardId shardId,
+        MappingLookup.CacheKey mappingCacheKey,
+        BytesReference requestKey,
+        NamedWriteableRegistry namedWriteableRegistry,
+        ShardRequestCache stats
+    ) {
+        return new SearchContextAggregations.SegmentResultsCache() {
+            @Override
+            public InternalAggregations get(LeafReaderContext leaf) throws IOException {
+                final IndexReader.CacheHelper cacheHelper = leaf.reader().getReaderCacheHelper();
+                if (cacheHelper == null) {
+                    return null;
+                }
+                final Entry entry = cache.get(new Key(shardId, cacheHelper.getKey(), mappingCacheKey, requestKey));
+                if (entry == null) {
+                    stats.onSegmentAggregationsMiss();
+                    return null;
+                }
+                stats.onSegmentAggregationsHit();
+                try (StreamInput in = new NamedWriteableAwareStreamInput(entry.bytes().streamInput(), namedWriteableRegistry)) {
+                    return InternalAggregations.readFrom(in);
+                }
+            }
+
+            @Override
+            public void put(LeafReaderContext leaf, InternalAggregations results) throws IOException {
+                final IndexReader.CacheHelper cacheHelper = leaf.reader().getReaderCacheHelper();
+                if (cacheHelper == null) {
+                    return;
+                }
+                final BytesReference bytes;
+                try (BytesStreamOutput out = new BytesStreamOutput()) {
+                    results.writeTo(out);
+                    bytes = out.copyBytes();
+                }
+                final Key key = new Key(shardId, cacheHelper.getKey(), mappingCacheKey, requestKey);
+                keysByReader.computeIfAbsent(cacheHelper.getKey(), readerKey -> {
+                    cacheHelper.addClosedListener(SegmentAggregationCache.this::onClose);
+                    return ConcurrentCollections.newConcurrentSet();
+                }).add(key);
+                stats.onSegmentAggregationsCached(key.ramBytesUsed() + bytes.ramBytesUsed());
+                cache.put(key, new Entry(bytes, stats));
+            }
+        };
+    }
+
+    private void onClose(IndexReader.CacheKey readerKey) {
+        final Set<Key> keys = keysByReader.remove(readerKey);
+        if (keys != null) {
+            for (Key key : keys) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Clears all the entries of the given shard.
+     */
+    void clear(ShardId shardId) {
+        for (Iterator<Key> iterator = cache.keys().iterator(); iterator.hasNext();) {
+            if (iterator.next().shardId().equals(shardId)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    long count() {
+        return cache.count();
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The serialized results of a segment, along with the statistics of the shard they count towards.
+     */
+    private record Entry(BytesReference bytes, ShardRequestCache stats) {}
+
+    record Key(
+        ShardId shardId,
+        IndexReader.CacheKey readerKey,
+        MappingLookup.CacheKey mappingCacheKey,
+        BytesReference requestKey
+    ) implements Accountable {
+
+        private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+        @Override
+        public long ramBytesUsed() {
+            return BASE_RAM_BYTES_USED + requestKey.length();
+        }
+    }
+}
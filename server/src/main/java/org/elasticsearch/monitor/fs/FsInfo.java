@@ -9,6 +9,7 @@
 
 package org.elasticsearch.monitor.fs;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.cluster.routing.allocation.DiskThresholdSettings;
 import org.elasticsearch.common.collect.Iterators;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -241,6 +242,10 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
         final long previousSectorsWritten;
         final long currentIOTime;
         final long previousIOTime;
+        final long currentReadTime;
+        final long previousReadTime;
+        final long currentWriteTime;
+        final long previousWriteTime;
 
         public DeviceStats(
             final int majorDeviceNumber,
@@ -252,6 +257,34 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             final long currentSectorsWritten,
             final long currentIOTime,
             final DeviceStats previousDeviceStats
+        ) {
+            this(
+                majorDeviceNumber,
+                minorDeviceNumber,
+                deviceName,
+                currentReadsCompleted,
+                currentSectorsRead,
+                -1,
+                currentWritesCompleted,
+                currentSectorsWritten,
+                -1,
+                currentIOTime,
+                previousDeviceStats
+            );
+        }
+
+        public DeviceStats(
+            final int majorDeviceNumber,
+            final int minorDeviceNumber,
+            final String deviceName,
+            final long currentReadsCompleted,
+            final long currentSectorsRead,
+            final long currentReadTime,
+            final long currentWritesCompleted,
+            final long currentSectorsWritten,
+            final long currentWriteTime,
+            final long currentIOTime,
+            final DeviceStats previousDeviceStats
         ) {
             this(
                 majorDeviceNumber,
@@ -266,7 +299,11 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
                 currentWritesCompleted,
                 previousDeviceStats != null ? previousDeviceStats.currentWritesCompleted : -1,
                 currentIOTime,
-                previousDeviceStats != null ? previousDeviceStats.currentIOTime : -1
+                previousDeviceStats != null ? previousDeviceStats.currentIOTime : -1,
+                currentReadTime,
+                previousDeviceStats != null ? previousDeviceStats.currentReadTime : -1,
+                currentWriteTime,
+                previousDeviceStats != null ? previousDeviceStats.currentWriteTime : -1
             );
         }
 
@@ -283,7 +320,11 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             final long currentWritesCompleted,
             final long previousWritesCompleted,
             final long currentIOTime,
-            final long previousIOTime
+            final long previousIOTime,
+            final long currentReadTime,
+            final long previousReadTime,
+            final long currentWriteTime,
+            final long previousWriteTime
         ) {
             this.majorDeviceNumber = majorDeviceNumber;
             this.minorDeviceNumber = minorDeviceNumber;
@@ -298,6 +339,10 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             this.previousSectorsWritten = previousSectorsWritten;
             this.currentIOTime = currentIOTime;
             this.previousIOTime = previousIOTime;
+            this.currentReadTime = currentReadTime;
+            this.previousReadTime = previousReadTime;
+            this.currentWriteTime = currentWriteTime;
+            this.previousWriteTime = previousWriteTime;
         }
 
         public DeviceStats(StreamInput in) throws IOException {
@@ -314,6 +359,17 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             previousSectorsWritten = in.readLong();
             currentIOTime = in.readLong();
             previousIOTime = in.readLong();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.FS_DEVICE_STATS_READ_WRITE_TIME)) {
+                currentReadTime = in.readLong();
+                previousReadTime = in.readLong();
+                currentWriteTime = in.readLong();
+                previousWriteTime = in.readLong();
+            } else {
+                currentReadTime = -1;
+                previousReadTime = -1;
+                currentWriteTime = -1;
+                previousWriteTime = -1;
+            }
         }
 
         @Override
@@ -331,6 +387,12 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             out.writeLong(previousSectorsWritten);
             out.writeLong(currentIOTime);
             out.writeLong(previousIOTime);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.FS_DEVICE_STATS_READ_WRITE_TIME)) {
+                out.writeLong(currentReadTime);
+                out.writeLong(previousReadTime);
+                out.writeLong(currentWriteTime);
+                out.writeLong(previousWriteTime);
+            }
         }
 
         public String getDeviceName() {
@@ -373,6 +435,26 @@ public class FsInfo implements Iterable<FsInfo.Path>, Writeable, ToXContentFragm
             return (currentIOTime - previousIOTime);
         }
 
+        /**
+         * The time spent reading since the previous sample, summed over all reads, so it grows faster than wall time when reads
+         * queue up on the device. {@code -1} if unknown.
+         */
+        public long readTimeInMillis() {
+            if (previousReadTime == -1 || currentReadTime == -1) return -1;
+
+            return (currentReadTime - previousReadTime);
+        }
+
+        /**
+         * The time spent writing since the previous sample, summed over all writes, so it grows faster than wall time when writes
+         * queue up on the device. {@code -1} if unknown.
+         */
+        public long writeTimeInMillis() {
+            if (previousWriteTime == -1 || currentWriteTime == -1) return -1;
+
+            return (currentWriteTime - previousWriteTime);
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.field("device_name", deviceName);
@@ -19,8 +19,10 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.Index;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -29,7 +31,8 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Collects statistics about queue size, response time, and service time of
  * tasks executed on each node, making the EWMA of the values available to the
- * coordinating node.
+ * coordinating node. It also keeps the recent response times of the shards of
+ * each index, which are used to decide when to hedge shard requests.
  */
 public final class ResponseCollectorService implements ClusterStateListener {
 
@@ -38,7 +41,19 @@ public final class ResponseCollectorService implements ClusterStateListener {
      */
     public static final double ALPHA = 0.3;
 
+    /**
+     * The number of most recent shard response times that are kept per index, and the minimum number of them that are needed
+     * before percentiles of the response times of an index are reported.
+     */
+    static final int SHARD_RESPONSE_TIMES_WINDOW = 256;
+    static final int MIN_SHARD_RESPONSE_TIMES = 32;
+    /**
+     * The number of shard response times that are added to the window of an index before its percentiles are computed again.
+     */
+    static final int SHARD_RESPONSE_TIMES_RESORT_INTERVAL = 16;
+
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<Index, ShardResponseTimes> indexToShardResponseTimes = ConcurrentCollections.newConcurrentMap();
 
     public ResponseCollectorService(ClusterService clusterService) {
         clusterService.addListener(this);
@@ -51,6 +66,9 @@ public final class ResponseCollectorService implements ClusterStateListener {
                 removeNode(removedNode.getId());
             }
         }
+        for (Index deletedIndex : event.indicesDeleted()) {
+            indexToShardResponseTimes.remove(deletedIndex);
+        }
     }
 
     void removeNode(String nodeId) {
@@ -72,6 +90,22 @@ public final class ResponseCollectorService implements ClusterStateListener {
         });
     }
 
+    /**
+     * Records the time it took for a shard of the given index to respond to a search request.
+     */
+    public void addShardResponseTime(Index index, long responseTimeNanos) {
+        indexToShardResponseTimes.computeIfAbsent(index, i -> new ShardResponseTimes()).add(responseTimeNanos);
+    }
+
+    /**
+     * Returns the given percentile of the most recent response times of the shards of the given index in nanoseconds, or
+     * {@code -1} if not enough responses were recorded for this index yet.
+     */
+    public long getShardResponseTimePercentile(Index index, double percentile) {
+        final ShardResponseTimes responseTimes = indexToShardResponseTimes.get(index);
+        return responseTimes == null ? -1 : responseTimes.percentile(percentile);
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
@@ -220,4 +254,47 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.serviceTime = serviceTimeEWMA;
         }
     }
+
+    /**
+     * Sliding window of the most recent response times of the shards of an index. Percentiles are read from a sorted copy of the
+     * window that is only refreshed once {@link #SHARD_RESPONSE_TIMES_RESORT_INTERVAL} response times were added since it was sorted,
+     * so that neither recording response times nor reading percentiles sorts the window every time.
+     */
+    private static class ShardResponseTimes {
+        private final long[] responseTimes = new long[SHARD_RESPONSE_TIMES_WINDOW];
+        private long count;
+        private long sortedCount;
+        private volatile long[] sorted;
+        private volatile boolean stale;
+
+        synchronized void add(long responseTimeNanos) {
+            responseTimes[(int) (count++ % responseTimes.length)] = responseTimeNanos;
+            if (count >= MIN_SHARD_RESPONSE_TIMES && (sorted == null || count - sortedCount >= SHARD_RESPONSE_TIMES_RESORT_INTERVAL)) {
+                stale = true;
+            }
+        }
+
+        long percentile(double percentile) {
+            if (stale) {
+                sort();
+            }
+            final long[] sorted = this.sorted;
+            if (sorted == null) {
+                return -1;
+            }
+            final int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+        }
+
+        private synchronized void sort() {
+            if (stale == false) {
+                return;
+            }
+            final long[] copy = Arrays.copyOf(responseTimes, (int) Math.min(count, responseTimes.length));
+            Arrays.sort(copy);
+            sorted = copy;
+            sortedCount = count;
+            stale = false;
+        }
+    }
 }
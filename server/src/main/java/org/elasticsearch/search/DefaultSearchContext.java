@@ -77,6 +77,7 @@ import org.elasticsearch.search.rank.context.QueryPhaseRankShardContext;
 import org.elasticsearch.search.rank.feature.RankFeatureResult;
 import org.elasticsearch.search.rescore.RescoreContext;
 import org.elasticsearch.search.rescore.RescorePhase;
+import org.elasticsearch.search.searchafter.SearchAfterIndexSortQuery;
 import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.search.suggest.SuggestionSearchContext;
@@ -173,6 +174,7 @@ final class DefaultSearchContext extends SearchContext {
         Executor executor,
         SearchService.ResultsType resultsType,
         boolean enableQueryPhaseParallelCollection,
+        boolean enableSegmentPartitioning,
         int minimumDocsPerSlice,
         long memoryAccountingBufferSize
     ) throws IOException {
@@ -212,7 +214,8 @@ final class DefaultSearchContext extends SearchContext {
                     lowLevelCancellation,
                     executor,
                     maximumNumberOfSlices,
-                    minimumDocsPerSlice
+                    minimumDocsPerSlice,
+                    enableSegmentPartitioning && isSegmentPartitioningSupported(resultsType, request)
                 );
             }
             closeFuture.addListener(ActionListener.releasing(Releasables.wrap(engineSearcher, searcher)));
@@ -320,6 +323,23 @@ final class DefaultSearchContext extends SearchContext {
         return false;
     }
 
+    /**
+     * Whether the segments searched by the request can be split into partitions that are collected by different collectors. This
+     * is supported by the top docs and hit count collection of the query phase, but not by aggregations, which may compute their
+     * results per segment, nor by field collapsing, terminate_after, scroll and rank, which expect one collector per segment.
+     */
+    static boolean isSegmentPartitioningSupported(SearchService.ResultsType resultsType, ShardSearchRequest request) {
+        if (resultsType != SearchService.ResultsType.QUERY || request.scroll() != null) {
+            return false;
+        }
+        final SearchSourceBuilder source = request.source();
+        return source == null
+            || (source.aggregations() == null
+                && source.collapse() == null
+                && source.terminateAfter() == SearchContext.DEFAULT_TERMINATE_AFTER
+                && source.rankBuilder() == null);
+    }
+
     @Override
     public void addRankFeatureResult() {
         this.rankFeatureResult = new RankFeatureResult(this.readerContext.id(), this.shardTarget, this.request);
@@ -438,6 +458,18 @@ final class DefaultSearchContext extends SearchContext {
             parsedQuery(new ParsedQuery(new BoostQuery(query, queryBoost), parsedQuery()));
         }
         this.query = buildFilteredQuery(query);
+        if (searchAfter != null
+            && sort != null
+            && trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED
+            && aggregations == null
+            && terminateAfter == SearchContext.DEFAULT_TERMINATE_AFTER
+            && indexService.getIndexSettings().getIndexSortConfig().hasIndexSort()) {
+            // documents before the search_after values can neither be hits nor be counted, skip them
+            Query skipBeforeSearchAfter = SearchAfterIndexSortQuery.forSearchAfter(sort.sort, searchAfter);
+            if (skipBeforeSearchAfter != null) {
+                this.query = new BooleanQuery.Builder().add(this.query, Occur.MUST).add(skipBeforeSearchAfter, Occur.FILTER).build();
+            }
+        }
         if (lowLevelCancellation) {
             searcher().addQueryCancellation(() -> {
                 final CancellableTask task = getTask();
@@ -529,6 +561,15 @@ final class DefaultSearchContext extends SearchContext {
         return this;
     }
 
+    @Override
+    public boolean aggregationsSupportParallelCollection() {
+        final SearchSourceBuilder source = request.source();
+        return source != null
+            && source.aggregations() != null
+            && source.aggregations()
+                .supportsParallelCollection(field -> getFieldCardinality(field, indexService, searcher.getDirectoryReader()));
+    }
+
     public void addSearchExt(SearchExtBuilder searchExtBuilder) {
         // it's ok to use the writeable name here given that we enforce it to be the same as the name of the element that gets
         // parsed by the corresponding parser. There is one single name and one single way to retrieve the parsed object from the context.
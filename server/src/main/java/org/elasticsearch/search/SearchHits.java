@@ -12,7 +12,11 @@ package org.elasticsearch.search;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.collect.Iterators;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -30,6 +34,7 @@ import org.elasticsearch.xcontent.XContentParser;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 public final class SearchHits implements Writeable, ChunkedToXContent, RefCounted, Iterable<SearchHit> {
@@ -169,6 +174,41 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
         out.writeOptionalArray(Lucene::writeSortValue, collapseValues);
     }
 
+    /**
+     * Builds the serialized form of {@link SearchHits} without sort fields and collapse information from hits that were each serialized
+     * on their own with {@link SearchHit#writeTo}, so that hits can be serialized as soon as they are built rather than all at once.
+     * The returned bytes reference the given serialized hits and can be read back with {@link #readFrom}.
+     */
+    public static BytesReference serialize(
+        List<BytesReference> serializedHits,
+        @Nullable TotalHits totalHits,
+        float maxScore,
+        TransportVersion version
+    ) throws IOException {
+        final BytesReference[] references = new BytesReference[serializedHits.size() + 2];
+        try (BytesStreamOutput header = new BytesStreamOutput()) {
+            header.setTransportVersion(version);
+            header.writeBoolean(totalHits != null);
+            if (totalHits != null) {
+                Lucene.writeTotalHits(header, totalHits);
+            }
+            header.writeFloat(maxScore);
+            header.writeVInt(serializedHits.size());
+            references[0] = header.copyBytes();
+        }
+        for (int i = 0; i < serializedHits.size(); i++) {
+            references[i + 1] = serializedHits.get(i);
+        }
+        try (BytesStreamOutput trailer = new BytesStreamOutput()) {
+            trailer.setTransportVersion(version);
+            trailer.writeOptional(Lucene::writeSortFieldArray, (SortField[]) null);
+            trailer.writeOptionalString(null);
+            trailer.writeOptionalArray(Lucene::writeSortValue, (Object[]) null);
+            references[references.length - 1] = trailer.copyBytes();
+        }
+        return CompositeBytesReference.of(references);
+    }
+
     /**
      * The total number of hits for the query or null if the tracking of total hits
      * is disabled in the request.
@@ -37,6 +37,7 @@ import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Setting;
@@ -52,6 +53,7 @@ import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
@@ -250,6 +252,13 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         Property.Dynamic
     );
 
+    public static final Setting<Boolean> QUERY_PHASE_SEGMENT_PARTITIONING_ENABLED = Setting.boolSetting(
+        "search.query_phase_segment_partitioning_enabled",
+        true,
+        Property.NodeScope,
+        Property.Dynamic
+    );
+
     public static final Setting<Integer> MAX_OPEN_SCROLL_CONTEXT = Setting.intSetting(
         "search.max_open_scroll_context",
         500,
@@ -335,6 +344,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     private volatile Executor searchExecutor;
     private volatile boolean enableQueryPhaseParallelCollection;
 
+    private volatile boolean enableQueryPhaseSegmentPartitioning;
+
     private volatile long defaultKeepAlive;
 
     private volatile long maxKeepAlive;
@@ -438,6 +449,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         }
         clusterService.getClusterSettings()
             .addSettingsUpdateConsumer(QUERY_PHASE_PARALLEL_COLLECTION_ENABLED, this::setEnableQueryPhaseParallelCollection);
+        enableQueryPhaseSegmentPartitioning = QUERY_PHASE_SEGMENT_PARTITIONING_ENABLED.get(settings);
+        clusterService.getClusterSettings()
+            .addSettingsUpdateConsumer(QUERY_PHASE_SEGMENT_PARTITIONING_ENABLED, this::setEnableQueryPhaseSegmentPartitioning);
         clusterService.getClusterSettings()
             .addSettingsUpdateConsumer(BATCHED_QUERY_PHASE, bulkExecuteQueryPhase -> this.batchQueryPhase = bulkExecuteQueryPhase);
         memoryAccountingBufferSize = MEMORY_ACCOUNTING_BUFFER_SIZE.get(settings).getBytes();
@@ -462,6 +476,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.enableQueryPhaseParallelCollection = enableQueryPhaseParallelCollection;
     }
 
+    private void setEnableQueryPhaseSegmentPartitioning(boolean enableQueryPhaseSegmentPartitioning) {
+        this.enableQueryPhaseSegmentPartitioning = enableQueryPhaseSegmentPartitioning;
+    }
+
     private static void validateKeepAlives(TimeValue defaultKeepAlive, TimeValue maxKeepAlive) {
         if (defaultKeepAlive.millis() > maxKeepAlive.millis()) {
             throw new IllegalArgumentException(
@@ -1151,6 +1169,19 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     }
 
     public void executeFetchPhase(ShardFetchRequest request, CancellableTask task, ActionListener<FetchSearchResult> listener) {
+        executeFetchPhase(request, task, null, listener);
+    }
+
+    /**
+     * Executes the fetch phase of the given request. If a stream supplier is given, the fetched hits are serialized to the supplied
+     * stream as they are built and released, see {@link FetchPhase}.
+     */
+    public void executeFetchPhase(
+        ShardFetchRequest request,
+        CancellableTask task,
+        @Nullable Supplier<RecyclerBytesStreamOutput> serializedHitsStreamSupplier,
+        ActionListener<FetchSearchResult> listener
+    ) {
         final ReaderContext readerContext = findReaderContext(request.contextId(), request);
         final ShardSearchRequest shardSearchRequest = readerContext.getShardSearchRequest(request.getShardSearchRequest());
         final Releasable markAsUsed = readerContext.markAsUsed(getKeepAlive(shardSearchRequest));
@@ -1166,7 +1197,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                     var opsListener = searchContext.indexShard().getSearchOperationListener();
                     opsListener.onPreFetchPhase(searchContext);
                     try {
-                        fetchPhase.execute(searchContext, request.docIds(), request.getRankDocks());
+                        fetchPhase.execute(searchContext, request.docIds(), request.getRankDocks(), serializedHitsStreamSupplier);
                         if (readerContext.singleSession()) {
                             freeReaderContext(request.contextId());
                         }
@@ -1390,6 +1421,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                 searchExecutor,
                 resultsType,
                 enableQueryPhaseParallelCollection,
+                enableQueryPhaseSegmentPartitioning,
                 minimumDocsPerSlice,
                 memoryAccountingBufferSize
             );
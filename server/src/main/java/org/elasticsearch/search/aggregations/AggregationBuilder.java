@@ -260,6 +260,18 @@ public abstract class AggregationBuilder
         return true;
     }
 
+    /**
+     * Return true if the shard results of this aggregation are sorted by key and merge sorted into a partial result whose size does not
+     * grow with the number of shards. Such aggregations are cheap to reduce on the coordinating node one shard result at a time, as
+     * they arrive, so that the memory used by the reduce stays flat regardless of the number of shards. Metrics whose partial result
+     * has a fixed size, like {@code sum} or {@code max}, don't grow either and can be sub-aggregations of such aggregations.
+     *
+     * By default, it's false for all aggregations.
+     */
+    public boolean supportsIncrementalReduce() {
+        return false;
+    }
+
     /**
      * Called by aggregations whose parents must be sequentially ordered.
      * @param type the type of the aggregation being validated
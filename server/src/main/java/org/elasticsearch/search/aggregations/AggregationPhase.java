@@ -31,6 +31,15 @@ public class AggregationPhase {
             AggregatorCollector collector = newAggregatorCollector(context);
             executeInSortOrder(context, collector.bucketCollector);
             collectorSupplier = () -> new AggregatorCollector(collector.aggregators, BucketCollector.NO_OP_BUCKET_COLLECTOR);
+        } else if (context.aggregations().getSegmentResultsCache() != null) {
+            final SearchContextAggregations.SegmentResultsCache cache = context.aggregations().getSegmentResultsCache();
+            collectorSupplier = () -> SegmentCachingAggregatorCollector.wrap(
+                () -> newAggregatorCollector(context),
+                cache,
+                () -> context.aggregations().getAggregationReduceContextBuilder().forPartialReduction(),
+                context.searcher()::timeExceeded,
+                SegmentCachingAggregatorCollector.MIN_CACHED_SEGMENT_DOCS
+            );
         } else {
             collectorSupplier = () -> newAggregatorCollector(context);
         }
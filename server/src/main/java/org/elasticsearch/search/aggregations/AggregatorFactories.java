@@ -390,6 +390,28 @@ public class AggregatorFactories {
             return true;
         }
 
+        /**
+         * Return true if all the aggregations, including all the sub-aggregations, support reducing shard results one at a time as
+         * they arrive. A single sub-aggregation whose partial results grow, like {@code top_hits} or {@code percentiles}, makes the
+         * partial results of its parents grow too.
+         * @see AggregationBuilder#supportsIncrementalReduce()
+         */
+        public boolean supportsIncrementalReduce() {
+            if (aggregationBuilders.isEmpty()) {
+                return false;
+            }
+            return supportIncrementalReduce(aggregationBuilders);
+        }
+
+        private static boolean supportIncrementalReduce(Collection<AggregationBuilder> builders) {
+            for (AggregationBuilder builder : builders) {
+                if (builder.supportsIncrementalReduce() == false || supportIncrementalReduce(builder.getSubAggregations()) == false) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         public Builder addAggregator(AggregationBuilder factory) {
             if (names.add(factory.name) == false) {
                 throw new IllegalArgumentException("Two sibling aggregations cannot have the same name: [" + factory.name + "]");
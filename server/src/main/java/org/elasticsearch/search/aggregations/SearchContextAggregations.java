@@ -8,8 +8,11 @@
  */
 package org.elasticsearch.search.aggregations;
 
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.CollectorManager;
+import org.elasticsearch.core.Nullable;
 
+import java.io.IOException;
 import java.util.function.Supplier;
 
 /**
@@ -20,6 +23,7 @@ public class SearchContextAggregations {
     private final AggregatorFactories factories;
     private final Supplier<AggregationReduceContext.Builder> toAggregationReduceContextBuilder;
     private CollectorManager<AggregatorCollector, Void> aggCollectorManager;
+    private SegmentResultsCache segmentResultsCache;
 
     /**
      * Creates a new aggregation context with the parsed aggregator factories
@@ -50,6 +54,23 @@ public class SearchContextAggregations {
         return aggCollectorManager;
     }
 
+    /**
+     * Makes the aggregations phase compute and cache the results of each segment separately, and reuse the cached results of the
+     * segments that did not change since a previous execution of the same request. This must only be enabled for requests whose
+     * aggregations support parallel collection, since per-segment results are merged like the results of parallel slices.
+     */
+    public void enableSegmentResultsCaching(SegmentResultsCache segmentResultsCache) {
+        this.segmentResultsCache = segmentResultsCache;
+    }
+
+    /**
+     * Returns the cache for the results of individual segments, or {@code null} if they should not be cached.
+     */
+    @Nullable
+    public SegmentResultsCache getSegmentResultsCache() {
+        return segmentResultsCache;
+    }
+
     /**
      * Returns if the aggregations needs to execute in sort order.
      */
@@ -63,4 +84,20 @@ public class SearchContextAggregations {
     public AggregationReduceContext.Builder getAggregationReduceContextBuilder() {
         return toAggregationReduceContextBuilder.get();
     }
+
+    /**
+     * Cache for the aggregation results of individual segments, scoped to the request that is being executed.
+     */
+    public interface SegmentResultsCache {
+        /**
+         * Returns the cached results of the given segment, or {@code null} if there are none.
+         */
+        @Nullable
+        InternalAggregations get(LeafReaderContext leaf) throws IOException;
+
+        /**
+         * Caches the results of the given segment.
+         */
+        void put(LeafReaderContext leaf, InternalAggregations results) throws IOException;
+    }
 }
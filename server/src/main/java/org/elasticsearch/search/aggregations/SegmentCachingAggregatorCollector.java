@@ -0,0 +1,180 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.ScoreMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link AggregatorCollector} that builds the results of every segment with a fresh set of aggregators, so that they can be cached
+ * and reused by later executions of the same request. Segments with cached results are not collected at all. The results of all
+ * segments are merged with a partial reduction on post collection, the same way the results of parallel slices are merged.
+ * <p>
+ * Aggregations that need scores are never cached: scores depend on shard level statistics, like document frequencies, that change
+ * with the other segments of the shard, so the results of a segment can't be reused once the shard changed.
+ * <p>
+ * Building a set of aggregators costs more than collecting a handful of documents, so segments with fewer than
+ * {@link #MIN_CACHED_SEGMENT_DOCS} documents, like those written by the latest refreshes, are collected together by a single set of
+ * aggregators and are not cached. They are usually merged away before their results could be reused much anyway.
+ */
+class SegmentCachingAggregatorCollector extends AggregatorCollector {
+
+    /**
+     * Segments with fewer documents than this are not cached.
+     */
+    static final int MIN_CACHED_SEGMENT_DOCS = 1000;
+
+    private final Supplier<AggregatorCollector> collectorSupplier;
+    private final SearchContextAggregations.SegmentResultsCache cache;
+    private final Supplier<AggregationReduceContext> reduceContextSupplier;
+    private final BooleanSupplier timeExceeded;
+    private final List<InternalAggregations> segmentResults = new ArrayList<>();
+    private final ScoreMode scoreMode;
+    private final String description;
+    private final int minCachedSegmentDocs;
+
+    // the first collector is created eagerly to provide the score mode, it is used to collect the first segment that needs collection
+    private AggregatorCollector unused;
+    private AggregatorCollector current;
+    private LeafReaderContext currentLeaf;
+    // collects all segments that are too small to be cached
+    private AggregatorCollector smallSegments;
+
+    /**
+     * Returns a collector that caches the results of every segment, or a plain collector if the aggregations need scores.
+     */
+    static AggregatorCollector wrap(
+        Supplier<AggregatorCollector> collectorSupplier,
+        SearchContextAggregations.SegmentResultsCache cache,
+        Supplier<AggregationReduceContext> reduceContextSupplier,
+        BooleanSupplier timeExceeded,
+        int minCachedSegmentDocs
+    ) {
+        final AggregatorCollector first = collectorSupplier.get();
+        if (first.scoreMode().needsScores()) {
+            return first;
+        }
+        return new SegmentCachingAggregatorCollector(
+            first,
+            collectorSupplier,
+            cache,
+            reduceContextSupplier,
+            timeExceeded,
+            minCachedSegmentDocs
+        );
+    }
+
+    private SegmentCachingAggregatorCollector(
+        AggregatorCollector first,
+        Supplier<AggregatorCollector> collectorSupplier,
+        SearchContextAggregations.SegmentResultsCache cache,
+        Supplier<AggregationReduceContext> reduceContextSupplier,
+        BooleanSupplier timeExceeded,
+        int minCachedSegmentDocs
+    ) {
+        super(new Aggregator[0], BucketCollector.NO_OP_BUCKET_COLLECTOR);
+        this.collectorSupplier = collectorSupplier;
+        this.cache = cache;
+        this.reduceContextSupplier = reduceContextSupplier;
+        this.timeExceeded = timeExceeded;
+        this.unused = first;
+        this.scoreMode = first.scoreMode();
+        this.description = first.toString();
+        this.minCachedSegmentDocs = minCachedSegmentDocs;
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+        // the previous segment was fully collected once we move to the next one
+        finishCurrentLeaf(true);
+        if (context.reader().maxDoc() < minCachedSegmentDocs) {
+            if (smallSegments == null) {
+                smallSegments = newCollector();
+            }
+            return smallSegments.getLeafCollector(context);
+        }
+        final InternalAggregations cached = cache.get(context);
+        if (cached != null) {
+            segmentResults.add(cached);
+            throw new CollectionTerminatedException();
+        }
+        current = newCollector();
+        currentLeaf = context;
+        try {
+            return current.getLeafCollector(context);
+        } catch (CollectionTerminatedException e) {
+            // there is nothing to collect in this segment, its (empty) results are complete
+            finishCurrentLeaf(true);
+            throw e;
+        }
+    }
+
+    private AggregatorCollector newCollector() {
+        final AggregatorCollector collector = unused != null ? unused : collectorSupplier.get();
+        unused = null;
+        return collector;
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return scoreMode;
+    }
+
+    @Override
+    public void doPostCollection() throws IOException {
+        // the last segment might have been interrupted by a timeout, its partial results must not be cached
+        finishCurrentLeaf(timeExceeded.getAsBoolean() == false);
+        if (smallSegments != null) {
+            smallSegments.doPostCollection();
+            segmentResults.add(InternalAggregations.from(smallSegments.internalAggregations));
+            smallSegments = null;
+        }
+        if (segmentResults.isEmpty()) {
+            assert unused != null;
+            unused.doPostCollection();
+            segmentResults.add(InternalAggregations.from(unused.internalAggregations));
+            unused = null;
+        }
+        final InternalAggregations results = segmentResults.size() == 1
+            ? segmentResults.get(0)
+            : InternalAggregations.topLevelReduce(segmentResults, reduceContextSupplier.get());
+        segmentResults.clear();
+        internalAggregations.addAll(results.asList());
+    }
+
+    private void finishCurrentLeaf(boolean complete) throws IOException {
+        if (current == null) {
+            return;
+        }
+        final AggregatorCollector collector = current;
+        final LeafReaderContext leaf = currentLeaf;
+        current = null;
+        currentLeaf = null;
+        collector.doPostCollection();
+        final InternalAggregations results = InternalAggregations.from(collector.internalAggregations);
+        if (complete) {
+            cache.put(leaf, results);
+        }
+        segmentResults.add(results);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -99,6 +99,12 @@ public class CompositeAggregationBuilder extends AbstractAggregationBuilder<Comp
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // partial reduces only keep the first size buckets
+        return true;
+    }
+
     public CompositeAggregationBuilder(StreamInput in) throws IOException {
         super(in);
         int num = in.readVInt();
@@ -168,6 +168,12 @@ public class DateHistogramAggregationBuilder extends ValuesSourceAggregationBuil
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // shards return buckets in key order whatever the requested order is, partial reduces keep one bucket per key
+        return true;
+    }
+
     @Override
     protected ValuesSourceType defaultValueSourceType() {
         return CoreValuesSourceType.DATE;
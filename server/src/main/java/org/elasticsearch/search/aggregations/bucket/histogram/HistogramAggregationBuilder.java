@@ -124,6 +124,12 @@ public class HistogramAggregationBuilder extends ValuesSourceAggregationBuilder<
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // shards return buckets in key order whatever the requested order is, partial reduces keep one bucket per key
+        return true;
+    }
+
     @Override
     protected AggregationBuilder shallowCopy(AggregatorFactories.Builder factoriesBuilder, Map<String, Object> metadata) {
         return new HistogramAggregationBuilder(this, factoriesBuilder, metadata);
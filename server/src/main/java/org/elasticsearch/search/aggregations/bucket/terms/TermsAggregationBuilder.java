@@ -139,6 +139,12 @@ public class TermsAggregationBuilder extends ValuesSourceAggregationBuilder<Term
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // partial reduces of terms in key order that are not filtered on doc count only keep the first size buckets
+        return InternalOrder.isKeyOrder(order) && minDocCount() <= 1;
+    }
+
     @Override
     public boolean supportsParallelCollection(ToLongFunction<String> fieldCardinalityResolver) {
         if (minDocCount() == 0) {
@@ -78,6 +78,12 @@ public class MaxAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // the partial result has a fixed size
+        return true;
+    }
+
     @Override
     protected void innerWriteTo(StreamOutput out) {
         // Do nothing, no extra state to write to stream
@@ -83,6 +83,12 @@ public class MinAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // the partial result has a fixed size
+        return true;
+    }
+
     @Override
     protected MinAggregatorFactory innerBuild(
         AggregationContext context,
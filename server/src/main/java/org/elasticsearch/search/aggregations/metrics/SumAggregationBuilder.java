@@ -66,6 +66,12 @@ public class SumAggregationBuilder extends ValuesSourceAggregationBuilder.Single
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // the partial result has a fixed size
+        return true;
+    }
+
     /**
      * Read from a stream.
      */
@@ -75,6 +75,12 @@ public class ValueCountAggregationBuilder extends ValuesSourceAggregationBuilder
         return true;
     }
 
+    @Override
+    public boolean supportsIncrementalReduce() {
+        // the partial result has a fixed size
+        return true;
+    }
+
     /**
      * Read from a stream.
      */
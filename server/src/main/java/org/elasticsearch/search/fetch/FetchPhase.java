@@ -15,7 +15,10 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.util.automaton.CharacterRunAutomaton;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.fieldvisitor.LeafStoredFieldLoader;
 import org.elasticsearch.index.fieldvisitor.StoredFieldLoader;
 import org.elasticsearch.index.mapper.IdLoader;
@@ -67,6 +70,20 @@ public final class FetchPhase {
     }
 
     public void execute(SearchContext context, int[] docIdsToLoad, RankDocShardInfo rankDocs) {
+        execute(context, docIdsToLoad, rankDocs, null);
+    }
+
+    /**
+     * Fetches the given documents. If a stream supplier is given, every hit is serialized to the supplied stream and released as soon
+     * as it is built, and the fetch result holds the serialized hits rather than the hits themselves. This bounds the memory that
+     * hits use on shards that return many or large documents to their serialized size, for results that are sent over the network.
+     */
+    public void execute(
+        SearchContext context,
+        int[] docIdsToLoad,
+        RankDocShardInfo rankDocs,
+        @Nullable Supplier<RecyclerBytesStreamOutput> serializedHitsStreamSupplier
+    ) {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("{}", new SearchContextSourcePrinter(context));
         }
@@ -86,9 +103,13 @@ public final class FetchPhase {
             || (context.request().source() != null && context.request().source().rankBuilder() != null)
                 ? Profiler.NOOP
                 : Profilers.startProfilingFetchPhase();
+        if (serializedHitsStreamSupplier != null) {
+            executeSerialized(context, docIdsToLoad, profiler, rankDocs, serializedHitsStreamSupplier.get());
+            return;
+        }
         SearchHits hits = null;
         try {
-            hits = buildSearchHits(context, docIdsToLoad, profiler, rankDocs);
+            hits = buildSearchHits(context, docIdsToLoad, profiler, rankDocs, null);
         } finally {
             try {
                 // Always finish profiling
@@ -106,6 +127,41 @@ public final class FetchPhase {
         }
     }
 
+    private void executeSerialized(
+        SearchContext context,
+        int[] docIdsToLoad,
+        Profiler profiler,
+        RankDocShardInfo rankDocs,
+        RecyclerBytesStreamOutput out
+    ) {
+        ReleasableBytesReference serializedHits = null;
+        try (SearchHitsSerializer serializer = new SearchHitsSerializer(out)) {
+            SearchHits hits = buildSearchHits(context, docIdsToLoad, profiler, rankDocs, serializer);
+            try {
+                assert hits.getHits().length == 0 : "hits must have been serialized";
+                serializedHits = serializer.build(docIdsToLoad, hits.getTotalHits(), hits.getMaxScore());
+            } finally {
+                hits.decRef();
+            }
+        } catch (IOException e) {
+            throw new FetchPhaseExecutionException(context.shardTarget(), "Error serializing fetched hits", e);
+        } finally {
+            try {
+                // Always finish profiling
+                ProfileResult profileResult = profiler.finish();
+                // Only set the shardResults if building search hits was successful
+                if (serializedHits != null) {
+                    context.fetchResult().shardResult(serializedHits, out.getTransportVersion(), profileResult);
+                    serializedHits = null;
+                }
+            } finally {
+                if (serializedHits != null) {
+                    serializedHits.decRef();
+                }
+            }
+        }
+    }
+
     private static class PreloadedSourceProvider implements SourceProvider {
 
         Source source;
@@ -116,7 +172,13 @@ public final class FetchPhase {
         }
     }
 
-    private SearchHits buildSearchHits(SearchContext context, int[] docIdsToLoad, Profiler profiler, RankDocShardInfo rankDocs) {
+    private SearchHits buildSearchHits(
+        SearchContext context,
+        int[] docIdsToLoad,
+        Profiler profiler,
+        RankDocShardInfo rankDocs,
+        @Nullable SearchHitsSerializer serializer
+    ) {
         // Optionally remove sparse and dense vector fields early to:
         // - Reduce the in-memory size of the source
         // - Speed up retrieval of the synthetic source
@@ -209,6 +271,12 @@ public final class FetchPhase {
                     if (sourceRef != null) {
                         locallyAccumulatedBytes[0] += sourceRef.length();
                     }
+                    if (serializer != null) {
+                        serializer.add(doc, hit.hit());
+                        hit.hit().decRef();
+                        success = true;
+                        return null;
+                    }
                     success = true;
                     return hit.hit();
                 } finally {
@@ -230,12 +298,18 @@ public final class FetchPhase {
         if (context.isCancelled()) {
             for (SearchHit hit : hits) {
                 // release all hits that would otherwise become owned and eventually released by SearchHits below
-                hit.decRef();
+                if (hit != null) {
+                    hit.decRef();
+                }
             }
             throw new TaskCancelledException("cancelled");
         }
 
         TotalHits totalHits = context.getTotalHits();
+        if (serializer != null) {
+            // hits were serialized and released as they were built
+            return SearchHits.empty(totalHits, context.getMaxScore());
+        }
         return new SearchHits(hits, totalHits, context.getMaxScore());
     }
 
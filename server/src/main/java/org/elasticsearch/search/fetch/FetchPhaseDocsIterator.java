@@ -42,7 +42,7 @@ abstract class FetchPhaseDocsIterator {
     /**
      * Called for each document within a leaf reader
      * @param doc   the global doc id
-     * @return a {@link SearchHit} for the document
+     * @return a {@link SearchHit} for the document, or {@code null} if the hit was consumed and released by the implementation
      */
     protected abstract SearchHit nextDoc(int doc) throws IOException;
 
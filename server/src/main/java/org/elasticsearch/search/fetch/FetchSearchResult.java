@@ -9,6 +9,8 @@
 
 package org.elasticsearch.search.fetch;
 
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.core.RefCounted;
@@ -22,10 +24,14 @@ import org.elasticsearch.search.profile.ProfileResult;
 import org.elasticsearch.transport.LeakTracker;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 public final class FetchSearchResult extends SearchPhaseResult {
 
     private SearchHits hits;
+    // hits that the fetch phase serialized as they were built, see FetchPhase#execute
+    private ReleasableBytesReference serializedHits;
+    private TransportVersion serializedHitsVersion;
     // client side counter
     private transient int counter;
 
@@ -50,7 +56,11 @@ public final class FetchSearchResult extends SearchPhaseResult {
     public void writeTo(StreamOutput out) throws IOException {
         assert hasReferences();
         contextId.writeTo(out);
-        hits.writeTo(out);
+        if (serializedHits != null && out.getTransportVersion().equals(serializedHitsVersion)) {
+            serializedHits.writeTo(out);
+        } else {
+            hits().writeTo(out);
+        }
         out.writeOptionalWriteable(profileResult);
     }
 
@@ -66,11 +76,28 @@ public final class FetchSearchResult extends SearchPhaseResult {
         if (existing != null) {
             existing.decRef();
         }
+        if (serializedHits != null) {
+            serializedHits.decRef();
+            serializedHits = null;
+        }
         this.hits = hits;
         assert this.profileResult == null;
         this.profileResult = profileResult;
     }
 
+    /**
+     * Sets hits that were serialized with the given transport version, which are written as-is when this result is sent with the same
+     * transport version and are only read back on access to {@link #hits()}.
+     */
+    public void shardResult(ReleasableBytesReference serializedHits, TransportVersion version, ProfileResult profileResult) {
+        assert hasReferences();
+        assert this.hits == null && this.serializedHits == null;
+        this.serializedHits = serializedHits;
+        this.serializedHitsVersion = version;
+        assert this.profileResult == null;
+        this.profileResult = profileResult;
+    }
+
     private static boolean assertNoSearchTarget(SearchHits hits) {
         for (SearchHit hit : hits.getHits()) {
             assert hit.getShard() == null : "expected null but got: " + hit.getShard();
@@ -80,6 +107,14 @@ public final class FetchSearchResult extends SearchPhaseResult {
 
     public SearchHits hits() {
         assert hasReferences();
+        if (hits == null && serializedHits != null) {
+            try (StreamInput in = serializedHits.streamInput()) {
+                in.setTransportVersion(serializedHitsVersion);
+                hits = SearchHits.readFrom(in, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return hits;
     }
 
@@ -120,6 +155,10 @@ public final class FetchSearchResult extends SearchPhaseResult {
             hits.decRef();
             hits = null;
         }
+        if (serializedHits != null) {
+            serializedHits.decRef();
+            serializedHits = null;
+        }
     }
 
     @Override
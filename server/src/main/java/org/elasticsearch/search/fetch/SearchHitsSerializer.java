@@ -0,0 +1,89 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.fetch;
+
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes the hits of the fetch phase one by one as soon as they are built, so that each hit can be released right away instead
+ * of keeping the hits of all documents in memory until the response is sent. Hits are fetched in doc id order and are put back in
+ * the order of the requested doc ids when the serialized {@link SearchHits} are built. A doc id may be requested more than once, its
+ * hits are then fetched in the order they were requested.
+ */
+final class SearchHitsSerializer implements Releasable {
+
+    private final RecyclerBytesStreamOutput out;
+    // the serialized hits of each doc id, in the order they were added
+    private final Map<Integer, Deque<Slice>> slicesByDoc = new HashMap<>();
+    private int hitCount;
+
+    SearchHitsSerializer(RecyclerBytesStreamOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Serializes the hit of the given global doc id. The hit is not released, the caller still owns it.
+     */
+    void add(int doc, SearchHit hit) throws IOException {
+        final int start = out.size();
+        hit.writeTo(out);
+        slicesByDoc.computeIfAbsent(doc, k -> new ArrayDeque<>(1)).add(new Slice(start, out.size() - start));
+        hitCount++;
+    }
+
+    /**
+     * Builds the serialized {@link SearchHits} of the given doc ids, in the given order. Doc ids that were not added, because the
+     * fetch phase timed out before reaching them, are skipped. The returned bytes own the serialized hits, this serializer must not
+     * be used anymore.
+     */
+    ReleasableBytesReference build(int[] docIds, @Nullable TotalHits totalHits, float maxScore) throws IOException {
+        final ReleasableBytesReference bytes = out.moveToBytesReference();
+        boolean success = false;
+        try {
+            final List<BytesReference> hits = new ArrayList<>(hitCount);
+            for (int doc : docIds) {
+                final Deque<Slice> slices = slicesByDoc.get(doc);
+                final Slice slice = slices == null ? null : slices.poll();
+                if (slice != null) {
+                    hits.add(bytes.slice(slice.offset, slice.length));
+                }
+            }
+            final BytesReference serialized = SearchHits.serialize(hits, totalHits, maxScore, out.getTransportVersion());
+            success = true;
+            return new ReleasableBytesReference(serialized, (Releasable) bytes);
+        } finally {
+            if (success == false) {
+                bytes.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        out.close();
+    }
+
+    private record Slice(int offset, int length) {}
+}
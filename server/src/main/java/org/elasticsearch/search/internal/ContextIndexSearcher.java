@@ -44,6 +44,7 @@ import org.elasticsearch.search.profile.query.ProfileWeight;
 import org.elasticsearch.search.profile.query.QueryProfileBreakdown;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.profile.query.QueryTimingType;
+import org.elasticsearch.search.profile.query.SegmentPartitionResult;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -79,6 +80,8 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     private final int maximumNumberOfSlices;
     // don't create slices with less than this number of docs
     private final int minimumDocsPerSlice;
+    // whether segments that hold more docs than a slice should be split into partitions of doc id ranges
+    private final boolean partitionSegments;
 
     private volatile boolean timeExceeded = false;
 
@@ -105,6 +108,35 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         Executor executor,
         int maximumNumberOfSlices,
         int minimumDocsPerSlice
+    ) throws IOException {
+        this(
+            reader,
+            similarity,
+            queryCache,
+            queryCachingPolicy,
+            wrapWithExitableDirectoryReader,
+            executor,
+            maximumNumberOfSlices,
+            minimumDocsPerSlice,
+            false
+        );
+    }
+
+    /**
+     * constructor for concurrent search that may split large segments into multiple partitions, which requires all the collectors
+     * used with this searcher to support collecting the same segment from multiple collectors.
+     */
+    @SuppressWarnings("this-escape")
+    public ContextIndexSearcher(
+        IndexReader reader,
+        Similarity similarity,
+        QueryCache queryCache,
+        QueryCachingPolicy queryCachingPolicy,
+        boolean wrapWithExitableDirectoryReader,
+        Executor executor,
+        int maximumNumberOfSlices,
+        int minimumDocsPerSlice,
+        boolean partitionSegments
     ) throws IOException {
         this(
             reader,
@@ -115,7 +147,8 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
             wrapWithExitableDirectoryReader,
             executor,
             maximumNumberOfSlices,
-            minimumDocsPerSlice
+            minimumDocsPerSlice,
+            partitionSegments
         );
     }
 
@@ -130,6 +163,33 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         Executor executor,
         int maximumNumberOfSlices,
         int minimumDocsPerSlice
+    ) throws IOException {
+        this(
+            reader,
+            similarity,
+            queryCache,
+            queryCachingPolicy,
+            cancellable,
+            wrapWithExitableDirectoryReader,
+            executor,
+            maximumNumberOfSlices,
+            minimumDocsPerSlice,
+            false
+        );
+    }
+
+    @SuppressWarnings("this-escape")
+    private ContextIndexSearcher(
+        IndexReader reader,
+        Similarity similarity,
+        QueryCache queryCache,
+        QueryCachingPolicy queryCachingPolicy,
+        MutableQueryTimeout cancellable,
+        boolean wrapWithExitableDirectoryReader,
+        Executor executor,
+        int maximumNumberOfSlices,
+        int minimumDocsPerSlice,
+        boolean partitionSegments
     ) throws IOException {
         super(wrapWithExitableDirectoryReader ? new ExitableDirectoryReader((DirectoryReader) reader, cancellable) : reader, executor);
         this.hasExecutor = executor != null;
@@ -139,6 +199,7 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         this.cancellable = cancellable;
         this.minimumDocsPerSlice = minimumDocsPerSlice;
         this.maximumNumberOfSlices = maximumNumberOfSlices;
+        this.partitionSegments = partitionSegments;
     }
 
     /**
@@ -153,7 +214,7 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     @Override
     protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
         // we offload to the executor unconditionally, including requests that don't support concurrency
-        LeafSlice[] leafSlices = computeSlices(getLeafContexts(), maximumNumberOfSlices, minimumDocsPerSlice);
+        LeafSlice[] leafSlices = computeSlices(getLeafContexts(), maximumNumberOfSlices, minimumDocsPerSlice, partitionSegments);
         assert leafSlices.length <= maximumNumberOfSlices : "more slices created than the maximum allowed";
         return leafSlices;
     }
@@ -243,6 +304,20 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
      * of {@link LeafSlice} will be equal or lower than the max number of slices.
      */
     public static LeafSlice[] computeSlices(List<LeafReaderContext> leaves, int maxSliceNum, int minDocsPerSlice) {
+        return computeSlices(leaves, maxSliceNum, minDocsPerSlice, false);
+    }
+
+    /**
+     * Same as {@link #computeSlices(List, int, int)}, but when <code>partitionSegments</code> is set a segment that holds
+     * enough documents for more than one slice is split into partitions of contiguous doc id ranges, each partition being
+     * searched by its own slice. A slice never holds two partitions of the same segment.
+     */
+    public static LeafSlice[] computeSlices(
+        List<LeafReaderContext> leaves,
+        int maxSliceNum,
+        int minDocsPerSlice,
+        boolean partitionSegments
+    ) {
         if (maxSliceNum < 1) {
             throw new IllegalArgumentException("maxSliceNum must be >= 1 (got " + maxSliceNum + ")");
         }
@@ -261,23 +336,35 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         // percentage of documents per slice, minimum 10%
         final double percentageDocsPerThread = Math.max(MINIMUM_DOCS_PERCENT_PER_SLICE, 1.0 / maxSliceNum);
         // compute slices
-        return computeSlices(leaves, Math.max(minDocsPerSlice, (int) (percentageDocsPerThread * numDocs)));
+        return computeSlices(leaves, Math.max(minDocsPerSlice, (int) (percentageDocsPerThread * numDocs)), partitionSegments);
     }
 
-    private static LeafSlice[] computeSlices(List<LeafReaderContext> leaves, int minDocsPerSlice) {
+    private static LeafSlice[] computeSlices(List<LeafReaderContext> leaves, int minDocsPerSlice, boolean partitionSegments) {
         // Make a copy so we can sort:
         List<LeafReaderContext> sortedLeaves = new ArrayList<>(leaves);
         // Sort by maxDoc, descending:
         sortedLeaves.sort((c1, c2) -> Integer.compare(c2.reader().maxDoc(), c1.reader().maxDoc()));
         // we add the groups on a priority queue, so we can add orphan leafs to the smallest group
-        final PriorityQueue<List<LeafReaderContext>> queue = new PriorityQueue<>(
+        final PriorityQueue<List<LeafReaderContextPartition>> queue = new PriorityQueue<>(
             (c1, c2) -> Integer.compare(sumMaxDocValues(c1), sumMaxDocValues(c2))
         );
         long docSum = 0;
-        List<LeafReaderContext> group = new ArrayList<>();
+        List<LeafReaderContextPartition> group = new ArrayList<>();
         for (LeafReaderContext ctx : sortedLeaves) {
-            group.add(ctx);
-            docSum += ctx.reader().maxDoc();
+            final int maxDoc = ctx.reader().maxDoc();
+            // every partition holds more docs than the minimum per slice, which bounds the number of slices like for whole segments
+            final int numPartitions = partitionSegments ? maxDoc / (minDocsPerSlice + 1) : 1;
+            if (numPartitions > 1) {
+                // each partition gets its own slice, so that the same segment is never searched twice by the same slice
+                for (int i = 0; i < numPartitions; i++) {
+                    final int from = (int) ((long) maxDoc * i / numPartitions);
+                    final int to = (int) ((long) maxDoc * (i + 1) / numPartitions);
+                    queue.add(new ArrayList<>(List.of(LeafReaderContextPartition.createFromAndTo(ctx, from, to))));
+                }
+                continue;
+            }
+            group.add(LeafReaderContextPartition.createForEntireSegment(ctx));
+            docSum += maxDoc;
             if (docSum > minDocsPerSlice) {
                 queue.add(group);
                 group = new ArrayList<>();
@@ -289,9 +376,10 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
             if (queue.size() == 0) {
                 queue.add(group);
             } else {
-                for (LeafReaderContext context : group) {
-                    final List<LeafReaderContext> head = queue.poll();
-                    head.add(context);
+                // orphans are whole segments, they never share a slice with another partition of the same segment
+                for (LeafReaderContextPartition partition : group) {
+                    final List<LeafReaderContextPartition> head = queue.poll();
+                    head.add(partition);
                     queue.add(head);
                 }
             }
@@ -299,23 +387,19 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
 
         final LeafSlice[] slices = new LeafSlice[queue.size()];
         int upto = 0;
-        for (List<LeafReaderContext> currentLeaf : queue) {
+        for (List<LeafReaderContextPartition> currentLeaf : queue) {
             // LeafSlice ctor reorders leaves so that leaves within a slice preserve the order they had within the IndexReader.
             // This is important given how Elasticsearch sorts leaves by descending @timestamp to get better query performance.
-            slices[upto++] = new LeafSlice(
-                currentLeaf.stream()
-                    .map(LeafReaderContextPartition::createForEntireSegment)
-                    .collect(Collectors.toCollection(ArrayList::new))
-            );
+            slices[upto++] = new LeafSlice(currentLeaf);
         }
 
         return slices;
     }
 
-    private static int sumMaxDocValues(List<LeafReaderContext> l) {
+    private static int sumMaxDocValues(List<LeafReaderContextPartition> l) {
         int sum = 0;
-        for (LeafReaderContext lr : l) {
-            sum += lr.reader().maxDoc();
+        for (LeafReaderContextPartition partition : l) {
+            sum += Math.min(partition.maxDocId, partition.ctx.reader().maxDoc()) - partition.minDocId;
         }
         return sum;
     }
@@ -438,6 +522,19 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
 
     @Override
     protected void searchLeaf(LeafReaderContext ctx, int minDocId, int maxDocId, Weight weight, Collector collector) throws IOException {
+        if (profiler != null && (minDocId > 0 || maxDocId < ctx.reader().maxDoc())) {
+            final long start = System.nanoTime();
+            try {
+                doSearchLeaf(ctx, minDocId, maxDocId, weight, collector);
+            } finally {
+                profiler.addSegmentPartition(new SegmentPartitionResult(ctx.ord, minDocId, maxDocId, System.nanoTime() - start));
+            }
+        } else {
+            doSearchLeaf(ctx, minDocId, maxDocId, weight, collector);
+        }
+    }
+
+    private void doSearchLeaf(LeafReaderContext ctx, int minDocId, int maxDocId, Weight weight, Collector collector) throws IOException {
         cancellable.checkCancelled();
         final LeafCollector leafCollector;
         try {
@@ -471,6 +568,8 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
                     intersectScorerAndBitSet(
                         scorer,
                         liveDocsBitSet,
+                        minDocId,
+                        maxDocId,
                         leafCollector,
                         this.cancellable.isEnabled() ? cancellable::checkCancelled : () -> {}
                     );
@@ -500,6 +599,20 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
 
     static void intersectScorerAndBitSet(Scorer scorer, BitSet acceptDocs, LeafCollector collector, Runnable checkCancelled)
         throws IOException {
+        intersectScorerAndBitSet(scorer, acceptDocs, 0, DocIdSetIterator.NO_MORE_DOCS, collector, checkCancelled);
+    }
+
+    /**
+     * Collects the docs matched by both the scorer and the accepted docs that fall within <code>[minDocId, maxDocId)</code>.
+     */
+    static void intersectScorerAndBitSet(
+        Scorer scorer,
+        BitSet acceptDocs,
+        int minDocId,
+        int maxDocId,
+        LeafCollector collector,
+        Runnable checkCancelled
+    ) throws IOException {
         collector.setScorer(scorer);
         // ConjunctionDISI uses the DocIdSetIterator#cost() to order the iterators, so if roleBits has the lowest cardinality it should
         // be used first:
@@ -508,7 +621,7 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         );
         int seen = 0;
         checkCancelled.run();
-        for (int docId = iterator.nextDoc(); docId < DocIdSetIterator.NO_MORE_DOCS; docId = iterator.nextDoc()) {
+        for (int docId = minDocId == 0 ? iterator.nextDoc() : iterator.advance(minDocId); docId < maxDocId; docId = iterator.nextDoc()) {
             if (++seen % CHECK_CANCELLED_SCORER_INTERVAL == 0) {
                 checkCancelled.run();
             }
@@ -142,6 +142,14 @@ public abstract class SearchContext implements Releasable {
 
     public abstract SearchContext aggregations(SearchContextAggregations aggregations);
 
+    /**
+     * Returns whether the aggregations of this request support parallel collection, which means that the partial results of any
+     * partition of the shard can be collected independently and merged with a partial reduction.
+     */
+    public boolean aggregationsSupportParallelCollection() {
+        return false;
+    }
+
     public abstract SearchExtBuilder getSearchExt(String name);
 
     public abstract SearchHighlightContext highlight();
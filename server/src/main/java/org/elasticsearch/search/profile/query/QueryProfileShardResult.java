@@ -36,6 +36,7 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
     public static final String QUERY_ARRAY = "query";
 
     public static final String VECTOR_OPERATIONS_COUNT = "vector_operations_count";
+    public static final String SEGMENT_PARTITIONS = "segment_partitions";
 
     private final List<ProfileResult> queryProfileResults;
 
@@ -45,17 +46,30 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
 
     private final Long vectorOperationsCount;
 
+    private final List<SegmentPartitionResult> segmentPartitions;
+
     public QueryProfileShardResult(
         List<ProfileResult> queryProfileResults,
         long rewriteTime,
         CollectorResult profileCollector,
         @Nullable Long vectorOperationsCount
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, List.of());
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        List<SegmentPartitionResult> segmentPartitions
     ) {
         assert (profileCollector != null);
         this.queryProfileResults = queryProfileResults;
         this.profileCollector = profileCollector;
         this.rewriteTime = rewriteTime;
         this.vectorOperationsCount = vectorOperationsCount;
+        this.segmentPartitions = segmentPartitions;
     }
 
     /**
@@ -71,6 +85,11 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         profileCollector = new CollectorResult(in);
         rewriteTime = in.readLong();
         vectorOperationsCount = (in.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) ? in.readOptionalLong() : null;
+        if (in.getTransportVersion().onOrAfter(TransportVersions.SEARCH_PROFILE_SEGMENT_PARTITIONS)) {
+            segmentPartitions = in.readCollectionAsImmutableList(SegmentPartitionResult::new);
+        } else {
+            segmentPartitions = List.of();
+        }
     }
 
     @Override
@@ -84,6 +103,9 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
             out.writeOptionalLong(vectorOperationsCount);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.SEARCH_PROFILE_SEGMENT_PARTITIONS)) {
+            out.writeCollection(segmentPartitions);
+        }
     }
 
     public List<ProfileResult> getQueryResults() {
@@ -98,6 +120,10 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         return profileCollector;
     }
 
+    public List<SegmentPartitionResult> getSegmentPartitions() {
+        return segmentPartitions;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
@@ -113,6 +139,13 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         builder.startArray(COLLECTOR);
         profileCollector.toXContent(builder, params);
         builder.endArray();
+        if (segmentPartitions.isEmpty() == false) {
+            builder.startArray(SEGMENT_PARTITIONS);
+            for (SegmentPartitionResult segmentPartition : segmentPartitions) {
+                segmentPartition.toXContent(builder, params);
+            }
+            builder.endArray();
+        }
         builder.endObject();
         return builder;
     }
@@ -125,12 +158,13 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         QueryProfileShardResult other = (QueryProfileShardResult) obj;
         return queryProfileResults.equals(other.queryProfileResults)
             && profileCollector.equals(other.profileCollector)
-            && rewriteTime == other.rewriteTime;
+            && rewriteTime == other.rewriteTime
+            && segmentPartitions.equals(other.segmentPartitions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(queryProfileResults, profileCollector, rewriteTime);
+        return Objects.hash(queryProfileResults, profileCollector, rewriteTime, segmentPartitions);
     }
 
     @Override
@@ -13,6 +13,9 @@ import org.apache.lucene.search.Query;
 import org.elasticsearch.search.profile.AbstractProfiler;
 import org.elasticsearch.search.profile.Timer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -35,6 +38,8 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
 
     private long vectorOpsCount;
 
+    private final List<SegmentPartitionResult> segmentPartitions = new ArrayList<>();
+
     public QueryProfiler() {
         super(new InternalQueryProfileTree());
     }
@@ -55,6 +60,24 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
         return this.vectorOpsCount;
     }
 
+    /**
+     * Records the time spent searching a partition of a segment. Partitions of the same search are searched concurrently.
+     */
+    public void addSegmentPartition(SegmentPartitionResult segmentPartition) {
+        synchronized (segmentPartitions) {
+            segmentPartitions.add(segmentPartition);
+        }
+    }
+
+    /**
+     * @return the timings of the segment partitions that were searched, ordered by segment and doc id
+     */
+    public List<SegmentPartitionResult> getSegmentPartitions() {
+        synchronized (segmentPartitions) {
+            return segmentPartitions.stream().sorted(SegmentPartitionResult.ORDER).toList();
+        }
+    }
+
     /** Set the collector result that is associated with this profiler. */
     public void setCollectorResult(CollectorResult collectorResult) {
         if (this.collectorResult != null) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.profile.query;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profiled time spent searching a range of doc ids of a segment, when the segment is split into multiple partitions that are
+ * searched concurrently.
+ */
+public record SegmentPartitionResult(int segment, int minDocId, int maxDocId, long time) implements Writeable, ToXContentObject {
+
+    public static final ParseField SEGMENT = new ParseField("segment");
+    public static final ParseField MIN_DOC = new ParseField("min_doc");
+    public static final ParseField MAX_DOC = new ParseField("max_doc");
+
+    static final Comparator<SegmentPartitionResult> ORDER = Comparator.comparingInt(SegmentPartitionResult::segment)
+        .thenComparingInt(SegmentPartitionResult::minDocId);
+
+    /**
+     * Read from a stream.
+     */
+    public SegmentPartitionResult(StreamInput in) throws IOException {
+        this(in.readVInt(), in.readVInt(), in.readVInt(), in.readLong());
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(segment);
+        out.writeVInt(minDocId);
+        out.writeVInt(maxDocId);
+        out.writeLong(time);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(SEGMENT.getPreferredName(), segment);
+        builder.field(MIN_DOC.getPreferredName(), minDocId);
+        builder.field(MAX_DOC.getPreferredName(), maxDocId);
+        if (builder.humanReadable()) {
+            builder.field(CollectorResult.TIME.getPreferredName(), new TimeValue(time, TimeUnit.NANOSECONDS).toString());
+        }
+        builder.field(CollectorResult.TIME_NANOS.getPreferredName(), time);
+        return builder.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toString(this);
+    }
+}
@@ -15,19 +15,26 @@ import org.apache.lucene.search.FilterLeafCollector;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Extension of {@link TotalHitCountCollector} that supports early termination of total hits counting based on a provided threshold.
- * Note that the total hit count may be retrieved from {@link org.apache.lucene.search.Weight#count(LeafReaderContext)},
+ * Note that the total hit count may be retrieved from {@link Weight#count(LeafReaderContext)},
  * in which case early termination is only applied to the leaves that do collect documents.
+ * Segments may be split into partitions that are collected by different collectors, the count retrieved from the weight is then
+ * only accounted for by the first collector that gets to the segment.
  */
 class PartialHitCountCollector extends TotalHitCountCollector {
 
     private final HitsThresholdChecker hitsThresholdChecker;
     private boolean earlyTerminated;
+    private Weight weight;
+    private int countedFromWeight;
 
     PartialHitCountCollector(HitsThresholdChecker hitsThresholdChecker) {
         this.hitsThresholdChecker = hitsThresholdChecker;
@@ -38,12 +45,25 @@ class PartialHitCountCollector extends TotalHitCountCollector {
         return hitsThresholdChecker.totalHitsThreshold == Integer.MAX_VALUE ? super.scoreMode() : ScoreMode.TOP_DOCS;
     }
 
+    @Override
+    public void setWeight(Weight weight) {
+        // the count shortcut is applied here rather than in the super class, as the same segment may be visited more than once
+        this.weight = weight;
+    }
+
+    @Override
+    public int getTotalHits() {
+        return super.getTotalHits() + countedFromWeight;
+    }
+
     @Override
     public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
         if (hitsThresholdChecker.totalHitsThreshold == Integer.MAX_VALUE) {
+            countFromWeightIfPossible(context);
             return super.getLeafCollector(context);
         }
         earlyTerminateIfNeeded();
+        countFromWeightIfPossible(context);
         return new FilterLeafCollector(super.getLeafCollector(context)) {
             @Override
             public void collect(int doc) throws IOException {
@@ -54,6 +74,19 @@ class PartialHitCountCollector extends TotalHitCountCollector {
         };
     }
 
+    private void countFromWeightIfPossible(LeafReaderContext context) throws IOException {
+        if (weight == null) {
+            return;
+        }
+        final int leafCount = weight.count(context);
+        if (leafCount != -1) {
+            if (hitsThresholdChecker.countedLeaves.add(context)) {
+                countedFromWeight += leafCount;
+            }
+            throw new CollectionTerminatedException();
+        }
+    }
+
     private void earlyTerminateIfNeeded() {
         if (hitsThresholdChecker.isThresholdReached()) {
             earlyTerminated = true;
@@ -68,6 +101,8 @@ class PartialHitCountCollector extends TotalHitCountCollector {
     static class HitsThresholdChecker {
         private final int totalHitsThreshold;
         private final AtomicInteger numCollected = new AtomicInteger();
+        // segments whose count was retrieved from the weight, shared across the collectors that may visit the same segment
+        private final Set<LeafReaderContext> countedLeaves = ConcurrentCollections.newConcurrentSet();
 
         HitsThresholdChecker(int totalHitsThreshold) {
             this.totalHitsThreshold = totalHitsThreshold;
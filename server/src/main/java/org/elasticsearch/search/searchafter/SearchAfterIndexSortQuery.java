@@ -0,0 +1,152 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.searchafter;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FieldComparator;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafFieldComparator;
+import org.apache.lucene.search.Pruning;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A filter that skips the documents that sort before the {@code search_after} values of a search whose primary sort is the primary
+ * sort of the index. Documents of index sorted segments are stored in sort order, so the first document that is not before the
+ * {@code search_after} value is found with a binary search on the doc values of the sort field and the query matches the range of
+ * documents that starts there, instead of walking all documents that sort before it on every page.
+ * <p>
+ * Documents that are equal to the {@code search_after} value on the primary sort match the query, the tie is broken by the collector.
+ * Segments that are not sorted by the sort of the search match all documents.
+ */
+public final class SearchAfterIndexSortQuery extends Query {
+
+    private final SortField sortField;
+    private final Object after;
+
+    SearchAfterIndexSortQuery(SortField sortField, Object after) {
+        this.sortField = Objects.requireNonNull(sortField);
+        this.after = Objects.requireNonNull(after);
+    }
+
+    /**
+     * Returns the query that skips the documents before the {@code search_after} values of a search with the given sort, or
+     * {@code null} if the primary sort of the search cannot be the primary sort of an index.
+     */
+    @Nullable
+    public static Query forSearchAfter(Sort sort, FieldDoc searchAfter) {
+        final SortField primary = sort.getSort()[0];
+        if (primary instanceof SortedNumericSortField == false || searchAfter.fields.length == 0 || searchAfter.fields[0] == null) {
+            return null;
+        }
+        return new SearchAfterIndexSortQuery(primary, searchAfter.fields[0]);
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new ConstantScoreWeight(this, boost) {
+            @Override
+            public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+                final int maxDoc = context.reader().maxDoc();
+                final Sort indexSort = context.reader().getMetaData().sort();
+                final int firstDoc;
+                if (indexSort != null && indexSort.getSort().length > 0 && sortField.equals(indexSort.getSort()[0])) {
+                    firstDoc = firstDocNotBefore(context);
+                } else {
+                    firstDoc = 0;
+                }
+                if (firstDoc == maxDoc) {
+                    return null;
+                }
+                Scorer scorer = new ConstantScoreScorer(score(), scoreMode, DocIdSetIterator.range(firstDoc, maxDoc));
+                return new DefaultScorerSupplier(scorer);
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                // every page of the search uses a different value
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Binary search of the first document of the segment that does not sort before the {@code search_after} value. Doc values can
+     * only be iterated forward so the comparator is reloaded whenever the search goes back to an earlier document.
+     */
+    private int firstDocNotBefore(LeafReaderContext context) throws IOException {
+        LeafFieldComparator comparator = loadComparator(context);
+        int low = 0;
+        int high = context.reader().maxDoc() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (compareTop(comparator, mid) <= 0) {
+                high = mid - 1;
+                comparator = loadComparator(context);
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int compareTop(LeafFieldComparator comparator, int doc) throws IOException {
+        final int cmp = comparator.compareTop(doc);
+        return sortField.getReverse() ? -cmp : cmp;
+    }
+
+    private LeafFieldComparator loadComparator(LeafReaderContext context) throws IOException {
+        @SuppressWarnings("unchecked")
+        final FieldComparator<Object> fieldComparator = (FieldComparator<Object>) sortField.getComparator(1, Pruning.NONE);
+        fieldComparator.setTopValue(after);
+        return fieldComparator.getLeafComparator(context);
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(sortField.getField())) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    @Override
+    public String toString(String field) {
+        return "SearchAfterIndexSortQuery[" + sortField + " after " + after + "]";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        SearchAfterIndexSortQuery other = (SearchAfterIndexSortQuery) obj;
+        return sortField.equals(other.sortField) && after.equals(other.after);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), sortField, after);
+    }
+}
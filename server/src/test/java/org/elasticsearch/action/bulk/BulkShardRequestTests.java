@@ -14,13 +14,18 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
 import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.lucene.tests.util.TestUtil.randomSimpleString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class BulkShardRequestTests extends ESTestCase {
     public void testToString() {
@@ -60,6 +65,69 @@ public class BulkShardRequestTests extends ESTestCase {
         assertThat(bulkShardRequest.getRefreshPolicy(), equalTo(copy.getRefreshPolicy()));
     }
 
+    public void testSourcesRetainNetworkBufferUntilReleased() throws IOException {
+        final ShardId shardId = new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), 0);
+        final BulkItemRequest[] items = new BulkItemRequest[between(1, 10)];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new BulkItemRequest(i, new IndexRequest(shardId.getIndexName()).id("id_" + i).source("field", "value_" + i));
+        }
+        final BytesReference bytes;
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            new BulkShardRequest(shardId, RefreshPolicy.NONE, items).writeTo(out);
+            bytes = out.bytes();
+        }
+
+        final AtomicBoolean released = new AtomicBoolean();
+        final BulkShardRequest copy;
+        final ReleasableBytesReference networkBuffer = new ReleasableBytesReference(
+            bytes,
+            () -> assertTrue(released.compareAndSet(false, true))
+        );
+        try (networkBuffer) {
+            copy = new BulkShardRequest(networkBuffer.streamInput());
+        }
+        // the sources reference the network buffer rather than a copy of it
+        assertFalse(released.get());
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest indexRequest = (IndexRequest) copy.items()[i].request();
+            assertThat(indexRequest.source(), instanceOf(ReleasableBytesReference.class));
+            assertThat(indexRequest.sourceAsMap().get("field"), equalTo("value_" + i));
+        }
+
+        copy.incRef();
+        assertFalse(copy.decRef());
+        assertFalse(released.get());
+        assertTrue(copy.decRef());
+        assertTrue(released.get());
+        assertFalse(copy.hasReferences());
+    }
+
+    public void testReleasesRetainedSourcesIfReadingFails() throws IOException {
+        final ShardId shardId = new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), 0);
+        final BulkItemRequest[] items = new BulkItemRequest[between(1, 10)];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new BulkItemRequest(i, new IndexRequest(shardId.getIndexName()).id("id_" + i).source("field", "value_" + i));
+        }
+        final BytesReference bytes;
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            new BulkShardRequest(shardId, RefreshPolicy.NONE, items).writeTo(out);
+            bytes = out.bytes();
+        }
+
+        // cut the request somewhere after the first items were read
+        final BytesReference truncated = bytes.slice(0, between(bytes.length() / 2, bytes.length() - 1));
+        final AtomicBoolean released = new AtomicBoolean();
+        try (
+            ReleasableBytesReference networkBuffer = new ReleasableBytesReference(
+                truncated,
+                () -> assertTrue(released.compareAndSet(false, true))
+            )
+        ) {
+            expectThrows(Exception.class, () -> new BulkShardRequest(networkBuffer.streamInput()));
+        }
+        assertTrue(released.get());
+    }
+
     protected BulkShardRequest randomBulkShardRequest() {
         String indexName = randomAlphaOfLength(100);
         ShardId shardId = new ShardId(indexName, randomAlphaOfLength(50), randomInt());
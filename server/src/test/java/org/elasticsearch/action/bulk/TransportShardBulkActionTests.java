@@ -60,10 +60,13 @@ import org.mockito.stubbing.Stubbing;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -1118,6 +1121,213 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
         latch.await();
     }
 
+    public void testMappingUpdatesOfAppendOnlyRequestsAreBatched() throws Exception {
+        IndexShard shard = newStartedShard(true);
+        BulkItemRequest[] items = new BulkItemRequest[5];
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest writeRequest = new IndexRequest("index").source(Requests.INDEX_CONTENT_TYPE, "field_" + i, "bar");
+            if (i == 3) {
+                // requests with an explicit id end the batch
+                writeRequest.id("id_" + i);
+            } else {
+                writeRequest.autoGenerateId();
+            }
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+
+        AtomicInteger updateCalled = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        TransportShardBulkAction.performOnPrimary(
+            bulkShardRequest,
+            shard,
+            null,
+            threadPool::absoluteTimeInMillis,
+            (update, shardId, listener) -> {
+                updateCalled.incrementAndGet();
+                ActionListener.completeWith(listener, () -> {
+                    shard.mapperService()
+                        .merge(MapperService.SINGLE_MAPPING_NAME, new CompressedXContent(update), MapperService.MergeReason.MAPPING_UPDATE);
+                    return null;
+                });
+            },
+            (listener, mappingVersion) -> listener.onResponse(null),
+            new LatchedActionListener<>(ActionTestUtils.assertNoFailureListener(result -> {}), latch),
+            threadPool.executor(Names.WRITE)
+        );
+        latch.await();
+
+        // one mapping update for the first three items and one for the last two
+        assertThat(updateCalled.get(), equalTo(2));
+        for (int i = 0; i < items.length; i++) {
+            assertFalse(bulkShardRequest.items()[i].getPrimaryResponse().isFailed());
+            assertThat(shard.mapperService().fieldType("field_" + i), notNullValue());
+        }
+        closeShards(shard);
+    }
+
+    public void testRejectedBatchedMappingUpdateIsRetriedWithTheUpdateOfTheCurrentItem() throws Exception {
+        IndexShard shard = newStartedShard(true);
+        BulkItemRequest[] items = new BulkItemRequest[2];
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest writeRequest = new IndexRequest("index").source(Requests.INDEX_CONTENT_TYPE, "field_" + i, "bar");
+            writeRequest.autoGenerateId();
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+
+        AtomicInteger updateCalled = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        TransportShardBulkAction.performOnPrimary(
+            bulkShardRequest,
+            shard,
+            null,
+            threadPool::absoluteTimeInMillis,
+            (update, shardId, listener) -> {
+                if (updateCalled.getAndIncrement() == 0) {
+                    // the master rejects the update that includes the field of the second item
+                    listener.onFailure(new ElasticsearchException("rejected"));
+                    return;
+                }
+                ActionListener.completeWith(listener, () -> {
+                    shard.mapperService()
+                        .merge(MapperService.SINGLE_MAPPING_NAME, new CompressedXContent(update), MapperService.MergeReason.MAPPING_UPDATE);
+                    return null;
+                });
+            },
+            (listener, mappingVersion) -> listener.onResponse(null),
+            new LatchedActionListener<>(ActionTestUtils.assertNoFailureListener(result -> {}), latch),
+            threadPool.executor(Names.WRITE)
+        );
+        latch.await();
+
+        // the rejected batched update, the retry with the first item's update and the second item's update
+        assertThat(updateCalled.get(), equalTo(3));
+        for (int i = 0; i < items.length; i++) {
+            assertFalse(bulkShardRequest.items()[i].getPrimaryResponse().isFailed());
+            assertThat(shard.mapperService().fieldType("field_" + i), notNullValue());
+        }
+        closeShards(shard);
+    }
+
+    public void testDocumentsParsedAheadAreNotParsedAgain() throws Exception {
+        IndexShard shard = newStartedShard(true);
+        shard.mapperService()
+            .merge(
+                MapperService.SINGLE_MAPPING_NAME,
+                new CompressedXContent("{\"properties\":{\"existing\":{\"type\":\"keyword\"}}}"),
+                MapperService.MergeReason.MAPPING_UPDATE
+            );
+        BulkItemRequest[] items = new BulkItemRequest[3];
+        for (int i = 0; i < items.length; i++) {
+            // only the first item requires a mapping update
+            IndexRequest writeRequest = new IndexRequest("index").source(Requests.INDEX_CONTENT_TYPE, i == 0 ? "new" : "existing", "bar");
+            writeRequest.autoGenerateId();
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+
+        Map<IndexRequest, Integer> parsed = new IdentityHashMap<>();
+        DocumentParsingProvider countingProvider = new DocumentParsingProvider() {
+            @Override
+            public <T> XContentMeteringParserDecorator newMeteringParserDecorator(IndexRequest request) {
+                parsed.merge(request, 1, Integer::sum);
+                return XContentMeteringParserDecorator.NOOP;
+            }
+        };
+        final CountDownLatch latch = new CountDownLatch(1);
+        TransportShardBulkAction.performOnPrimary(
+            bulkShardRequest,
+            shard,
+            null,
+            threadPool::absoluteTimeInMillis,
+            (update, shardId, listener) -> ActionListener.completeWith(listener, () -> {
+                shard.mapperService()
+                    .merge(MapperService.SINGLE_MAPPING_NAME, new CompressedXContent(update), MapperService.MergeReason.MAPPING_UPDATE);
+                return null;
+            }),
+            (listener, mappingVersion) -> listener.onResponse(null),
+            new LatchedActionListener<>(ActionTestUtils.assertNoFailureListener(result -> {}), latch),
+            threadPool.executor(Names.WRITE),
+            null,
+            null,
+            countingProvider
+        );
+        latch.await();
+
+        for (BulkItemRequest item : bulkShardRequest.items()) {
+            assertFalse(item.getPrimaryResponse().isFailed());
+        }
+        // the first item is parsed again once its mapping update is applied, the others were only parsed ahead
+        assertThat(parsed.get((IndexRequest) items[0].request()), equalTo(2));
+        assertThat(parsed.get((IndexRequest) items[1].request()), equalTo(1));
+        assertThat(parsed.get((IndexRequest) items[2].request()), equalTo(1));
+        closeShards(shard);
+    }
+
+    public void testDocumentsParsedAheadAreAccountedAndMeteredOnce() throws Exception {
+        IndexShard shard = newStartedShard(true);
+        shard.mapperService()
+            .merge(
+                MapperService.SINGLE_MAPPING_NAME,
+                new CompressedXContent("{\"properties\":{\"existing\":{\"type\":\"keyword\"}}}"),
+                MapperService.MergeReason.MAPPING_UPDATE
+            );
+        String[] fields = new String[] { "new", "existing", "other_new" };
+        BulkItemRequest[] items = new BulkItemRequest[fields.length];
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest writeRequest = new IndexRequest("index").source(Requests.INDEX_CONTENT_TYPE, fields[i], "bar");
+            writeRequest.autoGenerateId();
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+
+        Map<IndexRequest, Integer> metered = new IdentityHashMap<>();
+        DocumentParsingProvider countingProvider = new DocumentParsingProvider() {
+            @Override
+            public <T> XContentMeteringParserDecorator newMeteringParserDecorator(IndexRequest request) {
+                metered.merge(request, 1, Integer::sum);
+                return XContentMeteringParserDecorator.NOOP;
+            }
+        };
+        AtomicLong parsedAheadBytes = new AtomicLong();
+        AtomicLong maxParsedAheadBytes = new AtomicLong();
+        final CountDownLatch latch = new CountDownLatch(1);
+        TransportShardBulkAction.performOnPrimary(
+            bulkShardRequest,
+            shard,
+            null,
+            threadPool::absoluteTimeInMillis,
+            (update, shardId, listener) -> ActionListener.completeWith(listener, () -> {
+                shard.mapperService()
+                    .merge(MapperService.SINGLE_MAPPING_NAME, new CompressedXContent(update), MapperService.MergeReason.MAPPING_UPDATE);
+                return null;
+            }),
+            (listener, mappingVersion) -> listener.onResponse(null),
+            new LatchedActionListener<>(ActionTestUtils.assertNoFailureListener(result -> {}), latch),
+            threadPool.executor(Names.WRITE),
+            null,
+            null,
+            countingProvider,
+            bytes -> {
+                maxParsedAheadBytes.accumulateAndGet(parsedAheadBytes.addAndGet(bytes), Math::max);
+                return () -> parsedAheadBytes.addAndGet(-bytes);
+            }
+        );
+        latch.await();
+
+        for (BulkItemRequest item : bulkShardRequest.items()) {
+            assertFalse(item.getPrimaryResponse().isFailed());
+        }
+        // the document that was kept across the mapping update was accounted until it was indexed
+        assertThat(maxParsedAheadBytes.get(), equalTo((long) ((IndexRequest) items[1].request()).source().length()));
+        assertThat(parsedAheadBytes.get(), equalTo(0L));
+        // the last item is parsed again once the batched mapping update is applied, but only metered while looking ahead
+        assertThat(metered.get((IndexRequest) items[1].request()), equalTo(1));
+        assertThat(metered.get((IndexRequest) items[2].request()), equalTo(1));
+        closeShards(shard);
+    }
+
     public void testNoopMappingUpdateInfiniteLoopPrevention() throws Exception {
         Engine.IndexResult mappingUpdate = new Engine.IndexResult(
             new Mapping(mock(RootObjectMapper.class), new MetadataFieldMapper[0], Collections.emptyMap()),
@@ -31,6 +31,7 @@ import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
@@ -70,6 +71,7 @@ import org.elasticsearch.search.query.SearchTimeoutException;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.InternalAggregationTestCase;
 import org.elasticsearch.test.TestSearchContext;
+import org.elasticsearch.transport.BytesRefRecycler;
 import org.elasticsearch.transport.Transport;
 
 import java.io.IOException;
@@ -873,6 +875,51 @@ public class FetchSearchPhaseTests extends ESTestCase {
         }
     }
 
+    public void testFetchSerializedHits() throws IOException {
+        Directory dir = newDirectory();
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+        for (int i = 0; i < 5; i++) {
+            Document document = new Document();
+            document.add(new StoredField("_source", new BytesRef("{ \"value\": " + i + " }")));
+            w.addDocument(document);
+        }
+        IndexReader r = w.getReader();
+        w.close();
+        ContextIndexSearcher contextIndexSearcher = createSearcher(r);
+        try (SearchContext searchContext = createSearchContext(contextIndexSearcher, true)) {
+            FetchPhase fetchPhase = new FetchPhase(List.of(fetchContext -> new FetchSubPhaseProcessor() {
+                @Override
+                public void setNextReader(LeafReaderContext readerContext) {}
+
+                @Override
+                public void process(FetchSubPhase.HitContext hitContext) {
+                    hitContext.hit().sourceRef(hitContext.source().internalSourceRef());
+                }
+
+                @Override
+                public StoredFieldsSpec storedFieldsSpec() {
+                    return StoredFieldsSpec.NEEDS_SOURCE;
+                }
+            }));
+            fetchPhase.execute(
+                searchContext,
+                new int[] { 3, 0, 4, 1 },
+                null,
+                () -> new RecyclerBytesStreamOutput(BytesRefRecycler.NON_RECYCLING_INSTANCE)
+            );
+            // hits are serialized as they are fetched in doc id order and read back in the requested order
+            SearchHit[] hits = searchContext.fetchResult().hits().getHits();
+            assertEquals(4, hits.length);
+            assertEquals(3, hits[0].getSourceAsMap().get("value"));
+            assertEquals(0, hits[1].getSourceAsMap().get("value"));
+            assertEquals(4, hits[2].getSourceAsMap().get("value"));
+            assertEquals(1, hits[3].getSourceAsMap().get("value"));
+        } finally {
+            r.close();
+            dir.close();
+        }
+    }
+
     private static ContextIndexSearcher createSearcher(IndexReader reader) throws IOException {
         return new ContextIndexSearcher(reader, null, null, new QueryCachingPolicy() {
             @Override
@@ -24,8 +24,19 @@ import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
+import org.elasticsearch.search.aggregations.BucketOrder;
 import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.CardinalityAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.MaxAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.PercentilesAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.TopHitsAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
@@ -148,6 +159,84 @@ public class QueryPhaseResultConsumerTests extends ESTestCase {
         }
     }
 
+    public void testIncrementalReduceOfKeySortedAggregations() throws Exception {
+        final int numShards = 10;
+        AggregationBuilder aggregation = randomFrom(
+            new DateHistogramAggregationBuilder("date").field("date").calendarInterval(DateHistogramInterval.DAY),
+            new CompositeAggregationBuilder("composite", List.of(new TermsValuesSourceBuilder("terms").field("field"))),
+            new TermsAggregationBuilder("terms").field("field").order(BucketOrder.key(randomBoolean()))
+        );
+        assertEquals(numShards - 2, partialReducesOf(new SearchSourceBuilder().aggregation(aggregation).size(0), numShards));
+        // aggregations whose partial results grow with the number of shards are still reduced by batches of batched_reduce_size
+        SearchSourceBuilder source = new SearchSourceBuilder().aggregation(aggregation)
+            .aggregation(new TermsAggregationBuilder("by_count").field("field"))
+            .size(0);
+        assertEquals(0, partialReducesOf(source, numShards));
+    }
+
+    public void testIncrementalReduceRequiresTheWholeAggregationTree() throws Exception {
+        final int numShards = 10;
+        AggregationBuilder fixedSize = new DateHistogramAggregationBuilder("date").field("date")
+            .calendarInterval(DateHistogramInterval.DAY)
+            .subAggregation(new TermsAggregationBuilder("terms").field("field").order(BucketOrder.key(true)))
+            .subAggregation(new MaxAggregationBuilder("max").field("value"));
+        assertEquals(numShards - 2, partialReducesOf(new SearchSourceBuilder().aggregation(fixedSize).size(0), numShards));
+
+        // a sub-aggregation whose partial results grow disqualifies the whole tree
+        AggregationBuilder growing = randomFrom(
+            new TopHitsAggregationBuilder("top_hits"),
+            new CardinalityAggregationBuilder("cardinality").field("field"),
+            new PercentilesAggregationBuilder("percentiles").field("value"),
+            new TermsAggregationBuilder("by_count").field("field")
+        );
+        AggregationBuilder nested = new TermsAggregationBuilder("terms").field("field")
+            .order(BucketOrder.key(true))
+            .subAggregation(new MaxAggregationBuilder("max").field("value"))
+            .subAggregation(growing);
+        AggregationBuilder withGrowing = new DateHistogramAggregationBuilder("date").field("date")
+            .calendarInterval(DateHistogramInterval.DAY)
+            .subAggregation(nested);
+        assertEquals(0, partialReducesOf(new SearchSourceBuilder().aggregation(withGrowing).size(0), numShards));
+    }
+
+    private int partialReducesOf(SearchSourceBuilder source, int numShards) throws Exception {
+        SearchRequest searchRequest = new SearchRequest("index").source(source);
+        AtomicInteger partialReduces = new AtomicInteger();
+        SearchProgressListener progressListener = new SearchProgressListener() {
+            @Override
+            protected void onPartialReduce(List<SearchShard> shards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+                partialReduces.incrementAndGet();
+            }
+        };
+        try (
+            QueryPhaseResultConsumer queryPhaseResultConsumer = new QueryPhaseResultConsumer(
+                searchRequest,
+                executor,
+                new NoopCircuitBreaker(CircuitBreaker.REQUEST),
+                searchPhaseController,
+                () -> false,
+                progressListener,
+                numShards,
+                e -> fail(e.getMessage())
+            )
+        ) {
+            CountDownLatch latch = new CountDownLatch(numShards);
+            for (int i = 0; i < numShards; i++) {
+                SearchShardTarget searchShardTarget = new SearchShardTarget("node", new ShardId("index", "uuid", i), null);
+                QuerySearchResult querySearchResult = new QuerySearchResult();
+                TopDocs topDocs = new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+                querySearchResult.topDocs(new TopDocsAndMaxScore(topDocs, Float.NaN), new DocValueFormat[0]);
+                querySearchResult.aggregations(InternalAggregations.EMPTY);
+                querySearchResult.setSearchShardTarget(searchShardTarget);
+                querySearchResult.setShardIndex(i);
+                queryPhaseResultConsumer.consumeResult(querySearchResult, latch::countDown);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            queryPhaseResultConsumer.reduce();
+        }
+        return partialReduces.get();
+    }
+
     private static class ThrowingSearchProgressListener extends SearchProgressListener {
         private final AtomicInteger onQueryResult = new AtomicInteger(0);
         private final AtomicInteger onPartialReduce = new AtomicInteger(0);
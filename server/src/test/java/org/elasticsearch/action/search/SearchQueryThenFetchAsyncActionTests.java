@@ -207,7 +207,8 @@ public class SearchQueryThenFetchAsyncActionTests extends ESTestCase {
                 task,
                 SearchResponse.Clusters.EMPTY,
                 null,
-                false
+                false,
+                null
             ) {
                 @Override
                 protected SearchPhase getNextPhase() {
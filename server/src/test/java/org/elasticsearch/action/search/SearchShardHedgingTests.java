@@ -0,0 +1,302 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.ProjectMetadata;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.ResponseCollectorService;
+import org.elasticsearch.rest.action.search.SearchResponseMetrics;
+import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.internal.ShardSearchContextId;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.Transport;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SearchShardHedgingTests extends ESTestCase {
+
+    private static final long RESPONSE_TIME_MILLIS = 100;
+
+    private final List<SearchActionListener<SearchPhaseResult>> sentRequests = new ArrayList<>();
+    private final List<SearchShardTarget> sentTargets = new ArrayList<>();
+    private final List<SearchPhaseResult> shardResults = new ArrayList<>();
+    private final Set<ShardSearchContextId> releasedContexts = new CopyOnWriteArraySet<>();
+    private String resolvedNode;
+
+    private DeterministicTaskQueue taskQueue;
+    private ThreadPool threadPool;
+    private RecordingMeterRegistry meterRegistry;
+    private ResponseCollectorService responseCollectorService;
+    private Index index;
+    private ProjectMetadata project;
+
+    @Before
+    public void setUpHedging() {
+        taskQueue = new DeterministicTaskQueue();
+        threadPool = taskQueue.getThreadPool();
+        meterRegistry = new RecordingMeterRegistry();
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        responseCollectorService = new ResponseCollectorService(new ClusterService(Settings.EMPTY, clusterSettings, threadPool, null));
+        IndexMetadata indexMetadata = IndexMetadata.builder("index")
+            .settings(
+                indexSettings(IndexVersion.current(), 1, 1).put(SearchShardHedging.INDEX_SEARCH_HEDGING_ENABLED_SETTING.getKey(), true)
+            )
+            .build();
+        index = indexMetadata.getIndex();
+        project = ProjectMetadata.builder(randomProjectIdOrDefault()).put(indexMetadata, false).build();
+        for (int i = 0; i < ResponseCollectorService.MIN_SHARD_RESPONSE_TIMES; i++) {
+            responseCollectorService.addShardResponseTime(index, TimeUnit.MILLISECONDS.toNanos(RESPONSE_TIME_MILLIS));
+        }
+    }
+
+    public void testHedgeAfterDelay() {
+        SearchShardIterator shardIt = shardIterator(0, "node_1", "node_2");
+        var hedger = hedger(1.0, shardIt);
+        try (var results = new ArraySearchPhaseResults<>(1)) {
+            AbstractSearchAsyncAction<SearchPhaseResult> action = createAction(hedger, results, shardIt);
+            action.performPhaseOnShard(0, shardIt, shardIt.nextOrNull());
+            assertThat(sentTargets, contains(target("node_1", shardIt)));
+
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentTargets, hasSize(1));
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(taskQueue.getCurrentTimeMillis(), equalTo(RESPONSE_TIME_MILLIS));
+            assertThat(sentTargets, contains(target("node_1", shardIt), target("node_2", shardIt)));
+            assertThat(hedgedRequests(), equalTo(1L));
+        }
+    }
+
+    public void testHedgedResponseWins() {
+        SearchShardIterator shardIt = shardIterator(0, "node_1", "node_2");
+        var hedger = hedger(1.0, shardIt);
+        try (var results = new ArraySearchPhaseResults<>(1)) {
+            AbstractSearchAsyncAction<SearchPhaseResult> action = createAction(hedger, results, shardIt);
+            action.performPhaseOnShard(0, shardIt, shardIt.nextOrNull());
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentRequests, hasSize(2));
+
+            SearchPhaseResult winner = result();
+            sentRequests.get(1).onResponse(winner);
+            assertThat(shardResults, contains(sameInstance(winner)));
+            assertThat(hedgedRequestWins(), equalTo(1L));
+
+            // the late response of the original request is ignored and its search context released
+            SearchPhaseResult loser = result();
+            sentRequests.get(0).onResponse(loser);
+            assertThat(shardResults, contains(sameInstance(winner)));
+            assertThat(releasedContexts, equalTo(Set.of(loser.getContextId())));
+        }
+    }
+
+    public void testOriginalResponseCancelsHedge() {
+        SearchShardIterator shardIt = shardIterator(0, "node_1", "node_2");
+        var hedger = hedger(1.0, shardIt);
+        try (var results = new ArraySearchPhaseResults<>(1)) {
+            AbstractSearchAsyncAction<SearchPhaseResult> action = createAction(hedger, results, shardIt);
+            action.performPhaseOnShard(0, shardIt, shardIt.nextOrNull());
+            SearchPhaseResult result = result();
+            sentRequests.get(0).onResponse(result);
+            assertThat(shardResults, contains(sameInstance(result)));
+
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentRequests, hasSize(1));
+            assertThat(hedgedRequests(), equalTo(0L));
+            assertThat(hedgedRequestWins(), equalTo(0L));
+        }
+    }
+
+    public void testBudgetLimitsHedgedRequests() {
+        SearchShardIterator first = shardIterator(0, "node_1", "node_2");
+        SearchShardIterator second = shardIterator(1, "node_1", "node_2");
+        // each shard request earns half a hedged request so only one of the two shards can be hedged
+        var hedger = hedger(0.5, first, second);
+        try (var results = new ArraySearchPhaseResults<>(2)) {
+            AbstractSearchAsyncAction<SearchPhaseResult> action = createAction(hedger, results, first, second);
+            action.performPhaseOnShard(0, first, first.nextOrNull());
+            action.performPhaseOnShard(1, second, second.nextOrNull());
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentTargets, hasSize(3));
+            assertThat(sentTargets.get(2).getNodeId(), equalTo("node_2"));
+            assertThat(hedgedRequests(), equalTo(1L));
+        }
+    }
+
+    public void testNoOtherCopyDoesNotTakeFromBudget() {
+        SearchShardIterator singleCopy = shardIterator(0, "node_1");
+        SearchShardIterator answered = shardIterator(1, "node_1", "node_2");
+        SearchShardIterator slow = shardIterator(2, "node_1", "node_2");
+        // each shard request earns half a hedged request
+        var hedger = hedger(0.5, singleCopy, answered, slow);
+        try (var results = new ArraySearchPhaseResults<>(3)) {
+            AbstractSearchAsyncAction<SearchPhaseResult> action = createAction(hedger, results, singleCopy, answered, slow);
+            action.performPhaseOnShard(0, singleCopy, singleCopy.nextOrNull());
+            action.performPhaseOnShard(1, answered, answered.nextOrNull());
+            sentRequests.get(1).onResponse(result());
+            // the budget now has a hedged request but the shard that is due has no other copy to send it to
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentTargets, hasSize(2));
+            assertThat(hedgedRequests(), equalTo(0L));
+
+            action.performPhaseOnShard(2, slow, slow.nextOrNull());
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(sentTargets, hasSize(4));
+            assertThat(sentTargets.get(3), equalTo(target("node_2", slow)));
+            assertThat(hedgedRequests(), equalTo(1L));
+        }
+    }
+
+    public void testNotHedgedWithoutBudget() {
+        SearchShardIterator shardIt = shardIterator(0, "node_1", "node_2");
+        assertNull(hedging(0.0).newHedger(new SearchRequest(), project, List.of(shardIt)));
+    }
+
+    private SearchShardHedging hedging(double budget) {
+        ClusterSettings clusterSettings = new ClusterSettings(
+            Settings.builder().put(SearchShardHedging.SEARCH_HEDGING_BUDGET_SETTING.getKey(), budget).build(),
+            ClusterSettings.BUILT_IN_CLUSTER_SETTINGS
+        );
+        return new SearchShardHedging(clusterSettings, responseCollectorService, threadPool, new SearchResponseMetrics(meterRegistry));
+    }
+
+    private SearchShardHedging.Hedger hedger(double budget, SearchShardIterator... shardIts) {
+        SearchShardHedging.Hedger hedger = hedging(budget).newHedger(new SearchRequest(), project, List.of(shardIts));
+        assertNotNull(hedger);
+        return hedger;
+    }
+
+    private SearchShardIterator shardIterator(int shard, String... nodeIds) {
+        return new SearchShardIterator(
+            null,
+            new ShardId(index, shard),
+            List.of(nodeIds),
+            new OriginalIndices(new String[] { index.getName() }, IndicesOptions.strictExpandOpenAndForbidClosed()),
+            null,
+            null,
+            false,
+            false
+        );
+    }
+
+    private static SearchShardTarget target(String nodeId, SearchShardIterator shardIt) {
+        return new SearchShardTarget(nodeId, shardIt.shardId(), null);
+    }
+
+    private static SearchPhaseResult result() {
+        return new PhaseResult(new ShardSearchContextId(UUIDs.randomBase64UUID(), randomNonNegativeLong()));
+    }
+
+    private long hedgedRequests() {
+        return counter(SearchResponseMetrics.HEDGED_SHARD_REQUESTS_TOTAL_COUNTER_NAME);
+    }
+
+    private long hedgedRequestWins() {
+        return counter(SearchResponseMetrics.HEDGED_SHARD_REQUEST_WINS_TOTAL_COUNTER_NAME);
+    }
+
+    private long counter(String name) {
+        return meterRegistry.getRecorder().getMeasurements(InstrumentType.LONG_COUNTER, name).stream().mapToLong(m -> m.getLong()).sum();
+    }
+
+    private AbstractSearchAsyncAction<SearchPhaseResult> createAction(
+        SearchShardHedging.Hedger hedger,
+        ArraySearchPhaseResults<SearchPhaseResult> results,
+        SearchShardIterator... shardIts
+    ) {
+        SearchRequest request = new SearchRequest();
+        return new AbstractSearchAsyncAction<>(
+            "test",
+            logger,
+            null,
+            null,
+            (cluster, node) -> {
+                resolvedNode = node;
+                return null;
+            },
+            Map.of(),
+            Map.of(),
+            EsExecutors.DIRECT_EXECUTOR_SERVICE,
+            request,
+            ActionListener.noop(),
+            List.of(shardIts),
+            new TransportSearchAction.SearchTimeProvider(0, 0, System::nanoTime),
+            ClusterState.EMPTY_STATE,
+            null,
+            results,
+            request.getMaxConcurrentShardRequests(),
+            SearchResponse.Clusters.EMPTY,
+            hedger
+        ) {
+            @Override
+            protected SearchPhase getNextPhase() {
+                return null;
+            }
+
+            @Override
+            protected void executePhaseOnShard(
+                SearchShardIterator shardIt,
+                Transport.Connection connection,
+                SearchActionListener<SearchPhaseResult> listener
+            ) {
+                sentTargets.add(new SearchShardTarget(resolvedNode, shardIt.shardId(), null));
+                sentRequests.add(listener);
+            }
+
+            @Override
+            protected void onShardResult(SearchPhaseResult result) {
+                shardResults.add(result);
+            }
+
+            @Override
+            public void sendReleaseSearchContext(ShardSearchContextId contextId, Transport.Connection connection) {
+                releasedContexts.add(contextId);
+            }
+        };
+    }
+
+    private static final class PhaseResult extends SearchPhaseResult {
+        PhaseResult(ShardSearchContextId contextId) {
+            this.contextId = contextId;
+        }
+    }
+}
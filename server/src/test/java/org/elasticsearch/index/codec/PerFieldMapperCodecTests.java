@@ -122,6 +122,23 @@ public class PerFieldMapperCodecTests extends ESTestCase {
         );
     }
 
+    public void testUseBloomFilterWithTimestampFieldEnabled_noTimeSeriesModeOptIn() throws IOException {
+        Settings optIn = Settings.builder().put(IndexSettings.DATA_STREAM_BLOOM_FILTER_ID_FIELD_ENABLED_SETTING.getKey(), true).build();
+        PerFieldFormatSupplier perFieldMapperCodec = createFormatSupplier(true, false, false, optIn);
+        assertThat(perFieldMapperCodec.useBloomFilter("_id"), is(true));
+        assertThat(perFieldMapperCodec.getPostingsFormatForField("_id"), instanceOf(ES87BloomFilterPostingsFormat.class));
+        assertThat(perFieldMapperCodec.useBloomFilter("another_field"), is(false));
+        assertThat(perFieldMapperCodec.getPostingsFormatForField("another_field"), instanceOf(Lucene101PostingsFormat.class));
+
+        // the escape hatch still wins over the opt-in
+        perFieldMapperCodec = createFormatSupplier(true, false, true, optIn);
+        assertThat(perFieldMapperCodec.useBloomFilter("_id"), is(false));
+        assertWarnings(
+            "[index.bloom_filter_for_id_field.enabled] setting was deprecated in Elasticsearch and will be removed in a future release. "
+                + "See the deprecation documentation for the next major version."
+        );
+    }
+
     public void testUseES87TSDBEncodingForTimestampField() throws IOException {
         PerFieldFormatSupplier perFieldMapperCodec = createFormatSupplier(true, true, true);
         assertThat((perFieldMapperCodec.useTSDBDocValuesFormat("@timestamp")), is(true));
@@ -146,7 +163,16 @@ public class PerFieldMapperCodecTests extends ESTestCase {
 
     private PerFieldFormatSupplier createFormatSupplier(boolean timestampField, boolean timeSeries, boolean disableBloomFilter)
         throws IOException {
-        Settings.Builder settings = Settings.builder();
+        return createFormatSupplier(timestampField, timeSeries, disableBloomFilter, Settings.EMPTY);
+    }
+
+    private PerFieldFormatSupplier createFormatSupplier(
+        boolean timestampField,
+        boolean timeSeries,
+        boolean disableBloomFilter,
+        Settings additionalSettings
+    ) throws IOException {
+        Settings.Builder settings = Settings.builder().put(additionalSettings);
         if (timeSeries) {
             settings.put(IndexSettings.MODE.getKey(), "time_series");
             settings.put(IndexMetadata.INDEX_ROUTING_PATH.getKey(), "field");
@@ -0,0 +1,171 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.zstd;
+
+import org.apache.lucene.codecs.compressing.Decompressor;
+import org.apache.lucene.store.ByteBuffersDataInput;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class DecompressedBlockCacheTests extends ESTestCase {
+
+    public void testCacheBlocksOnRepeatedReads() throws IOException {
+        DecompressedBlockCache cache = new DecompressedBlockCache(ByteSizeValue.ofMb(1).getBytes());
+        byte[] block = randomAlphaOfLength(between(1_000, 10_000)).getBytes(StandardCharsets.UTF_8);
+        try (Directory dir = writeBlock(block)) {
+            Zstd814StoredFieldsFormat.ZstdDecompressor decompressor = new Zstd814StoredFieldsFormat.ZstdDecompressor(cache, new Object());
+
+            // the first read only remembers the block
+            readDocument(dir, decompressor, block);
+            assertStats(cache, 0, 1, 0);
+
+            // the second read caches it
+            readDocument(dir, decompressor, block);
+            assertStats(cache, 0, 2, 1);
+
+            // and later reads, also through clones of the decompressor, reuse it
+            readDocument(dir, decompressor.clone(), block);
+            readDocument(dir, decompressor, block);
+            assertStats(cache, 2, 2, 1);
+
+            // another segment doesn't
+            readDocument(dir, new Zstd814StoredFieldsFormat.ZstdDecompressor(cache, new Object()), block);
+            assertStats(cache, 2, 3, 1);
+        }
+    }
+
+    public void testWholeBlockReadsAreNotCached() throws IOException {
+        DecompressedBlockCache cache = new DecompressedBlockCache(ByteSizeValue.ofMb(1).getBytes());
+        byte[] block = randomAlphaOfLength(between(1_000, 10_000)).getBytes(StandardCharsets.UTF_8);
+        try (Directory dir = writeBlock(block)) {
+            Zstd814StoredFieldsFormat.ZstdDecompressor decompressor = new Zstd814StoredFieldsFormat.ZstdDecompressor(cache, new Object());
+            for (int i = 0; i < 3; i++) {
+                try (IndexInput in = dir.openInput("block", IOContext.DEFAULT)) {
+                    BytesRef bytes = new BytesRef();
+                    decompressor.decompress(in, block.length, 0, block.length, bytes);
+                    assertEquals(new BytesRef(block), bytes);
+                }
+            }
+            assertStats(cache, 0, 0, 0);
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        DecompressedBlockCache cache = new DecompressedBlockCache(
+            DecompressedBlockCache.SIZE_SETTING.get(Settings.builder().put(DecompressedBlockCache.SIZE_SETTING.getKey(), "0b").build())
+                .getBytes()
+        );
+        assertFalse(cache.enabled());
+        byte[] block = randomAlphaOfLength(between(1_000, 10_000)).getBytes(StandardCharsets.UTF_8);
+        try (Directory dir = writeBlock(block)) {
+            Zstd814StoredFieldsFormat.ZstdDecompressor decompressor = new Zstd814StoredFieldsFormat.ZstdDecompressor(cache, new Object());
+            for (int i = 0; i < 3; i++) {
+                readDocument(dir, decompressor, block);
+            }
+            assertStats(cache, 0, 0, 0);
+        }
+    }
+
+    public void testEviction() {
+        DecompressedBlockCache cache = new DecompressedBlockCache(1024);
+        Object segment = new Object();
+        cache.put(segment, 0, new byte[400]);
+        cache.put(segment, 100, new byte[400]);
+        assertNotNull(cache.get(segment, 0));
+        assertNull(cache.get(new Object(), 0));
+        cache.put(segment, 200, new byte[400]);
+        assertNull(cache.get(segment, 100));
+        assertNotNull(cache.get(segment, 200));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    public void testAdmitOnSecondAccess() {
+        DecompressedBlockCache cache = new DecompressedBlockCache(ByteSizeValue.ofMb(1).getBytes());
+        Object segment = new Object();
+        assertFalse(cache.admit(segment, 0));
+        assertFalse(cache.admit(segment, 100));
+        assertFalse(cache.admit(new Object(), 0));
+        assertTrue(cache.admit(segment, 0));
+        // admitted blocks are forgotten, they are expected to be cached
+        assertFalse(cache.admit(segment, 0));
+    }
+
+    public void testProvidedByWrappedDirectory() throws IOException {
+        DecompressedBlockCache cache = new DecompressedBlockCache(1024);
+        try (Directory dir = new ByteBuffersDirectory()) {
+            assertNull(DecompressedBlockCache.of(dir));
+            assertNull(DecompressedBlockCache.of(new FilterDirectory(dir) {}));
+            Directory provider = new ProviderDirectory(dir, cache);
+            assertSame(cache, DecompressedBlockCache.of(provider));
+            assertSame(cache, DecompressedBlockCache.of(new FilterDirectory(provider) {}));
+            assertNull(DecompressedBlockCache.of(new ProviderDirectory(dir, null)));
+        }
+    }
+
+    private static class ProviderDirectory extends FilterDirectory implements DecompressedBlockCache.Provider {
+        private final DecompressedBlockCache cache;
+
+        ProviderDirectory(Directory in, DecompressedBlockCache cache) {
+            super(in);
+            this.cache = cache;
+        }
+
+        @Override
+        public DecompressedBlockCache decompressedBlockCache() {
+            return cache;
+        }
+    }
+
+    private static Directory writeBlock(byte[] block) throws IOException {
+        Directory dir = new ByteBuffersDirectory();
+        try (
+            IndexOutput out = dir.createOutput("block", IOContext.DEFAULT);
+            Zstd814StoredFieldsFormat.ZstdCompressor compressor = new Zstd814StoredFieldsFormat.ZstdCompressor(1)
+        ) {
+            compressor.compress(new ByteBuffersDataInput(List.of(ByteBuffer.wrap(block))), out);
+        }
+        return dir;
+    }
+
+    /**
+     * Reads part of the block, like a read of a single document does.
+     */
+    private static void readDocument(Directory dir, Decompressor decompressor, byte[] block) throws IOException {
+        int offset = between(1, block.length - 1);
+        int length = between(0, block.length - offset);
+        try (IndexInput in = dir.openInput("block", IOContext.DEFAULT)) {
+            BytesRef bytes = new BytesRef();
+            decompressor.decompress(in, block.length, offset, length, bytes);
+            assertEquals(new BytesRef(block, offset, length), bytes);
+            // the compressed block was consumed, whether it was decompressed or not
+            assertEquals(in.length(), in.getFilePointer());
+        }
+    }
+
+    private static void assertStats(DecompressedBlockCache cache, long hits, long misses, long count) {
+        DecompressedBlockCache.Stats stats = cache.stats();
+        assertEquals(hits, stats.hits());
+        assertEquals(misses, stats.misses());
+        assertEquals(count, stats.count());
+    }
+}
@@ -13,6 +13,8 @@ import org.apache.lucene.tests.util.RamUsageTester;
 import org.apache.lucene.tests.util.TestUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Tuple;
@@ -136,7 +138,8 @@ public class LiveVersionMapTests extends ESTestCase {
         List<BytesRef> keyList = new ArrayList<>(keySet);
         ConcurrentHashMap<BytesRef, VersionValue> values = new ConcurrentHashMap<>();
         ConcurrentHashMap<BytesRef, DeleteVersionValue> deletes = new ConcurrentHashMap<>();
-        LiveVersionMap map = new LiveVersionMap();
+        final CircuitBreaker breaker = newLimitedBreaker(ByteSizeValue.ofMb(100));
+        LiveVersionMap map = new LiveVersionMap(LiveVersionMapArchive.NOOP_ARCHIVE, randomFrom(LiveVersionMap.Type.values()), breaker);
         int numThreads = randomIntBetween(2, 5);
 
         Thread[] threads = new Thread[numThreads];
@@ -271,6 +274,8 @@ public class LiveVersionMapTests extends ESTestCase {
         });
         map.pruneTombstones(clock.incrementAndGet(), maxSeqNo.get());
         assertThat(map.getAllTombstones().entrySet(), empty());
+        map.clear();
+        assertThat(breaker.getUsed(), equalTo(0L));
     }
 
     public void testCarryOnSafeAccess() throws IOException {
@@ -0,0 +1,162 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.tests.util.TestUtil;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.elasticsearch.index.engine.LiveVersionMapTestUtils.randomIndexVersionValue;
+import static org.elasticsearch.index.mapper.Uid.encodeId;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PagedVersionValueMapTests extends ESTestCase {
+
+    public void testBehavesLikeHashMap() {
+        final List<BytesRef> uids = new ArrayList<>();
+        final int numUids = randomIntBetween(1, 500);
+        for (int i = 0; i < numUids; i++) {
+            uids.add(encodeId(TestUtil.randomSimpleString(random(), 1, 20)));
+        }
+        final Map<BytesRef, VersionValue> expected = new HashMap<>();
+        final CircuitBreaker breaker = newLimitedBreaker(ByteSizeValue.ofMb(100));
+        final PagedVersionValueMap map = new PagedVersionValueMap(breaker, randomIntBetween(0, 100));
+        assertTrue(map.isEmpty());
+        final int iters = randomIntBetween(100, 5000);
+        for (int i = 0; i < iters; i++) {
+            final BytesRef uid = BytesRef.deepCopyOf(randomFrom(uids));
+            switch (between(0, 2)) {
+                case 0 -> {
+                    final VersionValue value = randomBoolean()
+                        ? randomIndexVersionValue()
+                        : new DeleteVersionValue(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomLong());
+                    assertThat(map.put(uid, value), equalTo(expected.put(uid, value)));
+                }
+                case 1 -> assertThat(map.remove(uid), equalTo(expected.remove(uid)));
+                default -> assertThat(map.get(uid), equalTo(expected.get(uid)));
+            }
+            assertThat(map.size(), equalTo(expected.size()));
+            assertThat(map.isEmpty(), equalTo(expected.isEmpty()));
+        }
+        assertThat(new HashMap<>(map), equalTo(expected));
+        map.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+        // closed maps stay readable for lookups that race with the refresh that drops them
+        for (Map.Entry<BytesRef, VersionValue> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey()), equalTo(entry.getValue()));
+        }
+    }
+
+    public void testKeysAreCopied() {
+        final PagedVersionValueMap map = new PagedVersionValueMap(newLimitedBreaker(ByteSizeValue.ofMb(1)), 0);
+        final BytesRef uid = encodeId("1");
+        final IndexVersionValue value = randomIndexVersionValue();
+        map.put(uid, value);
+        final BytesRef original = BytesRef.deepCopyOf(uid);
+        uid.bytes[uid.offset] ^= 1;
+        assertThat(map.get(uid), nullValue());
+        assertThat(map.get(original), equalTo(value));
+        assertThat(map.get("not a uid"), nullValue());
+        map.close();
+    }
+
+    public void testLongIds() {
+        final PagedVersionValueMap map = new PagedVersionValueMap(newLimitedBreaker(ByteSizeValue.ofMb(10)), 0);
+        final Map<BytesRef, VersionValue> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            final BytesRef uid = new BytesRef(randomByteArrayOfLength(randomFrom(1, 512, PagedVersionValueMap.PAGE_SIZE + 1, 65535)));
+            final VersionValue value = randomIndexVersionValue();
+            map.put(uid, value);
+            expected.put(uid, value);
+        }
+        assertThat(new HashMap<>(map), equalTo(expected));
+        map.close();
+    }
+
+    public void testReclaimsRemovedEntries() {
+        final CircuitBreaker breaker = newLimitedBreaker(ByteSizeValue.ofMb(100));
+        final PagedVersionValueMap map = new PagedVersionValueMap(breaker, 0);
+        final int liveEntries = 1000;
+        for (int i = 0; i < liveEntries; i++) {
+            map.put(encodeId(Integer.toString(i)), randomIndexVersionValue());
+        }
+        final long usedWithLiveEntries = breaker.getUsed();
+        assertThat(usedWithLiveEntries, greaterThan(0L));
+        // entries that come and go don't grow the map beyond what its live entries need
+        for (int i = liveEntries; i < 100 * liveEntries; i++) {
+            final BytesRef uid = encodeId(Integer.toString(i));
+            map.put(uid, randomIndexVersionValue());
+            assertNotNull(map.remove(uid));
+        }
+        assertThat(map.size(), equalTo(liveEntries));
+        assertThat(breaker.getUsed(), lessThan(4 * usedWithLiveEntries));
+        for (int i = 0; i < liveEntries; i++) {
+            assertNotNull(map.get(encodeId(Integer.toString(i))));
+        }
+        map.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testConcurrentReads() throws Exception {
+        final PagedVersionValueMap map = new PagedVersionValueMap(newLimitedBreaker(ByteSizeValue.ofMb(100)), 0);
+        final int numReaders = randomIntBetween(1, 4);
+        // each reader owns a range of ids and only ever reads and writes its own ids, like the version map does under the uid lock,
+        // while the writer adds and removes other ids to grow and rebuild the tables underneath the readers
+        final int idsPerReader = 100;
+        final AtomicBoolean done = new AtomicBoolean();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] readers = new Thread[numReaders];
+        for (int r = 0; r < numReaders; r++) {
+            final int reader = r;
+            readers[r] = new Thread(() -> {
+                safeAwait(start);
+                final VersionValue[] values = new VersionValue[idsPerReader];
+                while (done.get() == false) {
+                    final int i = randomIntBetween(0, idsPerReader - 1);
+                    final BytesRef uid = encodeId("reader-" + reader + "-" + i);
+                    assertThat(map.get(uid), equalTo(values[i]));
+                    if (randomBoolean()) {
+                        values[i] = randomIndexVersionValue();
+                        map.put(uid, values[i]);
+                    } else {
+                        map.remove(uid);
+                        values[i] = null;
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        start.countDown();
+        for (int i = 0; i < 200_000; i++) {
+            final BytesRef uid = encodeId("writer-" + i);
+            map.put(uid, randomIndexVersionValue());
+            if (randomBoolean()) {
+                map.remove(uid);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        map.close();
+    }
+}
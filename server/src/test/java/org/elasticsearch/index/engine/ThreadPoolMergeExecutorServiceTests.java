@@ -14,12 +14,15 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.DiskIOLatencyPeriodicMonitor;
 import org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.MergeTaskPriorityBlockingQueue;
 import org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.PriorityBlockingQueueWithBudget;
 import org.elasticsearch.index.engine.ThreadPoolMergeScheduler.MergeTask;
 import org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule;
 import org.elasticsearch.index.merge.OnGoingMerge;
+import org.elasticsearch.monitor.fs.FsInfo;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -35,6 +38,7 @@ import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -44,6 +48,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.MAX_IO_RATE;
 import static org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.MIN_IO_RATE;
+import static org.elasticsearch.index.engine.ThreadPoolMergeExecutorService.newIOLatencyCapBytesPerSec;
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.ABORT;
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.BACKLOG;
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.RUN;
@@ -558,6 +563,147 @@ public class ThreadPoolMergeExecutorServiceTests extends ESTestCase {
         }
     }
 
+    public void testIOLatencyCapFollowsMeasuredLatency() {
+        TimeValue budget = TimeValue.timeValueMillis(randomIntBetween(2, 20));
+        long targetIORate = randomLongBetween(MIN_IO_RATE.getBytes(), MAX_IO_RATE.getBytes());
+        // no bound while the budget is disabled or the latency is unknown
+        long cap = randomLongBetween(MIN_IO_RATE.getBytes(), MAX_IO_RATE.getBytes());
+        double anyLatency = randomDoubleBetween(0, 100, true);
+        assertThat(newIOLatencyCapBytesPerSec(cap, targetIORate, anyLatency, TimeValue.ZERO), is(MAX_IO_RATE.getBytes()));
+        assertThat(newIOLatencyCapBytesPerSec(cap, targetIORate, -1, budget), is(MAX_IO_RATE.getBytes()));
+        // over the budget the bound starts off from the current target IO rate and keeps decreasing, down to the floor
+        cap = MAX_IO_RATE.getBytes();
+        double overBudget = budget.millis() + randomDoubleBetween(0.1, 100, true);
+        long newCap = newIOLatencyCapBytesPerSec(cap, targetIORate, overBudget, budget);
+        assertThat(newCap, is(Math.max(MIN_IO_RATE.getBytes(), targetIORate - targetIORate / 5)));
+        while (newCap > MIN_IO_RATE.getBytes()) {
+            long nextCap = newIOLatencyCapBytesPerSec(newCap, targetIORate, overBudget, budget);
+            assertThat(nextCap, lessThan(newCap));
+            newCap = nextCap;
+        }
+        assertThat(newIOLatencyCapBytesPerSec(newCap, targetIORate, overBudget, budget), is(MIN_IO_RATE.getBytes()));
+        // within the budget the bound holds
+        double withinBudget = randomDoubleBetween(budget.millis() / 2.0, budget.millis(), true);
+        assertThat(newIOLatencyCapBytesPerSec(newCap, targetIORate, withinBudget, budget), is(newCap));
+        // well under the budget the bound lifts again, up to no bound at all
+        double underBudget = randomDoubleBetween(0, budget.millis() / 2.0 - 0.1, true);
+        while (newCap < MAX_IO_RATE.getBytes()) {
+            long nextCap = newIOLatencyCapBytesPerSec(newCap, targetIORate, underBudget, budget);
+            assertThat(nextCap, greaterThan(newCap));
+            newCap = nextCap;
+        }
+        assertThat(newCap, is(MAX_IO_RATE.getBytes()));
+    }
+
+    public void testAverageIOLatencyOfMostLoadedDevice() {
+        assertThat(DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(null), is(-1.0));
+        FsInfo.DeviceStats noPreviousSample = new FsInfo.DeviceStats(8, 0, "sda", 100, 800, 40, 100, 800, 60, 50, null);
+        assertThat(
+            DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(new FsInfo.IoStats(new FsInfo.DeviceStats[] { noPreviousSample })),
+            is(-1.0)
+        );
+        // 10 reads in 5ms and 30 writes in 15ms
+        FsInfo.DeviceStats sda = new FsInfo.DeviceStats(8, 0, "sda", 110, 880, 45, 130, 1040, 75, 70, noPreviousSample);
+        // 10 writes in 40ms
+        FsInfo.DeviceStats sdb = new FsInfo.DeviceStats(
+            8,
+            16,
+            "sdb",
+            10,
+            80,
+            0,
+            20,
+            160,
+            140,
+            140,
+            new FsInfo.DeviceStats(8, 16, "sdb", 10, 80, 0, 10, 80, 100, 100, null)
+        );
+        // idle
+        FsInfo.DeviceStats sdcPreviousSample = new FsInfo.DeviceStats(8, 32, "sdc", 10, 80, 10, 10, 80, 10, 100, null);
+        FsInfo.DeviceStats sdc = new FsInfo.DeviceStats(8, 32, "sdc", 10, 80, 10, 10, 80, 10, 100, sdcPreviousSample);
+        assertThat(DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(new FsInfo.IoStats(new FsInfo.DeviceStats[] { sda })), is(0.5));
+        assertThat(
+            DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(new FsInfo.IoStats(new FsInfo.DeviceStats[] { sda, sdb, sdc })),
+            is(4.0)
+        );
+        // a saturated device is busy for the whole 1s interval, whatever the load, while 100 writes queued for 50ms each
+        FsInfo.DeviceStats saturated = new FsInfo.DeviceStats(
+            8,
+            48,
+            "sdd",
+            0,
+            0,
+            0,
+            200,
+            1600,
+            5100,
+            2000,
+            new FsInfo.DeviceStats(8, 48, "sdd", 0, 0, 0, 100, 800, 100, 1000, null)
+        );
+        assertThat(
+            DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(new FsInfo.IoStats(new FsInfo.DeviceStats[] { saturated })),
+            is(50.0)
+        );
+        // without the read and write times the latency is unknown
+        FsInfo.DeviceStats noTimes = new FsInfo.DeviceStats(8, 0, "sda", 110, 880, 130, 1040, 70, noPreviousSample);
+        assertThat(
+            DiskIOLatencyPeriodicMonitor.averageIOLatencyMillis(new FsInfo.IoStats(new FsInfo.DeviceStats[] { noTimes })),
+            is(-1.0)
+        );
+    }
+
+    public void testIntraMergeTasksForkWithinBudget() throws Exception {
+        int maxIntraMergeThreads = randomIntBetween(0, 4);
+        Settings settings = Settings.builder()
+            .put(ThreadPoolMergeExecutorService.INDICES_MERGE_INTRA_MERGE_MAX_THREADS_SETTING.getKey(), maxIntraMergeThreads)
+            // disable fs available disk space feature for this test
+            .put(ThreadPoolMergeExecutorService.INDICES_MERGE_DISK_CHECK_INTERVAL_SETTING.getKey(), "0s")
+            .build();
+        nodeEnvironment = newNodeEnvironment(settings);
+        try (TestThreadPool testThreadPool = new TestThreadPool("test", settings)) {
+            ThreadPoolMergeExecutorService threadPoolMergeExecutorService = getThreadPoolMergeExecutorService(
+                testThreadPool,
+                settings,
+                nodeEnvironment
+            );
+            Executor intraMergeExecutor = threadPoolMergeExecutorService.getIntraMergeExecutor();
+            CountDownLatch forkedTasksLatch = new CountDownLatch(1);
+            CountDownLatch forkedTasksStarted = new CountDownLatch(maxIntraMergeThreads);
+            Thread mergeThread = Thread.currentThread();
+            // the tasks within the budget run on other threads
+            for (int i = 0; i < maxIntraMergeThreads; i++) {
+                intraMergeExecutor.execute(() -> {
+                    assertNotSame(mergeThread, Thread.currentThread());
+                    forkedTasksStarted.countDown();
+                    safeAwait(forkedTasksLatch);
+                });
+            }
+            safeAwait(forkedTasksStarted);
+            assertThat(threadPoolMergeExecutorService.getIntraMergeThreadsInUse(), is(maxIntraMergeThreads));
+            // the tasks over the budget run on the merge thread
+            int tasksOverBudget = randomIntBetween(1, 5);
+            AtomicInteger tasksRunOnMergeThread = new AtomicInteger();
+            for (int i = 0; i < tasksOverBudget; i++) {
+                intraMergeExecutor.execute(() -> {
+                    assertSame(mergeThread, Thread.currentThread());
+                    tasksRunOnMergeThread.incrementAndGet();
+                });
+            }
+            assertThat(tasksRunOnMergeThread.get(), is(tasksOverBudget));
+            forkedTasksLatch.countDown();
+            assertBusy(() -> assertThat(threadPoolMergeExecutorService.getIntraMergeThreadsInUse(), is(0)));
+            // the budget is available again once the forked tasks completed
+            if (maxIntraMergeThreads > 0) {
+                CountDownLatch forkedTaskRan = new CountDownLatch(1);
+                intraMergeExecutor.execute(() -> {
+                    assertNotSame(mergeThread, Thread.currentThread());
+                    forkedTaskRan.countDown();
+                });
+                safeAwait(forkedTaskRan);
+            }
+        }
+    }
+
     public void testThreadPoolStatsWithBackloggedMergeTasks() throws Exception {
         int mergeExecutorThreadCount = randomIntBetween(1, 3);
         Settings settings = Settings.builder()
@@ -19,12 +19,16 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.PagedBytesIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.SortedSetOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.TextFieldMapper;
@@ -128,6 +132,69 @@ public class FieldDataCacheTests extends ESTestCase {
         dir.close();
     }
 
+    public void testReuseGlobalOrdinalsOfUnchangedSegments() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        iwc.setSoftDeletesField(Lucene.SOFT_DELETES_FIELD);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        for (int i = 1; i <= 100; i++) {
+            Document doc = new Document();
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i))));
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            iw.addDocument(doc);
+            if (i % 25 == 0) {
+                iw.commit();
+            }
+        }
+        ShardId shardId = new ShardId("_index", "_na_", 0);
+        DirectoryReader reader1 = DirectoryReader.open(iw);
+        SortedSetOrdinalsIndexFieldData fieldData = createSortedDV("field1", new DummyAccountingFieldDataCache());
+        GlobalOrdinalsIndexFieldData globalOrdinals1 = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(
+            ElasticsearchDirectoryReader.wrap(reader1, shardId)
+        );
+        assertFalse(globalOrdinals1.isReused());
+
+        // soft deleting existing documents doesn't change the terms of the segments
+        iw.updateDocValues(new Term("id", "1"), Lucene.newSoftDeletesField());
+        DirectoryReader reader2 = DirectoryReader.openIfChanged(reader1, iw);
+        assertNotNull(reader2);
+        GlobalOrdinalsIndexFieldData globalOrdinals2 = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(
+            ElasticsearchDirectoryReader.wrap(reader2, shardId),
+            globalOrdinals1
+        );
+        assertTrue(globalOrdinals2.isReused());
+        assertSame(globalOrdinals1.getOrdinalMap(), globalOrdinals2.getOrdinalMap());
+
+        // deletes of the engine also index a tombstone, in a new segment that needs new global ordinals
+        Document tombstone = new Document();
+        tombstone.add(new StringField("id", "2", Field.Store.NO));
+        iw.softUpdateDocument(new Term("id", "2"), tombstone, Lucene.newSoftDeletesField());
+        DirectoryReader reader3 = DirectoryReader.openIfChanged(reader2, iw);
+        assertNotNull(reader3);
+        GlobalOrdinalsIndexFieldData globalOrdinals3 = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(
+            ElasticsearchDirectoryReader.wrap(reader3, shardId),
+            globalOrdinals2
+        );
+        assertFalse(globalOrdinals3.isReused());
+        assertThat(globalOrdinals3.getValueCount(), equalTo(100L));
+
+        // as do new documents
+        Document doc = new Document();
+        doc.add(new SortedSetDocValuesField("field1", new BytesRef("101")));
+        iw.addDocument(doc);
+        DirectoryReader reader4 = DirectoryReader.openIfChanged(reader3, iw);
+        assertNotNull(reader4);
+        GlobalOrdinalsIndexFieldData globalOrdinals4 = (GlobalOrdinalsIndexFieldData) fieldData.loadGlobalDirect(
+            ElasticsearchDirectoryReader.wrap(reader4, shardId),
+            globalOrdinals3
+        );
+        assertFalse(globalOrdinals4.isReused());
+        assertThat(globalOrdinals4.getValueCount(), equalTo(101L));
+
+        IOUtils.close(reader1, reader2, reader3, reader4, iw, dir);
+    }
+
     private SortedSetOrdinalsIndexFieldData createSortedDV(String fieldName, IndexFieldDataCache indexFieldDataCache) {
         return new SortedSetOrdinalsIndexFieldData(
             indexFieldDataCache,
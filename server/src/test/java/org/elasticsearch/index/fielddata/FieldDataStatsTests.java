@@ -28,7 +28,12 @@ public class FieldDataStatsTests extends ESTestCase {
             randomAlphaOfLength(4),
             new FieldDataStats.GlobalOrdinalsStats.GlobalOrdinalFieldStats(randomNonNegativeLong(), randomNonNegativeLong())
         );
-        FieldDataStats.GlobalOrdinalsStats glob = new FieldDataStats.GlobalOrdinalsStats(randomNonNegativeLong(), fieldOrdinalStats);
+        FieldDataStats.GlobalOrdinalsStats glob = new FieldDataStats.GlobalOrdinalsStats(
+            randomNonNegativeLong(),
+            fieldOrdinalStats,
+            randomNonNegativeLong(),
+            randomNonNegativeLong()
+        );
         FieldDataStats stats = new FieldDataStats(randomNonNegativeLong(), randomNonNegativeLong(), map, glob);
         BytesStreamOutput out = new BytesStreamOutput();
         stats.writeTo(out);
@@ -38,6 +43,14 @@ public class FieldDataStatsTests extends ESTestCase {
         assertEquals(stats.getEvictions(), read.getEvictions());
         assertEquals(stats.getMemorySize(), read.getMemorySize());
         assertEquals(stats.getFields(), read.getFields());
+        assertEquals(stats.getGlobalOrdinalsStats(), read.getGlobalOrdinalsStats());
+    }
+
+    public void testAddReuseCounts() {
+        FieldDataStats fieldDataStats = new FieldDataStats(0, 0, null, new FieldDataStats.GlobalOrdinalsStats(1, null, 4, 1));
+        fieldDataStats.add(new FieldDataStats(0, 0, null, new FieldDataStats.GlobalOrdinalsStats(1, null, 4, 3)));
+        assertEquals(8L, fieldDataStats.getGlobalOrdinalsStats().getLoadCount());
+        assertEquals(4L, fieldDataStats.getGlobalOrdinalsStats().getUnchangedReaderReuseCount());
     }
 
     public void testAdd() {
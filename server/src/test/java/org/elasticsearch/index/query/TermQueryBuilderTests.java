@@ -9,6 +9,10 @@
 
 package org.elasticsearch.index.query;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.AutomatonQuery;
@@ -17,6 +21,7 @@ import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
 import org.elasticsearch.common.ParsingException;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.mapper.FieldTypeTestCase;
@@ -229,6 +234,25 @@ public class TermQueryBuilderTests extends AbstractTermQueryTestCase<TermQueryBu
         }
     }
 
+    public void testRewriteAbsentKeywordTermToMatchNone() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+                Document doc = new Document();
+                doc.add(new StringField(KEYWORD_FIELD_NAME, "foo", Field.Store.NO));
+                writer.addDocument(doc);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                SearchExecutionContext context = createSearchExecutionContext(newSearcher(reader));
+                QueryBuilder absent = new TermQueryBuilder(KEYWORD_FIELD_NAME, "bar");
+                assertThat(absent.rewrite(context), instanceOf(MatchNoneQueryBuilder.class));
+                QueryBuilder existing = new TermQueryBuilder(KEYWORD_FIELD_NAME, "foo");
+                assertSame(existing, existing.rewrite(context));
+                QueryBuilder caseInsensitive = new TermQueryBuilder(KEYWORD_FIELD_NAME, "FOO").caseInsensitive(true);
+                assertSame(caseInsensitive, caseInsensitive.rewrite(context));
+            }
+        }
+    }
+
     @Override
     public void testMustRewrite() throws IOException {
         SearchExecutionContext context = createSearchExecutionContext();
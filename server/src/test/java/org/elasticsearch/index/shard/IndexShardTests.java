@@ -4152,6 +4152,162 @@ public class IndexShardTests extends IndexShardTestCase {
         closeShards(primary);
     }
 
+    public void testScheduledRefreshDeferredWhenNotSearched() throws Exception {
+        Settings settings = indexSettings(IndexVersion.current(), 1, 1).put(
+            IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING.getKey(),
+            TimeValue.timeValueHours(1)
+        ).build();
+        IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
+            { "properties": { "foo":  { "type": "text"}}}""").settings(settings).primaryTerm(0, 1).build();
+        IndexShard primary = newShard(new ShardId(metadata.getIndex(), 0), true, "n1", metadata, null);
+        recoverShardFromStore(primary);
+        final long lastSearchAccess = primary.getLastSearcherAccess();
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(lastSearchAccess)));
+
+        // the shard was not refreshed on schedule yet, so the first scheduled refresh goes through
+        indexDoc(primary, "_doc", "0", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+        primary.scheduledRefresh(future);
+        assertTrue(future.actionGet());
+        final long refreshedAt = primary.getThreadPool().relativeTimeInMillis();
+
+        // nobody searched since, so the next one is deferred
+        indexDoc(primary, "_doc", "1", "{\"foo\" : \"bar\"}");
+        assertTrue(primary.getEngine().refreshNeeded());
+        PlainActionFuture<Boolean> future2 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future2);
+        assertFalse(future2.actionGet());
+        assertThat(primary.refreshStats().getDeferred(), equalTo(1L));
+        assertTrue(primary.hasRefreshPending());
+
+        // a search makes the next scheduled refresh go through
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(refreshedAt)));
+        try (Engine.Searcher searcher = primary.acquireSearcher("test")) {
+            assertEquals(1, searcher.getIndexReader().numDocs());
+        }
+        final long searchedAt = primary.getLastSearcherAccess();
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(searchedAt)));
+        PlainActionFuture<Boolean> future3 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future3);
+        assertTrue(future3.actionGet());
+        assertThat(primary.refreshStats().getDeferred(), equalTo(1L));
+        assertFalse(primary.hasRefreshPending());
+
+        // refresh listeners are never deferred
+        indexDoc(primary, "_doc", "2", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future4 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future4);
+        assertFalse(future4.actionGet());
+        CountDownLatch latch = new CountDownLatch(1);
+        primary.addRefreshListener(primary.getEngine().getTranslogLastWriteLocation(), forced -> latch.countDown());
+        PlainActionFuture<Boolean> future5 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future5);
+        assertTrue(future5.actionGet());
+        latch.await();
+        assertThat(primary.refreshStats().getDeferred(), equalTo(2L));
+
+        // disabling the setting stops deferring
+        IndexScopedSettings scopedSettings = primary.indexSettings().getScopedSettings();
+        settings = Settings.builder()
+            .put(settings)
+            .put(IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING.getKey(), TimeValue.MINUS_ONE)
+            .build();
+        scopedSettings.applySettings(settings);
+        indexDoc(primary, "_doc", "3", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future6 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future6);
+        assertTrue(future6.actionGet());
+        assertThat(primary.refreshStats().getDeferred(), equalTo(2L));
+        closeShards(primary);
+    }
+
+    public void testScheduledRefreshNotDeferredWhenSearchedInSameTick() throws Exception {
+        Settings settings = indexSettings(IndexVersion.current(), 1, 1).put(
+            IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING.getKey(),
+            TimeValue.timeValueHours(1)
+        ).build();
+        IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
+            { "properties": { "foo":  { "type": "text"}}}""").settings(settings).primaryTerm(0, 1).build();
+        IndexShard primary = newShard(new ShardId(metadata.getIndex(), 0), true, "n1", metadata, null);
+        recoverShardFromStore(primary);
+        final long lastSearchAccess = primary.getLastSearcherAccess();
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(lastSearchAccess)));
+
+        indexDoc(primary, "_doc", "0", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+        primary.scheduledRefresh(future);
+        assertTrue(future.actionGet());
+
+        // a search right after the scheduled refresh, typically within the same tick of the cached clock, still counts
+        try (Engine.Searcher searcher = primary.acquireSearcher("test")) {
+            assertEquals(1, searcher.getIndexReader().numDocs());
+        }
+        indexDoc(primary, "_doc", "1", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future2 = new PlainActionFuture<>();
+        primary.scheduledRefresh(future2);
+        assertTrue(future2.actionGet());
+        assertThat(primary.refreshStats().getDeferred(), equalTo(0L));
+        closeShards(primary);
+    }
+
+    public void testScheduledRefreshNotDeferredWithExplicitRefreshInterval() throws Exception {
+        Settings settings = indexSettings(IndexVersion.current(), 1, 1).put(
+            IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING.getKey(),
+            TimeValue.timeValueHours(1)
+        ).put(IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.getKey(), TimeValue.timeValueSeconds(1)).build();
+        IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
+            { "properties": { "foo":  { "type": "text"}}}""").settings(settings).primaryTerm(0, 1).build();
+        IndexShard primary = newShard(new ShardId(metadata.getIndex(), 0), true, "n1", metadata, null);
+        recoverShardFromStore(primary);
+        for (int i = 0; i < 3; i++) {
+            indexDoc(primary, "_doc", Integer.toString(i), "{\"foo\" : \"bar\"}");
+            PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+            primary.scheduledRefresh(future);
+            assertTrue(future.actionGet());
+        }
+        assertThat(primary.refreshStats().getDeferred(), equalTo(0L));
+        closeShards(primary);
+    }
+
+    public void testSearchAfterDeferredScheduledRefreshWaitsForRefresh() throws Exception {
+        Settings settings = indexSettings(IndexVersion.current(), 1, 1).put(
+            IndexSettings.INDEX_REFRESH_MAX_DEFERRED_INTERVAL_SETTING.getKey(),
+            TimeValue.timeValueHours(1)
+        ).build();
+        IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
+            { "properties": { "foo":  { "type": "text"}}}""").settings(settings).primaryTerm(0, 1).build();
+        IndexShard primary = newShard(new ShardId(metadata.getIndex(), 0), true, "n1", metadata, null);
+        recoverShardFromStore(primary);
+        final long lastSearchAccess = primary.getLastSearcherAccess();
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(lastSearchAccess)));
+
+        indexDoc(primary, "_doc", "0", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+        primary.scheduledRefresh(future);
+        assertTrue(future.actionGet());
+        final long refreshedAt = primary.getThreadPool().relativeTimeInMillis();
+        assertBusy(() -> assertThat(primary.getThreadPool().relativeTimeInMillis(), greaterThan(refreshedAt)));
+
+        indexDoc(primary, "_doc", "1", "{\"foo\" : \"bar\"}");
+        PlainActionFuture<Boolean> deferred = new PlainActionFuture<>();
+        primary.scheduledRefresh(deferred);
+        assertFalse(deferred.actionGet());
+        assertTrue(primary.hasRefreshPending());
+
+        // the search waits for the deferred documents to be refreshed instead of missing them
+        CountDownLatch latch = new CountDownLatch(1);
+        primary.ensureShardSearchActive(registered -> {
+            assertTrue(registered);
+            latch.countDown();
+        });
+        latch.await();
+        assertFalse(primary.hasRefreshPending());
+        try (Engine.Searcher searcher = primary.acquireSearcher("test")) {
+            assertEquals(2, searcher.getIndexReader().numDocs());
+        }
+        closeShards(primary);
+    }
+
     public void testRefreshIsNeededWithRefreshListeners() throws IOException, InterruptedException {
         Settings settings = indexSettings(IndexVersion.current(), 1, 1).build();
         IndexMetadata metadata = IndexMetadata.builder("test").putMapping("""
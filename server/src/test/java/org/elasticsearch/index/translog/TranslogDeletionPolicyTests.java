@@ -97,6 +97,7 @@ public class TranslogDeletionPolicyTests extends ESTestCase {
                 TranslogTests.RANDOMIZING_IO_BUFFERS,
                 TranslogConfig.NOOP_OPERATION_LISTENER,
                 TranslogOperationAsserter.DEFAULT,
+                new TranslogSyncMetrics(),
                 true
             );
             writer = Mockito.spy(writer);
@@ -552,9 +552,23 @@ public class TranslogTests extends ESTestCase {
                         "size_in_bytes": %s,
                         "uncommitted_operations": 4,
                         "uncommitted_size_in_bytes": %s,
-                        "earliest_last_modified_age": %s
+                        "earliest_last_modified_age": %s,
+                        "sync": {
+                          "total": %s,
+                          "operations": %s,
+                          "total_time_in_millis": %s,
+                          "wait_time_in_millis": %s
+                        }
                       }
-                    }""", 325L + sourceLength, 270L + sourceLength, stats.getEarliestLastModifiedAge()))));
+                    }""",
+                    325L + sourceLength,
+                    270L + sourceLength,
+                    stats.getEarliestLastModifiedAge(),
+                    stats.getSyncCount(),
+                    stats.getSyncedOperations(),
+                    stats.getSyncTimeInMillis(),
+                    stats.getSyncWaitTimeInMillis()
+                ))));
             }
         }
         translog.getDeletionPolicy().setLocalCheckpointOfSafeCommit(randomLongBetween(3, Long.MAX_VALUE));
@@ -570,6 +584,31 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testSyncStats() throws Exception {
+        translog.sync();
+        final TranslogStats before = translog.stats();
+        final int operations = randomIntBetween(1, 100);
+        Translog.Location location = null;
+        for (int i = 0; i < operations; i++) {
+            location = translog.add(TranslogOperationsUtils.indexOp(Integer.toString(i), i, primaryTerm.get()));
+        }
+        assertTrue(translog.ensureSynced(location, SequenceNumbers.UNASSIGNED_SEQ_NO));
+        // already synced, must not trigger another sync
+        assertFalse(translog.ensureSynced(location, SequenceNumbers.UNASSIGNED_SEQ_NO));
+
+        final TranslogStats after = stats();
+        assertThat(after.getSyncCount(), equalTo(before.getSyncCount() + 1));
+        assertThat(after.getSyncedOperations(), equalTo(before.getSyncedOperations() + operations));
+        assertThat(after.getSyncTimeInMillis(), greaterThanOrEqualTo(before.getSyncTimeInMillis()));
+        assertThat(after.getSyncWaitTimeInMillis(), greaterThanOrEqualTo(before.getSyncWaitTimeInMillis()));
+
+        final TranslogStats total = new TranslogStats();
+        total.add(before);
+        total.add(after);
+        assertThat(total.getSyncCount(), equalTo(before.getSyncCount() + after.getSyncCount()));
+        assertThat(total.getSyncedOperations(), equalTo(before.getSyncedOperations() + after.getSyncedOperations()));
+    }
+
     public void testUncommittedOperations() throws Exception {
         final TranslogDeletionPolicy deletionPolicy = translog.getDeletionPolicy();
         final int operations = scaledRandomIntBetween(10, 100);
@@ -718,6 +757,25 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testSnapshotWithOperationsLargerThanReadAheadBuffer() throws IOException {
+        final List<Translog.Operation> ops = new ArrayList<>();
+        final int numOps = randomIntBetween(1, 50);
+        for (int i = 0; i < numOps; i++) {
+            final int sourceLength = rarely()
+                ? randomIntBetween(TranslogSnapshot.READ_AHEAD_BUFFER_SIZE, 2 * TranslogSnapshot.READ_AHEAD_BUFFER_SIZE)
+                : randomIntBetween(1, TranslogSnapshot.READ_AHEAD_BUFFER_SIZE / 4);
+            final String source = "{\"f\":\"" + randomAlphaOfLength(sourceLength) + "\"}";
+            addToTranslogAndList(translog, ops, TranslogOperationsUtils.indexOp(Integer.toString(i), i, primaryTerm.get(), source));
+            if (rarely()) {
+                translog.rollGeneration();
+            }
+        }
+        try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+            assertThat(snapshot, containsOperationsInAnyOrder(ops));
+            assertThat(snapshot.totalOperations(), equalTo(ops.size()));
+        }
+    }
+
     public void testSnapshotOnClosedTranslog() throws IOException {
         assertTrue(Files.exists(translogDir.resolve(Translog.getFilename(1))));
         translog.add(TranslogOperationsUtils.indexOp("1", 0, primaryTerm.get()));
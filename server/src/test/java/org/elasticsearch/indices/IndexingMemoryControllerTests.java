@@ -54,6 +54,9 @@ public class IndexingMemoryControllerTests extends IndexShardTestCase {
         // Shards that are currently throttled
         final Set<IndexShard> throttled = new HashSet<>();
 
+        // Recent write load of each shard, shards that are not in the map have no write load
+        final Map<IndexShard, Double> writeLoads = new HashMap<>();
+
         MockController(Settings settings) {
             super(
                 Settings.builder()
@@ -90,6 +93,11 @@ public class IndexingMemoryControllerTests extends IndexShardTestCase {
             }
         }
 
+        @Override
+        protected double getRecentWriteLoad(IndexShard shard) {
+            return writeLoads.getOrDefault(shard, 0.0);
+        }
+
         @Override
         protected void checkIdle(IndexShard shard, long inactiveTimeNS) {}
 
@@ -359,6 +367,66 @@ public class IndexingMemoryControllerTests extends IndexShardTestCase {
         closeShards(shard0, shard1);
     }
 
+    public void testWriteLoadAwareAllocation() throws Exception {
+        MockController controller = new MockController(
+            Settings.builder()
+                .put("indices.memory.index_buffer_size", "4mb")
+                .put(IndexingMemoryController.WRITE_LOAD_AWARE_SETTING.getKey(), true)
+                .build()
+        );
+        IndexShard shard0 = newStartedShard(
+            p -> newShard(p, new ShardId("index0", "uuid0", 0), Settings.EMPTY, new InternalEngineFactory()),
+            randomBoolean()
+        );
+        IndexShard shard1 = newStartedShard(
+            p -> newShard(p, new ShardId("index1", "uuid1", 0), Settings.EMPTY, new InternalEngineFactory()),
+            randomBoolean()
+        );
+        IndexShard shard2 = newStartedShard(
+            p -> newShard(p, new ShardId("index2", "uuid2", 0), Settings.EMPTY, new InternalEngineFactory()),
+            randomBoolean()
+        );
+
+        // shard0 takes most of the writes, so it gets 3.6 MB of the indexing buffer and shard1 only gets 0.4 MB
+        controller.writeLoads.put(shard0, 9.0);
+        controller.writeLoads.put(shard1, 1.0);
+
+        controller.simulateIndexing(shard0);
+        controller.simulateIndexing(shard0);
+        controller.simulateIndexing(shard0);
+        controller.simulateIndexing(shard1);
+        controller.simulateIndexing(shard1);
+
+        // We are now using 5 MB, round-robin would write the larger buffer of shard0 first, but shard1 exceeds its share by more
+        controller.assertWriting(shard0, 0);
+        controller.assertWriting(shard1, 2);
+        controller.assertBuffer(shard0, 3);
+        controller.assertBuffer(shard1, 0);
+
+        // shard2 has no write load at all, so it is written before the shards that are still being written to
+        controller.doneWriting(shard1);
+        controller.simulateIndexing(shard2);
+        controller.simulateIndexing(shard1);
+
+        controller.assertWriting(shard0, 0);
+        controller.assertWriting(shard1, 0);
+        controller.assertWriting(shard2, 1);
+        controller.assertBuffer(shard0, 3);
+        controller.assertBuffer(shard1, 1);
+        controller.assertBuffer(shard2, 0);
+
+        // Without any write load the shards share the indexing buffer evenly, so the largest buffer is written first
+        controller.writeLoads.clear();
+        controller.doneWriting(shard2);
+        controller.simulateIndexing(shard1);
+
+        controller.assertWriting(shard0, 3);
+        controller.assertWriting(shard1, 0);
+        controller.assertBuffer(shard0, 0);
+        controller.assertBuffer(shard1, 2);
+        closeShards(shard0, shard1, shard2);
+    }
+
     public void testTranslogRecoveryWorksWithIMC() throws IOException {
         IndexShard shard = newStartedShard(true);
         for (int i = 0; i < 100; i++) {
@@ -30,6 +30,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.index.cache.request.ShardRequestCache;
@@ -44,7 +45,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.emptyList;
 
@@ -201,6 +206,226 @@ public class IndicesRequestCacheTests extends ESTestCase {
         assertEquals(0, cache.numRegisteredCloseListeners());
     }
 
+    public void testCoalesceConcurrentIdenticalRequests() throws Exception {
+        IndicesRequestCache cache = new IndicesRequestCache(
+            Settings.builder().put(IndicesRequestCache.INDICES_CACHE_MAX_COALESCED_WAITERS.getKey(), 1).build()
+        );
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        BytesReference termBytes = XContentHelper.toXContent(new TermQueryBuilder("id", "0"), XContentType.JSON, false);
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CheckedSupplier<BytesReference, IOException> blockingLoader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            safeAwait(release);
+            return new Loader(reader, 0).get();
+        };
+        CheckedSupplier<BytesReference, Exception> request = () -> cache.getOrCompute(
+            new TestEntity(requestCacheStats, indexShard),
+            blockingLoader,
+            mappingKey,
+            reader,
+            termBytes
+        );
+        AtomicReference<BytesReference> firstValue = new AtomicReference<>();
+        AtomicReference<BytesReference> secondValue = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                firstValue.set(request.get());
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        first.start();
+        safeAwait(loading);
+
+        // an identical request waits for the computation that is in progress
+        Thread second = new Thread(() -> {
+            try {
+                secondValue.set(request.get());
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        second.start();
+        assertBusy(() -> assertEquals(Thread.State.WAITING, second.getState()));
+
+        // requests beyond the bound of waiters are rejected
+        expectThrows(EsRejectedExecutionException.class, request::get);
+
+        release.countDown();
+        first.join();
+        second.join();
+        assertEquals(1, loads.get());
+        assertEquals("foo", firstValue.get().streamInput().readString());
+        assertEquals("foo", secondValue.get().streamInput().readString());
+        assertEquals(1, requestCacheStats.stats().getMissCount());
+        assertEquals(1, requestCacheStats.stats().getHitCount());
+        assertEquals(1, requestCacheStats.stats().getCoalescedCount());
+
+        // later requests are regular hits
+        assertEquals("foo", request.get().streamInput().readString());
+        assertEquals(2, requestCacheStats.stats().getHitCount());
+        assertEquals(1, requestCacheStats.stats().getCoalescedCount());
+
+        IOUtils.close(reader, writer, dir, cache);
+    }
+
+    public void testConcurrentWaitersDoNotExceedBound() throws Exception {
+        int maxWaiters = between(2, 8);
+        IndicesRequestCache cache = new IndicesRequestCache(
+            Settings.builder().put(IndicesRequestCache.INDICES_CACHE_MAX_COALESCED_WAITERS.getKey(), maxWaiters).build()
+        );
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        BytesReference termBytes = XContentHelper.toXContent(new TermQueryBuilder("id", "0"), XContentType.JSON, false);
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CheckedSupplier<BytesReference, IOException> blockingLoader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            safeAwait(release);
+            return new Loader(reader, 0).get();
+        };
+        CheckedSupplier<BytesReference, Exception> request = () -> cache.getOrCompute(
+            new TestEntity(requestCacheStats, indexShard),
+            blockingLoader,
+            mappingKey,
+            reader,
+            termBytes
+        );
+        Thread loader = new Thread(() -> {
+            try {
+                assertEquals("foo", request.get().streamInput().readString());
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        loader.start();
+        safeAwait(loading);
+
+        // more identical requests than the bound race to wait for the computation, only the bound of them may wait
+        int requests = maxWaiters + between(1, 8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            Thread thread = new Thread(() -> {
+                safeAwait(start);
+                try {
+                    assertEquals("foo", request.get().streamInput().readString());
+                } catch (EsRejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        assertBusy(() -> {
+            assertEquals(requests - maxWaiters, rejected.get());
+            assertEquals(maxWaiters, threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count());
+        });
+
+        release.countDown();
+        loader.join();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(requests - maxWaiters, rejected.get());
+        assertEquals(1, requestCacheStats.stats().getMissCount());
+        assertEquals(maxWaiters, requestCacheStats.stats().getHitCount());
+        assertEquals(maxWaiters, requestCacheStats.stats().getCoalescedCount());
+
+        IOUtils.close(reader, writer, dir, cache);
+    }
+
+    public void testConcurrentIdenticalRequestsAreRegisteredBeforeLoading() throws Exception {
+        int maxWaiters = between(1, 8);
+        IndicesRequestCache cache = new IndicesRequestCache(
+            Settings.builder().put(IndicesRequestCache.INDICES_CACHE_MAX_COALESCED_WAITERS.getKey(), maxWaiters).build()
+        );
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        BytesReference termBytes = XContentHelper.toXContent(new TermQueryBuilder("id", "0"), XContentType.JSON, false);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CheckedSupplier<BytesReference, IOException> blockingLoader = () -> {
+            loads.incrementAndGet();
+            safeAwait(release);
+            return new Loader(reader, 0).get();
+        };
+        CheckedSupplier<BytesReference, Exception> request = () -> cache.getOrCompute(
+            new TestEntity(requestCacheStats, indexShard),
+            blockingLoader,
+            mappingKey,
+            reader,
+            termBytes
+        );
+
+        // all requests race, including the one that ends up computing the value, so none can start loading before it is registered
+        int requests = maxWaiters + 1 + between(1, 8);
+        CyclicBarrier start = new CyclicBarrier(requests);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            Thread thread = new Thread(() -> {
+                safeAwait(start);
+                try {
+                    assertEquals("foo", request.get().streamInput().readString());
+                } catch (EsRejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        assertBusy(() -> {
+            assertEquals(1, loads.get());
+            assertEquals(requests - maxWaiters - 1, rejected.get());
+            // the request that computes the value waits with a timeout in the loader, the others wait for its result
+            assertEquals(maxWaiters, threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count());
+        });
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(requests - maxWaiters - 1, rejected.get());
+        assertEquals(1, requestCacheStats.stats().getMissCount());
+        assertEquals(maxWaiters, requestCacheStats.stats().getHitCount());
+        assertEquals(maxWaiters, requestCacheStats.stats().getCoalescedCount());
+
+        IOUtils.close(reader, writer, dir, cache);
+    }
+
     public void testCacheDifferentMapping() throws Exception {
         IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
         MappingLookup.CacheKey mappingKey1 = MappingLookup.EMPTY.cacheKey();
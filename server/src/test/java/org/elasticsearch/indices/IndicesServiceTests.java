@@ -8,6 +8,15 @@
  */
 package org.elasticsearch.indices;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.search.join.ToParentBlockJoinQuery;
 import org.apache.lucene.search.similarities.BM25Similarity;
 import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.store.AlreadyClosedException;
@@ -30,6 +39,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.io.FileSystemUtils;
+import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
@@ -867,6 +877,28 @@ public class IndicesServiceTests extends ESSingleNodeTestCase {
         assertEquals(Map.of(), fields.indexFields());
     }
 
+    public void testIsSegmentLocal() {
+        Query term = new TermQuery(new Term("foo", "bar"));
+        assertTrue(IndicesService.isSegmentLocal(term));
+        assertTrue(IndicesService.isSegmentLocal(new FunctionScoreQuery(term, null, Float.MAX_VALUE)));
+        assertTrue(
+            IndicesService.isSegmentLocal(
+                new ToParentBlockJoinQuery(term, new QueryBitSetProducer(new TermQuery(new Term("type", "parent"))), ScoreMode.None)
+            )
+        );
+
+        Query knn = new KnnFloatVectorQuery("vector", new float[] { 1, 2 }, 10);
+        Query minScore = new FunctionScoreQuery(term, 1f, Float.MAX_VALUE);
+        for (Query query : List.of(knn, minScore)) {
+            assertFalse(IndicesService.isSegmentLocal(query));
+            assertFalse(
+                IndicesService.isSegmentLocal(
+                    new BooleanQuery.Builder().add(term, BooleanClause.Occur.MUST).add(query, BooleanClause.Occur.FILTER).build()
+                )
+            );
+        }
+    }
+
     public void testWithTempIndexServiceHandlesExistingIndex() throws Exception {
         // This test makes sure that we can run withTempIndexService even if the index already exists
         IndicesService indicesService = getIndicesService();
@@ -0,0 +1,178 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.cache.request.SegmentAggregationCacheStats;
+import org.elasticsearch.index.cache.request.ShardRequestCache;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.SearchContextAggregations;
+import org.elasticsearch.search.aggregations.metrics.Max;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThan;
+
+public class SegmentAggregationCacheTests extends ESTestCase {
+
+    private final NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+        new SearchModule(Settings.EMPTY, List.of()).getNamedWriteables()
+    );
+    private final ShardId shardId = new ShardId("foo", "bar", 1);
+    private final MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+
+    public void testCacheSegmentResults() throws Exception {
+        SegmentAggregationCache cache = new SegmentAggregationCache(Settings.EMPTY);
+        ShardRequestCache shardStats = new ShardRequestCache();
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            writer.addDocument(newDoc("0"));
+            writer.flush();
+            writer.addDocument(newDoc("1"));
+            DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), shardId);
+            assertEquals(2, reader.leaves().size());
+            LeafReaderContext first = reader.leaves().get(0);
+            LeafReaderContext second = reader.leaves().get(1);
+
+            SearchContextAggregations.SegmentResultsCache requestCache = cache.forRequest(
+                shardId,
+                mappingKey,
+                new BytesArray("request"),
+                namedWriteableRegistry,
+                shardStats
+            );
+            assertNull(requestCache.get(first));
+            requestCache.put(first, maxResults(1.0));
+            requestCache.put(second, maxResults(2.0));
+            assertEquals(2, cache.count());
+            assertEquals(1.0, ((Max) requestCache.get(first).get("max")).value(), 0d);
+            assertEquals(2.0, ((Max) requestCache.get(second).get("max")).value(), 0d);
+            SegmentAggregationCacheStats stats = shardStats.stats().getSegmentAggregations();
+            assertEquals(2, stats.getHitCount());
+            assertEquals(1, stats.getMissCount());
+            assertEquals(0, stats.getEvictions());
+            assertThat(stats.getMemorySizeInBytes(), greaterThan(0L));
+
+            // another request or another mapping never sees the results of the first one
+            BytesArray otherRequest = new BytesArray("other");
+            assertNull(cache.forRequest(shardId, mappingKey, otherRequest, namedWriteableRegistry, shardStats).get(first));
+            MappingLookup.CacheKey otherMappingKey = MappingLookup.fromMappers(
+                MappingLookup.EMPTY.getMapping(),
+                List.of(),
+                List.of()
+            ).cacheKey();
+            BytesArray request = new BytesArray("request");
+            assertNull(cache.forRequest(shardId, otherMappingKey, request, namedWriteableRegistry, shardStats).get(first));
+
+            // closing the reader invalidates all of its segments
+            reader.close();
+            assertEquals(0, cache.count());
+            assertEquals(0, shardStats.stats().getSegmentAggregations().getMemorySizeInBytes());
+            assertEquals(0, shardStats.stats().getSegmentAggregations().getEvictions());
+        }
+        cache.close();
+    }
+
+    public void testEvictions() throws Exception {
+        SegmentAggregationCache cache = new SegmentAggregationCache(
+            Settings.builder().put(SegmentAggregationCache.INDICES_SEGMENT_AGGREGATION_CACHE_SIZE.getKey(), "1b").build()
+        );
+        ShardRequestCache shardStats = new ShardRequestCache();
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            writer.addDocument(newDoc("0"));
+            try (DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), shardId)) {
+                SearchContextAggregations.SegmentResultsCache requestCache = cache.forRequest(
+                    shardId,
+                    mappingKey,
+                    new BytesArray("request"),
+                    namedWriteableRegistry,
+                    shardStats
+                );
+                requestCache.put(reader.leaves().get(0), maxResults(1.0));
+                assertEquals(0, cache.count());
+                SegmentAggregationCacheStats stats = shardStats.stats().getSegmentAggregations();
+                assertEquals(1, stats.getEvictions());
+                assertEquals(0, stats.getMemorySizeInBytes());
+            }
+        }
+        cache.close();
+    }
+
+    public void testDeletesInvalidateSegment() throws Exception {
+        SegmentAggregationCache cache = new SegmentAggregationCache(Settings.EMPTY);
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            writer.addDocument(newDoc("0"));
+            writer.addDocument(newDoc("1"));
+            writer.flush();
+            writer.addDocument(newDoc("2"));
+            DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), shardId);
+            SearchContextAggregations.SegmentResultsCache requestCache = cache.forRequest(
+                shardId,
+                mappingKey,
+                new BytesArray("request"),
+                namedWriteableRegistry,
+                new ShardRequestCache()
+            );
+            for (LeafReaderContext leaf : reader.leaves()) {
+                requestCache.put(leaf, maxResults(leaf.ord));
+            }
+            assertEquals(2, cache.count());
+
+            writer.deleteDocuments(new Term("id", "0"));
+            DirectoryReader newReader = DirectoryReader.openIfChanged(reader, writer);
+            assertNotNull(newReader);
+            reader.close();
+            // the segment with the delete has a new reader, the other one is shared with the previous reader
+            assertEquals(1, cache.count());
+            assertNull(requestCache.get(newReader.leaves().get(0)));
+            assertEquals(1.0, ((Max) requestCache.get(newReader.leaves().get(1)).get("max")).value(), 0d);
+
+            cache.clear(new ShardId("foo", "bar", 2));
+            assertEquals(1, cache.count());
+            cache.clear(shardId);
+            assertEquals(0, cache.count());
+            IOUtils.close(newReader);
+        }
+        cache.close();
+    }
+
+    private static IndexWriter newWriter(Directory dir) throws IOException {
+        return new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE));
+    }
+
+    private static Document newDoc(String id) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.NO));
+        return doc;
+    }
+
+    private static InternalAggregations maxResults(double value) {
+        return InternalAggregations.from(new Max("max", value, DocValueFormat.RAW, Map.of()));
+    }
+}
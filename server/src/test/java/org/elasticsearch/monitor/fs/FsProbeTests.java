@@ -190,6 +190,11 @@ public class FsProbeTests extends ESTestCase {
         assertThat(first.devicesStats[1].previousSectorsWritten, equalTo(-1L));
         assertThat(first.devicesStats[1].currentIOTime, equalTo(1058193L));
         assertThat(first.devicesStats[1].previousIOTime, equalTo(-1L));
+        assertThat(first.devicesStats[1].currentReadTime, equalTo(49312L));
+        assertThat(first.devicesStats[1].previousReadTime, equalTo(-1L));
+        assertThat(first.devicesStats[1].currentWriteTime, equalTo(33730596L));
+        assertThat(first.devicesStats[1].previousWriteTime, equalTo(-1L));
+        assertThat(first.devicesStats[1].readTimeInMillis(), equalTo(-1L));
 
         diskStats.set(
             Arrays.asList(
@@ -232,6 +237,8 @@ public class FsProbeTests extends ESTestCase {
         assertThat(second.devicesStats[1].previousSectorsWritten, equalTo(64126096L));
         assertThat(second.devicesStats[1].currentIOTime, equalTo(1058347L));
         assertThat(second.devicesStats[1].previousIOTime, equalTo(1058193L));
+        assertThat(second.devicesStats[1].readTimeInMillis(), equalTo(57L));
+        assertThat(second.devicesStats[1].writeTimeInMillis(), equalTo(170L));
 
         assertThat(second.totalOperations, equalTo(575L));
         assertThat(second.totalReadOperations, equalTo(261L));
@@ -18,6 +18,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -139,4 +140,40 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertTrue(nodeStats.containsKey("node1"));
         assertFalse(nodeStats.containsKey("node2"));
     }
+
+    public void testShardResponseTimePercentile() {
+        Index index = new Index("test", "_na_");
+        assertThat(collector.getShardResponseTimePercentile(index, 95), equalTo(-1L));
+        for (int i = 1; i < ResponseCollectorService.MIN_SHARD_RESPONSE_TIMES; i++) {
+            collector.addShardResponseTime(index, i);
+        }
+        assertThat(collector.getShardResponseTimePercentile(index, 95), equalTo(-1L));
+        for (int i = ResponseCollectorService.MIN_SHARD_RESPONSE_TIMES; i <= 100; i++) {
+            collector.addShardResponseTime(index, i);
+        }
+        assertThat(collector.getShardResponseTimePercentile(index, 50), equalTo(50L));
+        assertThat(collector.getShardResponseTimePercentile(index, 95), equalTo(95L));
+        assertThat(collector.getShardResponseTimePercentile(new Index("other", "_na_"), 95), equalTo(-1L));
+
+        // only the most recent response times are kept
+        for (int i = 0; i < ResponseCollectorService.SHARD_RESPONSE_TIMES_WINDOW; i++) {
+            collector.addShardResponseTime(index, 1000);
+        }
+        assertThat(collector.getShardResponseTimePercentile(index, 50), equalTo(1000L));
+    }
+
+    public void testShardResponseTimePercentileIsRecomputedPeriodically() {
+        Index index = new Index("test", "_na_");
+        for (int i = 0; i < ResponseCollectorService.MIN_SHARD_RESPONSE_TIMES; i++) {
+            collector.addShardResponseTime(index, 10);
+        }
+        assertThat(collector.getShardResponseTimePercentile(index, 50), equalTo(10L));
+        for (int i = 1; i < ResponseCollectorService.SHARD_RESPONSE_TIMES_RESORT_INTERVAL; i++) {
+            collector.addShardResponseTime(index, 1000);
+        }
+        // not enough new response times to compute the percentiles again
+        assertThat(collector.getShardResponseTimePercentile(index, 99), equalTo(10L));
+        collector.addShardResponseTime(index, 1000);
+        assertThat(collector.getShardResponseTimePercentile(index, 99), equalTo(1000L));
+    }
 }
@@ -189,6 +189,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                 null,
                 randomFrom(SearchService.ResultsType.values()),
                 randomBoolean(),
+                randomBoolean(),
                 randomInt(),
                 MEMORY_ACCOUNTING_BUFFER_SIZE
             );
@@ -232,6 +233,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                     null,
                     randomFrom(SearchService.ResultsType.values()),
                     randomBoolean(),
+                    randomBoolean(),
                     randomInt(),
                     MEMORY_ACCOUNTING_BUFFER_SIZE
 
@@ -316,6 +318,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                     null,
                     randomFrom(SearchService.ResultsType.values()),
                     randomBoolean(),
+                    randomBoolean(),
                     randomInt(),
                     MEMORY_ACCOUNTING_BUFFER_SIZE
                 )
@@ -359,6 +362,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                     null,
                     randomFrom(SearchService.ResultsType.values()),
                     randomBoolean(),
+                    randomBoolean(),
                     randomInt(),
                     MEMORY_ACCOUNTING_BUFFER_SIZE
                 )
@@ -391,6 +395,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                     null,
                     randomFrom(SearchService.ResultsType.values()),
                     randomBoolean(),
+                    randomBoolean(),
                     randomInt(),
                     MEMORY_ACCOUNTING_BUFFER_SIZE
                 )
@@ -463,6 +468,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                 null,
                 randomFrom(SearchService.ResultsType.values()),
                 randomBoolean(),
+                randomBoolean(),
                 randomInt(),
                 MEMORY_ACCOUNTING_BUFFER_SIZE
             );
@@ -837,6 +843,53 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
         }
     }
 
+    public void testIsSegmentPartitioningSupported() {
+        assertTrue(DefaultSearchContext.isSegmentPartitioningSupported(SearchService.ResultsType.QUERY, createParallelRequest()));
+        assertTrue(
+            DefaultSearchContext.isSegmentPartitioningSupported(
+                SearchService.ResultsType.QUERY,
+                createRequest(new SearchRequest().source(new SearchSourceBuilder().size(randomIntBetween(0, 100))))
+            )
+        );
+        for (var resultsType : SearchService.ResultsType.values()) {
+            if (resultsType != SearchService.ResultsType.QUERY) {
+                assertFalse(DefaultSearchContext.isSegmentPartitioningSupported(resultsType, createParallelRequest()));
+            }
+        }
+        assertFalse(
+            DefaultSearchContext.isSegmentPartitioningSupported(
+                SearchService.ResultsType.QUERY,
+                createRequest(new SearchRequest().source(new SearchSourceBuilder().aggregation(new TermsAggregationBuilder("terms"))))
+            )
+        );
+        assertFalse(
+            DefaultSearchContext.isSegmentPartitioningSupported(
+                SearchService.ResultsType.QUERY,
+                createRequest(new SearchRequest().source(new SearchSourceBuilder().terminateAfter(randomIntBetween(1, 100))))
+            )
+        );
+        assertFalse(
+            DefaultSearchContext.isSegmentPartitioningSupported(
+                SearchService.ResultsType.QUERY,
+                createRequest(new SearchRequest().scroll(TimeValue.timeValueMinutes(1)))
+            )
+        );
+    }
+
+    private static ShardSearchRequest createRequest(SearchRequest searchRequest) {
+        return new ShardSearchRequest(
+            OriginalIndices.NONE,
+            searchRequest,
+            new ShardId("index", "uuid", 0),
+            0,
+            1,
+            AliasFilter.EMPTY,
+            1f,
+            System.currentTimeMillis(),
+            null
+        );
+    }
+
     public void testGetFieldCardinalityNoLeaves() throws IOException {
         try (BaseDirectoryWrapper dir = newDirectory()) {
             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig());
@@ -1083,6 +1136,7 @@ public class DefaultSearchContextTests extends MapperServiceTestCase {
                 null,
                 randomFrom(SearchService.ResultsType.values()),
                 randomBoolean(),
+                randomBoolean(),
                 randomInt(),
                 MEMORY_ACCOUNTING_BUFFER_SIZE
             );
@@ -0,0 +1,234 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.elasticsearch.test.InternalAggregationTestCase.emptyReduceContextBuilder;
+
+public class SegmentCachingAggregatorCollectorTests extends ESTestCase {
+
+    public void testReuseCachedSegmentResults() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int segment = 1; segment <= 3; segment++) {
+                    for (int i = 0; i < segment; i++) {
+                        writer.addDocument(new Document());
+                    }
+                    writer.flush();
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertEquals(3, reader.leaves().size());
+                TestCache cache = new TestCache();
+                AtomicInteger created = new AtomicInteger();
+
+                assertEquals(6.0, collect(reader, cache, created, false, ScoreMode.COMPLETE_NO_SCORES), 0d);
+                assertEquals(3, created.get());
+                assertEquals(3, cache.results.size());
+
+                // all segments are served from the cache, only the collector that provides the score mode is created
+                created.set(0);
+                assertEquals(6.0, collect(reader, cache, created, false, ScoreMode.COMPLETE_NO_SCORES), 0d);
+                assertEquals(1, created.get());
+                assertEquals(3, cache.results.size());
+
+                // the only segment that needs collection is collected by the first collector
+                cache.results.remove(1);
+                created.set(0);
+                assertEquals(6.0, collect(reader, cache, created, false, ScoreMode.COMPLETE_NO_SCORES), 0d);
+                assertEquals(1, created.get());
+                assertEquals(3, cache.results.size());
+            }
+        }
+    }
+
+    public void testCollectSmallSegmentsTogether() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int segment = 1; segment <= 4; segment++) {
+                    for (int i = 0; i < segment; i++) {
+                        writer.addDocument(new Document());
+                    }
+                    writer.flush();
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertEquals(4, reader.leaves().size());
+                TestCache cache = new TestCache();
+                AtomicInteger created = new AtomicInteger();
+
+                // the two segments with fewer than 3 documents share a collector and are not cached
+                assertEquals(10.0, collect(reader, cache, created, false, ScoreMode.COMPLETE_NO_SCORES, 3), 0d);
+                assertEquals(3, created.get());
+                assertEquals(Set.of(2, 3), cache.results.keySet());
+                assertEquals(2, cache.gets);
+
+                created.set(0);
+                assertEquals(10.0, collect(reader, cache, created, false, ScoreMode.COMPLETE_NO_SCORES, 3), 0d);
+                assertEquals(1, created.get());
+            }
+        }
+    }
+
+    public void testDoNotCacheLastSegmentOnTimeout() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int segment = 0; segment < 2; segment++) {
+                    writer.addDocument(new Document());
+                    writer.flush();
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                TestCache cache = new TestCache();
+                assertEquals(2.0, collect(reader, cache, new AtomicInteger(), true, ScoreMode.COMPLETE_NO_SCORES), 0d);
+                assertEquals(1, cache.results.size());
+                assertTrue(cache.results.containsKey(0));
+            }
+        }
+    }
+
+    public void testNoSegments() throws IOException {
+        try (Directory dir = newDirectory()) {
+            new IndexWriter(dir, newIndexWriterConfig()).close();
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                TestCache cache = new TestCache();
+                assertEquals(0.0, collect(reader, cache, new AtomicInteger(), false, ScoreMode.COMPLETE_NO_SCORES), 0d);
+                assertEquals(0, cache.results.size());
+            }
+        }
+    }
+
+    public void testDoNotCacheAggregationsThatNeedScores() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int segment = 0; segment < 2; segment++) {
+                    writer.addDocument(new Document());
+                    writer.flush();
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                TestCache cache = new TestCache();
+                AtomicInteger created = new AtomicInteger();
+                assertEquals(2.0, collect(reader, cache, created, false, ScoreMode.COMPLETE), 0d);
+                assertEquals(1, created.get());
+                assertEquals(0, cache.results.size());
+                assertEquals(0, cache.gets);
+            }
+        }
+    }
+
+    private static double collect(
+        DirectoryReader reader,
+        TestCache cache,
+        AtomicInteger created,
+        boolean timeExceeded,
+        ScoreMode scoreMode
+    ) throws IOException {
+        return collect(reader, cache, created, timeExceeded, scoreMode, 0);
+    }
+
+    private static double collect(
+        DirectoryReader reader,
+        TestCache cache,
+        AtomicInteger created,
+        boolean timeExceeded,
+        ScoreMode scoreMode,
+        int minCachedSegmentDocs
+    ) throws IOException {
+        AggregatorCollector collector = SegmentCachingAggregatorCollector.wrap(() -> {
+            created.incrementAndGet();
+            return new CountingCollector(scoreMode);
+        }, cache, () -> emptyReduceContextBuilder().forPartialReduction(), () -> timeExceeded, minCachedSegmentDocs);
+        assertEquals(scoreMode, collector.scoreMode());
+        for (LeafReaderContext leaf : reader.leaves()) {
+            final LeafCollector leafCollector;
+            try {
+                leafCollector = collector.getLeafCollector(leaf);
+            } catch (CollectionTerminatedException e) {
+                continue;
+            }
+            for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                leafCollector.collect(doc);
+            }
+            leafCollector.finish();
+        }
+        collector.doPostCollection();
+        assertEquals(1, collector.internalAggregations.size());
+        return ((Sum) collector.internalAggregations.get(0)).value();
+    }
+
+    private static class TestCache implements SearchContextAggregations.SegmentResultsCache {
+        private final Map<Integer, InternalAggregations> results = new HashMap<>();
+        private int gets;
+
+        @Override
+        public InternalAggregations get(LeafReaderContext leaf) {
+            gets++;
+            return results.get(leaf.ord);
+        }
+
+        @Override
+        public void put(LeafReaderContext leaf, InternalAggregations results) {
+            this.results.put(leaf.ord, results);
+        }
+    }
+
+    private static class CountingCollector extends AggregatorCollector {
+        private final ScoreMode scoreMode;
+        private long count;
+
+        CountingCollector(ScoreMode scoreMode) {
+            super(new Aggregator[0], BucketCollector.NO_OP_BUCKET_COLLECTOR);
+            this.scoreMode = scoreMode;
+        }
+
+        @Override
+        public LeafCollector getLeafCollector(LeafReaderContext context) {
+            return new LeafCollector() {
+                @Override
+                public void setScorer(Scorable scorer) {}
+
+                @Override
+                public void collect(int doc) {
+                    count++;
+                }
+            };
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return scoreMode;
+        }
+
+        @Override
+        public void doPostCollection() {
+            internalAggregations.add(new Sum("count", count, DocValueFormat.RAW, Map.of()));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.fetch;
+
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.transport.BytesRefRecycler;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+
+public class SearchHitsSerializerTests extends ESTestCase {
+
+    public void testHitsOfTheSameDocAreKept() throws IOException {
+        ReleasableBytesReference bytes;
+        RecyclerBytesStreamOutput out = new RecyclerBytesStreamOutput(BytesRefRecycler.NON_RECYCLING_INSTANCE);
+        try (SearchHitsSerializer serializer = new SearchHitsSerializer(out)) {
+            // hits are added in doc id order, those of the same doc in the order they were requested
+            serializer.add(3, SearchHit.unpooled(3, "b"));
+            serializer.add(5, SearchHit.unpooled(5, "a"));
+            serializer.add(5, SearchHit.unpooled(5, "c"));
+            bytes = serializer.build(new int[] { 5, 3, 5, 7 }, new TotalHits(4, TotalHits.Relation.EQUAL_TO), 1.0f);
+        }
+        try (bytes) {
+            SearchHits hits = SearchHits.readFrom(bytes.streamInput(), false);
+            assertThat(Arrays.stream(hits.getHits()).map(SearchHit::getId).toList(), contains("a", "b", "c"));
+        }
+    }
+}
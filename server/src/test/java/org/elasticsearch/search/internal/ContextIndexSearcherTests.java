@@ -36,6 +36,7 @@ import org.apache.lucene.search.ConstantScoreWeight;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.IndexSearcher.LeafReaderContextPartition;
 import org.apache.lucene.search.IndexSearcher.LeafSlice;
 import org.apache.lucene.search.KnnFloatVectorQuery;
 import org.apache.lucene.search.LeafCollector;
@@ -49,6 +50,7 @@ import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.ScorerSupplier;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
 import org.apache.lucene.search.TotalHitCountCollectorManager;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
@@ -70,13 +72,17 @@ import org.elasticsearch.lucene.util.CombinedBitSet;
 import org.elasticsearch.lucene.util.MatchAllBitSet;
 import org.elasticsearch.search.aggregations.BucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.search.profile.query.SegmentPartitionResult;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.IndexSettingsModule;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
@@ -387,6 +393,100 @@ public class ContextIndexSearcherTests extends ESTestCase {
         IOUtils.close(reader, w, dir);
     }
 
+    public void testComputeSlicesWithPartitions() throws IOException {
+        try (Directory dir = newDirectory()) {
+            int numDocs = randomIntBetween(100, 1000);
+            try (IndexWriter w = new IndexWriter(dir, newIndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    w.addDocument(new Document());
+                }
+                w.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                List<LeafReaderContext> contexts = reader.leaves();
+                assertEquals(1, contexts.size());
+                // with at least three threads a slice holds at most a third of the docs, so the segment is split
+                int numThreads = randomIntBetween(3, 16);
+                assertEquals(1, ContextIndexSearcher.computeSlices(contexts, numThreads, 1).length);
+
+                LeafSlice[] slices = ContextIndexSearcher.computeSlices(contexts, numThreads, 1, true);
+                assertThat(slices.length, greaterThanOrEqualTo(2));
+                assertSlices(slices, numDocs, numThreads);
+                for (LeafSlice slice : slices) {
+                    assertEquals(1, slice.partitions.length);
+                }
+                // slices come out of a priority queue in no particular order
+                List<LeafReaderContextPartition> partitions = Arrays.stream(slices)
+                    .map(slice -> slice.partitions[0])
+                    .sorted(Comparator.comparingInt(partition -> partition.minDocId))
+                    .toList();
+                int nextDoc = 0;
+                for (LeafReaderContextPartition partition : partitions) {
+                    assertEquals(nextDoc, partition.minDocId);
+                    nextDoc = partition.maxDocId;
+                }
+                assertEquals(numDocs, nextDoc);
+
+                // segments that are not bigger than a slice are not partitioned
+                assertEquals(1, ContextIndexSearcher.computeSlices(contexts, numThreads, numDocs, true).length);
+            }
+        }
+    }
+
+    public void testPartitionedSearch() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(randomIntBetween(2, 5));
+        try (Directory dir = newDirectory()) {
+            int numDocs = randomIntBetween(100, 1000);
+            int numMatches = 0;
+            try (IndexWriter w = new IndexWriter(dir, newIndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    if (randomBoolean()) {
+                        doc.add(new StringField("field", "value", Field.Store.NO));
+                        numMatches++;
+                    }
+                    w.addDocument(doc);
+                }
+                w.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                ContextIndexSearcher searcher = new ContextIndexSearcher(
+                    reader,
+                    IndexSearcher.getDefaultSimilarity(),
+                    IndexSearcher.getDefaultQueryCache(),
+                    IndexSearcher.getDefaultQueryCachingPolicy(),
+                    randomBoolean(),
+                    executor,
+                    randomIntBetween(3, 10),
+                    1,
+                    true
+                );
+                QueryProfiler profiler = new QueryProfiler();
+                searcher.setProfiler(profiler);
+                int numSlices = searcher.getSlices().length;
+                assertThat(numSlices, greaterThanOrEqualTo(2));
+
+                Query query = new TermQuery(new Term("field", "value"));
+                TopDocs topDocs = searcher.search(query, new TopScoreDocCollectorManager(numDocs, Integer.MAX_VALUE));
+                assertEquals(numMatches, topDocs.totalHits.value());
+                assertEquals(numMatches, topDocs.scoreDocs.length);
+
+                List<SegmentPartitionResult> partitions = profiler.getSegmentPartitions();
+                assertEquals(numSlices, partitions.size());
+                int nextDoc = 0;
+                for (SegmentPartitionResult partition : partitions) {
+                    assertEquals(0, partition.segment());
+                    assertEquals(nextDoc, partition.minDocId());
+                    assertThat(partition.time(), greaterThanOrEqualTo(0L));
+                    nextDoc = partition.maxDocId();
+                }
+                assertEquals(numDocs, nextDoc);
+            }
+        } finally {
+            terminate(executor);
+        }
+    }
+
     private static void assertSlices(LeafSlice[] slices, int numDocs, int numThreads) {
         // checks that the number of slices is not bigger than the number of available threads
         // and each slice contains at least 10% of the data (which means the max number of slices is 10)
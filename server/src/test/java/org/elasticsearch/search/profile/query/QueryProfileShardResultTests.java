@@ -37,7 +37,12 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
         }
 
         Long vectorOperationsCount = randomBoolean() ? null : randomNonNegativeLong();
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount);
+        int numPartitions = randomBoolean() ? 0 : randomIntBetween(2, 5);
+        List<SegmentPartitionResult> segmentPartitions = new ArrayList<>(numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+            segmentPartitions.add(new SegmentPartitionResult(0, i * 1000, (i + 1) * 1000, randomNonNegativeLong()));
+        }
+        return new QueryProfileShardResult(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, segmentPartitions);
     }
 
     @Override
@@ -0,0 +1,100 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.searchafter;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.tests.search.QueryUtils;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class SearchAfterIndexSortQueryTests extends ESTestCase {
+
+    public void testEqualsAndHashCode() {
+        SortField sortField = new SortedNumericSortField("field", SortField.Type.LONG);
+        SearchAfterIndexSortQuery query1 = new SearchAfterIndexSortQuery(sortField, 10L);
+        SearchAfterIndexSortQuery query2 = new SearchAfterIndexSortQuery(sortField, 10L);
+        SearchAfterIndexSortQuery query3 = new SearchAfterIndexSortQuery(sortField, 11L);
+        SortField reverseSortField = new SortedNumericSortField("field", SortField.Type.LONG, true);
+        SearchAfterIndexSortQuery query4 = new SearchAfterIndexSortQuery(reverseSortField, 10L);
+
+        QueryUtils.checkEqual(query1, query2);
+        QueryUtils.checkUnequal(query1, query3);
+        QueryUtils.checkUnequal(query1, query4);
+    }
+
+    public void testForSearchAfter() {
+        FieldDoc after = new FieldDoc(0, Float.NaN, new Object[] { 10L });
+        assertNotNull(SearchAfterIndexSortQuery.forSearchAfter(new Sort(new SortedNumericSortField("field", SortField.Type.LONG)), after));
+        assertNull(SearchAfterIndexSortQuery.forSearchAfter(new Sort(new SortField("field", SortField.Type.STRING)), after));
+        FieldDoc missingAfter = new FieldDoc(0, Float.NaN, new Object[] { null });
+        assertNull(
+            SearchAfterIndexSortQuery.forSearchAfter(new Sort(new SortedNumericSortField("field", SortField.Type.LONG)), missingAfter)
+        );
+    }
+
+    public void testSkipDocumentsBeforeSearchAfter() throws Exception {
+        boolean reverse = randomBoolean();
+        SortField sortField = new SortedNumericSortField("field", SortField.Type.LONG, reverse);
+        sortField.setMissingValue(reverse ? Long.MIN_VALUE : Long.MAX_VALUE);
+        assertSearchAfter(sortField, new IndexWriterConfig().setIndexSort(new Sort(sortField)));
+    }
+
+    public void testMatchAllDocumentsOfUnsortedSegments() throws Exception {
+        SortField sortField = new SortedNumericSortField("field", SortField.Type.LONG);
+        sortField.setMissingValue(Long.MAX_VALUE);
+        assertSearchAfter(sortField, new IndexWriterConfig());
+    }
+
+    private void assertSearchAfter(SortField sortField, IndexWriterConfig config) throws Exception {
+        boolean sorted = config.getIndexSort() != null;
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir, config)) {
+            int numDocs = randomIntBetween(100, 500);
+            long[] values = new long[numDocs];
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                if (randomBoolean() && randomBoolean()) {
+                    // documents without a value sort last
+                    values[i] = sortField.getReverse() ? Long.MIN_VALUE : Long.MAX_VALUE;
+                } else {
+                    values[i] = randomLongBetween(-100, 100);
+                    doc.add(new SortedNumericDocValuesField("field", values[i]));
+                }
+                w.addDocument(doc);
+                if (rarely()) {
+                    w.commit();
+                }
+            }
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader, false);
+                for (int iter = 0; iter < 10; iter++) {
+                    long after = randomLongBetween(-110, 110);
+                    int expected = 0;
+                    for (long value : values) {
+                        if (sorted == false || (sortField.getReverse() ? value <= after : value >= after)) {
+                            expected++;
+                        }
+                    }
+                    assertThat(searcher.count(new SearchAfterIndexSortQuery(sortField, after)), equalTo(expected));
+                }
+            }
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.elasticsearch.search.profile.SearchProfileShardResult;
 import org.elasticsearch.search.profile.aggregation.AggregationProfileShardResult;
 import org.elasticsearch.search.profile.query.CollectorResult;
 import org.elasticsearch.search.profile.query.QueryProfileShardResult;
+import org.elasticsearch.search.profile.query.SegmentPartitionResult;
 import org.elasticsearch.search.suggest.Suggest;
 import org.elasticsearch.test.rest.ESRestTestCase;
 import org.elasticsearch.transport.RemoteClusterAware;
@@ -664,6 +665,7 @@ public enum SearchResponseUtils {
         long rewriteTime = 0;
         Long vectorOperationsCount = null;
         CollectorResult collector = null;
+        List<SegmentPartitionResult> segmentPartitions = new ArrayList<>();
         while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
             if (token == XContentParser.Token.FIELD_NAME) {
                 currentFieldName = parser.currentName();
@@ -684,6 +686,10 @@ public enum SearchResponseUtils {
                     while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
                         collector = parseCollectorResult(parser);
                     }
+                } else if (QueryProfileShardResult.SEGMENT_PARTITIONS.equals(currentFieldName)) {
+                    while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                        segmentPartitions.add(parseSegmentPartitionResult(parser));
+                    }
                 } else {
                     parser.skipChildren();
                 }
@@ -691,7 +697,7 @@ public enum SearchResponseUtils {
                 parser.skipChildren();
             }
         }
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount);
+        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount, segmentPartitions);
     }
 
     public static SearchHits parseSearchHits(XContentParser parser) throws IOException {
@@ -1075,6 +1081,37 @@ public enum SearchResponseUtils {
         return new CollectorResult(name, reason, time, children);
     }
 
+    public static SegmentPartitionResult parseSegmentPartitionResult(XContentParser parser) throws IOException {
+        XContentParser.Token token = parser.currentToken();
+        ensureExpectedToken(XContentParser.Token.START_OBJECT, token, parser);
+        String currentFieldName = null;
+        int segment = -1, minDocId = -1, maxDocId = -1;
+        long time = -1;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if (token.isValue()) {
+                if (SegmentPartitionResult.SEGMENT.match(currentFieldName, parser.getDeprecationHandler())) {
+                    segment = parser.intValue();
+                } else if (SegmentPartitionResult.MIN_DOC.match(currentFieldName, parser.getDeprecationHandler())) {
+                    minDocId = parser.intValue();
+                } else if (SegmentPartitionResult.MAX_DOC.match(currentFieldName, parser.getDeprecationHandler())) {
+                    maxDocId = parser.intValue();
+                } else if (CollectorResult.TIME.match(currentFieldName, parser.getDeprecationHandler())) {
+                    // we need to consume this value, but we use the raw nanosecond value
+                    parser.text();
+                } else if (CollectorResult.TIME_NANOS.match(currentFieldName, parser.getDeprecationHandler())) {
+                    time = parser.longValue();
+                } else {
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new SegmentPartitionResult(segment, minDocId, maxDocId, time);
+    }
+
     public static HighlightField parseHighlightField(XContentParser parser) throws IOException {
         ensureExpectedToken(XContentParser.Token.FIELD_NAME, parser.currentToken(), parser);
         String fieldName = parser.currentName();
@@ -11,6 +11,7 @@ import org.elasticsearch.compute.Describable;
 import org.elasticsearch.compute.operator.DriverContext;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Builds aggregation implementations, closing over any state required to do so.
@@ -45,6 +46,13 @@ public interface AggregatorFunctionSupplier extends Describable {
                 return new GroupingAggregator(groupingAggregator(driverContext, channels), mode);
             }
 
+            @Override
+            public GroupingAggregator.Factory intermediateMergeFactory(int firstChannel) {
+                AggregatorMode mergeMode = mode.isOutputPartial() ? AggregatorMode.INTERMEDIATE : AggregatorMode.FINAL;
+                int channelCount = groupingIntermediateStateDesc().size();
+                return groupingAggregatorFactory(mergeMode, IntStream.range(firstChannel, firstChannel + channelCount).boxed().toList());
+            }
+
             @Override
             public String describe() {
                 return AggregatorFunctionSupplier.this.describe();
@@ -15,6 +15,7 @@ import org.elasticsearch.compute.data.IntBlock;
 import org.elasticsearch.compute.data.IntVector;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 
 import java.util.function.Function;
@@ -24,7 +25,18 @@ public class GroupingAggregator implements Releasable {
 
     private final AggregatorMode mode;
 
-    public interface Factory extends Function<DriverContext, GroupingAggregator>, Describable {}
+    public interface Factory extends Function<DriverContext, GroupingAggregator>, Describable {
+        /**
+         * Build a factory for aggregators that merge the intermediate state of the aggregators
+         * built by this factory, read from the channels starting at {@code firstChannel}, and
+         * that output what the aggregators built by this factory output. Returns {@code null}
+         * if the intermediate state can't be merged this way.
+         */
+        @Nullable
+        default Factory intermediateMergeFactory(int firstChannel) {
+            return null;
+        }
+    }
 
     public GroupingAggregator(GroupingAggregatorFunction aggregatorFunction, AggregatorMode mode) {
         this.aggregatorFunction = aggregatorFunction;
@@ -36,6 +48,11 @@ public class GroupingAggregator implements Releasable {
         return mode.isOutputPartial() ? aggregatorFunction.intermediateBlockCount() : 1;
     }
 
+    /** The number of Blocks of the intermediate state. */
+    public int intermediateBlockCount() {
+        return aggregatorFunction.intermediateBlockCount();
+    }
+
     /**
      * Prepare to process a single page of results.
      */
@@ -90,6 +107,15 @@ public class GroupingAggregator implements Releasable {
         }
     }
 
+    /**
+     * Build the intermediate state of this aggregation, whatever its mode.
+     * @param selected the groupIds that have been selected to be included in
+     *                 the results. Always ascending.
+     */
+    public void evaluateIntermediate(Block[] blocks, int offset, IntVector selected) {
+        aggregatorFunction.evaluateIntermediate(blocks, offset, selected);
+    }
+
     @Override
     public void close() {
         aggregatorFunction.close();
@@ -76,6 +76,13 @@ public class BlockFactory {
         return new BlockFactory(childBreaker, bigArrays, ByteSizeValue.ofBytes(maxPrimitiveArrayBytes), this);
     }
 
+    /**
+     * A factory that builds blocks like this one but allocates big arrays with {@code newBigArrays}.
+     */
+    public BlockFactory withBigArrays(BigArrays newBigArrays) {
+        return new BlockFactory(breaker, newBigArrays, ByteSizeValue.ofBytes(maxPrimitiveArrayBytes), parent);
+    }
+
     /**
      * Adjust the circuit breaker with the given delta, if the delta is negative, the breaker will
      * be adjusted without tripping.
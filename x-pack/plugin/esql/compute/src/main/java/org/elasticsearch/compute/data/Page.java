@@ -8,9 +8,11 @@
 package org.elasticsearch.compute.data;
 
 import org.apache.lucene.util.Accountable;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 
@@ -124,6 +126,25 @@ public final class Page implements Writeable, Releasable {
         }
     }
 
+    /**
+     * Writes this page like {@link #writeTo}, but with the vectors of its long and keyword blocks written
+     * with the compact {@link VectorEncodings} when they are smaller, if the receiver can read them.
+     * @param stats counts the bytes written with each encoding, if not null
+     */
+    public void writeEncodedTo(StreamOutput out, @Nullable VectorEncodingStats stats) throws IOException {
+        if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_VECTOR_ENCODINGS) == false) {
+            writeTo(out);
+            return;
+        }
+        out.writeVInt(positionCount);
+        out.writeVInt(getBlockCount());
+        for (Block block : blocks) {
+            if (VectorEncodings.tryWriteEncoded(block, out, stats) == false) {
+                Block.writeTypedBlock(block, out);
+            }
+        }
+    }
+
     private static int determinePositionCount(Block... blocks) {
         Objects.requireNonNull(blocks, "blocks is null");
         if (blocks.length == 0) {
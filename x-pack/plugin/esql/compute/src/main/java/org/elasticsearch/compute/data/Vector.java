@@ -125,4 +125,12 @@ public interface Vector extends Accountable, RefCounted, Releasable {
     byte SERIALIZE_VECTOR_ARRAY = 2;
     byte SERIALIZE_VECTOR_BIG_ARRAY = 3;
     byte SERIALIZE_VECTOR_ORDINAL = 4;
+    /**
+     * Bit packed differences to the minimum value, see {@link VectorEncodings}.
+     */
+    byte SERIALIZE_VECTOR_PACKED = 5;
+    /**
+     * The value and the length of each run of equal values, see {@link VectorEncodings}.
+     */
+    byte SERIALIZE_VECTOR_RUNS = 6;
 }
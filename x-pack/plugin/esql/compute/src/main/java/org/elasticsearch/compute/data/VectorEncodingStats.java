@@ -0,0 +1,56 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes of the vectors written with each of the {@link VectorEncodings} by {@link Page#writeEncodedTo}.
+ * Only collected when profiling.
+ */
+public final class VectorEncodingStats {
+    static final String PACKED = "packed";
+    static final String RUNS = "runs";
+    static final String DICTIONARY = "dictionary";
+
+    private final LongAdder packed = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder dictionary = new LongAdder();
+
+    /**
+     * The number of bytes written with each encoding, by the name of the encoding. Encodings that were never used are left out.
+     */
+    public Map<String, Long> encodedBytes() {
+        Map<String, Long> encodedBytes = new TreeMap<>();
+        add(encodedBytes, PACKED, packed);
+        add(encodedBytes, RUNS, runs);
+        add(encodedBytes, DICTIONARY, dictionary);
+        return encodedBytes;
+    }
+
+    private static void add(Map<String, Long> encodedBytes, String encoding, LongAdder bytes) {
+        long sum = bytes.sum();
+        if (sum > 0) {
+            encodedBytes.put(encoding, sum);
+        }
+    }
+
+    /**
+     * Records the bytes of a vector written with an encoding.
+     */
+    void add(String encoding, long bytes) {
+        switch (encoding) {
+            case PACKED -> packed.add(bytes);
+            case RUNS -> runs.add(bytes);
+            case DICTIONARY -> dictionary.add(bytes);
+            default -> throw new IllegalArgumentException("unknown encoding [" + encoding + "]");
+        }
+    }
+}
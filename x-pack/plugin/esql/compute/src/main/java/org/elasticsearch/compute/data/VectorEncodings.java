@@ -0,0 +1,301 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Compact wire encodings for vectors, used instead of writing their raw values when they are
+ * expected to be noticeably smaller. They are only written by {@link Page#writeEncodedTo}, when
+ * the {@code vector_encodings} pragma enables them, and only to nodes on or after
+ * {@link org.elasticsearch.TransportVersions#ESQL_VECTOR_ENCODINGS}.
+ * <ul>
+ *     <li>{@link LongVector}s are written as their minimum followed by the difference of each value
+ *     to it, bit packed with as many bits as the largest difference needs (frame of reference).</li>
+ *     <li>{@link LongVector}s made of long runs of the same value, like sorted or grouped keys, are
+ *     written as the value and the length of each run instead, if that is smaller.</li>
+ *     <li>{@link BytesRefVector}s with many repeated values are written as an
+ *     {@link OrdinalBytesRefVector}: the ordinal of each value in a dictionary of the distinct values.
+ *     They are read back as an {@link OrdinalBytesRefVector} too.</li>
+ * </ul>
+ * Constant vectors are already written as a single value. The size of each encoding is computed
+ * before writing it, so it can be counted in {@link VectorEncodingStats} without wrapping the output.
+ */
+final class VectorEncodings {
+    /**
+     * Below this number of positions the encodings don't save enough to be worth computing.
+     */
+    static final int MIN_POSITIONS = 16;
+    /**
+     * Longs aren't bit packed if their differences need more bits than this.
+     */
+    static final int MAX_PACKED_BITS = 48;
+
+    private VectorEncodings() {}
+
+    /**
+     * Writes a block like {@link Block#writeTypedBlock} would, but with its vector encoded, if it is a
+     * {@link LongBlock} or a {@link BytesRefBlock} backed by a vector and an encoding saves space.
+     * Otherwise writes nothing and returns {@code false}.
+     * @param stats counts the bytes written with each encoding, if not null
+     */
+    static boolean tryWriteEncoded(Block block, StreamOutput out, @Nullable VectorEncodingStats stats) throws IOException {
+        if (block.getPositionCount() < MIN_POSITIONS) {
+            return false;
+        }
+        if (block instanceof LongBlock longBlock) {
+            LongVector vector = longBlock.asVector();
+            return vector != null && vector.isConstant() == false && tryWriteEncoded(block, vector, out, stats);
+        }
+        if (block instanceof BytesRefBlock bytesRefBlock) {
+            return bytesRefBlock.asVector() instanceof BytesRefArrayVector vector && tryWriteDictionary(block, vector, out, stats);
+        }
+        return false;
+    }
+
+    /**
+     * Writes the header of a block backed by a vector, in the format of {@link Block#writeTypedBlock}.
+     */
+    private static void writeVectorBlockHeader(Block block, StreamOutput out) throws IOException {
+        block.elementType().writeTo(out);
+        out.writeByte(Block.SERIALIZE_BLOCK_VECTOR);
+        out.writeVInt(block.getPositionCount());
+    }
+
+    /**
+     * Writes a {@link LongVector} as runs, preceded by {@link Vector#SERIALIZE_VECTOR_RUNS}, or bit packed,
+     * preceded by {@link Vector#SERIALIZE_VECTOR_PACKED}, whichever is smaller, if that saves space.
+     */
+    private static boolean tryWriteEncoded(Block block, LongVector vector, StreamOutput out, @Nullable VectorEncodingStats stats)
+        throws IOException {
+        int positions = vector.getPositionCount();
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int runs = 0;
+        long runBytes = 0;
+        int runStart = 0;
+        for (int i = 0; i < positions; i++) {
+            long v = vector.getLong(i);
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            if (i + 1 == positions || vector.getLong(i + 1) != v) {
+                runs++;
+                runBytes += zLongSize(v) + vIntSize(i + 1 - runStart);
+                runStart = i + 1;
+            }
+        }
+        // max - min may overflow a signed long but is always correct as an unsigned one
+        int bits = 64 - Long.numberOfLeadingZeros(max - min);
+        long packedBytes = bits > MAX_PACKED_BITS
+            ? Long.MAX_VALUE
+            : 1 + zLongSize(min) + 1 + Long.BYTES * (((long) positions * bits + Long.SIZE - 1) / Long.SIZE);
+        runBytes += 1 + vIntSize(runs);
+        long rawBytes = 1 + (long) Long.BYTES * positions;
+        if (runBytes < packedBytes && runBytes < rawBytes) {
+            writeVectorBlockHeader(block, out);
+            writeRuns(vector, runs, out);
+            if (stats != null) {
+                stats.add(VectorEncodingStats.RUNS, runBytes);
+            }
+            return true;
+        }
+        if (packedBytes >= rawBytes) {
+            return false;
+        }
+        writeVectorBlockHeader(block, out);
+        writePacked(vector, min, bits, out);
+        if (stats != null) {
+            stats.add(VectorEncodingStats.PACKED, packedBytes);
+        }
+        return true;
+    }
+
+    private static void writeRuns(LongVector vector, int runs, StreamOutput out) throws IOException {
+        out.writeByte(Vector.SERIALIZE_VECTOR_RUNS);
+        out.writeVInt(runs);
+        int positions = vector.getPositionCount();
+        int runStart = 0;
+        for (int i = 0; i < positions; i++) {
+            long v = vector.getLong(i);
+            if (i + 1 == positions || vector.getLong(i + 1) != v) {
+                out.writeZLong(v);
+                out.writeVInt(i + 1 - runStart);
+                runStart = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Reads a {@link LongVector} written as runs by {@link #tryWriteEncoded}.
+     */
+    static LongVector readRuns(int positions, StreamInput in, BlockFactory blockFactory) throws IOException {
+        int runs = in.readVInt();
+        if (runs == 1) {
+            long value = in.readZLong();
+            checkRunLength(in.readVInt(), positions);
+            return blockFactory.newConstantLongVector(value, positions);
+        }
+        try (var builder = blockFactory.newLongVectorFixedBuilder(positions)) {
+            int position = 0;
+            for (int r = 0; r < runs; r++) {
+                long value = in.readZLong();
+                int length = checkRunLength(in.readVInt(), positions - position);
+                for (int i = 0; i < length; i++) {
+                    builder.appendLong(position++, value);
+                }
+            }
+            if (position != positions) {
+                throw new IllegalStateException("runs cover [" + position + "] positions but expected [" + positions + "]");
+            }
+            return builder.build();
+        }
+    }
+
+    private static int checkRunLength(int length, int remaining) {
+        if (length <= 0 || length > remaining) {
+            throw new IllegalStateException("invalid run length [" + length + "], [" + remaining + "] positions remaining");
+        }
+        return length;
+    }
+
+    private static void writePacked(LongVector vector, long min, int bits, StreamOutput out) throws IOException {
+        int positions = vector.getPositionCount();
+        out.writeByte(Vector.SERIALIZE_VECTOR_PACKED);
+        out.writeZLong(min);
+        out.writeByte((byte) bits);
+        if (bits == 0) {
+            return;
+        }
+        long word = 0;
+        int used = 0;
+        for (int i = 0; i < positions; i++) {
+            long delta = vector.getLong(i) - min;
+            word |= delta << used;
+            used += bits;
+            if (used >= Long.SIZE) {
+                out.writeLong(word);
+                used -= Long.SIZE;
+                word = used == 0 ? 0 : delta >>> (bits - used);
+            }
+        }
+        if (used > 0) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads a {@link LongVector} written bit packed by {@link #tryWriteEncoded}.
+     */
+    static LongVector readPacked(int positions, StreamInput in, BlockFactory blockFactory) throws IOException {
+        long min = in.readZLong();
+        int bits = in.readByte();
+        if (bits < 0 || bits > MAX_PACKED_BITS) {
+            throw new IllegalStateException("invalid bits per value [" + bits + "]");
+        }
+        if (bits == 0) {
+            return blockFactory.newConstantLongVector(min, positions);
+        }
+        long mask = (1L << bits) - 1;
+        try (var builder = blockFactory.newLongVectorFixedBuilder(positions)) {
+            long word = 0;
+            int available = 0;
+            for (int i = 0; i < positions; i++) {
+                long delta;
+                if (available >= bits) {
+                    delta = word & mask;
+                    word >>>= bits;
+                    available -= bits;
+                } else {
+                    long next = in.readLong();
+                    delta = (word | (next << available)) & mask;
+                    word = next >>> (bits - available);
+                    available = Long.SIZE - (bits - available);
+                }
+                builder.appendLong(i, min + delta);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Writes a {@link BytesRefVector} as an {@link OrdinalBytesRefVector}, preceded by
+     * {@link Vector#SERIALIZE_VECTOR_ORDINAL}, if it has few enough distinct values for that to save space.
+     * The dictionary is only needed while writing, so it isn't accounted in the circuit breaker.
+     */
+    private static boolean tryWriteDictionary(Block block, BytesRefVector vector, StreamOutput out, @Nullable VectorEncodingStats stats)
+        throws IOException {
+        int positions = vector.getPositionCount();
+        int[] ordinals = new int[positions];
+        try (BytesRefHash dictionary = new BytesRefHash(Math.min(positions, 1024), BigArrays.NON_RECYCLING_INSTANCE)) {
+            BytesRef scratch = new BytesRef();
+            long rawBytes = 1;
+            long dictionaryBytes = 0;
+            for (int i = 0; i < positions; i++) {
+                BytesRef v = vector.getBytesRef(i, scratch);
+                long valueBytes = vIntSize(v.length) + v.length;
+                rawBytes += valueBytes;
+                long ord = dictionary.add(v);
+                if (ord < 0) {
+                    ord = -1 - ord;
+                } else {
+                    dictionaryBytes += valueBytes;
+                    if (OrdinalBytesRefBlock.isDense(positions, dictionary.size()) == false) {
+                        return false;
+                    }
+                }
+                ordinals[i] = Math.toIntExact(ord);
+            }
+            int dictionarySize = Math.toIntExact(dictionary.size());
+            long encodedBytes = 1 + vIntSize(positions) + 1 + (long) Integer.BYTES * positions + vIntSize(dictionarySize) + 1
+                + dictionaryBytes;
+            if (encodedBytes >= rawBytes) {
+                return false;
+            }
+            writeVectorBlockHeader(block, out);
+            out.writeByte(Vector.SERIALIZE_VECTOR_ORDINAL);
+            // the ordinals, in the format of IntVector#writeTo
+            out.writeVInt(positions);
+            out.writeByte(Vector.SERIALIZE_VECTOR_VALUES);
+            for (int ord : ordinals) {
+                out.writeInt(ord);
+            }
+            // the dictionary, in the format of BytesRefVector#writeTo
+            out.writeVInt(dictionarySize);
+            out.writeByte(Vector.SERIALIZE_VECTOR_VALUES);
+            for (int ord = 0; ord < dictionarySize; ord++) {
+                out.writeBytesRef(dictionary.get(ord, scratch));
+            }
+            if (stats != null) {
+                stats.add(VectorEncodingStats.DICTIONARY, encodedBytes);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The number of bytes {@link StreamOutput#writeVInt} writes for a non negative value.
+     */
+    private static int vIntSize(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    /**
+     * The number of bytes {@link StreamOutput#writeZLong} writes.
+     */
+    private static int zLongSize(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        return (70 - Long.numberOfLeadingZeros(zigZag | 1)) / 7;
+    }
+}
@@ -7,12 +7,16 @@
 
 package org.elasticsearch.compute.operator;
 
+import com.carrotsearch.hppc.BitMixer;
+
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.compute.Describable;
 import org.elasticsearch.compute.aggregation.AggregatorMode;
 import org.elasticsearch.compute.aggregation.GroupingAggregator;
@@ -20,10 +24,19 @@ import org.elasticsearch.compute.aggregation.GroupingAggregatorEvaluationContext
 import org.elasticsearch.compute.aggregation.GroupingAggregatorFunction;
 import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
 import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BooleanBlock;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.DoubleBlock;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.FloatBlock;
 import org.elasticsearch.compute.data.IntArrayBlock;
 import org.elasticsearch.compute.data.IntBigArrayBlock;
+import org.elasticsearch.compute.data.IntBlock;
 import org.elasticsearch.compute.data.IntVector;
+import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.core.ReleasableIterator;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.analysis.AnalysisRegistry;
@@ -32,22 +45,42 @@ import org.elasticsearch.xcontent.XContentBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
 
 public class HashAggregationOperator implements Operator {
 
+    /**
+     * Builds {@link HashAggregationOperator}s.
+     * @param spillThreshold fraction of the limit of the circuit breaker above which the memory of the groups
+     *                       of an operator is spilled to disk, {@code 0} to never spill
+     */
     public record HashAggregationOperatorFactory(
         List<BlockHash.GroupSpec> groups,
         AggregatorMode aggregatorMode,
         List<GroupingAggregator.Factory> aggregators,
         int maxPageSize,
-        AnalysisRegistry analysisRegistry
+        AnalysisRegistry analysisRegistry,
+        double spillThreshold
     ) implements OperatorFactory {
+        public HashAggregationOperatorFactory(
+            List<BlockHash.GroupSpec> groups,
+            AggregatorMode aggregatorMode,
+            List<GroupingAggregator.Factory> aggregators,
+            int maxPageSize,
+            AnalysisRegistry analysisRegistry
+        ) {
+            this(groups, aggregatorMode, aggregators, maxPageSize, analysisRegistry, 0);
+        }
+
         @Override
         public Operator get(DriverContext driverContext) {
             if (groups.stream().anyMatch(BlockHash.GroupSpec::isCategorize)) {
@@ -63,9 +96,23 @@ public class HashAggregationOperator implements Operator {
                     driverContext
                 );
             }
+            // the groups are allocated with tracked big arrays so the operator knows how much memory they use
+            OperatorMemoryTracker memory = spillThreshold > 0 ? OperatorMemoryTracker.track(driverContext) : null;
+            DriverContext groupsContext = memory == null ? driverContext : memory.driverContext();
+            BlockFactory groupsBlockFactory = groupsContext.blockFactory();
+            // spilled groups are read back with their keys in the first channels
+            List<BlockHash.GroupSpec> spilledGroups = new ArrayList<>(groups.size());
+            for (int i = 0; i < groups.size(); i++) {
+                spilledGroups.add(new BlockHash.GroupSpec(i, groups.get(i).elementType()));
+            }
             return new HashAggregationOperator(
                 aggregators,
-                () -> BlockHash.build(groups, driverContext.blockFactory(), maxPageSize, false),
+                () -> BlockHash.build(groups, groupsBlockFactory, maxPageSize, false),
+                spillThreshold,
+                () -> BlockHash.build(spilledGroups, groupsBlockFactory, maxPageSize, false),
+                maxPageSize,
+                memory == null ? () -> 0 : memory::usedBytes,
+                groupsContext,
                 driverContext
             );
         }
@@ -80,14 +127,62 @@ public class HashAggregationOperator implements Operator {
         }
     }
 
+    /**
+     * Number of partitions the groups are spilled to.
+     */
+    static final int SPILL_PARTITIONS = 16;
+    /**
+     * Fraction of the spill threshold the memory of the groups must have grown by since they were last spilled
+     * before they are spilled again. Without it groups whose empty hash and states alone are close to the
+     * threshold would be spilled in tiny runs after every page.
+     */
+    static final double MIN_SPILL_RUN = 0.5;
+
+    private static final Set<ElementType> SPILLABLE_KEYS = EnumSet.of(
+        ElementType.BOOLEAN,
+        ElementType.INT,
+        ElementType.LONG,
+        ElementType.FLOAT,
+        ElementType.DOUBLE,
+        ElementType.BYTES_REF,
+        ElementType.NULL
+    );
+
     private boolean finished;
     private Page output;
 
-    private final BlockHash blockHash;
+    private final Supplier<BlockHash> blockHashSupplier;
+    private BlockHash blockHash;
 
-    private final List<GroupingAggregator> aggregators;
+    private final List<GroupingAggregator.Factory> aggregatorFactories;
+    private List<GroupingAggregator> aggregators;
 
     protected final DriverContext driverContext;
+    /**
+     * The context the aggregation states of the groups are allocated with.
+     */
+    private final DriverContext groupsContext;
+
+    private double spillThreshold;
+    private final Supplier<BlockHash> spilledBlockHashSupplier;
+    private final int spillBatchSize;
+    private final LongSupplier usedBytes;
+    /**
+     * The memory used by the groups when they were last started over, {@code 0} until they are first spilled.
+     */
+    private long usedBytesAfterSpill;
+    /**
+     * Factories of the aggregators that merge the spilled intermediate states, built when groups are first spilled.
+     */
+    private List<GroupingAggregator.Factory> spilledAggregatorFactories;
+    /**
+     * Files the groups are spilled to, partitioned by the hash of their keys. {@code null} until groups are spilled.
+     */
+    private SpillFile[] spillFiles;
+    /**
+     * The next partition to merge and emit once all input has been received.
+     */
+    private int nextSpilledPartition;
 
     /**
      * Nanoseconds this operator has spent hashing grouping keys.
@@ -114,20 +209,57 @@ public class HashAggregationOperator implements Operator {
      * Total nanos for emitting the output
      */
     protected long emitNanos;
+    /**
+     * Count of bytes of the groups this operator has spilled to disk.
+     */
+    private long spilledBytes;
+    /**
+     * Count of partitions this operator has spilled groups to.
+     */
+    private int spilledPartitions;
+
+    public HashAggregationOperator(
+        List<GroupingAggregator.Factory> aggregators,
+        Supplier<BlockHash> blockHash,
+        DriverContext driverContext
+    ) {
+        this(aggregators, blockHash, 0, null, 0, () -> 0, driverContext, driverContext);
+    }
 
+    /**
+     * Build an operator that spills its groups to disk when the memory they use, as reported by {@code usedBytes},
+     * goes above {@code spillThreshold} of the limit of the circuit breaker and grew by at least {@code MIN_SPILL_RUN}
+     * of that since they were last spilled. The groups are spilled with their intermediate state to files that
+     * are partitioned by the hash of the keys of the groups. Once all input has been received, partitions are
+     * read back one at a time, with keys in their first channels, and their groups are merged into hashes built
+     * by {@code spilledBlockHash}. The aggregation states of the groups are allocated with {@code groupsContext}, a
+     * view of {@code driverContext} whose big arrays are tracked for {@code usedBytes}, or {@code driverContext} itself.
+     */
     @SuppressWarnings("this-escape")
     public HashAggregationOperator(
         List<GroupingAggregator.Factory> aggregators,
         Supplier<BlockHash> blockHash,
+        double spillThreshold,
+        Supplier<BlockHash> spilledBlockHash,
+        int spillBatchSize,
+        LongSupplier usedBytes,
+        DriverContext groupsContext,
         DriverContext driverContext
     ) {
+        this.blockHashSupplier = blockHash;
+        this.aggregatorFactories = aggregators;
         this.aggregators = new ArrayList<>(aggregators.size());
         this.driverContext = driverContext;
+        this.groupsContext = groupsContext;
+        this.spillThreshold = spillThreshold;
+        this.spilledBlockHashSupplier = spilledBlockHash;
+        this.spillBatchSize = spillBatchSize;
+        this.usedBytes = usedBytes;
         boolean success = false;
         try {
             this.blockHash = blockHash.get();
             for (GroupingAggregator.Factory a : aggregators) {
-                this.aggregators.add(a.apply(driverContext));
+                this.aggregators.add(a.apply(groupsContext));
             }
             success = true;
         } finally {
@@ -208,10 +340,186 @@ public class HashAggregationOperator implements Operator {
             pagesProcessed++;
             rowsReceived += page.getPositionCount();
         }
+        if (shouldSpill()) {
+            spill();
+        }
+    }
+
+    private boolean shouldSpill() {
+        if (spillThreshold <= 0) {
+            return false;
+        }
+        long limit = driverContext.breaker().getLimit();
+        if (limit <= 0) {
+            return false;
+        }
+        double threshold = spillThreshold * limit;
+        long used = usedBytes.getAsLong();
+        return used >= threshold && used - usedBytesAfterSpill >= MIN_SPILL_RUN * threshold;
+    }
+
+    /**
+     * Spills the intermediate state of all groups in memory to the partitions, and starts over with empty groups
+     * unless all input has been received.
+     */
+    private void spill() {
+        IntVector selected = blockHash.nonEmpty();
+        Block[] keys = null;
+        try {
+            keys = blockHash.getKeys();
+            if (spillFiles == null) {
+                spilledAggregatorFactories = spilledAggregatorFactories(keys.length);
+                if (spilledAggregatorFactories == null
+                    || Arrays.stream(keys).anyMatch(k -> SPILLABLE_KEYS.contains(k.elementType()) == false)) {
+                    // the groups can't be partitioned or one of the aggregations can't merge its intermediate state
+                    spillThreshold = 0;
+                    return;
+                }
+                spillFiles = new SpillFile[SPILL_PARTITIONS];
+            }
+            int batchSize = Math.max(1, spillBatchSize);
+            for (int start = 0; start < selected.getPositionCount(); start += batchSize) {
+                int[] positions = IntStream.range(start, Math.min(start + batchSize, selected.getPositionCount())).toArray();
+                spillBatch(keys, selected, positions);
+            }
+        } finally {
+            Releasables.closeExpectNoException(selected);
+            if (keys != null) {
+                Releasables.closeExpectNoException(keys);
+            }
+        }
+        Releasables.close(blockHash, () -> Releasables.close(aggregators));
+        blockHash = null;
+        aggregators = new ArrayList<>(aggregatorFactories.size());
+        if (finished == false) {
+            blockHash = blockHashSupplier.get();
+            for (GroupingAggregator.Factory a : aggregatorFactories) {
+                aggregators.add(a.apply(groupsContext));
+            }
+            usedBytesAfterSpill = usedBytes.getAsLong();
+        }
+    }
+
+    private List<GroupingAggregator.Factory> spilledAggregatorFactories(int keyCount) {
+        int channel = keyCount;
+        List<GroupingAggregator.Factory> factories = new ArrayList<>(aggregatorFactories.size());
+        for (int i = 0; i < aggregatorFactories.size(); i++) {
+            GroupingAggregator.Factory factory = aggregatorFactories.get(i).intermediateMergeFactory(channel);
+            if (factory == null) {
+                return null;
+            }
+            factories.add(factory);
+            channel += aggregators.get(i).intermediateBlockCount();
+        }
+        return factories;
+    }
+
+    private void spillBatch(Block[] keys, IntVector selected, int[] positions) {
+        int stateBlockCount = aggregators.stream().mapToInt(GroupingAggregator::intermediateBlockCount).sum();
+        Block[] blocks = new Block[keys.length + stateBlockCount];
+        try {
+            for (int k = 0; k < keys.length; k++) {
+                blocks[k] = keys[k].filter(positions);
+            }
+            try (IntVector selectedBatch = selected.filter(positions)) {
+                int offset = keys.length;
+                for (GroupingAggregator aggregator : aggregators) {
+                    aggregator.evaluateIntermediate(blocks, offset, selectedBatch);
+                    offset += aggregator.intermediateBlockCount();
+                }
+            }
+            int[][] partitions = partitionPositions(blocks, keys.length);
+            for (int p = 0; p < partitions.length; p++) {
+                if (partitions[p].length == 0) {
+                    continue;
+                }
+                Page partition = new Page(filterAll(blocks, partitions[p]));
+                try {
+                    if (spillFiles[p] == null) {
+                        spillFiles[p] = SpillFile.create();
+                        spilledPartitions++;
+                    }
+                    long bytesBefore = spillFiles[p].bytes();
+                    spillFiles[p].write(partition);
+                    spilledBytes += spillFiles[p].bytes() - bytesBefore;
+                } finally {
+                    partition.releaseBlocks();
+                }
+            }
+        } finally {
+            Releasables.closeExpectNoException(blocks);
+        }
+    }
+
+    private static Block[] filterAll(Block[] blocks, int[] positions) {
+        Block[] filtered = new Block[blocks.length];
+        boolean success = false;
+        try {
+            for (int b = 0; b < blocks.length; b++) {
+                filtered[b] = blocks[b].filter(positions);
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                Releasables.closeExpectNoException(filtered);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Splits the positions of the keys into {@link #SPILL_PARTITIONS} partitions by the hash of the keys.
+     */
+    private static int[][] partitionPositions(Block[] blocks, int keyCount) {
+        int positionCount = blocks[0].getPositionCount();
+        int[] partitionOfPosition = new int[positionCount];
+        int[] partitionSizes = new int[SPILL_PARTITIONS];
+        BytesRef scratch = new BytesRef();
+        for (int position = 0; position < positionCount; position++) {
+            int hash = 0;
+            for (int k = 0; k < keyCount; k++) {
+                hash = 31 * hash + keyHash(blocks[k], position, scratch);
+            }
+            int partition = Math.floorMod(BitMixer.mix32(hash), SPILL_PARTITIONS);
+            partitionOfPosition[position] = partition;
+            partitionSizes[partition]++;
+        }
+        int[][] partitions = new int[SPILL_PARTITIONS][];
+        for (int p = 0; p < SPILL_PARTITIONS; p++) {
+            partitions[p] = new int[partitionSizes[p]];
+            partitionSizes[p] = 0;
+        }
+        for (int position = 0; position < positionCount; position++) {
+            int partition = partitionOfPosition[position];
+            partitions[partition][partitionSizes[partition]++] = position;
+        }
+        return partitions;
+    }
+
+    /**
+     * Hash of the key of a group. Keys of groups have at most one value.
+     */
+    private static int keyHash(Block key, int position, BytesRef scratch) {
+        if (key.isNull(position)) {
+            return 0;
+        }
+        int i = key.getFirstValueIndex(position);
+        return switch (key.elementType()) {
+            case BOOLEAN -> Boolean.hashCode(((BooleanBlock) key).getBoolean(i));
+            case INT -> Integer.hashCode(((IntBlock) key).getInt(i));
+            case LONG -> Long.hashCode(((LongBlock) key).getLong(i));
+            case FLOAT -> Float.hashCode(((FloatBlock) key).getFloat(i));
+            case DOUBLE -> Double.hashCode(((DoubleBlock) key).getDouble(i));
+            case BYTES_REF -> ((BytesRefBlock) key).getBytesRef(i, scratch).hashCode();
+            default -> throw new IllegalArgumentException("can't spill groups with keys of type [" + key.elementType() + "]");
+        };
     }
 
     @Override
     public Page getOutput() {
+        while (output == null && finished && spillFiles != null && nextSpilledPartition < spillFiles.length) {
+            output = mergeSpilledPartition(nextSpilledPartition++);
+        }
         Page p = output;
         if (p != null) {
             rowsEmitted += p.getPositionCount();
@@ -226,6 +534,15 @@ public class HashAggregationOperator implements Operator {
             return;
         }
         finished = true;
+        if (spillFiles != null) {
+            // the groups in memory are merged with the spilled ones of the same partition
+            spill();
+            return;
+        }
+        output = evaluate(blockHash, aggregators);
+    }
+
+    private Page evaluate(BlockHash blockHash, List<GroupingAggregator> aggregators) {
         Block[] blocks = null;
         IntVector selected = null;
         long startInNanos = System.nanoTime();
@@ -243,8 +560,9 @@ public class HashAggregationOperator implements Operator {
                 aggregator.evaluate(blocks, offset, selected, evaluationContext);
                 offset += aggBlockCounts[i];
             }
-            output = new Page(blocks);
+            Page page = new Page(blocks);
             success = true;
+            return page;
         } finally {
             // selected should always be closed
             if (selected != null) {
@@ -257,13 +575,79 @@ public class HashAggregationOperator implements Operator {
         }
     }
 
+    /**
+     * Reads back the groups spilled to a partition, merges them and evaluates them.
+     */
+    private Page mergeSpilledPartition(int partition) {
+        SpillFile spillFile = spillFiles[partition];
+        if (spillFile == null) {
+            return null;
+        }
+        BlockHash spilledBlockHash = null;
+        List<GroupingAggregator> spilledAggregators = new ArrayList<>(spilledAggregatorFactories.size());
+        try (spillFile; ReleasableIterator<Page> pages = spillFile.read(driverContext.blockFactory())) {
+            spillFiles[partition] = null;
+            spilledBlockHash = spilledBlockHashSupplier.get();
+            for (GroupingAggregator.Factory factory : spilledAggregatorFactories) {
+                spilledAggregators.add(factory.apply(groupsContext));
+            }
+            while (pages.hasNext()) {
+                Page page = pages.next();
+                try {
+                    addSpilledPage(spilledBlockHash, spilledAggregators, page);
+                } finally {
+                    page.releaseBlocks();
+                }
+            }
+            return evaluate(spilledBlockHash, spilledAggregators);
+        } finally {
+            Releasables.close(spilledBlockHash, () -> Releasables.close(spilledAggregators));
+        }
+    }
+
+    private static void addSpilledPage(BlockHash spilledBlockHash, List<GroupingAggregator> spilledAggregators, Page page) {
+        GroupingAggregatorFunction.AddInput[] prepared = new GroupingAggregatorFunction.AddInput[spilledAggregators.size()];
+        try {
+            for (int i = 0; i < prepared.length; i++) {
+                prepared[i] = spilledAggregators.get(i).prepareProcessPage(spilledBlockHash, page);
+            }
+            spilledBlockHash.add(page, new GroupingAggregatorFunction.AddInput() {
+                @Override
+                public void add(int positionOffset, IntArrayBlock groupIds) {
+                    for (GroupingAggregatorFunction.AddInput p : prepared) {
+                        p.add(positionOffset, groupIds);
+                    }
+                }
+
+                @Override
+                public void add(int positionOffset, IntBigArrayBlock groupIds) {
+                    for (GroupingAggregatorFunction.AddInput p : prepared) {
+                        p.add(positionOffset, groupIds);
+                    }
+                }
+
+                @Override
+                public void add(int positionOffset, IntVector groupIds) {
+                    for (GroupingAggregatorFunction.AddInput p : prepared) {
+                        p.add(positionOffset, groupIds);
+                    }
+                }
+
+                @Override
+                public void close() {}
+            });
+        } finally {
+            Releasables.closeExpectNoException(prepared);
+        }
+    }
+
     protected GroupingAggregatorEvaluationContext evaluationContext(Block[] keys) {
         return new GroupingAggregatorEvaluationContext(driverContext);
     }
 
     @Override
     public boolean isFinished() {
-        return finished && output == null;
+        return finished && output == null && (spillFiles == null || nextSpilledPartition == spillFiles.length);
     }
 
     @Override
@@ -271,12 +655,25 @@ public class HashAggregationOperator implements Operator {
         if (output != null) {
             output.releaseBlocks();
         }
-        Releasables.close(blockHash, () -> Releasables.close(aggregators));
+        Releasables.close(
+            blockHash,
+            () -> Releasables.close(aggregators),
+            spillFiles == null ? () -> {} : () -> Releasables.close(spillFiles)
+        );
     }
 
     @Override
     public Operator.Status status() {
-        return new Status(hashNanos, aggregationNanos, pagesProcessed, rowsReceived, rowsEmitted, emitNanos);
+        return new Status(
+            hashNanos,
+            aggregationNanos,
+            pagesProcessed,
+            rowsReceived,
+            rowsEmitted,
+            emitNanos,
+            spilledBytes,
+            spilledPartitions
+        );
     }
 
     protected static void checkState(boolean condition, String msg) {
@@ -328,6 +725,14 @@ public class HashAggregationOperator implements Operator {
         private final long rowsEmitted;
 
         private final long emitNanos;
+        /**
+         * Count of bytes of the groups this operator has spilled to disk.
+         */
+        private final long spilledBytes;
+        /**
+         * Count of partitions this operator has spilled groups to.
+         */
+        private final int spilledPartitions;
 
         /**
          * Build.
@@ -337,14 +742,27 @@ public class HashAggregationOperator implements Operator {
          * @param rowsReceived Count of rows this operator has received.
          * @param rowsEmitted Count of rows this operator has emitted.
          * @param emitNanos Nanoseconds this operator has spent emitting the output.
+         * @param spilledBytes Count of bytes of the groups this operator has spilled to disk.
+         * @param spilledPartitions Count of partitions this operator has spilled groups to.
          */
-        public Status(long hashNanos, long aggregationNanos, int pagesProcessed, long rowsReceived, long rowsEmitted, long emitNanos) {
+        public Status(
+            long hashNanos,
+            long aggregationNanos,
+            int pagesProcessed,
+            long rowsReceived,
+            long rowsEmitted,
+            long emitNanos,
+            long spilledBytes,
+            int spilledPartitions
+        ) {
             this.hashNanos = hashNanos;
             this.aggregationNanos = aggregationNanos;
             this.pagesProcessed = pagesProcessed;
             this.rowsReceived = rowsReceived;
             this.rowsEmitted = rowsEmitted;
             this.emitNanos = emitNanos;
+            this.spilledBytes = spilledBytes;
+            this.spilledPartitions = spilledPartitions;
         }
 
         protected Status(StreamInput in) throws IOException {
@@ -365,6 +783,13 @@ public class HashAggregationOperator implements Operator {
             } else {
                 emitNanos = 0;
             }
+            if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_HASH_OPERATOR_STATUS_SPILL)) {
+                spilledBytes = in.readVLong();
+                spilledPartitions = in.readVInt();
+            } else {
+                spilledBytes = 0;
+                spilledPartitions = 0;
+            }
         }
 
         @Override
@@ -381,6 +806,10 @@ public class HashAggregationOperator implements Operator {
                 || out.getTransportVersion().isPatchFrom(TransportVersions.ESQL_HASH_OPERATOR_STATUS_OUTPUT_TIME_8_19)) {
                 out.writeVLong(emitNanos);
             }
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_HASH_OPERATOR_STATUS_SPILL)) {
+                out.writeVLong(spilledBytes);
+                out.writeVInt(spilledPartitions);
+            }
         }
 
         @Override
@@ -430,6 +859,20 @@ public class HashAggregationOperator implements Operator {
             return emitNanos;
         }
 
+        /**
+         * Count of bytes of the groups this operator has spilled to disk.
+         */
+        public long spilledBytes() {
+            return spilledBytes;
+        }
+
+        /**
+         * Count of partitions this operator has spilled groups to.
+         */
+        public int spilledPartitions() {
+            return spilledPartitions;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
@@ -448,6 +891,11 @@ public class HashAggregationOperator implements Operator {
             if (builder.humanReadable()) {
                 builder.field("emit_time", TimeValue.timeValueNanos(emitNanos));
             }
+            builder.field("spilled_bytes", spilledBytes);
+            if (builder.humanReadable()) {
+                builder.field("spilled", ByteSizeValue.ofBytes(spilledBytes));
+            }
+            builder.field("spilled_partitions", spilledPartitions);
             return builder.endObject();
 
         }
@@ -462,12 +910,23 @@ public class HashAggregationOperator implements Operator {
                 && pagesProcessed == status.pagesProcessed
                 && rowsReceived == status.rowsReceived
                 && rowsEmitted == status.rowsEmitted
-                && emitNanos == status.emitNanos;
+                && emitNanos == status.emitNanos
+                && spilledBytes == status.spilledBytes
+                && spilledPartitions == status.spilledPartitions;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(hashNanos, aggregationNanos, pagesProcessed, rowsReceived, rowsEmitted, emitNanos);
+            return Objects.hash(
+                hashNanos,
+                aggregationNanos,
+                pagesProcessed,
+                rowsReceived,
+                rowsEmitted,
+                emitNanos,
+                spilledBytes,
+                spilledPartitions
+            );
         }
 
         @Override
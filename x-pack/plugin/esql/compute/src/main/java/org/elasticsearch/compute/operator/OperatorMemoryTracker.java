@@ -0,0 +1,211 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.CircuitBreakerStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the memory a single operator allocates with {@link BigArrays}, like the hashes and the states of grouping
+ * aggregations, on top of accounting it in the circuit breakers of the driver. Those breakers are shared with the
+ * other operators, drivers and queries of the node so their usage says little about the memory of one operator.
+ */
+final class OperatorMemoryTracker extends CircuitBreakerService {
+    private final CircuitBreakerService breakerService;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final DriverContext driverContext;
+
+    private OperatorMemoryTracker(DriverContext driverContext, CircuitBreakerService breakerService) {
+        this.breakerService = breakerService;
+        BigArrays bigArrays = driverContext.bigArrays().withBreakerService(this);
+        this.driverContext = new TrackedDriverContext(driverContext, driverContext.blockFactory().withBigArrays(bigArrays));
+    }
+
+    /**
+     * Tracks the memory allocated with the big arrays of a context.
+     * @return the tracker, or {@code null} if the big arrays of the context aren't accounted in any circuit breaker
+     */
+    static OperatorMemoryTracker track(DriverContext driverContext) {
+        CircuitBreakerService breakerService = driverContext.bigArrays().breakerService();
+        return breakerService == null ? null : new OperatorMemoryTracker(driverContext, breakerService);
+    }
+
+    /**
+     * A view of the tracked context whose big arrays are tracked. Everything else, like warnings, releasables, async
+     * actions and early termination, is delegated to the tracked context.
+     */
+    DriverContext driverContext() {
+        return driverContext;
+    }
+
+    /**
+     * The bytes of the big arrays allocated with {@link #driverContext()} that haven't been released yet.
+     */
+    long usedBytes() {
+        return usedBytes.get();
+    }
+
+    @Override
+    public CircuitBreaker getBreaker(String name) {
+        return new TrackedBreaker(breakerService.getBreaker(name));
+    }
+
+    @Override
+    public AllCircuitBreakerStats stats() {
+        return breakerService.stats();
+    }
+
+    @Override
+    public CircuitBreakerStats stats(String name) {
+        return breakerService.stats(name);
+    }
+
+    private static class TrackedDriverContext extends DriverContext {
+        private final DriverContext delegate;
+
+        TrackedDriverContext(DriverContext delegate, BlockFactory blockFactory) {
+            super(blockFactory.bigArrays(), blockFactory);
+            // the view has no state of its own, it never finishes or tracks releasables separately from the delegate
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean addReleasable(Releasable releasable) {
+            return delegate.addReleasable(releasable);
+        }
+
+        @Override
+        public boolean removeReleasable(Releasable releasable) {
+            return delegate.removeReleasable(releasable);
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return delegate.getSnapshot();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public void finish() {
+            delegate.finish();
+        }
+
+        @Override
+        public void waitForAsyncActions(ActionListener<Void> listener) {
+            delegate.waitForAsyncActions(listener);
+        }
+
+        @Override
+        public void addAsyncAction() {
+            delegate.addAsyncAction();
+        }
+
+        @Override
+        public void removeAsyncAction() {
+            delegate.removeAsyncAction();
+        }
+
+        @Override
+        public void checkForEarlyTermination() {
+            delegate.checkForEarlyTermination();
+        }
+
+        @Override
+        public void initializeEarlyTerminationChecker(Runnable checker) {
+            delegate.initializeEarlyTerminationChecker(checker);
+        }
+
+        @Override
+        public WarningsMode warningsMode() {
+            return delegate.warningsMode();
+        }
+
+        @Override
+        public boolean assertBeginRunLoop() {
+            return delegate.assertBeginRunLoop();
+        }
+
+        @Override
+        public boolean assertEndRunLoop() {
+            return delegate.assertEndRunLoop();
+        }
+    }
+
+    private class TrackedBreaker implements CircuitBreaker {
+        private final CircuitBreaker delegate;
+
+        TrackedBreaker(CircuitBreaker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void circuitBreak(String fieldName, long bytesNeeded) {
+            delegate.circuitBreak(fieldName, bytesNeeded);
+        }
+
+        @Override
+        public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+            delegate.addEstimateBytesAndMaybeBreak(bytes, label);
+            usedBytes.addAndGet(bytes);
+        }
+
+        @Override
+        public void addWithoutBreaking(long bytes) {
+            delegate.addWithoutBreaking(bytes);
+            usedBytes.addAndGet(bytes);
+        }
+
+        @Override
+        public long getUsed() {
+            return delegate.getUsed();
+        }
+
+        @Override
+        public long getLimit() {
+            return delegate.getLimit();
+        }
+
+        @Override
+        public double getOverhead() {
+            return delegate.getOverhead();
+        }
+
+        @Override
+        public long getTrippedCount() {
+            return delegate.getTrippedCount();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Durability getDurability() {
+            return delegate.getDurability();
+        }
+
+        @Override
+        public void setLimitAndOverhead(long limit, double overhead) {
+            delegate.setLimitAndOverhead(limit, overhead);
+        }
+    }
+}
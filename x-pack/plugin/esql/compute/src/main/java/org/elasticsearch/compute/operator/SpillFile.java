@@ -0,0 +1,149 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.PositionTrackingOutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BlockStreamInput;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.ReleasableIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * A temporary file that {@link Page}s are spilled to when they don't fit in memory. Pages are
+ * serialized the same way they are sent over the wire and are read back in the order they were
+ * written, in memory accounted {@link org.elasticsearch.compute.data.Block}s. The file is deleted
+ * when this is closed.
+ */
+public final class SpillFile implements Releasable {
+    private final Path path;
+    private PositionTrackingOutputStreamStreamOutput out;
+    private int pageCount;
+    private long bytes;
+
+    private SpillFile(Path path) throws IOException {
+        this.path = path;
+        this.out = new PositionTrackingOutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path)));
+        this.out.setTransportVersion(TransportVersion.current());
+    }
+
+    /**
+     * Creates an empty spill file in the temporary directory of the node.
+     */
+    public static SpillFile create() {
+        Path path = null;
+        try {
+            path = Files.createTempFile("esql-spill-", ".bin");
+            return new SpillFile(path);
+        } catch (IOException e) {
+            if (path != null) {
+                IOUtils.deleteFilesIgnoringExceptions(path);
+            }
+            throw new UncheckedIOException("failed to create spill file", e);
+        }
+    }
+
+    /**
+     * Appends a page to the file. The page is not released.
+     */
+    public void write(Page page) {
+        if (out == null) {
+            throw new IllegalStateException("spill file [" + path + "] is already being read");
+        }
+        try {
+            page.writeTo(out);
+            bytes = out.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write to spill file [" + path + "]", e);
+        }
+        pageCount++;
+    }
+
+    /**
+     * The number of pages written to the file.
+     */
+    public int pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * The number of bytes written to the file.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Reads the pages back in the order they were written. The pages are built by the given
+     * {@link BlockFactory} and must be released by the caller. No more pages can be written
+     * once the file is read.
+     */
+    public ReleasableIterator<Page> read(BlockFactory blockFactory) {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            StreamInput in = new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path)));
+            in.setTransportVersion(TransportVersion.current());
+            BlockStreamInput blockIn = new BlockStreamInput(in, blockFactory);
+            return new ReleasableIterator<>() {
+                int remaining = pageCount;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public Page next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    remaining--;
+                    try {
+                        return new Page(blockIn);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("failed to read from spill file [" + path + "]", e);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    IOUtils.closeWhileHandlingException(blockIn);
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read spill file [" + path + "]", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(out);
+        out = null;
+        IOUtils.deleteFilesIgnoringExceptions(path);
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile[path=" + path + ", pages=" + pageCount + ", bytes=" + bytes + "]";
+    }
+}
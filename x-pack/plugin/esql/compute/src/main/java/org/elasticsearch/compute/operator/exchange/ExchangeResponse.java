@@ -11,6 +11,7 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.BlockStreamInput;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.data.VectorEncodingStats;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RefCounted;
@@ -26,18 +27,39 @@ public final class ExchangeResponse extends TransportResponse implements Releasa
     private final boolean finished;
     private boolean pageTaken;
     private final BlockFactory blockFactory;
+    private final boolean encodeVectors;
+    @Nullable
+    private final VectorEncodingStats encodingStats;
     private long reservedBytes = 0;
 
     public ExchangeResponse(BlockFactory blockFactory, Page page, boolean finished) {
+        this(blockFactory, page, finished, false, null);
+    }
+
+    /**
+     * @param encodeVectors whether to write the page with {@link Page#writeEncodedTo}
+     * @param encodingStats counts the bytes of the page written with each vector encoding, if not null
+     */
+    public ExchangeResponse(
+        BlockFactory blockFactory,
+        Page page,
+        boolean finished,
+        boolean encodeVectors,
+        @Nullable VectorEncodingStats encodingStats
+    ) {
         this.blockFactory = blockFactory;
         this.page = page;
         this.finished = finished;
+        this.encodeVectors = encodeVectors;
+        this.encodingStats = encodingStats;
     }
 
     public ExchangeResponse(BlockStreamInput in) throws IOException {
         this.blockFactory = in.blockFactory();
         this.page = in.readOptionalWriteable(Page::new);
         this.finished = in.readBoolean();
+        this.encodeVectors = false;
+        this.encodingStats = null;
     }
 
     @Override
@@ -47,7 +69,12 @@ public final class ExchangeResponse extends TransportResponse implements Releasa
             blockFactory.breaker().addEstimateBytesAndMaybeBreak(bytes, "serialize exchange response");
             reservedBytes += bytes;
         }
-        out.writeOptionalWriteable(page);
+        if (page != null && encodeVectors) {
+            out.writeBoolean(true);
+            page.writeEncodedTo(out, encodingStats);
+        } else {
+            out.writeOptionalWriteable(page);
+        }
         out.writeBoolean(finished);
     }
 
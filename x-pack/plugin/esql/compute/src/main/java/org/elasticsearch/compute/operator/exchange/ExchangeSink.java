@@ -11,6 +11,8 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.IsBlockedResult;
 
+import java.util.Map;
+
 /**
  * Sink for exchanging data
  * @see ExchangeSinkOperator
@@ -40,4 +42,12 @@ public interface ExchangeSink {
      * Whether the sink is blocked on adding more pages
      */
     IsBlockedResult waitForWriting();
+
+    /**
+     * The number of bytes of the pages sent to other nodes that were written with each of the compact vector encodings,
+     * by the name of the encoding. This covers all the sinks of the same exchange.
+     */
+    default Map<String, Long> encodedBytes() {
+        return Map.of();
+    }
 }
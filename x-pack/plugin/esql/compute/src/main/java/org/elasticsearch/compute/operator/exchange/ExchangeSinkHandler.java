@@ -11,8 +11,10 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.data.VectorEncodingStats;
 import org.elasticsearch.compute.operator.IsBlockedResult;
 
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
@@ -41,6 +43,8 @@ public final class ExchangeSinkHandler {
     private final LongSupplier nowInMillis;
     private final AtomicLong lastUpdatedInMillis;
     private final BlockFactory blockFactory;
+    private volatile boolean encodeVectors;
+    private volatile VectorEncodingStats encodingStats;
 
     public ExchangeSinkHandler(BlockFactory blockFactory, int maxBufferSize, LongSupplier nowInMillis) {
         this.blockFactory = blockFactory;
@@ -96,6 +100,12 @@ public final class ExchangeSinkHandler {
         public IsBlockedResult waitForWriting() {
             return buffer.waitForWriting();
         }
+
+        @Override
+        public Map<String, Long> encodedBytes() {
+            VectorEncodingStats stats = encodingStats;
+            return stats == null ? Map.of() : stats.encodedBytes();
+        }
     }
 
     /**
@@ -152,7 +162,7 @@ public final class ExchangeSinkHandler {
                 if (listener == null) {
                     continue;
                 }
-                response = new ExchangeResponse(blockFactory, buffer.pollPage(), buffer.isFinished());
+                response = new ExchangeResponse(blockFactory, buffer.pollPage(), buffer.isFinished(), encodeVectors, encodingStats);
             } finally {
                 promised.release();
             }
@@ -171,6 +181,19 @@ public final class ExchangeSinkHandler {
         return new ExchangeSinkImpl(onPageFetched);
     }
 
+    /**
+     * Write the pages sent to other nodes with the compact vector encodings, see {@link Page#writeEncodedTo}.
+     * This should be called before the sinks add pages.
+     *
+     * @param collectStats whether to count the bytes written with each encoding, to report them in profiles
+     */
+    public void encodeVectors(boolean collectStats) {
+        if (collectStats) {
+            encodingStats = new VectorEncodingStats();
+        }
+        encodeVectors = true;
+    }
+
     /**
      * Whether this sink handler has sinks attached or available pages
      */
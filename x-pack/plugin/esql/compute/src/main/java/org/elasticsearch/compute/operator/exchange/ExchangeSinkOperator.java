@@ -22,6 +22,7 @@ import org.elasticsearch.compute.operator.SinkOperator;
 import org.elasticsearch.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -94,7 +95,7 @@ public class ExchangeSinkOperator extends SinkOperator {
 
     @Override
     public Status status() {
-        return new Status(pagesReceived, rowsReceived);
+        return new Status(pagesReceived, rowsReceived, sink.encodedBytes());
     }
 
     public static class Status implements Operator.Status {
@@ -106,10 +107,16 @@ public class ExchangeSinkOperator extends SinkOperator {
 
         private final int pagesReceived;
         private final long rowsReceived;
+        private final Map<String, Long> encodedBytes;
 
         Status(int pagesReceived, long rowsReceived) {
+            this(pagesReceived, rowsReceived, Map.of());
+        }
+
+        Status(int pagesReceived, long rowsReceived, Map<String, Long> encodedBytes) {
             this.pagesReceived = pagesReceived;
             this.rowsReceived = rowsReceived;
+            this.encodedBytes = encodedBytes;
         }
 
         Status(StreamInput in) throws IOException {
@@ -120,6 +127,11 @@ public class ExchangeSinkOperator extends SinkOperator {
             } else {
                 rowsReceived = 0;
             }
+            if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_EXCHANGE_SINK_ENCODED_BYTES)) {
+                encodedBytes = in.readImmutableMap(StreamInput::readVLong);
+            } else {
+                encodedBytes = Map.of();
+            }
         }
 
         @Override
@@ -129,6 +141,9 @@ public class ExchangeSinkOperator extends SinkOperator {
             if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_PROFILE_ROWS_PROCESSED)) {
                 out.writeVLong(rowsReceived);
             }
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_EXCHANGE_SINK_ENCODED_BYTES)) {
+                out.writeMap(encodedBytes, StreamOutput::writeVLong);
+            }
         }
 
         @Override
@@ -144,11 +159,21 @@ public class ExchangeSinkOperator extends SinkOperator {
             return rowsReceived;
         }
 
+        /**
+         * The number of bytes sent with each of the compact vector encodings, by the name of the encoding.
+         */
+        public Map<String, Long> encodedBytes() {
+            return encodedBytes;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
             builder.field("pages_received", pagesReceived);
             builder.field("rows_received", rowsReceived);
+            if (encodedBytes.isEmpty() == false) {
+                builder.field("encoded_bytes", encodedBytes);
+            }
             return builder.endObject();
         }
 
@@ -157,12 +182,14 @@ public class ExchangeSinkOperator extends SinkOperator {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Status status = (Status) o;
-            return pagesReceived == status.pagesReceived && rowsReceived == status.rowsReceived;
+            return pagesReceived == status.pagesReceived
+                && rowsReceived == status.rowsReceived
+                && encodedBytes.equals(status.encodedBytes);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(pagesReceived, rowsReceived);
+            return Objects.hash(pagesReceived, rowsReceived, encodedBytes);
         }
 
         @Override
@@ -0,0 +1,342 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.exchange;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.StringHelper;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BooleanBlock;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.DoubleBlock;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.FloatBlock;
+import org.elasticsearch.compute.data.IntBlock;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.compute.operator.SinkOperator;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Sink operator that splits its pages by the hash of their keys and pushes each part to the
+ * {@link ExchangeSink} of its partition. All rows with the same keys that go through the drivers
+ * of the same node go to the same partition, so the intermediate results of a grouping aggregation
+ * can be reduced to their final results by one driver per partition rather than by a single one.
+ * <p>
+ *     Partitions are only local to a node: the partitions are {@link DirectExchange}s between the
+ *     drivers of one node, and rows are never sent to the partition of another node. So the final
+ *     aggregation is only split this way where all of its input is gathered on one node.
+ * </p>
+ */
+public class HashPartitionedExchangeSinkOperator extends SinkOperator {
+
+    /**
+     * Factory for {@link HashPartitionedExchangeSinkOperator}.
+     * @param partitions one supplier of sinks per partition
+     * @param keyChannels channels of the keys rows are partitioned by
+     */
+    public record HashPartitionedExchangeSinkOperatorFactory(List<Supplier<ExchangeSink>> partitions, int[] keyChannels)
+        implements
+            SinkOperatorFactory {
+
+        @Override
+        public SinkOperator get(DriverContext driverContext) {
+            return new HashPartitionedExchangeSinkOperator(partitions.stream().map(Supplier::get).toList(), keyChannels);
+        }
+
+        @Override
+        public String describe() {
+            return "HashPartitionedExchangeSinkOperator[partitions=" + partitions.size() + ", keys=" + Arrays.toString(keyChannels) + "]";
+        }
+    }
+
+    private final List<ExchangeSink> sinks;
+    private final int[] keyChannels;
+    private final long[] rowsPerPartition;
+    private int pagesReceived;
+    private long rowsReceived;
+
+    public HashPartitionedExchangeSinkOperator(List<ExchangeSink> sinks, int[] keyChannels) {
+        if (sinks.isEmpty()) {
+            throw new IllegalArgumentException("hash partitioned exchange requires at least one partition");
+        }
+        this.sinks = sinks;
+        this.keyChannels = keyChannels;
+        this.rowsPerPartition = new long[sinks.size()];
+    }
+
+    @Override
+    public boolean isFinished() {
+        for (ExchangeSink sink : sinks) {
+            if (sink.isFinished() == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void finish() {
+        for (ExchangeSink sink : sinks) {
+            sink.finish();
+        }
+    }
+
+    /**
+     * Blocked while any of the partitions is full. A page may have rows for all partitions so we can't
+     * accept one before all of them have room.
+     */
+    @Override
+    public IsBlockedResult isBlocked() {
+        for (ExchangeSink sink : sinks) {
+            IsBlockedResult blocked = sink.waitForWriting();
+            if (blocked.listener().isDone() == false) {
+                return blocked;
+            }
+        }
+        return NOT_BLOCKED;
+    }
+
+    @Override
+    public boolean needsInput() {
+        return isFinished() == false && isBlocked().listener().isDone();
+    }
+
+    @Override
+    protected void doAddInput(Page page) {
+        pagesReceived++;
+        rowsReceived += page.getPositionCount();
+        if (sinks.size() == 1) {
+            rowsPerPartition[0] += page.getPositionCount();
+            sinks.get(0).addPage(page);
+            return;
+        }
+        int[][] partitions;
+        try {
+            partitions = partitionPositions(page, keyChannels, sinks.size());
+        } catch (Exception e) {
+            page.releaseBlocks();
+            throw e;
+        }
+        for (int p = 0; p < partitions.length; p++) {
+            if (partitions[p].length == page.getPositionCount()) {
+                // all rows of the page are in the same partition
+                rowsPerPartition[p] += page.getPositionCount();
+                sinks.get(p).addPage(page);
+                return;
+            }
+        }
+        try {
+            for (int p = 0; p < partitions.length; p++) {
+                if (partitions[p].length == 0) {
+                    continue;
+                }
+                rowsPerPartition[p] += partitions[p].length;
+                sinks.get(p).addPage(filter(page, partitions[p]));
+            }
+        } finally {
+            page.releaseBlocks();
+        }
+    }
+
+    private static Page filter(Page page, int[] positions) {
+        Block[] filtered = new Block[page.getBlockCount()];
+        boolean success = false;
+        try {
+            for (int b = 0; b < filtered.length; b++) {
+                filtered[b] = page.getBlock(b).filter(positions);
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                Releasables.closeExpectNoException(filtered);
+            }
+        }
+        return new Page(filtered);
+    }
+
+    /**
+     * Splits the positions of a page into {@code partitionCount} partitions by the hash of their keys.
+     */
+    static int[][] partitionPositions(Page page, int[] keyChannels, int partitionCount) {
+        int positionCount = page.getPositionCount();
+        int[] partitionOfPosition = new int[positionCount];
+        int[] partitionSizes = new int[partitionCount];
+        BytesRef scratch = new BytesRef();
+        for (int position = 0; position < positionCount; position++) {
+            int hash = 0;
+            for (int channel : keyChannels) {
+                hash = 31 * hash + keyHash(page.getBlock(channel), position, scratch);
+            }
+            int partition = Math.floorMod(BitMixer.mix32(hash), partitionCount);
+            partitionOfPosition[position] = partition;
+            partitionSizes[partition]++;
+        }
+        int[][] partitions = new int[partitionCount][];
+        for (int p = 0; p < partitionCount; p++) {
+            partitions[p] = new int[partitionSizes[p]];
+            partitionSizes[p] = 0;
+        }
+        for (int position = 0; position < positionCount; position++) {
+            int partition = partitionOfPosition[position];
+            partitions[partition][partitionSizes[partition]++] = position;
+        }
+        return partitions;
+    }
+
+    /**
+     * Can rows be partitioned by keys of this type?
+     */
+    public static boolean canPartitionBy(ElementType elementType) {
+        return switch (elementType) {
+            case BOOLEAN, INT, LONG, FLOAT, DOUBLE, BYTES_REF -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Hash of the values of a key. Unlike {@link BytesRef#hashCode()}, which is seeded differently on
+     * every node, it only depends on the values. The values of a multivalued key are mixed and summed
+     * so the hash doesn't depend on their order: {@code [a, b]} and {@code [b, a]} go to the same partition.
+     */
+    static int keyHash(Block key, int position, BytesRef scratch) {
+        int hash = 0;
+        int first = key.getFirstValueIndex(position);
+        int end = first + key.getValueCount(position);
+        for (int i = first; i < end; i++) {
+            int valueHash = switch (key.elementType()) {
+                case BOOLEAN -> Boolean.hashCode(((BooleanBlock) key).getBoolean(i));
+                case INT -> Integer.hashCode(((IntBlock) key).getInt(i));
+                case LONG -> Long.hashCode(((LongBlock) key).getLong(i));
+                case FLOAT -> Float.hashCode(((FloatBlock) key).getFloat(i));
+                case DOUBLE -> Double.hashCode(((DoubleBlock) key).getDouble(i));
+                case BYTES_REF -> StringHelper.murmurhash3_x86_32(((BytesRefBlock) key).getBytesRef(i, scratch), 0);
+                default -> throw new IllegalArgumentException("can't partition by keys of type [" + key.elementType() + "]");
+            };
+            hash += BitMixer.mix32(valueHash);
+        }
+        return hash;
+    }
+
+    @Override
+    public void close() {
+        finish();
+    }
+
+    @Override
+    public String toString() {
+        return "HashPartitionedExchangeSinkOperator[partitions=" + sinks.size() + ", keys=" + Arrays.toString(keyChannels) + "]";
+    }
+
+    @Override
+    public Status status() {
+        return new Status(pagesReceived, rowsReceived, rowsPerPartition.clone());
+    }
+
+    public static class Status implements Operator.Status {
+        public static final NamedWriteableRegistry.Entry ENTRY = new NamedWriteableRegistry.Entry(
+            Operator.Status.class,
+            "hash_partitioned_exchange_sink",
+            Status::new
+        );
+
+        private final int pagesReceived;
+        private final long rowsReceived;
+        private final long[] rowsPerPartition;
+
+        Status(int pagesReceived, long rowsReceived, long[] rowsPerPartition) {
+            this.pagesReceived = pagesReceived;
+            this.rowsReceived = rowsReceived;
+            this.rowsPerPartition = rowsPerPartition;
+        }
+
+        Status(StreamInput in) throws IOException {
+            pagesReceived = in.readVInt();
+            rowsReceived = in.readVLong();
+            rowsPerPartition = in.readVLongArray();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVInt(pagesReceived);
+            out.writeVLong(rowsReceived);
+            out.writeVLongArray(rowsPerPartition);
+        }
+
+        @Override
+        public String getWriteableName() {
+            return ENTRY.name;
+        }
+
+        public int pagesReceived() {
+            return pagesReceived;
+        }
+
+        public long rowsReceived() {
+            return rowsReceived;
+        }
+
+        /**
+         * The number of rows sent to each partition. Very uneven counts mean a few keys hold most of the rows.
+         */
+        public long[] rowsPerPartition() {
+            return rowsPerPartition;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("pages_received", pagesReceived);
+            builder.field("rows_received", rowsReceived);
+            builder.array("rows_per_partition", rowsPerPartition);
+            return builder.endObject();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Status status = (Status) o;
+            return pagesReceived == status.pagesReceived
+                && rowsReceived == status.rowsReceived
+                && Arrays.equals(rowsPerPartition, status.rowsPerPartition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pagesReceived, rowsReceived, Arrays.hashCode(rowsPerPartition));
+        }
+
+        @Override
+        public String toString() {
+            return Strings.toString(this);
+        }
+
+        @Override
+        public TransportVersion getMinimalSupportedVersion() {
+            return TransportVersions.ESQL_HASH_PARTITIONED_EXCHANGE_SINK_STATUS;
+        }
+    }
+}
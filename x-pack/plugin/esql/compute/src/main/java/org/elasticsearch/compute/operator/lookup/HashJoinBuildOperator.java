@@ -0,0 +1,100 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.lookup;
+
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.SinkOperator;
+
+/**
+ * Sink that fills a {@link HashJoinTable} with the pages of the build side of a hash join.
+ * The table is built once this operator is finished. If filling the table fails, for example
+ * because it doesn't fit in the circuit breaker, the operators probing it fail with the same
+ * exception.
+ */
+public class HashJoinBuildOperator extends SinkOperator {
+
+    /**
+     * Builds the single operator that fills a table. The operator takes over the reference to
+     * the table that this factory was built with.
+     */
+    public static final class Factory implements SinkOperatorFactory {
+        private final HashJoinTable table;
+        private boolean built;
+
+        public Factory(HashJoinTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public SinkOperator get(DriverContext driverContext) {
+            if (built) {
+                throw new IllegalStateException("the build side of a hash join is filled by a single driver");
+            }
+            built = true;
+            HashJoinBuildOperator operator = new HashJoinBuildOperator(table);
+            // the operator now holds the reference of this factory
+            table.decRef();
+            return operator;
+        }
+
+        @Override
+        public String describe() {
+            return "HashJoinBuildOperator[]";
+        }
+    }
+
+    private final HashJoinTable table;
+    private boolean finished = false;
+
+    public HashJoinBuildOperator(HashJoinTable table) {
+        table.mustIncRef();
+        this.table = table;
+    }
+
+    @Override
+    public boolean needsInput() {
+        return finished == false;
+    }
+
+    @Override
+    protected void doAddInput(Page page) {
+        try {
+            table.add(page);
+        } catch (Exception e) {
+            table.failBuild(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (finished == false) {
+            finished = true;
+            table.finishBuild();
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void close() {
+        if (finished == false) {
+            table.failBuild(new IllegalStateException("the build side of the hash join was closed before it finished"));
+        }
+        table.decRef();
+    }
+
+    @Override
+    public String toString() {
+        return "HashJoinBuildOperator[table=" + table + "]";
+    }
+}
@@ -0,0 +1,477 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.lookup;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.IntBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.core.ReleasableIterator;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Probes a {@link HashJoinTable} with the join keys of each incoming page and emits the incoming
+ * rows joined with every row of the build side that has the same keys. In a {@code LEFT} join the
+ * incoming rows that match nothing are emitted once, with {@code null}s for the build side. The
+ * output pages contain the blocks of the incoming page followed by the blocks of the build side.
+ * <p>
+ *     This operator is blocked until the table is built.
+ * </p>
+ */
+public class HashJoinProbeOperator implements Operator {
+
+    public record Factory(HashJoinTable table, int[] keyChannels, boolean leftJoin, int maxPageSize) implements OperatorFactory {
+        @Override
+        public Operator get(DriverContext driverContext) {
+            return new HashJoinProbeOperator(driverContext.blockFactory(), table, keyChannels, leftJoin, maxPageSize);
+        }
+
+        @Override
+        public String describe() {
+            return "HashJoinProbeOperator[keys=" + Arrays.toString(keyChannels) + ", left=" + leftJoin + "]";
+        }
+    }
+
+    private final BlockFactory blockFactory;
+    private final HashJoinTable table;
+    private final int[] keyChannels;
+    private final boolean leftJoin;
+    private final int maxPageSize;
+
+    private IsBlockedResult isBlocked;
+    private JoinIterator next;
+    private boolean finished = false;
+
+    /**
+     * Nanoseconds this operator has spent joining pages.
+     */
+    private long processNanos;
+
+    /**
+     * Count of pages that have been received by this operator.
+     */
+    private int pagesReceived;
+
+    /**
+     * Count of pages that have been emitted by this operator.
+     */
+    private int pagesEmitted;
+
+    /**
+     * Count of rows this operator has received.
+     */
+    private long rowsReceived;
+
+    /**
+     * Count of rows this operator has emitted.
+     */
+    private long rowsEmitted;
+
+    public HashJoinProbeOperator(BlockFactory blockFactory, HashJoinTable table, int[] keyChannels, boolean leftJoin, int maxPageSize) {
+        this.blockFactory = blockFactory;
+        this.keyChannels = keyChannels;
+        this.leftJoin = leftJoin;
+        this.maxPageSize = maxPageSize;
+        table.mustIncRef();
+        this.table = table;
+        this.isBlocked = new IsBlockedResult(table.waitForBuild(), "hash join build");
+    }
+
+    @Override
+    public IsBlockedResult isBlocked() {
+        if (isBlocked != NOT_BLOCKED && isBlocked.listener().isDone()) {
+            if (isBuilt() == false) {
+                throw ExceptionsHelper.convertToRuntime(table.buildFailure());
+            }
+            isBlocked = NOT_BLOCKED;
+        }
+        return isBlocked;
+    }
+
+    private boolean isBuilt() {
+        return table.waitForBuild().isSuccess();
+    }
+
+    @Override
+    public boolean needsInput() {
+        return finished == false && isBuilt() && (next == null || next.hasNext() == false);
+    }
+
+    @Override
+    public void addInput(Page page) {
+        assert isBuilt() : "received a page before the table is built";
+        if (next != null) {
+            assert next.hasNext() == false : "has pending input page";
+            next.close();
+            next = null;
+        }
+        pagesReceived++;
+        rowsReceived += page.getPositionCount();
+        if (page.getPositionCount() == 0) {
+            page.releaseBlocks();
+            return;
+        }
+        next = new JoinIterator(page);
+    }
+
+    @Override
+    public Page getOutput() {
+        if (next == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Page page = next.hasNext() ? next.next() : null;
+        processNanos += System.nanoTime() - start;
+        if (page != null) {
+            pagesEmitted++;
+            rowsEmitted += page.getPositionCount();
+        }
+        return page;
+    }
+
+    @Override
+    public void finish() {
+        finished = true;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished && (next == null || next.hasNext() == false);
+    }
+
+    @Override
+    public void close() {
+        Releasables.closeExpectNoException(next, table::decRef);
+    }
+
+    @Override
+    public Status status() {
+        return new Status(processNanos, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted, table.rowCount(), table.ramBytesUsed());
+    }
+
+    @Override
+    public String toString() {
+        return "HashJoinProbeOperator[keys=" + Arrays.toString(keyChannels) + ", left=" + leftJoin + ", table=" + table + "]";
+    }
+
+    /**
+     * Joins a page of the probe side, emitting up to {@code maxPageSize} rows at a time.
+     */
+    private class JoinIterator implements ReleasableIterator<Page> {
+        private final Page probe;
+        private final ReleasableIterator<IntBlock> groups;
+        private final int[] probePositions = new int[maxPageSize];
+        private final int[] buildRows = new int[maxPageSize];
+
+        /**
+         * The groups of a range of positions of the probe page.
+         */
+        private IntBlock current;
+        /**
+         * The position in the probe page of the first position of {@link #current}.
+         */
+        private int currentOffset;
+        /**
+         * The position in {@link #current} being joined.
+         */
+        private int position;
+        /**
+         * The index of the next group of {@link #position} to join.
+         */
+        private int group;
+        /**
+         * The next row, plus one, of the build side to join with {@link #position}.
+         */
+        private int row;
+        private boolean matched;
+        private boolean exhausted;
+        private Page pending;
+
+        JoinIterator(Page probe) {
+            this.probe = probe;
+            Page keys = probe.projectBlocks(keyChannels);
+            boolean success = false;
+            try {
+                this.groups = table.lookup(keys, BlockFactory.DEFAULT_MAX_BLOCK_PRIMITIVE_ARRAY_SIZE);
+                success = true;
+            } finally {
+                keys.releaseBlocks();
+                if (success == false) {
+                    probe.releaseBlocks();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == null && exhausted == false) {
+                pending = join();
+            }
+            return pending != null;
+        }
+
+        @Override
+        public Page next() {
+            if (hasNext() == false) {
+                throw new IllegalStateException("no more pages");
+            }
+            Page page = pending;
+            pending = null;
+            return page;
+        }
+
+        private Page join() {
+            int count = 0;
+            while (count < maxPageSize) {
+                if (current == null || position == current.getPositionCount()) {
+                    if (current != null) {
+                        currentOffset += current.getPositionCount();
+                        current.close();
+                        current = null;
+                    }
+                    if (groups.hasNext() == false) {
+                        exhausted = true;
+                        break;
+                    }
+                    current = groups.next();
+                    position = 0;
+                    group = 0;
+                    row = 0;
+                    matched = false;
+                    continue;
+                }
+                if (row != 0) {
+                    probePositions[count] = currentOffset + position;
+                    buildRows[count] = row;
+                    count++;
+                    matched = true;
+                    row = table.nextRow(row - 1);
+                    continue;
+                }
+                if (group < current.getValueCount(position)) {
+                    row = table.firstRow(current.getInt(current.getFirstValueIndex(position) + group));
+                    group++;
+                    continue;
+                }
+                if (leftJoin && matched == false) {
+                    probePositions[count] = currentOffset + position;
+                    buildRows[count] = 0;
+                    count++;
+                }
+                position++;
+                group = 0;
+                matched = false;
+            }
+            return count == 0 ? null : buildPage(count);
+        }
+
+        private Page buildPage(int count) {
+            int probeBlocks = probe.getBlockCount();
+            Block[] blocks = new Block[probeBlocks + table.elementTypes().size()];
+            Block.Builder[] builders = new Block.Builder[table.elementTypes().size()];
+            try {
+                int[] positions = Arrays.copyOf(probePositions, count);
+                for (int b = 0; b < probeBlocks; b++) {
+                    blocks[b] = probe.getBlock(b).filter(positions);
+                }
+                for (int b = 0; b < builders.length; b++) {
+                    builders[b] = table.elementTypes().get(b).newBlockBuilder(count, blockFactory);
+                }
+                for (int i = 0; i < count; i++) {
+                    for (int b = 0; b < builders.length; b++) {
+                        if (buildRows[i] == 0) {
+                            builders[b].appendNull();
+                        } else {
+                            table.copyValue(buildRows[i] - 1, b, builders[b]);
+                        }
+                    }
+                }
+                for (int b = 0; b < builders.length; b++) {
+                    blocks[probeBlocks + b] = builders[b].build();
+                }
+                Page page = new Page(blocks);
+                blocks = null;
+                return page;
+            } finally {
+                Releasables.closeExpectNoException(builders);
+                if (blocks != null) {
+                    Releasables.closeExpectNoException(blocks);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            Releasables.closeExpectNoException(
+                current,
+                groups,
+                pending == null ? null : pending::releaseBlocks,
+                probe::releaseBlocks
+            );
+        }
+    }
+
+    public static class Status implements Operator.Status {
+        public static final NamedWriteableRegistry.Entry ENTRY = new NamedWriteableRegistry.Entry(
+            Operator.Status.class,
+            "hash_join_probe",
+            Status::new
+        );
+
+        private final long processNanos;
+        private final int pagesReceived;
+        private final int pagesEmitted;
+        private final long rowsReceived;
+        private final long rowsEmitted;
+        private final int buildRows;
+        private final long buildBytes;
+
+        public Status(
+            long processNanos,
+            int pagesReceived,
+            int pagesEmitted,
+            long rowsReceived,
+            long rowsEmitted,
+            int buildRows,
+            long buildBytes
+        ) {
+            this.processNanos = processNanos;
+            this.pagesReceived = pagesReceived;
+            this.pagesEmitted = pagesEmitted;
+            this.rowsReceived = rowsReceived;
+            this.rowsEmitted = rowsEmitted;
+            this.buildRows = buildRows;
+            this.buildBytes = buildBytes;
+        }
+
+        protected Status(StreamInput in) throws IOException {
+            processNanos = in.readVLong();
+            pagesReceived = in.readVInt();
+            pagesEmitted = in.readVInt();
+            rowsReceived = in.readVLong();
+            rowsEmitted = in.readVLong();
+            buildRows = in.readVInt();
+            buildBytes = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(processNanos);
+            out.writeVInt(pagesReceived);
+            out.writeVInt(pagesEmitted);
+            out.writeVLong(rowsReceived);
+            out.writeVLong(rowsEmitted);
+            out.writeVInt(buildRows);
+            out.writeVLong(buildBytes);
+        }
+
+        @Override
+        public String getWriteableName() {
+            return ENTRY.name;
+        }
+
+        public long processNanos() {
+            return processNanos;
+        }
+
+        public int pagesReceived() {
+            return pagesReceived;
+        }
+
+        public int pagesEmitted() {
+            return pagesEmitted;
+        }
+
+        public long rowsReceived() {
+            return rowsReceived;
+        }
+
+        public long rowsEmitted() {
+            return rowsEmitted;
+        }
+
+        /**
+         * Count of rows of the build side in the hash table.
+         */
+        public int buildRows() {
+            return buildRows;
+        }
+
+        /**
+         * Estimate of the memory used by the build side.
+         */
+        public long buildBytes() {
+            return buildBytes;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("process_nanos", processNanos);
+            if (builder.humanReadable()) {
+                builder.field("process_time", TimeValue.timeValueNanos(processNanos));
+            }
+            builder.field("pages_received", pagesReceived);
+            builder.field("pages_emitted", pagesEmitted);
+            builder.field("rows_received", rowsReceived);
+            builder.field("rows_emitted", rowsEmitted);
+            builder.field("build_rows", buildRows);
+            builder.field("build_bytes", buildBytes);
+            if (builder.humanReadable()) {
+                builder.field("build_size", ByteSizeValue.ofBytes(buildBytes));
+            }
+            return builder.endObject();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Status status = (Status) o;
+            return processNanos == status.processNanos
+                && pagesReceived == status.pagesReceived
+                && pagesEmitted == status.pagesEmitted
+                && rowsReceived == status.rowsReceived
+                && rowsEmitted == status.rowsEmitted
+                && buildRows == status.buildRows
+                && buildBytes == status.buildBytes;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(processNanos, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted, buildRows, buildBytes);
+        }
+
+        @Override
+        public String toString() {
+            return Strings.toString(this);
+        }
+
+        @Override
+        public TransportVersion getMinimalSupportedVersion() {
+            return TransportVersions.ESQL_HASH_JOIN_STATUS;
+        }
+    }
+}
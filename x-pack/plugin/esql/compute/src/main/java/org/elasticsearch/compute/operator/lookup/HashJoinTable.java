@@ -0,0 +1,284 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.lookup;
+
+import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.IntArray;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.compute.aggregation.GroupingAggregatorFunction;
+import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.IntArrayBlock;
+import org.elasticsearch.compute.data.IntBigArrayBlock;
+import org.elasticsearch.compute.data.IntBlock;
+import org.elasticsearch.compute.data.IntVector;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.RowInTableLookupOperator;
+import org.elasticsearch.core.AbstractRefCounted;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.ReleasableIterator;
+import org.elasticsearch.core.Releasables;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The "build side" of a hash join: the rows of the build side pages, indexed by the values of their
+ * join keys in a {@link BlockHash}. Rows with the same keys are chained together so probing a key
+ * walks all of the rows it matches.
+ * <p>
+ *     The table is filled by a single {@link HashJoinBuildOperator} and then probed, read only, by
+ *     any number of {@link HashJoinProbeOperator}s that may run in other drivers. They wait for
+ *     {@link #waitForBuild} before probing. Because of that all of its memory is tracked by the
+ *     {@link BlockFactory} it is built with, which must not be the local factory of a driver.
+ * </p>
+ * <p>
+ *     The table is reference counted, each operator holds a reference and the memory is released
+ *     once the last one is closed. Nothing is allocated before the first page of the build side, so a
+ *     table that is never built doesn't hold any memory.
+ * </p>
+ */
+public final class HashJoinTable extends AbstractRefCounted {
+    private static final int INITIAL_SIZE = 1024;
+
+    private final BlockFactory blockFactory;
+    private final BigArrays bigArrays;
+    private final int[] keyChannels;
+    private final List<ElementType> elementTypes;
+    private BlockHash hash;
+    private final List<Page> pages = new ArrayList<>();
+    private final SubscribableListener<Void> built = new SubscribableListener<>();
+    /**
+     * The exception the build side failed with, {@code null} unless it failed.
+     */
+    private volatile Exception buildFailure;
+
+    /**
+     * The first row, plus one, of each group. {@code 0} if the group has no rows.
+     */
+    private IntArray groupFirstRow;
+    /**
+     * The next row, plus one, with the same keys as each row. {@code 0} for the last row of a group.
+     */
+    private IntArray nextRow;
+    /**
+     * The page and the position in the page of each row, packed in a long.
+     */
+    private LongArray rowLocations;
+    private int rowCount;
+    private long pagesBytes;
+
+    /**
+     * Build an empty table.
+     * @param blockFactory factory used to track the memory of the table, shared by all drivers
+     * @param keyChannels channels of the join keys in the pages of the build side
+     * @param elementTypes types of all blocks of the pages of the build side
+     */
+    public HashJoinTable(BlockFactory blockFactory, int[] keyChannels, List<ElementType> elementTypes) {
+        this.blockFactory = blockFactory;
+        this.bigArrays = blockFactory.bigArrays();
+        this.keyChannels = keyChannels;
+        this.elementTypes = elementTypes;
+    }
+
+    /**
+     * Allocates the hash and the arrays of the table, if they aren't yet.
+     */
+    private void allocate() {
+        if (hash != null) {
+            return;
+        }
+        List<BlockHash.GroupSpec> groups = new ArrayList<>(keyChannels.length);
+        for (int k = 0; k < keyChannels.length; k++) {
+            groups.add(new BlockHash.GroupSpec(k, elementTypes.get(keyChannels[k])));
+        }
+        int emitBatchSize = (int) BlockFactory.DEFAULT_MAX_BLOCK_PRIMITIVE_ARRAY_SIZE.getBytes();
+        hash = BlockHash.buildPackedValuesBlockHash(groups, blockFactory, emitBatchSize);
+        groupFirstRow = bigArrays.newIntArray(INITIAL_SIZE, true);
+        nextRow = bigArrays.newIntArray(INITIAL_SIZE, false);
+        rowLocations = bigArrays.newLongArray(INITIAL_SIZE, false);
+    }
+
+    /**
+     * Adds the rows of a page of the build side to the table. Like in {@link RowInTableLookupOperator},
+     * {@code null} join keys are a group of their own, so rows with {@code null} keys match probe rows with
+     * {@code null} keys. {@code INLINESTATS} relies on that to join the rows of the {@code null} group with its stats.
+     * The table takes ownership of the page, which must be allowed to pass to a different driver as it is
+     * read by the drivers that probe the table.
+     */
+    void add(Page page) {
+        if (built.isDone()) {
+            page.releaseBlocks();
+            throw new IllegalStateException("can't add pages to a table that is already built");
+        }
+        int pageIndex = pages.size();
+        pages.add(page);
+        pagesBytes += page.ramBytesUsed();
+        allocate();
+        Page keys = page.projectBlocks(keyChannels);
+        try {
+            hash.add(keys, new GroupingAggregatorFunction.AddInput() {
+                @Override
+                public void add(int positionOffset, IntArrayBlock groupIds) {
+                    addRows(pageIndex, positionOffset, groupIds);
+                }
+
+                @Override
+                public void add(int positionOffset, IntBigArrayBlock groupIds) {
+                    addRows(pageIndex, positionOffset, groupIds);
+                }
+
+                @Override
+                public void add(int positionOffset, IntVector groupIds) {
+                    addRows(pageIndex, positionOffset, groupIds.asBlock());
+                }
+
+                @Override
+                public void close() {}
+            });
+        } finally {
+            keys.releaseBlocks();
+        }
+    }
+
+    private void addRows(int pageIndex, int positionOffset, IntBlock groupIds) {
+        for (int p = 0; p < groupIds.getPositionCount(); p++) {
+            int position = positionOffset + p;
+            int first = groupIds.getFirstValueIndex(p);
+            int end = first + groupIds.getValueCount(p);
+            for (int i = first; i < end; i++) {
+                addRow(groupIds.getInt(i), pageIndex, position);
+            }
+        }
+    }
+
+    private void addRow(int group, int pageIndex, int position) {
+        int row = rowCount++;
+        groupFirstRow = bigArrays.grow(groupFirstRow, group + 1);
+        nextRow = bigArrays.grow(nextRow, row + 1);
+        rowLocations = bigArrays.grow(rowLocations, row + 1);
+        nextRow.set(row, groupFirstRow.get(group));
+        groupFirstRow.set(group, row + 1);
+        rowLocations.set(row, ((long) pageIndex << 32) | position);
+    }
+
+    /**
+     * Marks the table as built, unblocking the probe operators.
+     */
+    void finishBuild() {
+        allocate();
+        built.onResponse(null);
+    }
+
+    /**
+     * Fails the probe operators waiting for the table to be built. Only the first failure is kept.
+     */
+    void failBuild(Exception e) {
+        if (built.isDone() == false && buildFailure == null) {
+            buildFailure = e;
+        }
+        built.onFailure(e);
+    }
+
+    /**
+     * The exception the build side failed with, {@code null} unless it failed.
+     */
+    Exception buildFailure() {
+        return buildFailure;
+    }
+
+    /**
+     * A listener that is completed once all rows of the build side are in the table.
+     */
+    public SubscribableListener<Void> waitForBuild() {
+        return built;
+    }
+
+    /**
+     * Finds the groups of the join keys of each position of a page of the probe side. The keys must be
+     * in the first channels of the page, in the same order as on the build side. Positions whose keys
+     * are not in the table are {@code null}.
+     */
+    ReleasableIterator<IntBlock> lookup(Page keys, ByteSizeValue targetBlockSize) {
+        assert built.isDone() : "probing a table that isn't built";
+        return hash.lookup(keys, targetBlockSize);
+    }
+
+    /**
+     * The first row, plus one, with the keys of a group. {@code 0} if no row has these keys.
+     */
+    int firstRow(int group) {
+        return group < groupFirstRow.size() ? groupFirstRow.get(group) : 0;
+    }
+
+    /**
+     * The row, plus one, after the given {@code row} with the same keys. {@code 0} if it is the last one.
+     */
+    int nextRow(int row) {
+        return nextRow.get(row);
+    }
+
+    /**
+     * Appends the value of the given {@code channel} of a row to a builder.
+     */
+    void copyValue(int row, int channel, Block.Builder builder) {
+        long location = rowLocations.get(row);
+        int position = (int) location;
+        builder.copyFrom(pages.get((int) (location >>> 32)).getBlock(channel), position, position + 1);
+    }
+
+    /**
+     * Types of all blocks of the pages of the build side.
+     */
+    List<ElementType> elementTypes() {
+        return elementTypes;
+    }
+
+    /**
+     * The number of rows in the table.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Estimate of the memory used by the table, excluding the {@link BlockHash}.
+     */
+    public long ramBytesUsed() {
+        if (hash == null) {
+            return pagesBytes;
+        }
+        return pagesBytes + groupFirstRow.ramBytesUsed() + nextRow.ramBytesUsed() + rowLocations.ramBytesUsed();
+    }
+
+    @Override
+    protected void closeInternal() {
+        if (built.isDone() == false) {
+            failBuild(new IllegalStateException("hash join table closed before it was built"));
+        }
+        List<Releasable> close = new ArrayList<>(pages.size() + 4);
+        close.add(hash);
+        close.add(groupFirstRow);
+        close.add(nextRow);
+        close.add(rowLocations);
+        for (Page page : pages) {
+            close.add(page::releaseBlocks);
+        }
+        pages.clear();
+        Releasables.closeExpectNoException(Releasables.wrap(close));
+    }
+
+    @Override
+    public String toString() {
+        return "HashJoinTable[rows=" + rowCount + ", pages=" + pages.size() + "]";
+    }
+}
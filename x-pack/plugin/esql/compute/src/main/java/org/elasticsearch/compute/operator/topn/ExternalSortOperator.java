@@ -0,0 +1,462 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.topn;
+
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts rows that may not fit in memory, with an external merge sort. Rows are encoded the same way as in
+ * {@link TopNOperator} and buffered until they use {@code runBytes} of memory. They are then sorted and the
+ * first {@code topCount} of them are written to a {@link SortedRun} on disk. Once all input is received the
+ * runs are merged, reading a single row of each run at a time, until {@code topCount} rows are emitted.
+ * <p>
+ * At most {@code mergeFanIn} runs are read at once, each with its own read buffer accounted in the circuit
+ * breaker. If more runs were written they are first merged into bigger runs, {@code mergeFanIn} at a time,
+ * until few enough remain.
+ * <p>
+ * If all rows fit in memory nothing is written to disk and the buffered rows are emitted directly.
+ */
+public class ExternalSortOperator implements Operator {
+    /**
+     * The maximum number of runs merged at once, unless configured otherwise.
+     */
+    static final int DEFAULT_MERGE_FAN_IN = 64;
+
+    public record ExternalSortOperatorFactory(
+        int topCount,
+        List<ElementType> elementTypes,
+        List<TopNEncoder> encoders,
+        List<TopNOperator.SortOrder> sortOrders,
+        int maxPageSize,
+        long runBytes
+    ) implements OperatorFactory {
+        public ExternalSortOperatorFactory {
+            for (ElementType e : elementTypes) {
+                if (e == null) {
+                    throw new IllegalArgumentException("ElementType not known");
+                }
+            }
+        }
+
+        @Override
+        public ExternalSortOperator get(DriverContext driverContext) {
+            return new ExternalSortOperator(
+                driverContext.blockFactory(),
+                driverContext.breaker(),
+                topCount,
+                elementTypes,
+                encoders,
+                sortOrders,
+                maxPageSize,
+                runBytes
+            );
+        }
+
+        @Override
+        public String describe() {
+            return "ExternalSortOperator[count="
+                + topCount
+                + ", elementTypes="
+                + elementTypes
+                + ", encoders="
+                + encoders
+                + ", sortOrders="
+                + sortOrders
+                + ", runBytes="
+                + runBytes
+                + "]";
+        }
+    }
+
+    private final BlockFactory blockFactory;
+    private final CircuitBreaker breaker;
+    private final int topCount;
+    private final List<ElementType> elementTypes;
+    private final List<TopNEncoder> encoders;
+    private final List<TopNOperator.SortOrder> sortOrders;
+    private final int maxPageSize;
+    private final long runBytes;
+    private final int mergeFanIn;
+
+    /**
+     * Rows received since the last run was written.
+     */
+    private final List<TopNOperator.Row> rows = new ArrayList<>();
+    private long rowsBytes;
+    private int spareKeysPreAllocSize = 0;
+    private int spareValuesPreAllocSize = 0;
+
+    private final List<SortedRun> runs = new ArrayList<>();
+
+    /**
+     * The sorted rows to emit, built when the operator is finished.
+     */
+    private RowIterator output;
+
+    /**
+     * Count of pages that have been received by this operator.
+     */
+    private int pagesReceived;
+
+    /**
+     * Count of pages that have been emitted by this operator.
+     */
+    private int pagesEmitted;
+
+    /**
+     * Count of rows this operator has received.
+     */
+    private long rowsReceived;
+
+    /**
+     * Count of rows this operator has emitted.
+     */
+    private long rowsEmitted;
+
+    /**
+     * Count of bytes of the runs this operator has spilled to disk.
+     */
+    private long spilledBytes;
+
+    public ExternalSortOperator(
+        BlockFactory blockFactory,
+        CircuitBreaker breaker,
+        int topCount,
+        List<ElementType> elementTypes,
+        List<TopNEncoder> encoders,
+        List<TopNOperator.SortOrder> sortOrders,
+        int maxPageSize,
+        long runBytes
+    ) {
+        this(blockFactory, breaker, topCount, elementTypes, encoders, sortOrders, maxPageSize, runBytes, DEFAULT_MERGE_FAN_IN);
+    }
+
+    ExternalSortOperator(
+        BlockFactory blockFactory,
+        CircuitBreaker breaker,
+        int topCount,
+        List<ElementType> elementTypes,
+        List<TopNEncoder> encoders,
+        List<TopNOperator.SortOrder> sortOrders,
+        int maxPageSize,
+        long runBytes,
+        int mergeFanIn
+    ) {
+        if (mergeFanIn < 2) {
+            throw new IllegalArgumentException("mergeFanIn must be at least 2 but was [" + mergeFanIn + "]");
+        }
+        this.blockFactory = blockFactory;
+        this.breaker = breaker;
+        this.topCount = topCount;
+        this.elementTypes = elementTypes;
+        this.encoders = encoders;
+        this.sortOrders = sortOrders;
+        this.maxPageSize = maxPageSize;
+        this.runBytes = runBytes;
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    /**
+     * Orders rows in the order they are emitted. {@link TopNOperator#compareRows} orders the row that sorts
+     * first as the greater one, for the queue of {@link TopNOperator} to evict the row that sorts last.
+     */
+    private static int sortOrder(TopNOperator.Row r1, TopNOperator.Row r2) {
+        return TopNOperator.compareRows(r2, r1);
+    }
+
+    @Override
+    public boolean needsInput() {
+        return output == null;
+    }
+
+    @Override
+    public void addInput(Page page) {
+        try {
+            TopNOperator.RowFiller rowFiller = new TopNOperator.RowFiller(elementTypes, encoders, sortOrders, page);
+            for (int i = 0; i < page.getPositionCount(); i++) {
+                TopNOperator.Row row = new TopNOperator.Row(breaker, sortOrders, spareKeysPreAllocSize, spareValuesPreAllocSize);
+                boolean success = false;
+                try {
+                    rowFiller.row(i, row);
+                    rows.add(row);
+                    success = true;
+                } finally {
+                    if (success == false) {
+                        row.close();
+                    }
+                }
+                spareKeysPreAllocSize = Math.max(row.keys.length(), spareKeysPreAllocSize / 2);
+                spareValuesPreAllocSize = Math.max(row.values.length(), spareValuesPreAllocSize / 2);
+                rowsBytes += row.ramBytesUsed();
+                if (rowsBytes >= runBytes) {
+                    writeRun();
+                }
+            }
+        } finally {
+            page.releaseBlocks();
+            pagesReceived++;
+            rowsReceived += page.getPositionCount();
+        }
+    }
+
+    /**
+     * Sorts the buffered rows and keeps the first {@code topCount} of them, releasing the others.
+     */
+    private void sortRows() {
+        rows.sort(ExternalSortOperator::sortOrder);
+        if (rows.size() > topCount) {
+            List<TopNOperator.Row> dropped = rows.subList(topCount, rows.size());
+            Releasables.closeExpectNoException(Releasables.wrap(dropped));
+            dropped.clear();
+        }
+    }
+
+    /**
+     * Writes the buffered rows to a new run on disk and releases them.
+     */
+    private void writeRun() {
+        sortRows();
+        SortedRun run = SortedRun.create(breaker);
+        runs.add(run);
+        for (TopNOperator.Row row : rows) {
+            run.write(row);
+        }
+        run.finishWriting();
+        spilledBytes += run.bytes();
+        Releasables.closeExpectNoException(Releasables.wrap(rows));
+        rows.clear();
+        rowsBytes = 0;
+    }
+
+    @Override
+    public void finish() {
+        if (output != null) {
+            return;
+        }
+        if (runs.isEmpty()) {
+            sortRows();
+            output = new BufferedRows();
+        } else {
+            if (rows.isEmpty() == false) {
+                writeRun();
+            }
+            while (runs.size() > mergeFanIn) {
+                mergeRuns();
+            }
+            output = new MergedRuns(runs);
+        }
+    }
+
+    /**
+     * Merges the first {@code mergeFanIn} runs into a new run, keeping their first {@code topCount} rows, and
+     * replaces them with it.
+     */
+    private void mergeRuns() {
+        List<SortedRun> merging = runs.subList(0, mergeFanIn);
+        SortedRun merged = SortedRun.create(breaker);
+        boolean success = false;
+        try (MergedRuns in = new MergedRuns(merging)) {
+            while (merged.rowCount() < topCount && in.hasNext()) {
+                try (TopNOperator.Row row = in.next()) {
+                    merged.write(row);
+                }
+            }
+            merged.finishWriting();
+            success = true;
+        } finally {
+            if (success == false) {
+                merged.close();
+            }
+        }
+        spilledBytes += merged.bytes();
+        Releasables.closeExpectNoException(Releasables.wrap(merging));
+        merging.clear();
+        runs.add(merged);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return output != null && (rowsEmitted >= topCount || output.hasNext() == false);
+    }
+
+    @Override
+    public Page getOutput() {
+        if (output == null || isFinished()) {
+            return null;
+        }
+        int size = (int) Math.min(maxPageSize, topCount - rowsEmitted);
+        ResultBuilder[] builders = TopNOperator.resultBuilders(blockFactory, elementTypes, encoders, sortOrders, size);
+        try {
+            int p = 0;
+            while (p < size && output.hasNext()) {
+                try (TopNOperator.Row row = output.next()) {
+                    TopNOperator.decodeRow(row, sortOrders, builders);
+                }
+                p++;
+            }
+            if (p == 0) {
+                return null;
+            }
+            Page page = TopNOperator.buildPage(builders);
+            pagesEmitted++;
+            rowsEmitted += page.getPositionCount();
+            return page;
+        } finally {
+            Releasables.closeExpectNoException(builders);
+        }
+    }
+
+    @Override
+    public void close() {
+        Releasables.closeExpectNoException(Releasables.wrap(rows), output, Releasables.wrap(runs));
+    }
+
+    @Override
+    public Status status() {
+        return new TopNOperatorStatus(
+            rows.size(),
+            rowsBytes,
+            pagesReceived,
+            pagesEmitted,
+            rowsReceived,
+            rowsEmitted,
+            spilledBytes,
+            runs.size()
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalSortOperator[count="
+            + topCount
+            + ", elementTypes="
+            + elementTypes
+            + ", encoders="
+            + encoders
+            + ", sortOrders="
+            + sortOrders
+            + ", runBytes="
+            + runBytes
+            + "]";
+    }
+
+    /**
+     * Rows in the order they are emitted. Each row is released by the caller.
+     */
+    private interface RowIterator extends Releasable {
+        boolean hasNext();
+
+        TopNOperator.Row next();
+    }
+
+    /**
+     * The buffered rows when they fit in memory, already sorted.
+     */
+    private class BufferedRows implements RowIterator {
+        private int next = 0;
+
+        @Override
+        public boolean hasNext() {
+            return next < rows.size();
+        }
+
+        @Override
+        public TopNOperator.Row next() {
+            TopNOperator.Row row = rows.get(next);
+            rows.set(next++, null);
+            return row;
+        }
+
+        @Override
+        public void close() {
+            // the rows that weren't emitted are released with the buffer
+        }
+    }
+
+    /**
+     * K-way merge of runs, with a queue of the next row of each run.
+     */
+    private class MergedRuns implements RowIterator {
+        private final List<SortedRun.Reader> readers;
+        private final PriorityQueue<Head> queue;
+
+        MergedRuns(List<SortedRun> runs) {
+            readers = new ArrayList<>(runs.size());
+            queue = new PriorityQueue<>(runs.size()) {
+                @Override
+                protected boolean lessThan(Head a, Head b) {
+                    return sortOrder(a.row, b.row) < 0;
+                }
+            };
+            boolean success = false;
+            try {
+                for (SortedRun run : runs) {
+                    SortedRun.Reader reader = run.read(sortOrders);
+                    readers.add(reader);
+                    TopNOperator.Row row = reader.next();
+                    if (row != null) {
+                        queue.add(new Head(row, reader));
+                    }
+                }
+                success = true;
+            } finally {
+                if (success == false) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return queue.size() > 0;
+        }
+
+        @Override
+        public TopNOperator.Row next() {
+            Head head = queue.top();
+            TopNOperator.Row row = head.row;
+            head.row = head.reader.next();
+            if (head.row == null) {
+                queue.pop();
+            } else {
+                queue.updateTop();
+            }
+            return row;
+        }
+
+        @Override
+        public void close() {
+            List<Releasable> close = new ArrayList<>(readers);
+            for (Head head : queue) {
+                close.add(head.row);
+            }
+            Releasables.closeExpectNoException(Releasables.wrap(close));
+        }
+    }
+
+    private static final class Head {
+        TopNOperator.Row row;
+        final SortedRun.Reader reader;
+
+        Head(TopNOperator.Row row, SortedRun.Reader reader) {
+            this.row = row;
+            this.reader = reader;
+        }
+    }
+}
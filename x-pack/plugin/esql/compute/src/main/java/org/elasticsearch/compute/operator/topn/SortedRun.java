@@ -0,0 +1,209 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.topn;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.PositionTrackingOutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.compute.operator.BreakingBytesRefBuilder;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A temporary file of {@link TopNOperator.Row}s written in sort order. The rows are written with their
+ * encoded keys and values so they can be compared again when the runs are merged, without decoding
+ * them. The file is deleted when this is closed.
+ * <p>
+ * The buffers of the file are accounted in the circuit breaker: one while the run is written, until
+ * {@link #finishWriting()}, and one for each open {@link Reader}.
+ */
+final class SortedRun implements Releasable {
+    /**
+     * The size of the buffer used to write the run and of the buffer of each of its readers.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    private final Path path;
+    private final CircuitBreaker breaker;
+    private PositionTrackingOutputStreamStreamOutput out;
+    private int rowCount;
+    private long bytes;
+
+    private SortedRun(Path path, CircuitBreaker breaker) throws IOException {
+        this.path = path;
+        this.breaker = breaker;
+        this.out = new PositionTrackingOutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * Creates an empty run in the temporary directory of the node, accounting its write buffer in the breaker.
+     */
+    static SortedRun create(CircuitBreaker breaker) {
+        breaker.addEstimateBytesAndMaybeBreak(BUFFER_SIZE, "esql_sorted_run");
+        Path path = null;
+        try {
+            path = Files.createTempFile("esql-sort-", ".bin");
+            return new SortedRun(path, breaker);
+        } catch (IOException e) {
+            breaker.addWithoutBreaking(-BUFFER_SIZE);
+            if (path != null) {
+                IOUtils.deleteFilesIgnoringExceptions(path);
+            }
+            throw new UncheckedIOException("failed to create sorted run", e);
+        }
+    }
+
+    /**
+     * Appends a row to the run. Rows must be written in sort order.
+     */
+    void write(TopNOperator.Row row) {
+        if (out == null) {
+            throw new IllegalStateException("sorted run [" + path + "] is already written");
+        }
+        try {
+            out.writeBytesRef(row.keys.bytesRefView());
+            for (int endOffset : row.bytesOrder.endOffsets) {
+                out.writeVInt(endOffset);
+            }
+            out.writeBytesRef(row.values.bytesRefView());
+            bytes = out.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write to sorted run [" + path + "]", e);
+        }
+        rowCount++;
+    }
+
+    /**
+     * The number of rows written to the run.
+     */
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * The number of bytes written to the run.
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Flushes and closes the file and releases the write buffer. No more rows can be written afterwards.
+     */
+    void finishWriting() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write to sorted run [" + path + "]", e);
+        } finally {
+            out = null;
+            breaker.addWithoutBreaking(-BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Reads the rows back in the order they were written, accounting the read buffer in the breaker until the
+     * reader is closed. No more rows can be written once the run is read.
+     */
+    Reader read(List<TopNOperator.SortOrder> sortOrders) {
+        finishWriting();
+        breaker.addEstimateBytesAndMaybeBreak(BUFFER_SIZE, "esql_sorted_run");
+        try {
+            return new Reader(new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)), sortOrders);
+        } catch (IOException e) {
+            breaker.addWithoutBreaking(-BUFFER_SIZE);
+            throw new UncheckedIOException("failed to read sorted run [" + path + "]", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            IOUtils.closeWhileHandlingException(out);
+            out = null;
+            breaker.addWithoutBreaking(-BUFFER_SIZE);
+        }
+        IOUtils.deleteFilesIgnoringExceptions(path);
+    }
+
+    @Override
+    public String toString() {
+        return "SortedRun[path=" + path + ", rows=" + rowCount + ", bytes=" + bytes + "]";
+    }
+
+    /**
+     * Reads the rows of a run, one at a time.
+     */
+    final class Reader implements Releasable {
+        private final StreamInput in;
+        private final List<TopNOperator.SortOrder> sortOrders;
+        private int remaining = rowCount;
+        private boolean closed;
+
+        private Reader(StreamInput in, List<TopNOperator.SortOrder> sortOrders) {
+            this.in = in;
+            this.sortOrders = sortOrders;
+        }
+
+        /**
+         * Reads the next row, or returns {@code null} if all rows were read. The row must be closed by the caller.
+         */
+        TopNOperator.Row next() {
+            if (remaining == 0) {
+                return null;
+            }
+            remaining--;
+            TopNOperator.Row row = new TopNOperator.Row(breaker, sortOrders, 0, 0);
+            boolean success = false;
+            try {
+                readBytes(row.keys);
+                for (int i = 0; i < row.bytesOrder.endOffsets.length; i++) {
+                    row.bytesOrder.endOffsets[i] = in.readVInt();
+                }
+                readBytes(row.values);
+                success = true;
+                return row;
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to read from sorted run [" + path + "]", e);
+            } finally {
+                if (success == false) {
+                    row.close();
+                }
+            }
+        }
+
+        private void readBytes(BreakingBytesRefBuilder builder) throws IOException {
+            int length = in.readVInt();
+            builder.grow(length);
+            in.readBytes(builder.bytes(), 0, length);
+            builder.setLength(length);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            IOUtils.closeWhileHandlingException(in);
+            breaker.addWithoutBreaking(-BUFFER_SIZE);
+        }
+    }
+}
@@ -425,59 +425,18 @@ public class TopNOperator implements Operator, Accountable {
             for (int i = 0; i < list.size(); i++) {
                 if (builders == null) {
                     size = Math.min(maxPageSize, list.size() - i);
-                    builders = new ResultBuilder[elementTypes.size()];
-                    for (int b = 0; b < builders.length; b++) {
-                        builders[b] = ResultBuilder.resultBuilderFor(
-                            blockFactory,
-                            elementTypes.get(b),
-                            encoders.get(b).toUnsortable(),
-                            channelInKey(sortOrders, b),
-                            size
-                        );
-                    }
+                    builders = resultBuilders(blockFactory, elementTypes, encoders, sortOrders, size);
                     p = 0;
                 }
 
                 Row row = list.get(i);
-                BytesRef keys = row.keys.bytesRefView();
-                for (SortOrder so : sortOrders) {
-                    if (keys.bytes[keys.offset] == so.nul()) {
-                        keys.offset++;
-                        keys.length--;
-                        continue;
-                    }
-                    keys.offset++;
-                    keys.length--;
-                    builders[so.channel].decodeKey(keys);
-                }
-                if (keys.length != 0) {
-                    throw new IllegalArgumentException("didn't read all keys");
-                }
-
-                BytesRef values = row.values.bytesRefView();
-                for (ResultBuilder builder : builders) {
-                    builder.decodeValue(values);
-                }
-                if (values.length != 0) {
-                    throw new IllegalArgumentException("didn't read all values");
-                }
-
+                decodeRow(row, sortOrders, builders);
                 list.set(i, null);
                 row.close();
 
                 p++;
                 if (p == size) {
-                    Block[] blocks = new Block[builders.length];
-                    try {
-                        for (int b = 0; b < blocks.length; b++) {
-                            blocks[b] = builders[b].build();
-                        }
-                    } finally {
-                        if (blocks[blocks.length - 1] == null) {
-                            Releasables.closeExpectNoException(blocks);
-                        }
-                    }
-                    result.add(new Page(blocks));
+                    result.add(buildPage(builders));
                     Releasables.closeExpectNoException(builders);
                     builders = null;
                 }
@@ -497,6 +456,82 @@ public class TopNOperator implements Operator, Accountable {
         }
     }
 
+    /**
+     * Builds the {@link ResultBuilder}s that decode rows back into the blocks of a page of {@code size} positions.
+     */
+    static ResultBuilder[] resultBuilders(
+        BlockFactory blockFactory,
+        List<ElementType> elementTypes,
+        List<TopNEncoder> encoders,
+        List<SortOrder> sortOrders,
+        int size
+    ) {
+        ResultBuilder[] builders = new ResultBuilder[elementTypes.size()];
+        boolean success = false;
+        try {
+            for (int b = 0; b < builders.length; b++) {
+                builders[b] = ResultBuilder.resultBuilderFor(
+                    blockFactory,
+                    elementTypes.get(b),
+                    encoders.get(b).toUnsortable(),
+                    channelInKey(sortOrders, b),
+                    size
+                );
+            }
+            success = true;
+            return builders;
+        } finally {
+            if (success == false) {
+                Releasables.closeExpectNoException(builders);
+            }
+        }
+    }
+
+    /**
+     * Decodes the keys and the values of a {@link Row} into the {@link ResultBuilder}s.
+     */
+    static void decodeRow(Row row, List<SortOrder> sortOrders, ResultBuilder[] builders) {
+        BytesRef keys = row.keys.bytesRefView();
+        for (SortOrder so : sortOrders) {
+            if (keys.bytes[keys.offset] == so.nul()) {
+                keys.offset++;
+                keys.length--;
+                continue;
+            }
+            keys.offset++;
+            keys.length--;
+            builders[so.channel].decodeKey(keys);
+        }
+        if (keys.length != 0) {
+            throw new IllegalArgumentException("didn't read all keys");
+        }
+
+        BytesRef values = row.values.bytesRefView();
+        for (ResultBuilder builder : builders) {
+            builder.decodeValue(values);
+        }
+        if (values.length != 0) {
+            throw new IllegalArgumentException("didn't read all values");
+        }
+    }
+
+    /**
+     * Builds a page out of the decoded rows. The builders are not released.
+     */
+    static Page buildPage(ResultBuilder[] builders) {
+        Block[] blocks = new Block[builders.length];
+        try {
+            for (int b = 0; b < blocks.length; b++) {
+                blocks[b] = builders[b].build();
+            }
+        } finally {
+            if (blocks[blocks.length - 1] == null) {
+                Releasables.closeExpectNoException(blocks);
+            }
+        }
+        return new Page(blocks);
+    }
+
     private static boolean channelInKey(List<SortOrder> sortOrders, int channel) {
         for (SortOrder so : sortOrders) {
             if (so.channel == channel) {
@@ -31,6 +31,8 @@ public class TopNOperatorStatus implements Operator.Status {
     private final int pagesEmitted;
     private final long rowsReceived;
     private final long rowsEmitted;
+    private final long spilledBytes;
+    private final int spilledRuns;
 
     public TopNOperatorStatus(
         int occupiedRows,
@@ -39,6 +41,19 @@ public class TopNOperatorStatus implements Operator.Status {
         int pagesEmitted,
         long rowsReceived,
         long rowsEmitted
+    ) {
+        this(occupiedRows, ramBytesUsed, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted, 0, 0);
+    }
+
+    public TopNOperatorStatus(
+        int occupiedRows,
+        long ramBytesUsed,
+        int pagesReceived,
+        int pagesEmitted,
+        long rowsReceived,
+        long rowsEmitted,
+        long spilledBytes,
+        int spilledRuns
     ) {
         this.occupiedRows = occupiedRows;
         this.ramBytesUsed = ramBytesUsed;
@@ -46,6 +61,8 @@ public class TopNOperatorStatus implements Operator.Status {
         this.pagesEmitted = pagesEmitted;
         this.rowsReceived = rowsReceived;
         this.rowsEmitted = rowsEmitted;
+        this.spilledBytes = spilledBytes;
+        this.spilledRuns = spilledRuns;
     }
 
     TopNOperatorStatus(StreamInput in) throws IOException {
@@ -63,6 +80,13 @@ public class TopNOperatorStatus implements Operator.Status {
             this.rowsReceived = 0;
             this.rowsEmitted = 0;
         }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_TOPN_STATUS_SPILL)) {
+            this.spilledBytes = in.readVLong();
+            this.spilledRuns = in.readVInt();
+        } else {
+            this.spilledBytes = 0;
+            this.spilledRuns = 0;
+        }
     }
 
     @Override
@@ -76,6 +100,10 @@ public class TopNOperatorStatus implements Operator.Status {
             out.writeVLong(rowsReceived);
             out.writeVLong(rowsEmitted);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_TOPN_STATUS_SPILL)) {
+            out.writeVLong(spilledBytes);
+            out.writeVInt(spilledRuns);
+        }
     }
 
     @Override
@@ -107,6 +135,20 @@ public class TopNOperatorStatus implements Operator.Status {
         return rowsEmitted;
     }
 
+    /**
+     * Count of bytes of the sorted runs spilled to disk.
+     */
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * Count of sorted runs spilled to disk.
+     */
+    public int spilledRuns() {
+        return spilledRuns;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
@@ -117,6 +159,9 @@ public class TopNOperatorStatus implements Operator.Status {
         builder.field("pages_emitted", pagesEmitted);
         builder.field("rows_received", rowsReceived);
         builder.field("rows_emitted", rowsEmitted);
+        builder.field("spilled_bytes", spilledBytes);
+        builder.field("spilled", ByteSizeValue.ofBytes(spilledBytes));
+        builder.field("spilled_runs", spilledRuns);
         return builder.endObject();
     }
 
@@ -131,12 +176,14 @@ public class TopNOperatorStatus implements Operator.Status {
             && pagesReceived == that.pagesReceived
             && pagesEmitted == that.pagesEmitted
             && rowsReceived == that.rowsReceived
-            && rowsEmitted == that.rowsEmitted;
+            && rowsEmitted == that.rowsEmitted
+            && spilledBytes == that.spilledBytes
+            && spilledRuns == that.spilledRuns;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(occupiedRows, ramBytesUsed, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted);
+        return Objects.hash(occupiedRows, ramBytesUsed, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted, spilledBytes, spilledRuns);
     }
 
     @Override
@@ -12,6 +12,7 @@ import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.BytesRefHash;
@@ -29,10 +30,13 @@ import org.elasticsearch.test.TransportVersionUtils;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 
 public class BlockSerializationTests extends SerializationTestCase {
 
@@ -373,6 +377,96 @@ public class BlockSerializationTests extends SerializationTestCase {
         }
     }
 
+    public void testPackedLongVector() throws IOException {
+        int positions = between(VectorEncodings.MIN_POSITIONS, 5000);
+        int bits = between(0, VectorEncodings.MAX_PACKED_BITS);
+        long min = randomLongBetween(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2);
+        try (LongVector.Builder builder = blockFactory.newLongVectorBuilder(positions)) {
+            for (int i = 0; i < positions; i++) {
+                builder.appendLong(min + (bits == 0 ? 0 : randomLongBetween(0, (1L << bits) - 1)));
+            }
+            try (LongBlock origBlock = builder.build().asBlock()) {
+                assertVectorEncoding(origBlock);
+            }
+        }
+    }
+
+    public void testRunLengthLongVector() throws IOException {
+        int positions = between(1000, 5000);
+        try (LongVector.Builder builder = blockFactory.newLongVectorBuilder(positions)) {
+            int position = 0;
+            while (position < positions) {
+                long value = randomLong();
+                int length = Math.min(between(50, 200), positions - position);
+                for (int i = 0; i < length; i++) {
+                    builder.appendLong(value);
+                }
+                position += length;
+            }
+            try (LongBlock origBlock = builder.build().asBlock()) {
+                assertVectorEncoding(origBlock);
+                VectorEncodingStats stats = new VectorEncodingStats();
+                long size = encodedSize(origBlock, TransportVersion.current(), stats);
+                assertThat(stats.encodedBytes().keySet(), equalTo(Set.of(VectorEncodingStats.RUNS)));
+                assertThat(stats.encodedBytes().get(VectorEncodingStats.RUNS), lessThan(size));
+            }
+        }
+    }
+
+    public void testDictionaryBytesRefVector() throws IOException {
+        int positions = between(1000, 5000);
+        List<BytesRef> dictionary = randomList(1, VectorEncodings.MIN_POSITIONS, () -> new BytesRef(randomAlphaOfLength(between(8, 30))));
+        try (BytesRefVector.Builder builder = blockFactory.newBytesRefVectorBuilder(positions)) {
+            for (int i = 0; i < positions; i++) {
+                builder.appendBytesRef(randomFrom(dictionary));
+            }
+            try (BytesRefBlock origBlock = builder.build().asBlock()) {
+                assertVectorEncoding(origBlock);
+                try (Block deserBlock = encodeDecodeBlock(origBlock, TransportVersion.current())) {
+                    assertThat(((BytesRefBlock) deserBlock).asVector(), instanceOf(OrdinalBytesRefVector.class));
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that a block written by {@link Page#writeEncodedTo} round trips with and without {@link VectorEncodings},
+     * is smaller with them, and that {@link Page#writeTo} doesn't use them.
+     */
+    private void assertVectorEncoding(Block origBlock) throws IOException {
+        TransportVersion before = TransportVersionUtils.getPreviousVersion(TransportVersions.ESQL_VECTOR_ENCODINGS);
+        for (TransportVersion version : List.of(before, TransportVersion.current())) {
+            try (Block deserBlock = encodeDecodeBlock(origBlock, version)) {
+                EqualsHashCodeTestUtils.checkEqualsAndHashCode(origBlock, unused -> deserBlock);
+            }
+        }
+        long encodedSize = encodedSize(origBlock, TransportVersion.current(), null);
+        assertThat(encodedSize, lessThan(encodedSize(origBlock, before, null)));
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            new Page(origBlock).writeTo(out);
+            assertThat(encodedSize, lessThan((long) out.size()));
+        }
+    }
+
+    private Block encodeDecodeBlock(Block origBlock, TransportVersion version) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setTransportVersion(version);
+            new Page(origBlock).writeEncodedTo(out, null);
+            try (BlockStreamInput in = blockStreamInput(out)) {
+                in.setTransportVersion(version);
+                return new Page(in).getBlock(0);
+            }
+        }
+    }
+
+    private static long encodedSize(Block block, TransportVersion version, VectorEncodingStats stats) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setTransportVersion(version);
+            new Page(block).writeEncodedTo(out, stats);
+            return out.size();
+        }
+    }
+
     public void testCompositeBlock() throws Exception {
         final int numBlocks = randomIntBetween(1, 10);
         final int positionCount = randomIntBetween(1, 1000);
@@ -16,7 +16,7 @@ import static org.hamcrest.Matchers.equalTo;
 
 public class HashAggregationOperatorStatusTests extends AbstractWireSerializingTestCase<HashAggregationOperator.Status> {
     public static HashAggregationOperator.Status simple() {
-        return new HashAggregationOperator.Status(500012, 200012, 123, 111, 222, 180017);
+        return new HashAggregationOperator.Status(500012, 200012, 123, 111, 222, 180017, 4096, 3);
     }
 
     public static String simpleToJson() {
@@ -30,7 +30,10 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
               "rows_received" : 111,
               "rows_emitted" : 222,
               "emit_nanos" : 180017,
-              "emit_time" : "180micros"
+              "emit_time" : "180micros",
+              "spilled_bytes" : 4096,
+              "spilled" : "4kb",
+              "spilled_partitions" : 3
             }""";
     }
 
@@ -51,7 +54,9 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
             randomNonNegativeInt(),
             randomNonNegativeLong(),
             randomNonNegativeLong(),
-            randomNonNegativeLong()
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeInt()
         );
     }
 
@@ -63,15 +68,28 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
         long rowsReceived = instance.rowsReceived();
         long rowsEmitted = instance.rowsEmitted();
         long emitNanos = instance.emitNanos();
-        switch (between(0, 5)) {
+        long spilledBytes = instance.spilledBytes();
+        int spilledPartitions = instance.spilledPartitions();
+        switch (between(0, 7)) {
             case 0 -> hashNanos = randomValueOtherThan(hashNanos, ESTestCase::randomNonNegativeLong);
             case 1 -> aggregationNanos = randomValueOtherThan(aggregationNanos, ESTestCase::randomNonNegativeLong);
             case 2 -> pagesProcessed = randomValueOtherThan(pagesProcessed, ESTestCase::randomNonNegativeInt);
             case 3 -> rowsReceived = randomValueOtherThan(rowsReceived, ESTestCase::randomNonNegativeLong);
             case 4 -> rowsEmitted = randomValueOtherThan(rowsEmitted, ESTestCase::randomNonNegativeLong);
             case 5 -> emitNanos = randomValueOtherThan(emitNanos, ESTestCase::randomNonNegativeLong);
+            case 6 -> spilledBytes = randomValueOtherThan(spilledBytes, ESTestCase::randomNonNegativeLong);
+            case 7 -> spilledPartitions = randomValueOtherThan(spilledPartitions, ESTestCase::randomNonNegativeInt);
             default -> throw new UnsupportedOperationException();
         }
-        return new HashAggregationOperator.Status(hashNanos, aggregationNanos, pagesProcessed, rowsReceived, rowsEmitted, emitNanos);
+        return new HashAggregationOperator.Status(
+            hashNanos,
+            aggregationNanos,
+            pagesProcessed,
+            rowsReceived,
+            rowsEmitted,
+            emitNanos,
+            spilledBytes,
+            spilledPartitions
+        );
     }
 }
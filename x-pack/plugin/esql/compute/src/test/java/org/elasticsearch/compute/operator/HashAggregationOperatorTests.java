@@ -7,6 +7,7 @@
 
 package org.elasticsearch.compute.operator;
 
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.compute.aggregation.AggregatorMode;
 import org.elasticsearch.compute.aggregation.MaxLongAggregatorFunction;
 import org.elasticsearch.compute.aggregation.MaxLongAggregatorFunctionSupplier;
@@ -17,17 +18,28 @@ import org.elasticsearch.compute.aggregation.SumLongGroupingAggregatorFunctionTe
 import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
 import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BlockUtils;
+import org.elasticsearch.compute.data.BooleanBlock;
+import org.elasticsearch.compute.data.BytesRefBlock;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.test.CannedSourceOperator;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Tuple;
+import org.elasticsearch.tasks.TaskCancelledException;
 import org.hamcrest.Matcher;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.LongStream;
 
 import static java.util.stream.IntStream.range;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 
 public class HashAggregationOperatorTests extends ForkingOperatorTestCase {
@@ -96,4 +108,243 @@ public class HashAggregationOperatorTests extends ForkingOperatorTestCase {
             max.assertSimpleGroup(input, maxs, i, group);
         }
     }
+
+    public void testSpill() {
+        DriverContext driverContext = driverContext();
+        int groupCount = between(100, 1000);
+        int size = between(groupCount, 10_000);
+        long[] expectedSums = new long[groupCount];
+        for (long l = 0; l < size; l++) {
+            expectedSums[(int) (l % groupCount)] += l;
+        }
+        List<Page> input = CannedSourceOperator.collectPages(
+            new TupleBlockSourceOperator(
+                driverContext.blockFactory(),
+                LongStream.range(0, size).mapToObj(l -> Tuple.tuple(l % groupCount, l))
+            )
+        );
+        // spill the groups after every page
+        Operator operator = new HashAggregationOperator.HashAggregationOperatorFactory(
+            List.of(new BlockHash.GroupSpec(0, ElementType.LONG)),
+            AggregatorMode.SINGLE,
+            List.of(new SumLongAggregatorFunctionSupplier().groupingAggregatorFactory(AggregatorMode.SINGLE, List.of(1))),
+            randomPageSize(),
+            null,
+            Double.MIN_VALUE
+        ).get(driverContext);
+        List<Page> results = drive(operator, input.iterator(), driverContext);
+
+        HashAggregationOperator.Status status = (HashAggregationOperator.Status) operator.status();
+        assertThat(status.spilledPartitions(), greaterThan(0));
+        assertThat(status.spilledBytes(), greaterThan(0L));
+        assertThat(status.rowsEmitted(), equalTo((long) groupCount));
+
+        long[] sums = new long[groupCount];
+        boolean[] seen = new boolean[groupCount];
+        for (Page page : results) {
+            LongBlock groups = page.getBlock(0);
+            LongBlock groupSums = page.getBlock(1);
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                int group = (int) groups.getLong(p);
+                assertFalse("group [" + group + "] emitted twice", seen[group]);
+                seen[group] = true;
+                sums[group] = groupSums.getLong(p);
+            }
+            page.releaseBlocks();
+        }
+        assertArrayEquals(expectedSums, sums);
+    }
+
+    public void testSpillInitial() {
+        assertSpilledMatchesInMemory(AggregatorMode.INITIAL, ElementType.LONG);
+    }
+
+    public void testSpillFinal() {
+        assertSpilledMatchesInMemory(AggregatorMode.FINAL, ElementType.LONG);
+    }
+
+    public void testSpillBytesRefAndNullKeys() {
+        AggregatorMode mode = randomFrom(AggregatorMode.SINGLE, AggregatorMode.INITIAL, AggregatorMode.FINAL);
+        assertSpilledMatchesInMemory(mode, ElementType.BYTES_REF);
+    }
+
+    /**
+     * Aggregates the same input with groups spilled on almost every page and with groups kept in memory and checks
+     * that both emit the same groups.
+     */
+    private void assertSpilledMatchesInMemory(AggregatorMode mode, ElementType keyType) {
+        DriverContext driverContext = driverContext();
+        List<Tuple<Long, Long>> rows = randomRows();
+        int pageSize = between(10, 100);
+
+        Operator inMemory = sumOperator(mode, keyType, 0, driverContext);
+        Map<Object, List<Object>> expected = groups(
+            drive(inMemory, pages(driverContext.blockFactory(), mode, keyType, rows, pageSize).iterator(), driverContext)
+        );
+
+        driverContext = driverContext();
+        Operator spilling = sumOperator(mode, keyType, Double.MIN_VALUE, driverContext);
+        Map<Object, List<Object>> actual = groups(
+            drive(spilling, pages(driverContext.blockFactory(), mode, keyType, rows, pageSize).iterator(), driverContext)
+        );
+        HashAggregationOperator.Status status = (HashAggregationOperator.Status) spilling.status();
+        assertThat(status.spilledPartitions(), greaterThan(0));
+        assertThat(actual, equalTo(expected));
+    }
+
+    public void testSpillOnceThresholdIsCrossed() {
+        DriverContext driverContext = driverContext();
+        List<BlockHash.GroupSpec> groups = List.of(new BlockHash.GroupSpec(0, ElementType.LONG));
+        AtomicLong usedBytes = new AtomicLong();
+        long limit = driverContext.breaker().getLimit();
+        HashAggregationOperator operator = new HashAggregationOperator(
+            List.of(new SumLongAggregatorFunctionSupplier().groupingAggregatorFactory(AggregatorMode.SINGLE, List.of(1))),
+            () -> BlockHash.build(groups, driverContext.blockFactory(), randomPageSize(), false),
+            0.5,
+            () -> BlockHash.build(groups, driverContext.blockFactory(), randomPageSize(), false),
+            randomPageSize(),
+            usedBytes::get,
+            driverContext,
+            driverContext
+        );
+        List<Tuple<Long, Long>> rows = randomRows();
+        List<Page> input = pages(driverContext.blockFactory(), AggregatorMode.SINGLE, ElementType.LONG, rows, between(10, 100));
+        int crossedAt = between(1, input.size() - 1);
+        List<Page> results = new ArrayList<>();
+        try (operator) {
+            long spilledBytes = 0;
+            for (int i = 0; i < input.size(); i++) {
+                if (i == crossedAt) {
+                    usedBytes.set(limit);
+                }
+                operator.addInput(input.get(i));
+                HashAggregationOperator.Status status = (HashAggregationOperator.Status) operator.status();
+                if (i < crossedAt) {
+                    assertThat(status.spilledBytes(), equalTo(0L));
+                } else if (i == crossedAt) {
+                    assertThat(status.spilledBytes(), greaterThan(0L));
+                    spilledBytes = status.spilledBytes();
+                } else {
+                    // the groups didn't grow since they were spilled so they are not spilled again
+                    assertThat(status.spilledBytes(), equalTo(spilledBytes));
+                }
+            }
+            operator.finish();
+            while (operator.isFinished() == false) {
+                Page page = operator.getOutput();
+                if (page != null) {
+                    results.add(page);
+                }
+            }
+        }
+
+        Map<Object, List<Object>> expected = new HashMap<>();
+        for (Tuple<Long, Long> row : rows) {
+            expected.merge(row.v1(), List.of(row.v2()), (a, b) -> List.of((Long) a.get(0) + (Long) b.get(0)));
+        }
+        assertThat(groups(results), equalTo(expected));
+    }
+
+    private static List<Tuple<Long, Long>> randomRows() {
+        int groupCount = between(10, 200);
+        int size = between(200, 2_000);
+        List<Tuple<Long, Long>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Long group = rarely() ? null : (long) between(0, groupCount - 1);
+            rows.add(Tuple.tuple(group, randomLongBetween(-1_000, 1_000)));
+        }
+        return rows;
+    }
+
+    /**
+     * Builds pages with the key in the first channel and the values in the next one, or the intermediate state of
+     * a sum of them if the mode reads partial input.
+     */
+    private static List<Page> pages(
+        BlockFactory blockFactory,
+        AggregatorMode mode,
+        ElementType keyType,
+        List<Tuple<Long, Long>> rows,
+        int pageSize
+    ) {
+        List<Page> pages = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += pageSize) {
+            List<Tuple<Long, Long>> chunk = rows.subList(start, Math.min(rows.size(), start + pageSize));
+            try (
+                Block.Builder keys = keyType.newBlockBuilder(chunk.size(), blockFactory);
+                LongBlock.Builder values = blockFactory.newLongBlockBuilder(chunk.size());
+                BooleanBlock.Builder seen = blockFactory.newBooleanBlockBuilder(chunk.size())
+            ) {
+                for (Tuple<Long, Long> row : chunk) {
+                    if (row.v1() == null) {
+                        keys.appendNull();
+                    } else if (keyType == ElementType.BYTES_REF) {
+                        ((BytesRefBlock.Builder) keys).appendBytesRef(new BytesRef("group-" + row.v1()));
+                    } else {
+                        ((LongBlock.Builder) keys).appendLong(row.v1());
+                    }
+                    values.appendLong(row.v2());
+                    seen.appendBoolean(true);
+                }
+                pages.add(
+                    mode.isInputPartial()
+                        ? new Page(keys.build(), values.build(), seen.build())
+                        : new Page(keys.build(), values.build())
+                );
+            }
+        }
+        return pages;
+    }
+
+    public void testSpillingOperatorKeepsDriverContext() {
+        DriverContext driverContext = driverContext();
+        try (Operator operator = sumOperator(AggregatorMode.SINGLE, ElementType.LONG, 0.5, driverContext)) {
+            assertSame(driverContext, ((HashAggregationOperator) operator).driverContext);
+        }
+        // the tracked view of the context delegates everything but the big arrays to the context itself
+        OperatorMemoryTracker memory = OperatorMemoryTracker.track(driverContext);
+        DriverContext tracked = memory.driverContext();
+        assertThat(tracked.warningsMode(), equalTo(driverContext.warningsMode()));
+        driverContext.initializeEarlyTerminationChecker(() -> { throw new TaskCancelledException("cancelled"); });
+        expectThrows(TaskCancelledException.class, tracked::checkForEarlyTermination);
+        Releasable releasable = () -> {};
+        assertTrue(tracked.addReleasable(releasable));
+        assertTrue(driverContext.removeReleasable(releasable));
+        try (var array = tracked.bigArrays().newLongArray(100)) {
+            assertThat(memory.usedBytes(), greaterThan(0L));
+        }
+        assertThat(memory.usedBytes(), equalTo(0L));
+    }
+
+    private static Operator sumOperator(AggregatorMode mode, ElementType keyType, double spillThreshold, DriverContext driverContext) {
+        List<Integer> channels = mode.isInputPartial() ? List.of(1, 2) : List.of(1);
+        return new HashAggregationOperator.HashAggregationOperatorFactory(
+            List.of(new BlockHash.GroupSpec(0, keyType)),
+            mode,
+            List.of(new SumLongAggregatorFunctionSupplier().groupingAggregatorFactory(mode, channels)),
+            randomPageSize(),
+            null,
+            spillThreshold
+        ).get(driverContext);
+    }
+
+    /**
+     * The values of every group emitted by an aggregation by its key. Releases the pages.
+     */
+    private static Map<Object, List<Object>> groups(List<Page> results) {
+        Map<Object, List<Object>> groups = new HashMap<>();
+        for (Page page : results) {
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                List<Object> values = new ArrayList<>();
+                for (int b = 1; b < page.getBlockCount(); b++) {
+                    values.add(BlockUtils.toJavaObject(page.getBlock(b), p));
+                }
+                Object key = BlockUtils.toJavaObject(page.getBlock(0), p);
+                assertFalse("group [" + key + "] emitted twice", groups.containsKey(key));
+                groups.put(key, values);
+            }
+            page.releaseBlocks();
+        }
+        return groups;
+    }
 }
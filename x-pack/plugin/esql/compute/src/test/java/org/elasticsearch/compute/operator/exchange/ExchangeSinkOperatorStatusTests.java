@@ -9,10 +9,12 @@ package org.elasticsearch.compute.operator.exchange;
 
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.Tuple;
 import org.elasticsearch.test.AbstractWireSerializingTestCase;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
 
@@ -40,18 +42,36 @@ public class ExchangeSinkOperatorStatusTests extends AbstractWireSerializingTest
 
     @Override
     public ExchangeSinkOperator.Status createTestInstance() {
-        return new ExchangeSinkOperator.Status(randomNonNegativeInt(), randomNonNegativeLong());
+        return new ExchangeSinkOperator.Status(randomNonNegativeInt(), randomNonNegativeLong(), randomEncodedBytes());
+    }
+
+    public void testToXContentWithEncodedBytes() {
+        ExchangeSinkOperator.Status status = new ExchangeSinkOperator.Status(10, 111, Map.of("packed", 2048L));
+        assertThat(Strings.toString(status, true, true), equalTo("""
+            {
+              "pages_received" : 10,
+              "rows_received" : 111,
+              "encoded_bytes" : {
+                "packed" : 2048
+              }
+            }"""));
+    }
+
+    private static Map<String, Long> randomEncodedBytes() {
+        return randomMap(0, 3, () -> Tuple.tuple(randomFrom("packed", "runs", "dictionary"), randomNonNegativeLong()));
     }
 
     @Override
     protected ExchangeSinkOperator.Status mutateInstance(ExchangeSinkOperator.Status instance) throws IOException {
         int pagesReceived = instance.pagesReceived();
         long rowsReceived = instance.rowsReceived();
-        switch (between(0, 1)) {
+        Map<String, Long> encodedBytes = instance.encodedBytes();
+        switch (between(0, 2)) {
             case 0 -> pagesReceived = randomValueOtherThan(pagesReceived, ESTestCase::randomNonNegativeInt);
             case 1 -> rowsReceived = randomValueOtherThan(rowsReceived, ESTestCase::randomNonNegativeLong);
+            case 2 -> encodedBytes = randomValueOtherThan(encodedBytes, ExchangeSinkOperatorStatusTests::randomEncodedBytes);
             default -> throw new UnsupportedOperationException();
         }
-        return new ExchangeSinkOperator.Status(pagesReceived, rowsReceived);
+        return new ExchangeSinkOperator.Status(pagesReceived, rowsReceived, encodedBytes);
     }
 }
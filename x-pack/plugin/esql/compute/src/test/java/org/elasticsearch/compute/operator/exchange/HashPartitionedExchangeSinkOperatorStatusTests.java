@@ -0,0 +1,76 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.exchange;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.test.AbstractWireSerializingTestCase;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class HashPartitionedExchangeSinkOperatorStatusTests extends AbstractWireSerializingTestCase<
+    HashPartitionedExchangeSinkOperator.Status> {
+    public void testToXContent() {
+        assertThat(Strings.toString(simple(), true, true), equalTo(simpleToJson()));
+    }
+
+    public static HashPartitionedExchangeSinkOperator.Status simple() {
+        return new HashPartitionedExchangeSinkOperator.Status(10, 111, new long[] { 50, 61 });
+    }
+
+    public static String simpleToJson() {
+        return """
+            {
+              "pages_received" : 10,
+              "rows_received" : 111,
+              "rows_per_partition" : [
+                50,
+                61
+              ]
+            }""";
+    }
+
+    @Override
+    protected Writeable.Reader<HashPartitionedExchangeSinkOperator.Status> instanceReader() {
+        return HashPartitionedExchangeSinkOperator.Status::new;
+    }
+
+    @Override
+    public HashPartitionedExchangeSinkOperator.Status createTestInstance() {
+        return new HashPartitionedExchangeSinkOperator.Status(randomNonNegativeInt(), randomNonNegativeLong(), randomRowsPerPartition());
+    }
+
+    private static long[] randomRowsPerPartition() {
+        long[] rows = new long[between(1, 10)];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = randomNonNegativeLong();
+        }
+        return rows;
+    }
+
+    @Override
+    protected HashPartitionedExchangeSinkOperator.Status mutateInstance(HashPartitionedExchangeSinkOperator.Status instance)
+        throws IOException {
+        int pagesReceived = instance.pagesReceived();
+        long rowsReceived = instance.rowsReceived();
+        long[] rowsPerPartition = instance.rowsPerPartition();
+        switch (between(0, 2)) {
+            case 0 -> pagesReceived = randomValueOtherThan(pagesReceived, ESTestCase::randomNonNegativeInt);
+            case 1 -> rowsReceived = randomValueOtherThan(rowsReceived, ESTestCase::randomNonNegativeLong);
+            case 2 -> rowsPerPartition = randomValueOtherThan(
+                rowsPerPartition,
+                HashPartitionedExchangeSinkOperatorStatusTests::randomRowsPerPartition
+            );
+            default -> throw new UnsupportedOperationException();
+        }
+        return new HashPartitionedExchangeSinkOperator.Status(pagesReceived, rowsReceived, rowsPerPartition);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.exchange;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.compute.test.ComputeTestCase;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class HashPartitionedExchangeSinkOperatorTests extends ComputeTestCase {
+
+    public void testRowsWithTheSameKeysGoToTheSamePartition() {
+        BlockFactory factory = blockFactory();
+        int partitionCount = between(1, 8);
+        List<TestSink> sinks = IntStream.range(0, partitionCount).mapToObj(i -> new TestSink()).toList();
+        int rows = 0;
+        try (HashPartitionedExchangeSinkOperator op = new HashPartitionedExchangeSinkOperator(List.copyOf(sinks), new int[] { 0, 1 })) {
+            int pageCount = between(1, 20);
+            for (int i = 0; i < pageCount; i++) {
+                Page page = randomPage(factory, between(1, 500));
+                rows += page.getPositionCount();
+                assertTrue(op.needsInput());
+                op.addInput(page);
+            }
+            op.finish();
+            assertTrue(op.isFinished());
+
+            HashPartitionedExchangeSinkOperator.Status status = op.status();
+            assertThat(status.pagesReceived(), equalTo(pageCount));
+            assertThat(status.rowsReceived(), equalTo((long) rows));
+            for (int p = 0; p < partitionCount; p++) {
+                assertThat(status.rowsPerPartition()[p], equalTo(sinks.get(p).rows()));
+            }
+        }
+
+        Map<String, Integer> partitionOfKey = new HashMap<>();
+        long received = 0;
+        for (int p = 0; p < partitionCount; p++) {
+            for (Page page : sinks.get(p).pages) {
+                try {
+                    LongBlock longs = page.getBlock(0);
+                    BytesRefBlock bytes = page.getBlock(1);
+                    for (int i = 0; i < page.getPositionCount(); i++) {
+                        String key = longs.getLong(i) + ":" + bytes.getBytesRef(i, new BytesRef()).utf8ToString();
+                        Integer previous = partitionOfKey.put(key, p);
+                        if (previous != null) {
+                            assertThat("partition of [" + key + "]", previous, equalTo(p));
+                        }
+                    }
+                    received += page.getPositionCount();
+                } finally {
+                    page.releaseBlocks();
+                }
+            }
+        }
+        assertThat(received, equalTo((long) rows));
+    }
+
+    public void testPartitionOnlyDependsOnValues() {
+        BlockFactory factory = blockFactory();
+        int partitionCount = between(2, 16);
+        long value = randomLong();
+        int positions = between(1, 100);
+        LongBlock.Builder builder = factory.newLongBlockBuilder(positions);
+        for (int i = 0; i < positions; i++) {
+            builder.appendLong(value);
+        }
+        Page array = new Page(builder.build());
+        Page constant = new Page(factory.newConstantLongBlockWith(value, positions));
+        try {
+            int[][] fromArray = HashPartitionedExchangeSinkOperator.partitionPositions(array, new int[] { 0 }, partitionCount);
+            int[][] fromConstant = HashPartitionedExchangeSinkOperator.partitionPositions(constant, new int[] { 0 }, partitionCount);
+            assertThat(fromArray, equalTo(fromConstant));
+        } finally {
+            Releasables.closeExpectNoException(array::releaseBlocks, constant::releaseBlocks, builder);
+        }
+    }
+
+    public void testMultivaluedKeyHashDoesNotDependOnOrder() {
+        BlockFactory factory = blockFactory();
+        List<Long> values = randomList(2, 10, ESTestCase::randomLong);
+        List<Long> shuffled = new ArrayList<>(values);
+        Collections.shuffle(shuffled, random());
+        try (LongBlock.Builder builder = factory.newLongBlockBuilder(2)) {
+            for (List<Long> position : List.of(values, shuffled)) {
+                builder.beginPositionEntry();
+                for (long v : position) {
+                    builder.appendLong(v);
+                }
+                builder.endPositionEntry();
+            }
+            try (LongBlock block = builder.build()) {
+                BytesRef scratch = new BytesRef();
+                assertThat(
+                    HashPartitionedExchangeSinkOperator.keyHash(block, 1, scratch),
+                    equalTo(HashPartitionedExchangeSinkOperator.keyHash(block, 0, scratch))
+                );
+            }
+        }
+    }
+
+    public void testBlockedWhileAnyPartitionIsFull() {
+        TestSink free = new TestSink();
+        TestSink full = new TestSink();
+        full.full = new SubscribableListener<>();
+        try (HashPartitionedExchangeSinkOperator op = new HashPartitionedExchangeSinkOperator(List.of(free, full), new int[] { 0 })) {
+            assertFalse(op.isBlocked().listener().isDone());
+            assertFalse(op.needsInput());
+            full.full.onResponse(null);
+            full.full = null;
+            assertTrue(op.isBlocked().listener().isDone());
+            assertTrue(op.needsInput());
+        }
+    }
+
+    private static Page randomPage(BlockFactory factory, int positions) {
+        LongBlock.Builder longs = factory.newLongBlockBuilder(positions);
+        BytesRefBlock.Builder bytes = factory.newBytesRefBlockBuilder(positions);
+        try {
+            for (int i = 0; i < positions; i++) {
+                longs.appendLong(randomLongBetween(0, 20));
+                bytes.appendBytesRef(new BytesRef(randomAlphaOfLength(1)));
+            }
+            return new Page(longs.build(), bytes.build());
+        } finally {
+            Releasables.closeExpectNoException(longs, bytes);
+        }
+    }
+
+    private static class TestSink implements ExchangeSink {
+        private final List<Page> pages = new ArrayList<>();
+        private final SubscribableListener<Void> finished = new SubscribableListener<>();
+        private SubscribableListener<Void> full;
+
+        long rows() {
+            return pages.stream().mapToLong(Page::getPositionCount).sum();
+        }
+
+        @Override
+        public void addPage(Page page) {
+            pages.add(page);
+        }
+
+        @Override
+        public void finish() {
+            finished.onResponse(null);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished.isDone();
+        }
+
+        @Override
+        public void addCompletionListener(ActionListener<Void> listener) {
+            finished.addListener(listener);
+        }
+
+        @Override
+        public IsBlockedResult waitForWriting() {
+            return full == null ? Operator.NOT_BLOCKED : new IsBlockedResult(full, "full");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.lookup;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.test.AbstractWireSerializingTestCase;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class HashJoinProbeOperatorStatusTests extends AbstractWireSerializingTestCase<HashJoinProbeOperator.Status> {
+    public static HashJoinProbeOperator.Status simple() {
+        return new HashJoinProbeOperator.Status(200012, 123, 204, 111, 222, 1000, 4096);
+    }
+
+    public static String simpleToJson() {
+        return """
+            {
+              "process_nanos" : 200012,
+              "process_time" : "200micros",
+              "pages_received" : 123,
+              "pages_emitted" : 204,
+              "rows_received" : 111,
+              "rows_emitted" : 222,
+              "build_rows" : 1000,
+              "build_bytes" : 4096,
+              "build_size" : "4kb"
+            }""";
+    }
+
+    public void testToXContent() {
+        assertThat(Strings.toString(simple(), true, true), equalTo(simpleToJson()));
+    }
+
+    @Override
+    protected Writeable.Reader<HashJoinProbeOperator.Status> instanceReader() {
+        return HashJoinProbeOperator.Status::new;
+    }
+
+    @Override
+    public HashJoinProbeOperator.Status createTestInstance() {
+        return new HashJoinProbeOperator.Status(
+            randomNonNegativeLong(),
+            randomNonNegativeInt(),
+            randomNonNegativeInt(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeInt(),
+            randomNonNegativeLong()
+        );
+    }
+
+    @Override
+    protected HashJoinProbeOperator.Status mutateInstance(HashJoinProbeOperator.Status instance) {
+        long processNanos = instance.processNanos();
+        int pagesReceived = instance.pagesReceived();
+        int pagesEmitted = instance.pagesEmitted();
+        long rowsReceived = instance.rowsReceived();
+        long rowsEmitted = instance.rowsEmitted();
+        int buildRows = instance.buildRows();
+        long buildBytes = instance.buildBytes();
+        switch (between(0, 6)) {
+            case 0 -> processNanos = randomValueOtherThan(processNanos, ESTestCase::randomNonNegativeLong);
+            case 1 -> pagesReceived = randomValueOtherThan(pagesReceived, ESTestCase::randomNonNegativeInt);
+            case 2 -> pagesEmitted = randomValueOtherThan(pagesEmitted, ESTestCase::randomNonNegativeInt);
+            case 3 -> rowsReceived = randomValueOtherThan(rowsReceived, ESTestCase::randomNonNegativeLong);
+            case 4 -> rowsEmitted = randomValueOtherThan(rowsEmitted, ESTestCase::randomNonNegativeLong);
+            case 5 -> buildRows = randomValueOtherThan(buildRows, ESTestCase::randomNonNegativeInt);
+            case 6 -> buildBytes = randomValueOtherThan(buildBytes, ESTestCase::randomNonNegativeLong);
+            default -> throw new UnsupportedOperationException();
+        }
+        return new HashJoinProbeOperator.Status(
+            processNanos,
+            pagesReceived,
+            pagesEmitted,
+            rowsReceived,
+            rowsEmitted,
+            buildRows,
+            buildBytes
+        );
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.lookup;
+
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.IntBlock;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.Driver;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.PageConsumerOperator;
+import org.elasticsearch.compute.test.CannedSourceOperator;
+import org.elasticsearch.compute.test.ComputeTestCase;
+import org.elasticsearch.compute.test.OperatorTestCase;
+import org.elasticsearch.compute.test.TestDriverFactory;
+import org.elasticsearch.core.Releasables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.elasticsearch.compute.data.BlockUtils.toJavaObject;
+import static org.elasticsearch.compute.data.ElementType.INT;
+import static org.elasticsearch.compute.data.ElementType.LONG;
+import static org.hamcrest.Matchers.equalTo;
+
+public class HashJoinProbeOperatorTests extends ComputeTestCase {
+    public void testInnerJoin() {
+        assertJoin(false);
+    }
+
+    public void testLeftJoin() {
+        assertJoin(true);
+    }
+
+    /**
+     * {@code null} keys match each other, like in {@link org.elasticsearch.compute.operator.RowInTableLookupOperator}.
+     */
+    public void testNullKeysMatch() {
+        BlockFactory factory = blockFactory();
+        List<List<Object>> actual = new ArrayList<>();
+        HashJoinTable table = new HashJoinTable(factory, new int[] { 0 }, List.of(LONG, INT));
+        try (
+            HashJoinBuildOperator build = new HashJoinBuildOperator(table);
+            HashJoinProbeOperator probe = new HashJoinProbeOperator(factory, table, new int[] { 0 }, true, 10)
+        ) {
+            for (Page page : pages(factory, new Long[] { 1L, null })) {
+                build.addInput(page);
+            }
+            build.finish();
+            for (Page page : pages(factory, new Long[] { null, 1L, 2L })) {
+                probe.addInput(page);
+                drain(probe, 10, actual);
+            }
+            probe.finish();
+            drain(probe, 10, actual);
+        } finally {
+            table.decRef();
+        }
+        actual.sort(Comparator.comparing(row -> (Integer) row.get(1)));
+        assertThat(
+            actual,
+            equalTo(List.of(Arrays.asList(null, 0, null, 1), Arrays.asList(1L, 1, 1L, 0), Arrays.asList(2L, 2, null, null)))
+        );
+    }
+
+    public void testBlockedUntilBuilt() {
+        BlockFactory factory = blockFactory();
+        HashJoinTable table = new HashJoinTable(factory, new int[] { 0 }, List.of(LONG, INT));
+        try (
+            HashJoinBuildOperator build = new HashJoinBuildOperator(table);
+            HashJoinProbeOperator probe = new HashJoinProbeOperator(factory, table, new int[] { 0 }, true, 10)
+        ) {
+            assertFalse(probe.isBlocked().listener().isDone());
+            assertFalse(probe.needsInput());
+            build.finish();
+            assertTrue(probe.isBlocked().listener().isDone());
+            assertTrue(probe.needsInput());
+        } finally {
+            table.decRef();
+        }
+    }
+
+    public void testBuildFailure() {
+        BlockFactory factory = blockFactory();
+        HashJoinTable table = new HashJoinTable(factory, new int[] { 0 }, List.of(LONG, INT));
+        try (HashJoinProbeOperator probe = new HashJoinProbeOperator(factory, table, new int[] { 0 }, true, 10)) {
+            new HashJoinBuildOperator(table).close();
+            Exception e = expectThrows(IllegalStateException.class, probe::isBlocked);
+            assertThat(e.getMessage(), equalTo("the build side of the hash join was closed before it finished"));
+        } finally {
+            table.decRef();
+        }
+    }
+
+    /**
+     * Builds the table in one driver while others probe it, like the planner does.
+     */
+    public void testJoinAcrossDrivers() {
+        BlockFactory factory = blockFactory();
+        Long[] buildKeys = randomKeys(between(0, 1000));
+        Long[] probeKeys = randomKeys(between(1, 1000));
+        List<List<Object>> expected = new ArrayList<>();
+        for (int p = 0; p < probeKeys.length; p++) {
+            boolean matched = false;
+            for (int b = 0; b < buildKeys.length; b++) {
+                if (Objects.equals(probeKeys[p], buildKeys[b])) {
+                    expected.add(Arrays.asList(probeKeys[p], p, buildKeys[b], b));
+                    matched = true;
+                }
+            }
+            if (matched == false) {
+                expected.add(Arrays.asList(probeKeys[p], p, null, null));
+            }
+        }
+
+        List<List<Object>> actual = Collections.synchronizedList(new ArrayList<>());
+        int maxPageSize = between(1, 100);
+        // the factory hands the reference to the table over to the build operator
+        HashJoinTable table = new HashJoinTable(factory, new int[] { 0 }, List.of(LONG, INT));
+        List<Driver> drivers = new ArrayList<>();
+        drivers.add(
+            TestDriverFactory.create(
+                driverContext(factory),
+                new CannedSourceOperator(pages(factory, buildKeys).iterator()),
+                List.of(),
+                new HashJoinBuildOperator.Factory(table).get(driverContext(factory))
+            )
+        );
+        var probe = new HashJoinProbeOperator.Factory(table, new int[] { 0 }, true, maxPageSize);
+        List<Page> probePages = pages(factory, probeKeys);
+        int probeDrivers = between(1, 4);
+        for (int d = 0; d < probeDrivers; d++) {
+            List<Page> driverPages = new ArrayList<>();
+            for (int p = d; p < probePages.size(); p += probeDrivers) {
+                driverPages.add(probePages.get(p));
+            }
+            DriverContext driverContext = driverContext(factory);
+            drivers.add(
+                TestDriverFactory.create(
+                    driverContext,
+                    new CannedSourceOperator(driverPages.iterator()),
+                    List.of(probe.get(driverContext)),
+                    new PageConsumerOperator(page -> collect(page, maxPageSize, actual))
+                )
+            );
+        }
+        OperatorTestCase.runDriver(drivers);
+
+        Comparator<List<Object>> order = Comparator.comparing(Object::toString);
+        expected.sort(order);
+        List<List<Object>> sorted = new ArrayList<>(actual);
+        sorted.sort(order);
+        assertThat(sorted, equalTo(expected));
+    }
+
+    /**
+     * A build side that doesn't fit in the circuit breaker fails the build driver and all probe drivers.
+     */
+    public void testBuildCircuitBreaks() {
+        BlockFactory factory = blockFactory();
+        BlockFactory tableFactory = blockFactory(ByteSizeValue.ofKb(between(1, 8)));
+        Long[] buildKeys = new Long[between(5_000, 10_000)];
+        for (int i = 0; i < buildKeys.length; i++) {
+            buildKeys[i] = (long) i;
+        }
+        HashJoinTable table = new HashJoinTable(tableFactory, new int[] { 0 }, List.of(LONG, INT));
+        List<Driver> drivers = new ArrayList<>();
+        drivers.add(
+            TestDriverFactory.create(
+                driverContext(factory),
+                new CannedSourceOperator(pages(factory, buildKeys).iterator()),
+                List.of(),
+                new HashJoinBuildOperator.Factory(table).get(driverContext(factory))
+            )
+        );
+        DriverContext driverContext = driverContext(factory);
+        drivers.add(
+            TestDriverFactory.create(
+                driverContext,
+                new CannedSourceOperator(pages(factory, randomKeys(between(1, 1000))).iterator()),
+                List.of(new HashJoinProbeOperator.Factory(table, new int[] { 0 }, true, 100).get(driverContext)),
+                new PageConsumerOperator(Page::releaseBlocks)
+            )
+        );
+        expectThrows(CircuitBreakingException.class, () -> OperatorTestCase.runDriver(drivers));
+    }
+
+    private static DriverContext driverContext(BlockFactory factory) {
+        return new DriverContext(factory.bigArrays(), factory);
+    }
+
+    private static void collect(Page page, int maxPageSize, List<List<Object>> actual) {
+        try {
+            assertThat(page.getBlockCount(), equalTo(4));
+            assertTrue(page.getPositionCount() <= maxPageSize);
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                List<Object> row = new ArrayList<>(4);
+                for (int b = 0; b < page.getBlockCount(); b++) {
+                    row.add(toJavaObject(page.getBlock(b), p));
+                }
+                actual.add(row);
+            }
+        } finally {
+            page.releaseBlocks();
+        }
+    }
+
+    private void assertJoin(boolean leftJoin) {
+        BlockFactory factory = blockFactory();
+        Long[] buildKeys = randomKeys(between(0, 1000));
+        Long[] probeKeys = randomKeys(between(1, 1000));
+
+        List<List<Object>> expected = new ArrayList<>();
+        for (int p = 0; p < probeKeys.length; p++) {
+            boolean matched = false;
+            for (int b = 0; b < buildKeys.length; b++) {
+                if (Objects.equals(probeKeys[p], buildKeys[b])) {
+                    expected.add(Arrays.asList(probeKeys[p], p, buildKeys[b], b));
+                    matched = true;
+                }
+            }
+            if (leftJoin && matched == false) {
+                expected.add(Arrays.asList(probeKeys[p], p, null, null));
+            }
+        }
+
+        List<List<Object>> actual = new ArrayList<>();
+        int maxPageSize = between(1, 100);
+        HashJoinTable table = new HashJoinTable(factory, new int[] { 0 }, List.of(LONG, INT));
+        try (
+            HashJoinBuildOperator build = new HashJoinBuildOperator(table);
+            HashJoinProbeOperator probe = new HashJoinProbeOperator(factory, table, new int[] { 0 }, leftJoin, maxPageSize)
+        ) {
+            for (Page page : pages(factory, buildKeys)) {
+                build.addInput(page);
+            }
+            build.finish();
+            assertTrue(probe.isBlocked().listener().isDone());
+            for (Page page : pages(factory, probeKeys)) {
+                assertTrue(probe.needsInput());
+                probe.addInput(page);
+                drain(probe, maxPageSize, actual);
+            }
+            probe.finish();
+            drain(probe, maxPageSize, actual);
+            assertTrue(probe.isFinished());
+
+            HashJoinProbeOperator.Status status = probe.status();
+            assertThat(status.rowsReceived(), equalTo((long) probeKeys.length));
+            assertThat(status.rowsEmitted(), equalTo((long) expected.size()));
+            assertThat(status.buildRows(), equalTo(buildKeys.length));
+        } finally {
+            table.decRef();
+        }
+
+        Comparator<List<Object>> order = Comparator.comparing(Object::toString);
+        expected.sort(order);
+        actual.sort(order);
+        assertThat(actual, equalTo(expected));
+    }
+
+    private static void drain(HashJoinProbeOperator probe, int maxPageSize, List<List<Object>> actual) {
+        Page out;
+        while ((out = probe.getOutput()) != null) {
+            collect(out, maxPageSize, actual);
+        }
+    }
+
+    private static Long[] randomKeys(int size) {
+        Long[] keys = new Long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = rarely() ? null : randomLongBetween(0, 50);
+        }
+        return keys;
+    }
+
+    /**
+     * Pages of the keys and of their index.
+     */
+    private static List<Page> pages(BlockFactory factory, Long[] keys) {
+        List<Page> pages = new ArrayList<>();
+        int offset = 0;
+        while (offset < keys.length) {
+            int size = Math.min(between(1, 200), keys.length - offset);
+            LongBlock.Builder keyBuilder = factory.newLongBlockBuilder(size);
+            IntBlock.Builder indexBuilder = factory.newIntBlockBuilder(size);
+            try {
+                for (int i = offset; i < offset + size; i++) {
+                    if (keys[i] == null) {
+                        keyBuilder.appendNull();
+                    } else {
+                        keyBuilder.appendLong(keys[i]);
+                    }
+                    indexBuilder.appendInt(i);
+                }
+                pages.add(new Page(keyBuilder.build(), indexBuilder.build()));
+            } finally {
+                Releasables.closeExpectNoException(keyBuilder, indexBuilder);
+            }
+            offset += size;
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator.topn;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.operator.LongBytesRefTupleBlockSourceOperator;
+import org.elasticsearch.compute.operator.SourceOperator;
+import org.elasticsearch.compute.test.CannedSourceOperator;
+import org.elasticsearch.compute.test.OperatorTestCase;
+import org.elasticsearch.compute.test.SequenceLongBlockSourceOperator;
+import org.elasticsearch.core.Tuple;
+import org.elasticsearch.test.ESTestCase;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.elasticsearch.compute.data.ElementType.BYTES_REF;
+import static org.elasticsearch.compute.data.ElementType.LONG;
+import static org.elasticsearch.compute.operator.topn.TopNEncoder.DEFAULT_SORTABLE;
+import static org.elasticsearch.compute.operator.topn.TopNEncoder.DEFAULT_UNSORTABLE;
+import static org.elasticsearch.compute.operator.topn.TopNEncoder.UTF8;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ExternalSortOperatorTests extends OperatorTestCase {
+    private static final int TOP_COUNT = 1000;
+    private static final long RUN_BYTES = 16 * 1024;
+
+    private final int pageSize = randomPageSize();
+
+    @Override
+    protected ExternalSortOperator.ExternalSortOperatorFactory simple(SimpleOptions options) {
+        return new ExternalSortOperator.ExternalSortOperatorFactory(
+            TOP_COUNT,
+            List.of(LONG),
+            List.of(DEFAULT_UNSORTABLE),
+            List.of(new TopNOperator.SortOrder(0, true, false)),
+            pageSize,
+            RUN_BYTES
+        );
+    }
+
+    @Override
+    protected Matcher<String> expectedDescriptionOfSimple() {
+        return equalTo(
+            "ExternalSortOperator[count=1000, elementTypes=[LONG], encoders=[DefaultUnsortable], "
+                + "sortOrders=[SortOrder[channel=0, asc=true, nullsFirst=false]], runBytes=16384]"
+        );
+    }
+
+    @Override
+    protected Matcher<String> expectedToStringOfSimple() {
+        return expectedDescriptionOfSimple();
+    }
+
+    @Override
+    protected SourceOperator simpleInput(BlockFactory blockFactory, int size) {
+        return new SequenceLongBlockSourceOperator(
+            blockFactory,
+            LongStream.range(0, size).map(l -> ESTestCase.randomLong()),
+            between(1, size * 2)
+        );
+    }
+
+    @Override
+    protected void assertSimpleOutput(List<Page> input, List<Page> results) {
+        for (int i = 0; i < results.size() - 1; i++) {
+            assertThat(results.get(i).getPositionCount(), equalTo(pageSize));
+        }
+        assertThat(results.get(results.size() - 1).getPositionCount(), lessThanOrEqualTo(pageSize));
+        long[] topN = input.stream()
+            .flatMapToLong(
+                page -> IntStream.range(0, page.getPositionCount())
+                    .filter(p -> false == page.getBlock(0).isNull(p))
+                    .mapToLong(p -> ((LongBlock) page.getBlock(0)).getLong(p))
+            )
+            .sorted()
+            .limit(TOP_COUNT)
+            .toArray();
+        assertThat(
+            results.stream()
+                .flatMapToLong(page -> IntStream.range(0, page.getPositionCount()).mapToLong(i -> page.<LongBlock>getBlock(0).getLong(i)))
+                .toArray(),
+            equalTo(topN)
+        );
+    }
+
+    public void testMergeSortedRuns() {
+        DriverContext driverContext = driverContext();
+        int size = between(5_000, 10_000);
+        int topCount = between(1, size * 2);
+        List<Tuple<Long, BytesRef>> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(Tuple.tuple(randomLongBetween(0, 100), new BytesRef(randomAlphaOfLengthBetween(1, 20))));
+        }
+        List<Page> input = CannedSourceOperator.collectPages(
+            new LongBytesRefTupleBlockSourceOperator(driverContext.blockFactory(), values)
+        );
+
+        List<Page> results;
+        try (
+            ExternalSortOperator op = new ExternalSortOperator.ExternalSortOperatorFactory(
+                topCount,
+                List.of(LONG, BYTES_REF),
+                List.of(DEFAULT_SORTABLE, UTF8),
+                List.of(new TopNOperator.SortOrder(0, false, false), new TopNOperator.SortOrder(1, true, false)),
+                pageSize,
+                RUN_BYTES
+            ).get(driverContext)
+        ) {
+            results = drive(op, input.iterator(), driverContext);
+            TopNOperatorStatus status = (TopNOperatorStatus) op.status();
+            assertThat(status.spilledRuns(), greaterThan(1));
+            assertThat(status.spilledBytes(), greaterThan(0L));
+            assertThat(status.rowsReceived(), equalTo((long) size));
+        }
+
+        List<Tuple<Long, BytesRef>> expected = values.stream()
+            .sorted(Comparator.<Tuple<Long, BytesRef>, Long>comparing(Tuple::v1).reversed().thenComparing(Tuple::v2))
+            .limit(topCount)
+            .toList();
+        List<Tuple<Long, BytesRef>> actual = new ArrayList<>(expected.size());
+        for (Page page : results) {
+            LongBlock longs = page.getBlock(0);
+            BytesRefBlock bytes = page.getBlock(1);
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                actual.add(Tuple.tuple(longs.getLong(p), bytes.getBytesRef(p, new BytesRef())));
+            }
+            page.releaseBlocks();
+        }
+        assertThat(actual, equalTo(expected));
+    }
+
+    public void testMergeRunsInPasses() {
+        DriverContext driverContext = driverContext();
+        int size = between(5_000, 10_000);
+        int topCount = between(1, size * 2);
+        int mergeFanIn = between(2, 4);
+        List<Long> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(randomLong());
+        }
+        List<Page> input = CannedSourceOperator.collectPages(
+            new SequenceLongBlockSourceOperator(driverContext.blockFactory(), values.stream().mapToLong(Long::longValue), between(1, 500))
+        );
+
+        List<Long> actual = new ArrayList<>();
+        try (
+            ExternalSortOperator op = new ExternalSortOperator(
+                driverContext.blockFactory(),
+                driverContext.breaker(),
+                topCount,
+                List.of(LONG),
+                List.of(DEFAULT_SORTABLE),
+                List.of(new TopNOperator.SortOrder(0, true, false)),
+                pageSize,
+                RUN_BYTES,
+                mergeFanIn
+            )
+        ) {
+            for (Page page : input) {
+                op.addInput(page);
+            }
+            assertThat(((TopNOperatorStatus) op.status()).spilledRuns(), greaterThan(mergeFanIn));
+            long spilledBeforeMerge = ((TopNOperatorStatus) op.status()).spilledBytes();
+            long usedBeforeMerge = driverContext.breaker().getUsed();
+
+            op.finish();
+            TopNOperatorStatus status = (TopNOperatorStatus) op.status();
+            assertThat(status.spilledRuns(), lessThanOrEqualTo(mergeFanIn));
+            assertThat(status.spilledBytes(), greaterThan(spilledBeforeMerge));
+            // each run being merged holds a read buffer
+            assertThat(
+                driverContext.breaker().getUsed(),
+                greaterThanOrEqualTo(usedBeforeMerge + (long) status.spilledRuns() * SortedRun.BUFFER_SIZE)
+            );
+
+            while (op.isFinished() == false) {
+                Page page = op.getOutput();
+                if (page != null) {
+                    LongBlock longs = page.getBlock(0);
+                    for (int p = 0; p < page.getPositionCount(); p++) {
+                        actual.add(longs.getLong(p));
+                    }
+                    page.releaseBlocks();
+                }
+            }
+        }
+        assertThat(driverContext.breaker().getUsed(), equalTo(0L));
+        assertThat(actual, equalTo(values.stream().sorted().limit(topCount).toList()));
+    }
+
+    public void testRunBuffersAreReleased() {
+        DriverContext driverContext = driverContext();
+        List<Page> input = CannedSourceOperator.collectPages(simpleInput(driverContext.blockFactory(), between(5_000, 10_000)));
+        try (ExternalSortOperator op = simple().get(driverContext)) {
+            for (Page page : input) {
+                op.addInput(page);
+            }
+            assertThat(((TopNOperatorStatus) op.status()).spilledRuns(), greaterThan(1));
+            op.finish();
+            assertThat(driverContext.breaker().getUsed(), greaterThanOrEqualTo(2L * SortedRun.BUFFER_SIZE));
+            // closed before emitting everything, with the runs still being read
+        }
+        assertThat(driverContext.breaker().getUsed(), equalTo(0L));
+    }
+}
@@ -16,7 +16,7 @@ import static org.hamcrest.Matchers.equalTo;
 
 public class TopNOperatorStatusTests extends AbstractWireSerializingTestCase<TopNOperatorStatus> {
     public static TopNOperatorStatus simple() {
-        return new TopNOperatorStatus(10, 2000, 123, 123, 111, 222);
+        return new TopNOperatorStatus(10, 2000, 123, 123, 111, 222, 4096, 3);
     }
 
     public static String simpleToJson() {
@@ -28,7 +28,10 @@ public class TopNOperatorStatusTests extends AbstractWireSerializingTestCase<Top
               "pages_received" : 123,
               "pages_emitted" : 123,
               "rows_received" : 111,
-              "rows_emitted" : 222
+              "rows_emitted" : 222,
+              "spilled_bytes" : 4096,
+              "spilled" : "4kb",
+              "spilled_runs" : 3
             }""";
     }
 
@@ -49,7 +52,9 @@ public class TopNOperatorStatusTests extends AbstractWireSerializingTestCase<Top
             randomNonNegativeInt(),
             randomNonNegativeInt(),
             randomNonNegativeLong(),
-            randomNonNegativeLong()
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeInt()
         );
     }
 
@@ -61,7 +66,9 @@ public class TopNOperatorStatusTests extends AbstractWireSerializingTestCase<Top
         int pagesEmitted = instance.pagesEmitted();
         long rowsReceived = instance.rowsReceived();
         long rowsEmitted = instance.rowsEmitted();
-        switch (between(0, 5)) {
+        long spilledBytes = instance.spilledBytes();
+        int spilledRuns = instance.spilledRuns();
+        switch (between(0, 7)) {
             case 0:
                 occupiedRows = randomValueOtherThan(occupiedRows, ESTestCase::randomNonNegativeInt);
                 break;
@@ -80,9 +87,24 @@ public class TopNOperatorStatusTests extends AbstractWireSerializingTestCase<Top
             case 5:
                 rowsEmitted = randomValueOtherThan(rowsEmitted, ESTestCase::randomNonNegativeLong);
                 break;
+            case 6:
+                spilledBytes = randomValueOtherThan(spilledBytes, ESTestCase::randomNonNegativeLong);
+                break;
+            case 7:
+                spilledRuns = randomValueOtherThan(spilledRuns, ESTestCase::randomNonNegativeInt);
+                break;
             default:
                 throw new IllegalArgumentException();
         }
-        return new TopNOperatorStatus(occupiedRows, ramBytesUsed, pagesReceived, pagesEmitted, rowsReceived, rowsEmitted);
+        return new TopNOperatorStatus(
+            occupiedRows,
+            ramBytesUsed,
+            pagesReceived,
+            pagesEmitted,
+            rowsReceived,
+            rowsEmitted,
+            spilledBytes,
+            spilledRuns
+        );
     }
 }
@@ -236,6 +236,12 @@ public abstract class AbstractEsqlIntegTestCase extends ESIntegTestCase {
             if (randomBoolean()) {
                 settings.put("node_level_reduction", randomBoolean());
             }
+            if (randomBoolean()) {
+                settings.put("hash_join_table", randomBoolean());
+            }
+            if (randomBoolean()) {
+                settings.put("final_aggregation_partitions", between(1, 4));
+            }
         }
         return new QueryPragmas(settings.build());
     }
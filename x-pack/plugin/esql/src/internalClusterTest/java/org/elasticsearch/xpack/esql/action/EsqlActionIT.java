@@ -574,6 +574,22 @@ public class EsqlActionIT extends AbstractEsqlIntegTestCase {
         }
     }
 
+    public void testPartitionedFinalAggregation() {
+        assumeTrue("pragmas only enabled on snapshot builds", Build.current().isSnapshot());
+        String query = "from test | stats c = count(*), s = sum(count) by color, data | sort color, data";
+        List<List<Object>> expected;
+        try (EsqlQueryResponse results = run(query, new QueryPragmas(Settings.EMPTY))) {
+            expected = getValuesList(results);
+        }
+        QueryPragmas partitioned = new QueryPragmas(
+            Settings.builder().put(QueryPragmas.FINAL_AGGREGATION_PARTITIONS.getKey(), between(2, 8)).build()
+        );
+        try (EsqlQueryResponse results = run(query, partitioned)) {
+            logger.info(results);
+            assertThat(getValuesList(results), equalTo(expected));
+        }
+    }
+
     public void testWhere() {
         try (EsqlQueryResponse results = run("from test | where count > 40")) {
             logger.info(results);
@@ -51,6 +51,12 @@ import org.elasticsearch.compute.operator.exchange.ExchangeSink;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkOperator.ExchangeSinkOperatorFactory;
 import org.elasticsearch.compute.operator.exchange.ExchangeSource;
 import org.elasticsearch.compute.operator.exchange.ExchangeSourceOperator.ExchangeSourceOperatorFactory;
+import org.elasticsearch.compute.operator.exchange.HashPartitionedExchangeSinkOperator;
+import org.elasticsearch.compute.operator.exchange.HashPartitionedExchangeSinkOperator.HashPartitionedExchangeSinkOperatorFactory;
+import org.elasticsearch.compute.operator.lookup.HashJoinBuildOperator;
+import org.elasticsearch.compute.operator.lookup.HashJoinProbeOperator;
+import org.elasticsearch.compute.operator.lookup.HashJoinTable;
+import org.elasticsearch.compute.operator.topn.ExternalSortOperator.ExternalSortOperatorFactory;
 import org.elasticsearch.compute.operator.topn.TopNEncoder;
 import org.elasticsearch.compute.operator.topn.TopNOperator;
 import org.elasticsearch.compute.operator.topn.TopNOperator.TopNOperatorFactory;
@@ -96,6 +102,7 @@ import org.elasticsearch.xpack.esql.plan.physical.DissectExec;
 import org.elasticsearch.xpack.esql.plan.physical.EnrichExec;
 import org.elasticsearch.xpack.esql.plan.physical.EsQueryExec;
 import org.elasticsearch.xpack.esql.plan.physical.EsStatsQueryExec;
+import org.elasticsearch.xpack.esql.plan.physical.EstimatesRowSize;
 import org.elasticsearch.xpack.esql.plan.physical.EvalExec;
 import org.elasticsearch.xpack.esql.plan.physical.ExchangeExec;
 import org.elasticsearch.xpack.esql.plan.physical.ExchangeSinkExec;
@@ -115,6 +122,7 @@ import org.elasticsearch.xpack.esql.plan.physical.ProjectExec;
 import org.elasticsearch.xpack.esql.plan.physical.RrfScoreEvalExec;
 import org.elasticsearch.xpack.esql.plan.physical.SampleExec;
 import org.elasticsearch.xpack.esql.plan.physical.ShowExec;
+import org.elasticsearch.xpack.esql.plan.physical.TimeSeriesAggregateExec;
 import org.elasticsearch.xpack.esql.plan.physical.TimeSeriesSourceExec;
 import org.elasticsearch.xpack.esql.plan.physical.TopNExec;
 import org.elasticsearch.xpack.esql.plan.physical.inference.CompletionExec;
@@ -348,9 +356,101 @@ public class LocalExecutionPlanner {
 
     private PhysicalOperation planAggregation(AggregateExec aggregate, LocalExecutionPlannerContext context) {
         var source = plan(aggregate.child(), context);
+        int partitions = context.queryPragmas.finalAggregationPartitions();
+        if (partitions > 1 && aggregate.getMode() == AggregatorMode.FINAL && aggregate instanceof TimeSeriesAggregateExec == false) {
+            int[] keyChannels = partitionKeyChannels(aggregate, source.layout);
+            if (keyChannels != null) {
+                return planPartitionedAggregation(aggregate, source, keyChannels, partitions, context);
+            }
+        }
         return physicalOperationProviders.groupingPhysicalOperation(aggregate, source, context);
     }
 
+    /**
+     * The channels of the groups of an aggregation in its input, or {@code null} if the input can't be partitioned by them.
+     */
+    private static int[] partitionKeyChannels(AggregateExec aggregate, Layout layout) {
+        if (aggregate.groupings().isEmpty()) {
+            return null;
+        }
+        int[] keyChannels = new int[aggregate.groupings().size()];
+        for (int g = 0; g < keyChannels.length; g++) {
+            Attribute group = Expressions.attribute(aggregate.groupings().get(g));
+            Layout.ChannelAndType input = group == null ? null : layout.get(group.id());
+            if (input == null || HashPartitionedExchangeSinkOperator.canPartitionBy(PlannerUtils.toElementType(input.type())) == false) {
+                return null;
+            }
+            keyChannels[g] = input.channel();
+        }
+        return keyChannels;
+    }
+
+    /**
+     * Reduces the intermediate results of a grouping aggregation in {@code partitions} drivers rather than in one. The
+     * drivers of the input partition its rows by the hash of their groups, so all the intermediate results of a group
+     * are reduced by the same driver, and the final results of all partitions are gathered for the rest of the plan.
+     * The partitions are local to the node running this plan, they only split the work between its drivers.
+     */
+    private PhysicalOperation planPartitionedAggregation(
+        AggregateExec aggregate,
+        PhysicalOperation source,
+        int[] keyChannels,
+        int partitions,
+        LocalExecutionPlannerContext context
+    ) {
+        final TimeValue statusInterval = configuration.pragmas().statusInterval();
+        List<DirectExchange> partitionExchanges = new ArrayList<>(partitions);
+        List<Supplier<ExchangeSink>> partitionSinks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            DirectExchange exchange = new DirectExchange(context.queryPragmas.exchangeBufferSize());
+            partitionExchanges.add(exchange);
+            partitionSinks.add(exchange::exchangeSink);
+        }
+        context.addDriverFactory(
+            new DriverFactory(
+                new DriverSupplier(
+                    context.description,
+                    ClusterName.CLUSTER_NAME_SETTING.get(settings).value(),
+                    Node.NODE_NAME_SETTING.get(settings),
+                    context.bigArrays,
+                    context.blockFactory,
+                    source.withSink(new HashPartitionedExchangeSinkOperatorFactory(partitionSinks, keyChannels), source.layout),
+                    statusInterval,
+                    settings
+                ),
+                context.driverParallelism().get()
+            )
+        );
+
+        var merge = new DirectExchange(context.queryPragmas.exchangeBufferSize());
+        Layout layout = null;
+        for (DirectExchange exchange : partitionExchanges) {
+            PhysicalOperation partition = PhysicalOperation.fromSource(
+                new ExchangeSourceOperatorFactory(exchange::exchangeSource),
+                source.layout
+            );
+            partition = physicalOperationProviders.groupingPhysicalOperation(aggregate, partition, context);
+            layout = partition.layout;
+            context.addDriverFactory(
+                new DriverFactory(
+                    new DriverSupplier(
+                        context.description,
+                        ClusterName.CLUSTER_NAME_SETTING.get(settings).value(),
+                        Node.NODE_NAME_SETTING.get(settings),
+                        context.bigArrays,
+                        context.blockFactory,
+                        partition.withSink(new ExchangeSinkOperatorFactory(merge::exchangeSink), partition.layout),
+                        statusInterval,
+                        settings
+                    ),
+                    DriverParallelism.SINGLE
+                )
+            );
+        }
+        context.driverParallelism.set(DriverParallelism.SINGLE);
+        return PhysicalOperation.fromSource(new ExchangeSourceOperatorFactory(merge::exchangeSource), layout);
+    }
+
     private PhysicalOperation planEsQueryNode(EsQueryExec esQueryExec, LocalExecutionPlannerContext context) {
         return physicalOperationProviders.sourcePhysicalOperation(esQueryExec, context);
     }
@@ -515,6 +615,21 @@ public class LocalExecutionPlanner {
         } else {
             throw new EsqlIllegalArgumentException("limit only supported with literal values");
         }
+        long memoryBudget = context.queryPragmas().sortMemoryBudget().getBytes();
+        if (memoryBudget > 0 && (long) limit * rowSize > memoryBudget) {
+            // the top rows are not expected to fit in memory so they are sorted with sorted runs on disk
+            return source.with(
+                new ExternalSortOperatorFactory(
+                    limit,
+                    asList(elementTypes),
+                    asList(encoders),
+                    orders,
+                    context.pageSize(rowSize),
+                    memoryBudget
+                ),
+                source.layout
+            );
+        }
         return source.with(
             new TopNOperatorFactory(limit, asList(elementTypes), asList(encoders), orders, context.pageSize(rowSize)),
             source.layout
@@ -646,6 +761,9 @@ public class LocalExecutionPlanner {
     }
 
     private PhysicalOperation planHashJoin(HashJoinExec join, LocalExecutionPlannerContext context) {
+        if (context.queryPragmas.hashJoinTable()) {
+            return planHashJoinTable(join, context);
+        }
         PhysicalOperation source = plan(join.left(), context);
         int positionsChannel = source.layout.numberOfChannels();
 
@@ -709,6 +827,71 @@ public class LocalExecutionPlanner {
         return source.with(new ProjectOperatorFactory(projection), layout);
     }
 
+    /**
+     * Plans a {@link HashJoinExec} as a {@link HashJoinTable} built by a driver of its own from the join data and
+     * probed by the drivers of the left side. The table is accounted in the circuit breaker of the query, so a build
+     * side that doesn't fit fails the query with the {@link org.elasticsearch.common.breaker.CircuitBreakingException}
+     * instead of running the node out of memory.
+     */
+    private PhysicalOperation planHashJoinTable(HashJoinExec join, LocalExecutionPlannerContext context) {
+        PhysicalOperation source = plan(join.left(), context);
+        int leftChannels = source.layout.numberOfChannels();
+        List<Attribute> joinDataOutput = join.joinData().output();
+
+        int[] probeKeys = new int[join.leftFields().size()];
+        int[] buildKeys = new int[join.rightFields().size()];
+        for (int k = 0; k < probeKeys.length; k++) {
+            probeKeys[k] = source.layout.get(join.leftFields().get(k).id()).channel();
+            buildKeys[k] = joinDataChannel(joinDataOutput, join.rightFields().get(k));
+        }
+        List<ElementType> elementTypes = joinDataOutput.stream().map(a -> PlannerUtils.toElementType(a.dataType())).toList();
+        HashJoinTable table = new HashJoinTable(context.blockFactory, buildKeys, elementTypes);
+
+        PhysicalOperation build = plan(join.joinData(), context);
+        context.addDriverFactory(
+            new DriverFactory(
+                new DriverSupplier(
+                    context.description,
+                    ClusterName.CLUSTER_NAME_SETTING.get(settings).value(),
+                    Node.NODE_NAME_SETTING.get(settings),
+                    context.bigArrays,
+                    context.blockFactory,
+                    build.withSink(new HashJoinBuildOperator.Factory(table), build.layout),
+                    configuration.pragmas().statusInterval(),
+                    settings
+                ),
+                DriverParallelism.SINGLE
+            )
+        );
+
+        // The probe emits the left side followed by all the join data, keep the left side and the added fields
+        Layout.Builder layoutBuilder = source.layout.builder();
+        List<Integer> projection = new ArrayList<>();
+        IntStream.range(0, leftChannels).boxed().forEach(projection::add);
+        int estimatedRowSize = 0;
+        for (Attribute f : join.output()) {
+            estimatedRowSize += EstimatesRowSize.estimateSize(f.dataType());
+            if (join.left().outputSet().contains(f)) {
+                continue;
+            }
+            layoutBuilder.append(f);
+            projection.add(leftChannels + joinDataChannel(joinDataOutput, f));
+        }
+        Layout layout = layoutBuilder.build();
+        int maxPageSize = context.pageSize(Math.max(estimatedRowSize, 1));
+        source = source.with(new HashJoinProbeOperator.Factory(table, probeKeys, true, maxPageSize), layout);
+        return source.with(new ProjectOperatorFactory(projection), layout);
+    }
+
+    private static int joinDataChannel(List<Attribute> joinDataOutput, Attribute attribute) {
+        for (int l = 0; l < joinDataOutput.size(); l++) {
+            if (joinDataOutput.get(l).name().equals(attribute.name())) {
+                return l;
+            }
+        }
+        throw new IllegalArgumentException("can't find local data for [" + attribute + "]");
+    }
+
     private PhysicalOperation planLookupJoin(LookupJoinExec join, LocalExecutionPlannerContext context) {
         PhysicalOperation source = plan(join.left(), context);
         Layout.Builder layoutBuilder = source.layout.builder();
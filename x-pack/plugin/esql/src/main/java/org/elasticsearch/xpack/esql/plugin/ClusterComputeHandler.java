@@ -244,6 +244,9 @@ final class ClusterComputeHandler implements TransportRequestHandler<ClusterComp
         ActionListener<ComputeResponse> listener
     ) {
         final var exchangeSink = exchangeService.getSinkHandler(globalSessionId);
+        if (configuration.pragmas().vectorEncodings()) {
+            exchangeSink.encodeVectors(configuration.profile());
+        }
         parentTask.addListener(
             () -> exchangeService.finishSinkHandler(globalSessionId, new TaskCancelledException(parentTask.getReasonCancelled()))
         );
@@ -417,6 +417,9 @@ final class DataNodeComputeHandler implements TransportRequestHandler<DataNodeRe
             try {
                 // run compute with target shards
                 var externalSink = exchangeService.getSinkHandler(externalId);
+                if (request.configuration().pragmas().vectorEncodings()) {
+                    externalSink.encodeVectors(request.configuration().profile());
+                }
                 var internalSink = exchangeService.createSinkHandler(request.sessionId(), request.pragmas().exchangeBufferSize());
                 task.addListener(() -> {
                     exchangeService.finishSinkHandler(externalId, new TaskCancelledException(task.getReasonCancelled()));
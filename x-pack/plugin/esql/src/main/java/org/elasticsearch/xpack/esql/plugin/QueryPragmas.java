@@ -79,6 +79,21 @@ public final class QueryPragmas implements Writeable {
         MappedFieldType.FieldExtractPreference.NONE
     );
 
+    public static final Setting<Double> HASH_AGGREGATION_SPILL_THRESHOLD = Setting.doubleSetting(
+        "hash_aggregation_spill_threshold",
+        0.0,
+        0.0,
+        1.0
+    );
+
+    public static final Setting<ByteSizeValue> SORT_MEMORY_BUDGET = Setting.byteSizeSetting("sort_memory_budget", ByteSizeValue.ZERO);
+
+    public static final Setting<Boolean> HASH_JOIN_TABLE = Setting.boolSetting("hash_join_table", false);
+
+    public static final Setting<Integer> FINAL_AGGREGATION_PARTITIONS = Setting.intSetting("final_aggregation_partitions", 1, 1);
+
+    public static final Setting<Boolean> VECTOR_ENCODINGS = Setting.boolSetting("vector_encodings", false);
+
     public static final QueryPragmas EMPTY = new QueryPragmas(Settings.EMPTY);
 
     private final Settings settings;
@@ -196,6 +211,54 @@ public final class QueryPragmas implements Writeable {
         return FIELD_EXTRACT_PREFERENCE.get(settings);
     }
 
+    /**
+     * The fraction of the limit of the request circuit breaker above which a grouping aggregation spills its
+     * groups to disk instead of keeping them in memory. Only the memory of the groups of the aggregation counts,
+     * not the memory of the rest of the query. Defaults to {@code 0}, which never spills.
+     */
+    public double hashAggregationSpillThreshold() {
+        return HASH_AGGREGATION_SPILL_THRESHOLD.get(settings);
+    }
+
+    /**
+     * The memory a sort may use before it writes sorted runs to disk. Sorts whose estimated size, the
+     * limit times the estimated size of a row, is above this budget use an external merge sort. Defaults
+     * to {@code 0}, which always sorts in memory.
+     */
+    public ByteSizeValue sortMemoryBudget() {
+        return SORT_MEMORY_BUDGET.get(settings);
+    }
+
+    /**
+     * Whether hash joins with data that is sent along with the query build a hash table of that data in a
+     * driver of their own and probe it from the drivers of the other side, rather than looking up the rows
+     * of the data one key at a time. The table is tracked by the request circuit breaker. Defaults to
+     * {@code false}.
+     */
+    public boolean hashJoinTable() {
+        return HASH_JOIN_TABLE.get(settings);
+    }
+
+    /**
+     * The number of drivers that reduce the intermediate results of a grouping aggregation to its final results.
+     * With more than one, the intermediate rows are partitioned by the hash of their groups so each driver
+     * reduces the groups of its own partition. Partitioning is node-local: it splits the final aggregation
+     * between the drivers of the node that runs it, typically the coordinator, and never spreads it across
+     * nodes. Defaults to {@code 1}, a single driver.
+     */
+    public int finalAggregationPartitions() {
+        return FINAL_AGGREGATION_PARTITIONS.get(settings);
+    }
+
+    /**
+     * Whether the pages sent back by data nodes and remote clusters write their long and keyword vectors with
+     * compact encodings, like bit packing, run lengths and dictionaries, when they are smaller. The bytes written
+     * with each encoding are reported in the profile of the exchange sinks. Defaults to {@code false}.
+     */
+    public boolean vectorEncodings() {
+        return VECTOR_ENCODINGS.get(settings);
+    }
+
     public boolean isEmpty() {
         return settings.isEmpty();
     }
@@ -182,7 +182,7 @@ public class CsvTests extends ESTestCase {
     private final String instructions;
 
     private final Configuration configuration = EsqlTestUtils.configuration(
-        new QueryPragmas(Settings.builder().put("page_size", randomPageSize()).build())
+        new QueryPragmas(Settings.builder().put("page_size", randomPageSize()).put("hash_join_table", randomBoolean()).build())
     );
     private final EsqlFunctionRegistry functionRegistry = new EsqlFunctionRegistry();
     private final EsqlParser parser = new EsqlParser();
@@ -20,6 +20,7 @@ import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.lucene.DataPartitioning;
 import org.elasticsearch.compute.lucene.LuceneSourceOperator;
 import org.elasticsearch.compute.lucene.LuceneTopNSourceOperator;
@@ -39,14 +40,18 @@ import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.xpack.esql.core.expression.FieldAttribute;
 import org.elasticsearch.xpack.esql.core.expression.FoldContext;
 import org.elasticsearch.xpack.esql.core.expression.Literal;
+import org.elasticsearch.xpack.esql.core.expression.ReferenceAttribute;
 import org.elasticsearch.xpack.esql.core.tree.Source;
 import org.elasticsearch.xpack.esql.core.type.DataType;
 import org.elasticsearch.xpack.esql.core.type.EsField;
 import org.elasticsearch.xpack.esql.core.util.StringUtils;
 import org.elasticsearch.xpack.esql.expression.Order;
 import org.elasticsearch.xpack.esql.index.EsIndex;
+import org.elasticsearch.xpack.esql.plan.logical.local.LocalSupplier;
 import org.elasticsearch.xpack.esql.plan.physical.EsQueryExec;
+import org.elasticsearch.xpack.esql.plan.physical.HashJoinExec;
 import org.elasticsearch.xpack.esql.plan.physical.LimitExec;
+import org.elasticsearch.xpack.esql.plan.physical.LocalSourceExec;
 import org.elasticsearch.xpack.esql.plan.physical.ParallelExec;
 import org.elasticsearch.xpack.esql.plugin.EsqlPlugin;
 import org.elasticsearch.xpack.esql.plugin.QueryPragmas;
@@ -62,6 +67,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
@@ -229,6 +235,41 @@ public class LocalExecutionPlannerTests extends MapperServiceTestCase {
         assertThat(plan.driverFactories, hasSize(2));
     }
 
+    public void testHashJoinTable() throws Exception {
+        var factory = TestBlockFactory.getNonBreakingInstance();
+        var leftKey = new ReferenceAttribute(Source.EMPTY, "key", DataType.LONG);
+        var leftValue = new ReferenceAttribute(Source.EMPTY, "a", DataType.INTEGER);
+        var rightKey = new ReferenceAttribute(Source.EMPTY, "key", DataType.LONG);
+        var rightValue = new ReferenceAttribute(Source.EMPTY, "b", DataType.INTEGER);
+        var left = new LocalSourceExec(
+            Source.EMPTY,
+            List.of(leftKey, leftValue),
+            LocalSupplier.of(new Block[] { factory.newConstantLongBlockWith(1, 1), factory.newConstantIntBlockWith(2, 1) })
+        );
+        var joinData = new LocalSourceExec(
+            Source.EMPTY,
+            List.of(rightKey, rightValue),
+            LocalSupplier.of(new Block[] { factory.newConstantLongBlockWith(1, 1), factory.newConstantIntBlockWith(3, 1) })
+        );
+        var join = new HashJoinExec(
+            Source.EMPTY,
+            left,
+            joinData,
+            List.of(leftKey),
+            List.of(leftKey),
+            List.of(rightKey),
+            List.of(rightValue)
+        );
+
+        var hashJoinPragmas = new QueryPragmas(Settings.builder().put(QueryPragmas.HASH_JOIN_TABLE.getKey(), true).build());
+        LocalExecutionPlanner.LocalExecutionPlan plan = planner(hashJoinPragmas).plan("test", FoldContext.small(), join);
+        assertThat(plan.driverFactories, hasSize(2));
+        LocalExecutionPlanner.DriverFactory build = plan.driverFactories.get(0);
+        assertThat(build.driverParallelism(), equalTo(LocalExecutionPlanner.DriverParallelism.SINGLE));
+        assertThat(build.describe(), containsString("HashJoinBuildOperator"));
+        assertThat(plan.driverFactories.get(1).describe(), containsString("HashJoinProbeOperator"));
+    }
+
     private int randomEstimatedRowSize(boolean huge) {
         int hugeBoundary = SourceOperator.MIN_TARGET_PAGE_SIZE * 10;
         return huge ? between(hugeBoundary, Integer.MAX_VALUE) : between(1, hugeBoundary);
@@ -242,6 +283,10 @@ public class LocalExecutionPlannerTests extends MapperServiceTestCase {
     }
 
     private LocalExecutionPlanner planner() throws IOException {
+        return planner(pragmas);
+    }
+
+    private LocalExecutionPlanner planner(QueryPragmas pragmas) throws IOException {
         List<EsPhysicalOperationProviders.ShardContext> shardContexts = createShardContexts();
         return new LocalExecutionPlanner(
             "test",
@@ -253,7 +298,7 @@ public class LocalExecutionPlannerTests extends MapperServiceTestCase {
                 .put(ClusterName.CLUSTER_NAME_SETTING.getKey(), "dev-cluster")
                 .put(Node.NODE_NAME_SETTING.getKey(), "node-1")
                 .build(),
-            config(),
+            config(pragmas),
             null,
             null,
             null,
@@ -264,7 +309,7 @@ public class LocalExecutionPlannerTests extends MapperServiceTestCase {
         );
     }
 
-    private Configuration config() {
+    private Configuration config(QueryPragmas pragmas) {
         return new Configuration(
             randomZone(),
             randomLocale(random()),
@@ -537,7 +537,9 @@ public class ClusterStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Cl
                     "memory_size_in_bytes": 1,
                     "evictions": 0,
                     "global_ordinals": {
-                      "build_time_in_millis": 1
+                      "build_time_in_millis": 1,
+                      "load_count": 0,
+                      "unchanged_reader_reuse_count": 0
                     }
                   },
                   "query_cache": {